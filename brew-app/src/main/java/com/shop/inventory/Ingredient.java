@@ -0,0 +1,19 @@
+package com.shop.inventory;
+
+public enum Ingredient {
+    BEANS("g"),
+    MILK("ml"),
+    CUP_SMALL("pcs"),
+    CUP_MEDIUM("pcs"),
+    CUP_LARGE("pcs");
+
+    private final String unit;
+
+    Ingredient(String unit) {
+        this.unit = unit;
+    }
+
+    public String getUnit() {
+        return unit;
+    }
+}
@@ -0,0 +1,34 @@
+package com.shop.inventory;
+
+import com.shop.model.DrinkOrder;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.kie.api.event.process.ProcessCompletedEvent;
+import org.kie.api.runtime.process.ProcessInstance;
+import org.kie.api.runtime.process.WorkflowProcessInstance;
+import org.kie.kogito.internal.process.event.DefaultKogitoProcessEventListener;
+
+/**
+ * Returns reserved ingredients when a MakeDrink instance is aborted before the drink was made.
+ */
+@ApplicationScoped
+public class InventoryReleaseListener extends DefaultKogitoProcessEventListener {
+
+    @Inject
+    InventoryService inventoryService;
+
+    @Override
+    public void afterProcessCompleted(ProcessCompletedEvent event) {
+        ProcessInstance processInstance = event.getProcessInstance();
+        if (processInstance.getState() != ProcessInstance.STATE_ABORTED
+                || !(processInstance instanceof WorkflowProcessInstance)) {
+            return;
+        }
+        WorkflowProcessInstance instance = (WorkflowProcessInstance) processInstance;
+        Object order = instance.getVariable("drinkOrder");
+        if (Boolean.TRUE.equals(instance.getVariable("reserved")) && order instanceof DrinkOrder) {
+            inventoryService.release((DrinkOrder) order);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.shop.inventory;
+
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+
+import java.util.Map;
+
+@Path("/inventory")
+@Produces(MediaType.APPLICATION_JSON)
+public class InventoryResource {
+
+    @Inject
+    InventoryService inventoryService;
+
+    @GET
+    public Map<Ingredient, Long> levels() {
+        return inventoryService.levels();
+    }
+
+    /**
+     * Add stock, e.g. {"BEANS": 5000, "CUP_LARGE": 200}. Only shop staff takes deliveries.
+     */
+    @POST
+    @RolesAllowed({"barista", "manager", "admin"})
+    @Path("/restock")
+    @Consumes(MediaType.APPLICATION_JSON)
+    public Map<Ingredient, Long> restock(Map<Ingredient, Long> quantities) {
+        if (quantities == null || quantities.isEmpty()) {
+            throw new BadRequestException("At least one ingredient is required");
+        }
+        try {
+            inventoryService.restock(quantities);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+        return inventoryService.levels();
+    }
+}
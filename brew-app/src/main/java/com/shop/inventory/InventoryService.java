@@ -0,0 +1,159 @@
+package com.shop.inventory;
+
+import com.shop.model.DrinkOrder;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reserves the ingredients of a drink before MakeDrink creates a brew task. The stock lives in
+ * Postgres and a reservation takes it in the transaction of the process instance, so replicas
+ * cannot oversell and a rolled back or redelivered start neither leaks nor takes twice. The
+ * in-memory {@link StockCounters} mirror the stored levels, refreshed on an interval, and turn
+ * away drinks that are out of stock without a round trip; a restock on another replica reaches
+ * them with the next refresh. Orders that cannot be made are answered right away with a
+ * CANCELLED drink-ready event instead of waiting in the barista queue.
+ */
+@ApplicationScoped
+public class InventoryService {
+
+    private static final Logger LOG = Logger.getLogger(InventoryService.class);
+
+    @ConfigProperty(name = "shop.inventory.refresh-interval", defaultValue = "2s")
+    Duration refreshInterval;
+
+    @Inject
+    InventoryStore store;
+
+    @Inject
+    MeterRegistry registry;
+
+    private final Recipes recipes = Recipes.defaults();
+    private final StockCounters counters = new StockCounters(new long[Ingredient.values().length]);
+    private ScheduledExecutorService refresher;
+
+    void onStart(@Observes StartupEvent event) {
+        refresh();
+        for (Ingredient ingredient : Ingredient.values()) {
+            registry.gauge("shop.inventory.stock", Tags.of("ingredient", ingredient.name()), this,
+                    service -> service.counters.available(ingredient));
+        }
+        refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "inventory-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refresher.scheduleWithFixedDelay(this::refresh, refreshInterval.toMillis(), refreshInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    /**
+     * Called from the "Reserve Ingredients" service task
+     *
+     * @return whether the drink's ingredients were reserved
+     */
+    public Boolean reserve(DrinkOrder drinkOrder) {
+        long[] needs = needs(drinkOrder);
+        boolean reserved = needs != null && counters.reserve(needs) && take(needs);
+        registry.counter("shop.inventory.reservations", "result", reserved ? "reserved" : "rejected").increment();
+        if (!reserved) {
+            LOG.warnf("Rejecting order %s, not enough stock for %s %s", drinkOrder.getOrderId(),
+                    drinkOrder.getDrinkSize(), drinkOrder.getDrinkType());
+        }
+        return reserved;
+    }
+
+    /**
+     * Give back the ingredients of a drink that will not be made, in the transaction that aborts it
+     */
+    public void release(DrinkOrder drinkOrder) {
+        long[] needs = needs(drinkOrder);
+        if (needs == null) {
+            return;
+        }
+        try {
+            store.apply(needs);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Unable to release ingredients of order " + drinkOrder.getOrderId(), e);
+        }
+        counters.release(needs);
+    }
+
+    public void restock(Map<Ingredient, Long> quantities) {
+        for (Map.Entry<Ingredient, Long> entry : quantities.entrySet()) {
+            if (entry.getValue() == null || entry.getValue() <= 0) {
+                throw new IllegalArgumentException("Restock quantity for " + entry.getKey() + " must be positive");
+            }
+        }
+        long[] deltas = new long[Ingredient.values().length];
+        quantities.forEach((ingredient, quantity) -> deltas[ingredient.ordinal()] = quantity);
+        try {
+            store.apply(deltas);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Unable to restock", e);
+        }
+        refresh();
+        LOG.infof("Restocked %s", quantities);
+    }
+
+    public Map<Ingredient, Long> levels() {
+        Map<Ingredient, Long> levels = new EnumMap<>(Ingredient.class);
+        for (Ingredient ingredient : Ingredient.values()) {
+            levels.put(ingredient, counters.available(ingredient));
+        }
+        return levels;
+    }
+
+    private long[] needs(DrinkOrder drinkOrder) {
+        if (drinkOrder == null || drinkOrder.getDrinkType() == null || drinkOrder.getDrinkSize() == null) {
+            return null;
+        }
+        return recipes.needs(drinkOrder.getDrinkType(), drinkOrder.getDrinkSize());
+    }
+
+    /**
+     * Take {@code needs} from the stored stock after the local counters took them
+     */
+    private boolean take(long[] needs) {
+        boolean taken = false;
+        try {
+            taken = store.reserve(needs);
+            return taken;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Unable to reserve ingredients", e);
+        } finally {
+            if (!taken) {
+                counters.release(needs);
+            }
+        }
+    }
+
+    private void refresh() {
+        try {
+            counters.refresh(store.load());
+        } catch (Exception e) {
+            LOG.warnf("Unable to load inventory, keeping the last levels: %s", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.shop.inventory;
+
+import io.agroal.api.AgroalDataSource;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Postgres stock levels, the stock every replica reserves from. Levels are only ever moved
+ * by deltas, and takes never go below zero. Statements run in the caller's transaction: inside
+ * a process unit of work the rows stay locked until the instance commits and roll back with it.
+ * The shop_inventory table and the initial stock come from the brew-app kie-flyway migrations.
+ */
+@ApplicationScoped
+public class InventoryStore {
+
+    private static final Ingredient[] INGREDIENTS = Ingredient.values();
+
+    static final String APPLY =
+            "UPDATE shop_inventory SET quantity = quantity + ? WHERE ingredient = ?";
+
+    static final String TAKE =
+            "UPDATE shop_inventory SET quantity = quantity - ? WHERE ingredient = ? AND quantity >= ?";
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    /**
+     * @return quantity per {@link Ingredient} ordinal
+     */
+    public long[] load() throws SQLException {
+        long[] levels = new long[INGREDIENTS.length];
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT ingredient, quantity FROM shop_inventory")) {
+            while (rs.next()) {
+                levels[Ingredient.valueOf(rs.getString(1)).ordinal()] = rs.getLong(2);
+            }
+        }
+        return levels;
+    }
+
+    /**
+     * Take every ingredient of {@code needs} (per {@link Ingredient} ordinal) or nothing. Rows are
+     * taken in ordinal order, so concurrent reservations lock them in the same order.
+     *
+     * @return whether there was enough of every ingredient
+     */
+    public boolean reserve(long[] needs) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement take = connection.prepareStatement(TAKE)) {
+            for (int i = 0; i < needs.length; i++) {
+                if (needs[i] <= 0) {
+                    continue;
+                }
+                take.setLong(1, needs[i]);
+                take.setString(2, INGREDIENTS[i].name());
+                take.setLong(3, needs[i]);
+                if (take.executeUpdate() == 0) {
+                    // give back what the earlier rows took
+                    long[] taken = new long[needs.length];
+                    System.arraycopy(needs, 0, taken, 0, i);
+                    apply(connection, taken);
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Add the non-zero {@code deltas} (per {@link Ingredient} ordinal) in one batch
+     */
+    public void apply(long[] deltas) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            apply(connection, deltas);
+        }
+    }
+
+    private static void apply(Connection connection, long[] deltas) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(APPLY)) {
+            boolean pending = false;
+            for (Ingredient ingredient : INGREDIENTS) {
+                long delta = deltas[ingredient.ordinal()];
+                if (delta != 0) {
+                    statement.setLong(1, delta);
+                    statement.setString(2, ingredient.name());
+                    statement.addBatch();
+                    pending = true;
+                }
+            }
+            if (pending) {
+                statement.executeBatch();
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.shop.inventory;
+
+import com.shop.model.DrinkOrder.DrinkSize;
+import com.shop.model.DrinkOrder.DrinkType;
+
+/**
+ * Ingredient quantities per drink, indexed by enum ordinals. {@link #needs} hands out the
+ * shared row, so callers must not modify it.
+ */
+public final class Recipes {
+
+    private static final int INGREDIENTS = Ingredient.values().length;
+
+    private final long[][][] needs = new long[DrinkType.values().length][DrinkSize.values().length][];
+
+    private Recipes() {}
+
+    public static Recipes defaults() {
+        Recipes recipes = new Recipes();
+        for (DrinkSize size : DrinkSize.values()) {
+            long beans = 14 + 4L * size.ordinal();
+            recipes.put(DrinkType.COFFEE, size, beans, 0);
+            recipes.put(DrinkType.LATTE, size, beans, 180 + 60L * size.ordinal());
+            recipes.put(DrinkType.CAPPUCCINO, size, beans, 120 + 40L * size.ordinal());
+        }
+        return recipes;
+    }
+
+    /**
+     * @return quantity per {@link Ingredient} ordinal, or null when the drink has no recipe
+     */
+    public long[] needs(DrinkType type, DrinkSize size) {
+        return needs[type.ordinal()][size.ordinal()];
+    }
+
+    private void put(DrinkType type, DrinkSize size, long beans, long milk) {
+        long[] row = new long[INGREDIENTS];
+        row[Ingredient.BEANS.ordinal()] = beans;
+        row[Ingredient.MILK.ordinal()] = milk;
+        row[cup(size).ordinal()] = 1;
+        needs[type.ordinal()][size.ordinal()] = row;
+    }
+
+    private static Ingredient cup(DrinkSize size) {
+        switch (size) {
+            case SMALL:
+                return Ingredient.CUP_SMALL;
+            case MEDIUM:
+                return Ingredient.CUP_MEDIUM;
+            default:
+                return Ingredient.CUP_LARGE;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.shop.inventory;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free stock levels. A reservation takes each ingredient with a CAS loop that never
+ * goes below zero and gives back what it already took when a later ingredient runs short,
+ * so concurrent reservations can briefly see each other's partial takes but never oversell.
+ * The levels are a replica's view of the stock in Postgres, {@link #refresh} replaces them
+ * with the stored ones.
+ */
+public final class StockCounters {
+
+    private final AtomicLongArray stock;
+
+    public StockCounters(long[] levels) {
+        this.stock = new AtomicLongArray(levels);
+    }
+
+    /**
+     * Take every ingredient of {@code needs} or nothing
+     */
+    public boolean reserve(long[] needs) {
+        for (int i = 0; i < needs.length; i++) {
+            if (needs[i] > 0 && !take(i, needs[i])) {
+                for (int j = 0; j < i; j++) {
+                    if (needs[j] > 0) {
+                        give(j, needs[j]);
+                    }
+                }
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void release(long[] needs) {
+        for (int i = 0; i < needs.length; i++) {
+            if (needs[i] > 0) {
+                give(i, needs[i]);
+            }
+        }
+    }
+
+    public long available(Ingredient ingredient) {
+        return stock.get(ingredient.ordinal());
+    }
+
+    /**
+     * Replace every level, reservations running concurrently may be overwritten
+     */
+    public void refresh(long[] levels) {
+        for (int i = 0; i < levels.length; i++) {
+            stock.set(i, levels[i]);
+        }
+    }
+
+    private boolean take(int index, long amount) {
+        long current;
+        do {
+            current = stock.get(index);
+            if (current < amount) {
+                return false;
+            }
+        } while (!stock.compareAndSet(index, current, current - amount));
+        return true;
+    }
+
+    private void give(int index, long amount) {
+        stock.addAndGet(index, amount);
+    }
+}
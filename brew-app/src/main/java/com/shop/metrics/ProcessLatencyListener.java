@@ -0,0 +1,129 @@
+package com.shop.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+import org.kie.api.event.process.ProcessCompletedEvent;
+import org.kie.api.event.process.ProcessNodeLeftEvent;
+import org.kie.api.runtime.process.NodeInstance;
+import org.kie.api.runtime.process.ProcessInstance;
+import org.kie.api.runtime.process.WorkflowProcessInstance;
+import org.kie.kogito.internal.process.event.DefaultKogitoProcessEventListener;
+import org.kie.kogito.internal.process.runtime.KogitoNodeInstance;
+import org.kie.kogito.internal.process.runtime.KogitoProcessInstance;
+
+import com.shop.model.DrinkOrder;
+import com.shop.model.DrinkOrder.OrderStatus;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records per-node and per-process latency for MakeDrink.
+ * The MakeDrink duration is also recorded as the "brew-app" stage of
+ * shop.order.to.ready so it can be lined up with the "brew" stage that order-app
+ * measures around the Brewing catch event; the difference is Kafka transit time. Only drinks
+ * that were made count there, rejected ones are recorded with outcome CANCELLED.
+ */
+@ApplicationScoped
+public class ProcessLatencyListener extends DefaultKogitoProcessEventListener {
+
+    private static final Logger LOG = Logger.getLogger(ProcessLatencyListener.class);
+
+    @Inject
+    MeterRegistry registry;
+
+    private final ConcurrentHashMap<String, Timer> timers = new ConcurrentHashMap<>();
+
+    @Override
+    public void afterNodeLeft(ProcessNodeLeftEvent event) {
+        NodeInstance nodeInstance = event.getNodeInstance();
+        String nodeName = nodeInstance.getNodeName();
+        if (nodeName == null || nodeName.isBlank()) {
+            return;
+        }
+        Date triggered = ((KogitoNodeInstance) nodeInstance).getTriggerTime();
+        if (triggered == null) {
+            return;
+        }
+        ProcessInstance processInstance = event.getProcessInstance();
+        timer("shop.process.node.duration", processInstance.getProcessId(), nodeName,
+                nodeOutcome(processInstance.getState(), orderStatus(processInstance)))
+                .record(Duration.ofNanos(elapsedNanos(triggered)));
+    }
+
+    @Override
+    public void afterProcessCompleted(ProcessCompletedEvent event) {
+        ProcessInstance processInstance = event.getProcessInstance();
+        Date started = ((KogitoProcessInstance) processInstance).getStartDate();
+        if (started == null) {
+            return;
+        }
+        long nanos = elapsedNanos(started);
+        String outcome = outcome(processInstance);
+        timer("shop.process.duration", processInstance.getProcessId(), "process", outcome).record(Duration.ofNanos(nanos));
+        if ("READY".equals(outcome)) {
+            timer("shop.order.to.ready", processInstance.getProcessId(), "brew-app", "ready").record(Duration.ofNanos(nanos));
+            LOG.debugf("Drink for order %s made after %d ms", orderId(processInstance), nanos / 1_000_000);
+        }
+    }
+
+    /**
+     * Drink Rejected sets the order CANCELLED, Drink Ready leaves it as it came
+     */
+    private String outcome(ProcessInstance processInstance) {
+        if (orderStatus(processInstance) == OrderStatus.CANCELLED) {
+            return "CANCELLED";
+        }
+        return processInstance.getState() == ProcessInstance.STATE_COMPLETED ? "READY" : "ABORTED";
+    }
+
+    /**
+     * Nodes left because the instance was aborted were cut short; the ones that ran for a rejected
+     * drink are kept apart from the brewing path
+     */
+    private static String nodeOutcome(int processState, OrderStatus status) {
+        if (processState != ProcessInstance.STATE_ACTIVE) {
+            return "ABORTED";
+        }
+        return status == OrderStatus.CANCELLED ? "CANCELLED" : "COMPLETED";
+    }
+
+    private static OrderStatus orderStatus(ProcessInstance processInstance) {
+        if (processInstance instanceof WorkflowProcessInstance) {
+            Object variable = ((WorkflowProcessInstance) processInstance).getVariable("drinkOrder");
+            if (variable instanceof DrinkOrder) {
+                return ((DrinkOrder) variable).getOrderStatus();
+            }
+        }
+        return null;
+    }
+
+    private String orderId(ProcessInstance processInstance) {
+        if (processInstance instanceof WorkflowProcessInstance) {
+            Object variable = ((WorkflowProcessInstance) processInstance).getVariable("drinkOrder");
+            if (variable instanceof DrinkOrder) {
+                return ((DrinkOrder) variable).getOrderId();
+            }
+        }
+        return processInstance.getId();
+    }
+
+    private Timer timer(String name, String processId, String node, String outcome) {
+        return timers.computeIfAbsent(name + '|' + processId + '|' + node + '|' + outcome,
+                key -> Timer.builder(name)
+                        .tag("process", processId)
+                        .tag("node", node)
+                        .tag("outcome", outcome)
+                        .publishPercentiles(0.5, 0.95, 0.99)
+                        .publishPercentileHistogram()
+                        .register(registry));
+    }
+
+    private static long elapsedNanos(Date since) {
+        return Math.max(0, (System.currentTimeMillis() - since.getTime()) * 1_000_000);
+    }
+}
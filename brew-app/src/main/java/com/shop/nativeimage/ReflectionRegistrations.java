@@ -0,0 +1,28 @@
+package com.shop.nativeimage;
+
+import com.shop.model.CardPayment;
+import com.shop.model.DrinkOrder;
+import com.shop.model.PaymentStatus;
+import com.shop.station.Station;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+/**
+ * Types that Jackson reads or writes reflectively outside the generated Kogito endpoints:
+ * process variables carried in the make-drink and drink-ready messages and the station list.
+ * The JVM build does not need this; the native image only keeps what is registered here.
+ */
+@RegisterForReflection(targets = {
+        DrinkOrder.class,
+        DrinkOrder.DrinkType.class,
+        DrinkOrder.DrinkSize.class,
+        DrinkOrder.OrderStatus.class,
+        DrinkOrder.PaymentType.class,
+        CardPayment.class,
+        CardPayment.CardType.class,
+        PaymentStatus.class,
+        PaymentStatus.Status.class,
+        Station.class
+})
+public class ReflectionRegistrations {
+}
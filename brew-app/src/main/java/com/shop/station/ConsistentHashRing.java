@@ -0,0 +1,56 @@
+package com.shop.station;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Immutable consistent hash ring with virtual nodes. Adding or removing a node only moves
+ * the keys that land on that node's points, roughly 1/N of them.
+ */
+public final class ConsistentHashRing<T> {
+
+    private final NavigableMap<Long, T> points = new TreeMap<>();
+
+    public ConsistentHashRing(Collection<T> nodes, int virtualNodes) {
+        for (T node : nodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                points.put(hash(node + "#" + i), node);
+            }
+        }
+    }
+
+    public boolean isEmpty() {
+        return points.isEmpty();
+    }
+
+    /**
+     * @return the node owning {@code key}, or null for an empty ring
+     */
+    public T route(String key) {
+        if (points.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Long, T> entry = points.ceilingEntry(hash(key));
+        return entry != null ? entry.getValue() : points.firstEntry().getValue();
+    }
+
+    /**
+     * 64-bit FNV-1a finished with the murmur3 mixer, so similar ids spread over the whole ring
+     */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,57 @@
+package com.shop.station;
+
+import com.shop.model.DrinkOrder.DrinkType;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Brew station with its own barista task group. A station without drink types takes any drink.
+ */
+public class Station {
+    private String id;
+    private Set<DrinkType> drinkTypes = EnumSet.noneOf(DrinkType.class);
+
+    public Station() {}
+
+    public Station(String id, Set<DrinkType> drinkTypes) {
+        this.id = id;
+        setDrinkTypes(drinkTypes);
+    }
+
+    /**
+     * Group the station's "Task Brew" tasks are offered to
+     */
+    public String group() {
+        return "barista-" + id;
+    }
+
+    public boolean serves(DrinkType drinkType) {
+        return drinkTypes.isEmpty() || drinkTypes.contains(drinkType);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Set<DrinkType> getDrinkTypes() {
+        return drinkTypes;
+    }
+
+    public void setDrinkTypes(Set<DrinkType> drinkTypes) {
+        this.drinkTypes = drinkTypes == null || drinkTypes.isEmpty()
+                ? EnumSet.noneOf(DrinkType.class) : EnumSet.copyOf(drinkTypes);
+    }
+
+    @Override
+    public String toString() {
+        return "Station{" +
+                "id='" + id + '\'' +
+                ", drinkTypes=" + drinkTypes +
+                '}';
+    }
+}
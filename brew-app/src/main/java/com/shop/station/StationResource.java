@@ -0,0 +1,54 @@
+package com.shop.station;
+
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.PUT;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+
+import java.sql.SQLException;
+import java.util.List;
+
+@Path("/stations")
+@Produces(MediaType.APPLICATION_JSON)
+public class StationResource {
+
+    @Inject
+    StationRouter stationRouter;
+
+    @GET
+    public List<Station> stations() {
+        return stationRouter.stations();
+    }
+
+    /**
+     * Add a station or change the drink types it serves; the station leader moves open tasks
+     * right away when it is this replica, otherwise with its next refresh
+     */
+    @PUT
+    @Path("/{id}")
+    @RolesAllowed({"admin", "manager"})
+    @Consumes(MediaType.APPLICATION_JSON)
+    public List<Station> save(@PathParam("id") String id, Station station) throws SQLException {
+        Station saved = station == null ? new Station() : station;
+        saved.setId(id);
+        stationRouter.save(saved);
+        return stationRouter.stations();
+    }
+
+    @DELETE
+    @Path("/{id}")
+    @RolesAllowed({"admin", "manager"})
+    public List<Station> remove(@PathParam("id") String id) throws SQLException {
+        if (!stationRouter.remove(id)) {
+            throw new NotFoundException("No station " + id);
+        }
+        return stationRouter.stations();
+    }
+}
@@ -0,0 +1,192 @@
+package com.shop.station;
+
+import com.shop.model.DrinkOrder;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Picks the brew station, and so the barista group, of every MakeDrink instance.
+ * The routing table is rebuilt whenever the station list changes, locally through
+ * the /stations API or on another replica (picked up by the periodic refresh). Open
+ * tasks are then moved to their new owners by the station leader only, and only out of
+ * the groups the change can take tasks from. Groups that no station uses any more are
+ * swept once more a refresh later, after replicas still on the old list may have
+ * offered tasks to them.
+ */
+@ApplicationScoped
+public class StationRouter {
+
+    private static final Logger LOG = Logger.getLogger(StationRouter.class);
+
+    /** Group of the brew tasks when stations are disabled or none are configured */
+    static final String DEFAULT_GROUP = "barista";
+
+    @ConfigProperty(name = "shop.stations.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "shop.stations.routing", defaultValue = "hash")
+    String routingMode;
+
+    @ConfigProperty(name = "shop.stations.virtual-nodes", defaultValue = "128")
+    int virtualNodes;
+
+    @ConfigProperty(name = "shop.stations.refresh-interval", defaultValue = "30s")
+    Duration refreshInterval;
+
+    @Inject
+    StationStore store;
+
+    @Inject
+    StationTaskMover taskMover;
+
+    @Inject
+    MeterRegistry registry;
+
+    private volatile StationRouting routing;
+    private ScheduledExecutorService refresher;
+    // groups whose open tasks may have to move, drained by the leader
+    private final Set<String> pending = new LinkedHashSet<>();
+    private Set<String> sweepAgain = Set.of();
+
+    void onStart(@Observes @Priority(2) StartupEvent event) {
+        routing = new StationRouting(mode(), List.of(), virtualNodes);
+        if (!enabled) {
+            return;
+        }
+        refresh();
+        refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "station-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refresher.scheduleWithFixedDelay(this::refresh, refreshInterval.toMillis(), refreshInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    /**
+     * Called from the "Assign Station" service task
+     *
+     * @return the group "Task Brew" is offered to
+     */
+    public String assign(DrinkOrder drinkOrder) {
+        if (!enabled) {
+            return DEFAULT_GROUP;
+        }
+        Station station = routing.route(drinkOrder.getOrderId(), drinkOrder.getDrinkType());
+        if (station == null) {
+            return DEFAULT_GROUP;
+        }
+        registry.counter("shop.station.assigned", "station", station.getId()).increment();
+        return station.group();
+    }
+
+    public List<Station> stations() {
+        return routing.getStations();
+    }
+
+    public void save(Station station) throws SQLException {
+        store.save(station);
+        refresh();
+    }
+
+    public boolean remove(String id) throws SQLException {
+        boolean removed = store.delete(id);
+        refresh();
+        return removed;
+    }
+
+    synchronized void refresh() {
+        if (!enabled) {
+            return;
+        }
+        List<Station> stations;
+        try {
+            stations = store.list();
+        } catch (SQLException e) {
+            LOG.warnf("Unable to load stations, keeping the current routing: %s", e.getMessage());
+            return;
+        }
+        StationRouting previous = routing;
+        if (!stations.toString().equals(previous.getStations().toString())) {
+            routing = new StationRouting(mode(), stations, virtualNodes);
+            LOG.infof("Routing brew orders to %d stations: %s", stations.size(), stations);
+            pending.addAll(movableGroups(previous.getMode(), previous.getStations(), stations));
+        }
+        if ((pending.isEmpty() && sweepAgain.isEmpty()) || !store.lead()) {
+            return;
+        }
+        Set<String> groups = new LinkedHashSet<>(pending);
+        groups.addAll(sweepAgain);
+        Set<String> retired = new LinkedHashSet<>(pending);
+        for (Station station : stations) {
+            retired.remove(station.group());
+        }
+        try {
+            taskMover.rebalance(routing, groups);
+            pending.clear();
+            sweepAgain = retired;
+        } catch (Exception e) {
+            LOG.warnf("Unable to move open brew tasks: %s", e.getMessage());
+        }
+    }
+
+    /**
+     * Groups whose open tasks may route elsewhere after the list changed from {@code previous}
+     * to {@code next}. Consistent hashing only takes tasks from a removed station, unless a station
+     * was added, or changed its drink types under drink-type routing; then any station may lose some.
+     */
+    static Set<String> movableGroups(StationRouting.Mode mode, List<Station> previous, List<Station> next) {
+        Map<String, Station> after = new HashMap<>();
+        for (Station station : next) {
+            after.put(station.getId(), station);
+        }
+        Set<String> groups = new LinkedHashSet<>();
+        if (previous.isEmpty()) {
+            groups.add(DEFAULT_GROUP);
+        }
+        boolean reshuffled = false;
+        for (Station station : previous) {
+            Station now = after.remove(station.getId());
+            if (now == null) {
+                groups.add(station.group());
+            } else if (mode == StationRouting.Mode.DRINK_TYPE && !now.getDrinkTypes().equals(station.getDrinkTypes())) {
+                reshuffled = true;
+            }
+        }
+        if (reshuffled || !after.isEmpty()) {
+            for (Station station : previous) {
+                groups.add(station.group());
+            }
+        }
+        return groups;
+    }
+
+    private StationRouting.Mode mode() {
+        return StationRouting.Mode.valueOf(routingMode.trim().toUpperCase().replace('-', '_'));
+    }
+}
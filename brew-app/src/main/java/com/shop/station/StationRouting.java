@@ -0,0 +1,72 @@
+package com.shop.station;
+
+import com.shop.model.DrinkOrder.DrinkType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable routing table built from the current station list. In {@link Mode#HASH} every
+ * order goes to the ring owner of its orderId. In {@link Mode#DRINK_TYPE} the order is hashed
+ * onto a ring of only the stations serving its drink type, falling back to all stations.
+ */
+public final class StationRouting {
+
+    public enum Mode {
+        HASH,
+        DRINK_TYPE
+    }
+
+    private final Mode mode;
+    private final List<Station> stations;
+    private final Map<String, Station> stationsById = new HashMap<>();
+    // rings hold station ids so changing a station's drink types does not move its points
+    private final ConsistentHashRing<String> ring;
+    private final Map<DrinkType, ConsistentHashRing<String>> byDrinkType = new EnumMap<>(DrinkType.class);
+
+    public StationRouting(Mode mode, List<Station> stations, int virtualNodes) {
+        this.mode = mode;
+        this.stations = Collections.unmodifiableList(new ArrayList<>(stations));
+        for (Station station : stations) {
+            stationsById.put(station.getId(), station);
+        }
+        this.ring = new ConsistentHashRing<>(stationsById.keySet(), virtualNodes);
+        if (mode == Mode.DRINK_TYPE) {
+            for (DrinkType drinkType : DrinkType.values()) {
+                List<String> serving = new ArrayList<>();
+                for (Station station : stations) {
+                    if (station.serves(drinkType)) {
+                        serving.add(station.getId());
+                    }
+                }
+                byDrinkType.put(drinkType, new ConsistentHashRing<>(serving, virtualNodes));
+            }
+        }
+    }
+
+    /**
+     * @return the station for the order, or null when there are no stations
+     */
+    public Station route(String orderId, DrinkType drinkType) {
+        if (mode == Mode.DRINK_TYPE && drinkType != null) {
+            ConsistentHashRing<String> typed = byDrinkType.get(drinkType);
+            if (!typed.isEmpty()) {
+                return stationsById.get(typed.route(orderId));
+            }
+        }
+        String id = ring.route(orderId);
+        return id == null ? null : stationsById.get(id);
+    }
+
+    public List<Station> getStations() {
+        return stations;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+}
@@ -0,0 +1,166 @@
+package com.shop.station;
+
+import com.shop.model.DrinkOrder.DrinkType;
+
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Station list shared by all brew-app replicas. Seeded from shop.stations.initial when empty,
+ * the shop_brew_station table comes from the brew-app kie-flyway migrations. Also elects the
+ * replica that moves open tasks after the list changed: leadership is a Postgres session
+ * advisory lock on a connection this replica keeps open, so it passes on when the replica dies.
+ */
+@ApplicationScoped
+public class StationStore {
+
+    private static final Logger LOG = Logger.getLogger(StationStore.class);
+
+    /** Advisory lock key of the station leader, "STATIONS" in ASCII */
+    private static final long LEADER_LOCK = 0x53544154494f4e53L;
+
+    private static final String UPSERT =
+            "INSERT INTO shop_brew_station (station_id, drink_types) VALUES (?, ?) " +
+            "ON CONFLICT (station_id) DO UPDATE SET drink_types = EXCLUDED.drink_types";
+
+    @ConfigProperty(name = "shop.stations.initial", defaultValue = "station-1")
+    List<String> initialStations;
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    private Connection leaderConnection;
+
+    void onStart(@Observes @Priority(1) StartupEvent event) {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            try (ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM shop_brew_station")) {
+                if (rs.next() && rs.getLong(1) > 0) {
+                    return;
+                }
+            }
+            for (String id : initialStations) {
+                upsert(connection, new Station(id.trim(), null));
+            }
+        } catch (SQLException e) {
+            LOG.errorf("Unable to seed stations: %s", e.getMessage());
+        }
+    }
+
+    synchronized void onStop(@Observes ShutdownEvent event) {
+        if (leaderConnection == null) {
+            return;
+        }
+        // the connection goes back to the pool, the lock must not go with it
+        try (Connection connection = leaderConnection;
+             PreparedStatement statement = connection.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+            statement.setLong(1, LEADER_LOCK);
+            statement.execute();
+        } catch (SQLException e) {
+            LOG.warnf("Unable to release station leadership: %s", e.getMessage());
+        }
+        leaderConnection = null;
+    }
+
+    /**
+     * @return whether this replica holds, or just took, the station leader lock
+     */
+    public synchronized boolean lead() {
+        try {
+            if (leaderConnection != null) {
+                if (leaderConnection.isValid(5)) {
+                    return true;
+                }
+                // the session ended and Postgres released the lock with it
+                leaderConnection.close();
+                leaderConnection = null;
+            }
+            Connection connection = dataSource.getConnection();
+            try (PreparedStatement statement = connection.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+                statement.setLong(1, LEADER_LOCK);
+                try (ResultSet rs = statement.executeQuery()) {
+                    if (rs.next() && rs.getBoolean(1)) {
+                        leaderConnection = connection;
+                        LOG.info("Took the station leader lock, this replica moves open brew tasks");
+                        return true;
+                    }
+                }
+            } catch (SQLException e) {
+                connection.close();
+                throw e;
+            }
+            connection.close();
+            return false;
+        } catch (SQLException e) {
+            LOG.warnf("Unable to check station leadership: %s", e.getMessage());
+            return false;
+        }
+    }
+
+    public List<Station> list() throws SQLException {
+        List<Station> stations = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(
+                     "SELECT station_id, drink_types FROM shop_brew_station ORDER BY station_id")) {
+            while (rs.next()) {
+                stations.add(new Station(rs.getString(1), parse(rs.getString(2))));
+            }
+        }
+        return stations;
+    }
+
+    public void save(Station station) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            upsert(connection, station);
+        }
+    }
+
+    /**
+     * @return false when there was no such station
+     */
+    public boolean delete(String id) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "DELETE FROM shop_brew_station WHERE station_id = ?")) {
+            statement.setString(1, id);
+            return statement.executeUpdate() > 0;
+        }
+    }
+
+    private static void upsert(Connection connection, Station station) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(UPSERT)) {
+            statement.setString(1, station.getId());
+            statement.setString(2, station.getDrinkTypes().stream().map(Enum::name).collect(Collectors.joining(",")));
+            statement.executeUpdate();
+        }
+    }
+
+    private static Set<DrinkType> parse(String drinkTypes) {
+        Set<DrinkType> types = EnumSet.noneOf(DrinkType.class);
+        for (String type : drinkTypes.split(",")) {
+            if (!type.isBlank()) {
+                types.add(DrinkType.valueOf(type.trim()));
+            }
+        }
+        return types;
+    }
+}
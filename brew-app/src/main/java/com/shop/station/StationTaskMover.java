@@ -0,0 +1,65 @@
+package com.shop.station;
+
+import com.shop.model.DrinkOrder;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+import org.kie.kogito.Application;
+import org.kie.kogito.auth.IdentityProviders;
+import org.kie.kogito.services.uow.UnitOfWorkExecutor;
+import org.kie.kogito.usertask.UserTaskInstance;
+import org.kie.kogito.usertask.UserTasks;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Moves unclaimed "Task Brew" tasks to the station that owns them after the station list
+ * changed. With consistent hashing only the tasks of the added or removed station move;
+ * tasks a barista already claimed stay where they are.
+ */
+@ApplicationScoped
+public class StationTaskMover {
+
+    private static final Logger LOG = Logger.getLogger(StationTaskMover.class);
+
+    @Inject
+    UserTasks userTasks;
+
+    @Inject
+    Application application;
+
+    /**
+     * @param groups groups whose open tasks may have to move, only their tasks are loaded
+     * @return number of tasks moved
+     */
+    public int rebalance(StationRouting routing, Collection<String> groups) {
+        int moved = UnitOfWorkExecutor.executeInUnitOfWork(application.unitOfWorkManager(), () -> {
+            int count = 0;
+            for (UserTaskInstance task : userTasks.instances()
+                    .findByIdentity(IdentityProviders.of("station-router", groups))) {
+                if (task.getStatus().isTerminate() || task.getActualOwner() != null) {
+                    continue;
+                }
+                Object order = task.getInputs().get("drinkOrder");
+                if (!(order instanceof DrinkOrder)) {
+                    continue;
+                }
+                DrinkOrder drinkOrder = (DrinkOrder) order;
+                Station target = routing.route(drinkOrder.getOrderId(), drinkOrder.getDrinkType());
+                Set<String> group = Set.of(target == null ? StationRouter.DEFAULT_GROUP : target.group());
+                if (!group.equals(task.getPotentialGroups())) {
+                    task.setPotentialGroups(group);
+                    userTasks.instances().update(task);
+                    count++;
+                }
+            }
+            return count;
+        });
+        if (moved > 0) {
+            LOG.infof("Moved %d open brew tasks after station change", moved);
+        }
+        return moved;
+    }
+}
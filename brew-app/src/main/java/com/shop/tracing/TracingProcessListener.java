@@ -0,0 +1,87 @@
+package com.shop.tracing;
+
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.kie.api.event.process.ProcessCompletedEvent;
+import org.kie.api.event.process.ProcessNodeLeftEvent;
+import org.kie.api.event.process.ProcessStartedEvent;
+import org.kie.api.runtime.process.NodeInstance;
+import org.kie.api.runtime.process.ProcessInstance;
+import org.kie.api.runtime.process.WorkflowProcessInstance;
+import org.kie.kogito.internal.process.event.DefaultKogitoProcessEventListener;
+import org.kie.kogito.internal.process.runtime.KogitoNodeInstance;
+import org.kie.kogito.internal.process.runtime.KogitoProcessInstance;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+/**
+ * Emits a span per named BPMN node and per process instance.
+ * The trace context active when the instance started (the make-drink Kafka consumer)
+ * is kept in the instance's traceparent variable so nodes completed later, e.g. when
+ * Task Brew is completed, join the order trace, also after a restart or on another replica.
+ */
+@ApplicationScoped
+public class TracingProcessListener extends DefaultKogitoProcessEventListener {
+
+    @Inject
+    Tracer tracer;
+
+    @ConfigProperty(name = "shop.tracing.slow-node-threshold-ms", defaultValue = "2000")
+    long slowNodeThresholdMs;
+
+    private NodeSpanRecorder recorder;
+
+    @PostConstruct
+    void init() {
+        recorder = new NodeSpanRecorder(tracer, Duration.ofMillis(slowNodeThresholdMs));
+    }
+
+    @Override
+    public void beforeProcessStarted(ProcessStartedEvent event) {
+        String traceparent = TraceParent.of(Context.current());
+        if (traceparent != null && event.getProcessInstance() instanceof WorkflowProcessInstance) {
+            ((WorkflowProcessInstance) event.getProcessInstance()).setVariable(TraceParent.VARIABLE, traceparent);
+        }
+    }
+
+    @Override
+    public void afterNodeLeft(ProcessNodeLeftEvent event) {
+        NodeInstance nodeInstance = event.getNodeInstance();
+        String nodeName = nodeInstance.getNodeName();
+        Date triggered = ((KogitoNodeInstance) nodeInstance).getTriggerTime();
+        if (nodeName == null || nodeName.isBlank() || triggered == null) {
+            return;
+        }
+        ProcessInstance processInstance = event.getProcessInstance();
+        recorder.record("bpmn " + nodeName, processInstance.getProcessId(), processInstance.getId(), nodeName,
+                triggered.toInstant(), Instant.now(), parentOf(processInstance));
+    }
+
+    @Override
+    public void afterProcessCompleted(ProcessCompletedEvent event) {
+        ProcessInstance processInstance = event.getProcessInstance();
+        Date started = ((KogitoProcessInstance) processInstance).getStartDate();
+        if (started == null) {
+            return;
+        }
+        recorder.record("bpmn process " + processInstance.getProcessId(), processInstance.getProcessId(),
+                processInstance.getId(), processInstance.getProcessName(), started.toInstant(), Instant.now(),
+                parentOf(processInstance));
+    }
+
+    private Context parentOf(ProcessInstance processInstance) {
+        if (processInstance instanceof WorkflowProcessInstance) {
+            Object traceparent = ((WorkflowProcessInstance) processInstance).getVariable(TraceParent.VARIABLE);
+            if (traceparent instanceof String) {
+                return TraceParent.parse((String) traceparent, Context.current());
+            }
+        }
+        return Context.current();
+    }
+}
@@ -0,0 +1,11 @@
+-- Stock levels every replica reserves from (InventoryStore). IF NOT EXISTS keeps the script
+-- applicable to databases where earlier builds created the table on startup.
+CREATE TABLE IF NOT EXISTS shop_inventory (
+    ingredient VARCHAR(32) PRIMARY KEY,
+    quantity BIGINT NOT NULL
+);
+
+-- initial stock, levels that already moved are kept
+INSERT INTO shop_inventory (ingredient, quantity) VALUES
+    ('BEANS', 50000), ('MILK', 100000), ('CUP_SMALL', 1000), ('CUP_MEDIUM', 1000), ('CUP_LARGE', 1000)
+ON CONFLICT (ingredient) DO NOTHING;
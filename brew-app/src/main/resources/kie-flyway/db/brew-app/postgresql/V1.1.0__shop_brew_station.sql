@@ -0,0 +1,6 @@
+-- Brew stations shared by all replicas (StationStore), drink_types is a comma separated list,
+-- empty for a station that takes any drink. Rows are seeded from shop.stations.initial on startup.
+CREATE TABLE IF NOT EXISTS shop_brew_station (
+    station_id VARCHAR(64) PRIMARY KEY,
+    drink_types VARCHAR(255) NOT NULL
+);
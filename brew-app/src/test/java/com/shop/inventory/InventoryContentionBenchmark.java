@@ -0,0 +1,134 @@
+package com.shop.inventory;
+
+import com.shop.model.DrinkOrder.DrinkSize;
+import com.shop.model.DrinkOrder.DrinkType;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reservation throughput against Postgres with the statements of {@link InventoryStore#reserve}.
+ * Each operation takes the ingredients of a random drink in one transaction, keeps it open for
+ * the hold time like the rest of a process unit of work, puts the stock back and commits. The
+ * beans, milk and cup rows are shared by most drinks, so their row locks are held until commit
+ * and serialize the reservations; the longer the hold, the lower the throughput. The in-memory
+ * {@link StockCounters} pre-check is left out, it only turns away orders that cannot be served.
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.shop.inventory.InventoryContentionBenchmark \
+ *     -Dexec.args="jdbc:postgresql://localhost:5432/kogito kogito Ch@ngeme 64 10 5"
+ * </pre>
+ *
+ * Arguments are the JDBC URL, user and password of a database migrated by the brew-app
+ * kie-flyway scripts, the thread count (default: 4x cores), the seconds per run (default 10)
+ * and the hold time in milliseconds (default 5).
+ */
+public class InventoryContentionBenchmark {
+
+    private static final Ingredient[] INGREDIENTS = Ingredient.values();
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("Arguments: <jdbc url> <user> <password> [threads] [seconds] [hold ms]");
+            System.exit(1);
+        }
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors() * 4;
+        int seconds = args.length > 4 ? Integer.parseInt(args[4]) : 10;
+        long holdMillis = args.length > 5 ? Long.parseLong(args[5]) : 5;
+        for (int round = 0; round < 2; round++) {
+            // first round warms up the JIT and the database
+            run(round == 0 ? "warmup" : "result", args[0], args[1], args[2], threads, seconds, holdMillis);
+        }
+    }
+
+    static void run(String label, String url, String user, String password, int threads, int seconds,
+                    long holdMillis) throws InterruptedException {
+        Recipes recipes = Recipes.defaults();
+        DrinkType[] types = DrinkType.values();
+        DrinkSize[] sizes = DrinkSize.values();
+        LongAdder reserved = new LongAdder();
+        LongAdder shortfalls = new LongAdder();
+        LongAdder failures = new LongAdder();
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            pool.execute(() -> {
+                try (Connection connection = DriverManager.getConnection(url, user, password);
+                     PreparedStatement take = connection.prepareStatement(InventoryStore.TAKE);
+                     PreparedStatement giveBack = connection.prepareStatement(InventoryStore.APPLY)) {
+                    connection.setAutoCommit(false);
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    start.await();
+                    while (running.get()) {
+                        long[] needs = recipes.needs(types[random.nextInt(types.length)], sizes[random.nextInt(sizes.length)]);
+                        try {
+                            if (take(take, needs)) {
+                                Thread.sleep(holdMillis);
+                                giveBack(giveBack, needs);
+                                reserved.increment();
+                            } else {
+                                shortfalls.increment();
+                            }
+                            connection.commit();
+                        } catch (SQLException e) {
+                            connection.rollback();
+                            failures.increment();
+                        }
+                    }
+                } catch (SQLException e) {
+                    System.err.println("Benchmark connection failed: " + e.getMessage());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        start.countDown();
+        Thread.sleep(TimeUnit.SECONDS.toMillis(seconds));
+        running.set(false);
+        pool.shutdown();
+        pool.awaitTermination(30, TimeUnit.SECONDS);
+        System.out.printf("%s %,10d reservations/s, %,d short of stock, %,d failed (%d threads, %d ms hold)%n",
+                label, reserved.sum() / seconds, shortfalls.sum(), failures.sum(), threads, holdMillis);
+    }
+
+    /**
+     * The rows of {@link InventoryStore#reserve}, in ordinal order; a shortfall rolls back with the transaction
+     */
+    private static boolean take(PreparedStatement take, long[] needs) throws SQLException {
+        for (int i = 0; i < needs.length; i++) {
+            if (needs[i] <= 0) {
+                continue;
+            }
+            take.setLong(1, needs[i]);
+            take.setString(2, INGREDIENTS[i].name());
+            take.setLong(3, needs[i]);
+            if (take.executeUpdate() == 0) {
+                take.getConnection().rollback();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void giveBack(PreparedStatement giveBack, long[] needs) throws SQLException {
+        for (int i = 0; i < needs.length; i++) {
+            if (needs[i] > 0) {
+                giveBack.setLong(1, needs[i]);
+                giveBack.setString(2, INGREDIENTS[i].name());
+                giveBack.addBatch();
+            }
+        }
+        giveBack.executeBatch();
+    }
+}
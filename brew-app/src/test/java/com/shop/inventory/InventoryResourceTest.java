@@ -0,0 +1,30 @@
+package com.shop.inventory;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.security.TestSecurity;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+
+@QuarkusTest
+class InventoryResourceTest {
+
+    @Test
+    @TestSecurity(user = "alice", roles = "customer")
+    void customersCannotRestock() {
+        given().contentType(ContentType.JSON)
+                .body("{\"BEANS\": 1000000}")
+                .when().post("/inventory/restock")
+                .then().statusCode(403);
+    }
+
+    @Test
+    @TestSecurity(user = "barista1", roles = "barista")
+    void baristasReachTheRestock() {
+        given().contentType(ContentType.JSON)
+                .body("{}")
+                .when().post("/inventory/restock")
+                .then().statusCode(400);
+    }
+}
@@ -0,0 +1,89 @@
+package com.shop.inventory;
+
+import com.shop.model.DrinkOrder.DrinkSize;
+import com.shop.model.DrinkOrder.DrinkType;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StockCountersTest {
+
+    private final Recipes recipes = Recipes.defaults();
+
+    @Test
+    void reservesAllIngredientsOrNothing() {
+        long[] levels = levels(1_000, 100, 10);
+        StockCounters counters = new StockCounters(levels);
+        long[] latte = recipes.needs(DrinkType.LATTE, DrinkSize.SMALL);
+
+        assertThat(counters.reserve(latte)).isFalse();
+
+        assertThat(counters.available(Ingredient.BEANS)).isEqualTo(1_000);
+        assertThat(counters.available(Ingredient.CUP_SMALL)).isEqualTo(10);
+        assertThat(counters.available(Ingredient.MILK)).isEqualTo(100);
+    }
+
+    @Test
+    void refreshReplacesTheLevels() {
+        StockCounters counters = new StockCounters(levels(1_000, 1_000, 10));
+        long[] coffee = recipes.needs(DrinkType.COFFEE, DrinkSize.SMALL);
+
+        assertThat(counters.reserve(coffee)).isTrue();
+        counters.release(coffee);
+        assertThat(counters.reserve(coffee)).isTrue();
+        assertThat(counters.available(Ingredient.CUP_SMALL)).isEqualTo(9);
+
+        counters.refresh(levels(500, 2_000, 0));
+        assertThat(counters.available(Ingredient.BEANS)).isEqualTo(500);
+        assertThat(counters.available(Ingredient.MILK)).isEqualTo(2_000);
+        assertThat(counters.reserve(coffee)).isFalse();
+    }
+
+    @Test
+    void concurrentReservationsNeverOversell() throws Exception {
+        int cups = 5_000;
+        StockCounters counters = new StockCounters(levels(Long.MAX_VALUE / 2, Long.MAX_VALUE / 2, cups));
+        long[] latte = recipes.needs(DrinkType.LATTE, DrinkSize.SMALL);
+        int threads = 16;
+        AtomicInteger reserved = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 1_000; i++) {
+                    if (counters.reserve(latte)) {
+                        reserved.incrementAndGet();
+                    }
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(reserved.get()).isEqualTo(cups);
+        assertThat(counters.available(Ingredient.CUP_SMALL)).isZero();
+    }
+
+    private static long[] levels(long beans, long milk, long cups) {
+        long[] levels = new long[Ingredient.values().length];
+        levels[Ingredient.BEANS.ordinal()] = beans;
+        levels[Ingredient.MILK.ordinal()] = milk;
+        levels[Ingredient.CUP_SMALL.ordinal()] = cups;
+        levels[Ingredient.CUP_MEDIUM.ordinal()] = cups;
+        levels[Ingredient.CUP_LARGE.ordinal()] = cups;
+        return levels;
+    }
+}
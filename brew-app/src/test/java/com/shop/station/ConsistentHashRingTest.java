@@ -0,0 +1,105 @@
+package com.shop.station;
+
+import com.shop.model.DrinkOrder.DrinkType;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConsistentHashRingTest {
+
+    private static final int KEYS = 20_000;
+
+    @Test
+    void spreadsKeysOverAllNodes() {
+        ConsistentHashRing<String> ring = new ConsistentHashRing<>(List.of("a", "b", "c", "d"), 128);
+        Map<String, Integer> counts = new HashMap<>();
+        for (String key : keys()) {
+            counts.merge(ring.route(key), 1, Integer::sum);
+        }
+
+        assertThat(counts).hasSize(4);
+        assertThat(counts.values()).allSatisfy(count -> assertThat(count).isBetween(KEYS / 4 * 7 / 10, KEYS / 4 * 13 / 10));
+    }
+
+    @Test
+    void addingNodeOnlyMovesKeysToIt() {
+        ConsistentHashRing<String> before = new ConsistentHashRing<>(List.of("a", "b", "c", "d"), 128);
+        ConsistentHashRing<String> after = new ConsistentHashRing<>(List.of("a", "b", "c", "d", "e"), 128);
+
+        int moved = 0;
+        for (String key : keys()) {
+            String owner = after.route(key);
+            if (!owner.equals(before.route(key))) {
+                assertThat(owner).isEqualTo("e");
+                moved++;
+            }
+        }
+        // about 1/5 of the keys move to the new node
+        assertThat(moved).isBetween(KEYS / 5 * 7 / 10, KEYS / 5 * 13 / 10);
+    }
+
+    @Test
+    void removingNodeOnlyMovesItsKeys() {
+        ConsistentHashRing<String> before = new ConsistentHashRing<>(List.of("a", "b", "c", "d"), 128);
+        ConsistentHashRing<String> after = new ConsistentHashRing<>(List.of("a", "b", "d"), 128);
+
+        for (String key : keys()) {
+            String owner = before.route(key);
+            if (!owner.equals("c")) {
+                assertThat(after.route(key)).isEqualTo(owner);
+            }
+        }
+    }
+
+    @Test
+    void emptyRingRoutesNowhere() {
+        ConsistentHashRing<String> ring = new ConsistentHashRing<>(List.of(), 128);
+
+        assertThat(ring.isEmpty()).isTrue();
+        assertThat(ring.route("order-1")).isNull();
+    }
+
+    @Test
+    void drinkTypeRoutingPrefersServingStations() {
+        List<Station> stations = List.of(
+                new Station("espresso", EnumSet.of(DrinkType.LATTE, DrinkType.CAPPUCCINO)),
+                new Station("drip", EnumSet.of(DrinkType.COFFEE)),
+                new Station("spare", null));
+        StationRouting routing = new StationRouting(StationRouting.Mode.DRINK_TYPE, stations, 64);
+
+        for (String key : keys().subList(0, 1_000)) {
+            assertThat(routing.route(key, DrinkType.LATTE).serves(DrinkType.LATTE)).isTrue();
+            assertThat(routing.route(key, DrinkType.COFFEE).serves(DrinkType.COFFEE)).isTrue();
+            assertThat(routing.route(key, DrinkType.LATTE).getId()).isIn("espresso", "spare");
+        }
+    }
+
+    @Test
+    void hashRoutingIsStable() {
+        List<Station> stations = List.of(new Station("station-1", null), new Station("station-2", null));
+        StationRouting first = new StationRouting(StationRouting.Mode.HASH, stations, 128);
+        StationRouting second = new StationRouting(StationRouting.Mode.HASH, new ArrayList<>(stations), 128);
+
+        for (String key : keys().subList(0, 1_000)) {
+            assertThat(second.route(key, DrinkType.COFFEE).getId())
+                    .isEqualTo(first.route(key, DrinkType.COFFEE).getId());
+        }
+        assertThat(new StationRouting(StationRouting.Mode.HASH, List.of(), 128).route("order-1", null)).isNull();
+    }
+
+    private static List<String> keys() {
+        List<String> keys = new ArrayList<>(KEYS);
+        for (int i = 0; i < KEYS; i++) {
+            keys.add(UUID.nameUUIDFromBytes(("order-" + i).getBytes()).toString());
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,30 @@
+package com.shop.station;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.security.TestSecurity;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+
+@QuarkusTest
+class StationResourceTest {
+
+    @Test
+    @TestSecurity(user = "barista1", roles = "barista")
+    void baristasCannotChangeStations() {
+        given().contentType(ContentType.JSON)
+                .body("{\"drinkTypes\": [\"LATTE\"]}")
+                .when().put("/stations/bar-1")
+                .then().statusCode(403);
+        given().when().delete("/stations/bar-1")
+                .then().statusCode(403);
+    }
+
+    @Test
+    @TestSecurity(user = "manager1", roles = "manager")
+    void managersReachTheStationRemoval() {
+        given().when().delete("/stations/no-such-station")
+                .then().statusCode(404);
+    }
+}
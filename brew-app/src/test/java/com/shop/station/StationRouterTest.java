@@ -0,0 +1,42 @@
+package com.shop.station;
+
+import com.shop.model.DrinkOrder.DrinkType;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StationRouterTest {
+
+    private static final Station A = new Station("a", null);
+    private static final Station B = new Station("b", null);
+    private static final Station C = new Station("c", EnumSet.of(DrinkType.LATTE));
+
+    @Test
+    void removingAStationOnlyMovesItsTasks() {
+        assertThat(StationRouter.movableGroups(StationRouting.Mode.HASH, List.of(A, B, C), List.of(A, C)))
+                .containsExactly("barista-b");
+        assertThat(StationRouter.movableGroups(StationRouting.Mode.HASH, List.of(A, B), List.of(A, B))).isEmpty();
+    }
+
+    @Test
+    void addingAStationMayTakeTasksFromEveryStation() {
+        assertThat(StationRouter.movableGroups(StationRouting.Mode.HASH, List.of(A), List.of(A, B)))
+                .containsExactly("barista-a");
+        assertThat(StationRouter.movableGroups(StationRouting.Mode.HASH, List.of(), List.of(A)))
+                .containsExactly(StationRouter.DEFAULT_GROUP);
+    }
+
+    @Test
+    void drinkTypesOnlyMoveTasksUnderDrinkTypeRouting() {
+        Station latteAndCoffee = new Station("c", EnumSet.of(DrinkType.LATTE, DrinkType.COFFEE));
+
+        assertThat(StationRouter.movableGroups(StationRouting.Mode.HASH, List.of(A, C), List.of(A, latteAndCoffee)))
+                .isEmpty();
+        assertThat(StationRouter.movableGroups(StationRouting.Mode.DRINK_TYPE, List.of(A, C), List.of(A, latteAndCoffee)))
+                .containsExactly("barista-a", "barista-c");
+    }
+}
@@ -3,8 +3,10 @@ package com.cvshealth.pbm.ssot;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication(exclude = {FlywayAutoConfiguration.class})
+@EnableScheduling
 public class ArtifactManagerApiApplication {
 
     public static void main(String[] args) {
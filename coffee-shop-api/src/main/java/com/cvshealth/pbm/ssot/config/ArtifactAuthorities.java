@@ -0,0 +1,79 @@
+package com.cvshealth.pbm.ssot.config;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The artifact roles as shared authority instances, for the IdP converters. A role claim is
+ * reduced to a bit per known role, and every combination of roles has its authority list built
+ * once, so converting a token builds no authorities.
+ */
+final class ArtifactAuthorities {
+
+    private static final String[] ROLES = {"artifact-admin", "artifact-user", "artifact-readonly"};
+
+    private static final Map<String, Integer> HYPHENATED = Map.of(
+        "artifact-admin", 1,
+        "artifact-user", 2,
+        "artifact-readonly", 4);
+
+    // Entra ID app roles cannot always contain hyphens
+    private static final Map<String, Integer> HYPHENATED_OR_UNDERSCORED = Map.of(
+        "artifact-admin", 1,
+        "artifact-user", 2,
+        "artifact-readonly", 4,
+        "artifact_admin", 1,
+        "artifact_user", 2,
+        "artifact_readonly", 4);
+
+    private static final List<List<GrantedAuthority>> BY_ROLES = new ArrayList<>();
+
+    static {
+        GrantedAuthority[] authorities = new GrantedAuthority[ROLES.length];
+        for (int i = 0; i < ROLES.length; i++) {
+            authorities[i] = new SimpleGrantedAuthority(ROLES[i]);
+        }
+        for (int roles = 0; roles < 1 << ROLES.length; roles++) {
+            List<GrantedAuthority> list = new ArrayList<>();
+            for (int i = 0; i < ROLES.length; i++) {
+                if ((roles & (1 << i)) != 0) {
+                    list.add(authorities[i]);
+                }
+            }
+            BY_ROLES.add(List.copyOf(list));
+        }
+    }
+
+    private ArtifactAuthorities() {
+    }
+
+    /**
+     * The authorities of the known roles in {@code claim}, other roles are ignored
+     *
+     * @param claim       the role claim, a collection of roles or a single role as a string;
+     *                    anything else grants nothing
+     * @param underscored whether artifact_admin and the like count as well
+     */
+    static List<GrantedAuthority> of(Object claim, boolean underscored) {
+        Map<String, Integer> known = underscored ? HYPHENATED_OR_UNDERSCORED : HYPHENATED;
+        if (claim instanceof String name) {
+            return BY_ROLES.get(known.getOrDefault(name, 0));
+        }
+        if (!(claim instanceof Collection<?> values)) {
+            return BY_ROLES.get(0);
+        }
+        int roles = 0;
+        for (Object value : values) {
+            Integer role = value instanceof String name ? known.get(name) : null;
+            if (role != null) {
+                roles |= role;
+            }
+        }
+        return BY_ROLES.get(roles);
+    }
+}
@@ -0,0 +1,84 @@
+package com.cvshealth.pbm.ssot.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers the tokens {@code delegate} accepted until they expire, so a client sending the same
+ * access token with every request pays for the signature check and claim validation once.
+ * Entries are keyed by the SHA-256 of the token. Rejected tokens and tokens without an expiry
+ * are never kept, and at most {@code maxEntries} tokens are.
+ */
+class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+    private final int maxEntries;
+    private final Clock clock;
+    private final Map<String, Jwt> verified = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    CachingJwtDecoder(JwtDecoder delegate, int maxEntries, MeterRegistry meterRegistry) {
+        this(delegate, maxEntries, meterRegistry, Clock.systemUTC());
+    }
+
+    CachingJwtDecoder(JwtDecoder delegate, int maxEntries, MeterRegistry meterRegistry, Clock clock) {
+        this.delegate = delegate;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+        this.hits = Counter.builder("security.jwt.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("security.jwt.cache").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("security.jwt.cache.size", verified, Map::size).register(meterRegistry);
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        String key = sha256(token);
+        Instant now = clock.instant();
+        Jwt cached = verified.get(key);
+        if (cached != null) {
+            if (now.isBefore(cached.getExpiresAt())) {
+                hits.increment();
+                return cached;
+            }
+            verified.remove(key, cached);
+        }
+        misses.increment();
+        Jwt jwt = delegate.decode(token);
+        if (jwt.getExpiresAt() != null && now.isBefore(jwt.getExpiresAt())) {
+            if (verified.size() >= maxEntries) {
+                verified.values().removeIf(entry -> !now.isBefore(entry.getExpiresAt()));
+            }
+            if (verified.size() < maxEntries) {
+                verified.put(key, jwt);
+            }
+        }
+        return jwt;
+    }
+
+    int size() {
+        return verified.size();
+    }
+
+    private static String sha256(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -1,13 +1,19 @@
 package com.cvshealth.pbm.ssot.config;
 
 import org.flywaydb.core.Flyway;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.flyway.FlywayMigrationInitializer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.env.Environment;
+import org.springframework.core.io.Resource;
 
 import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Flyway configuration for database migrations
@@ -16,19 +22,39 @@ import javax.sql.DataSource;
 @Configuration
 public class FlywayConfig {
 
+    private static final Logger log = LoggerFactory.getLogger(FlywayConfig.class);
+
+    /**
+     * How the schema is brought up to date when the application starts
+     */
+    public enum MigrationMode {
+        /** Validate every migration script and apply the pending ones */
+        MIGRATE,
+        /** Skip Flyway when the schema history matches the build-time manifest, otherwise MIGRATE */
+        MANIFEST,
+        /** Fail unless the schema history matches the manifest, for when {@link MigrationJob} migrates */
+        VERIFY
+    }
+
     @Value("${spring.flyway.locations:classpath:db/migration}")
     private String[] locations;
 
     @Value("${spring.flyway.baseline-version:1}")
     private String baselineVersion;
 
+    @Value("${database.migration.mode:manifest}")
+    private MigrationMode mode;
+
+    @Value("${database.migration.manifest:classpath:" + MigrationManifest.RESOURCE + "}")
+    private Resource manifest;
+
     /**
      * Configure Flyway with environment-specific settings
      * - Production: Strict settings with clean disabled
      * - Dev/Test: More flexible settings with clean enabled
      */
     @Bean
-    public Flyway flyway(DataSource dataSource, Environment environment) {
+    public Flyway flyway(DataSource dataSource, Environment environment) throws IOException {
         boolean isProduction = environment.matchesProfiles("prod");
         
         Flyway flyway = Flyway.configure()
@@ -41,15 +67,55 @@ public class FlywayConfig {
                 .outOfOrder(!isProduction) // Allow out of order only in non-production
                 .load();
         
-        flyway.migrate();
+        migrate(flyway);
         return flyway;
     }
 
     /**
-     * FlywayMigrationInitializer bean for Spring Boot compatibility
+     * FlywayMigrationInitializer bean for Spring Boot compatibility. The schema was already
+     * migrated when the Flyway bean was created, so it does not migrate a second time.
      */
     @Bean
     public FlywayMigrationInitializer flywayInitializer(Flyway flyway) {
-        return new FlywayMigrationInitializer(flyway);
+        return new FlywayMigrationInitializer(flyway, migrated -> { });
+    }
+
+    private void migrate(Flyway flyway) throws IOException {
+        long start = System.nanoTime();
+        if (mode == MigrationMode.MIGRATE) {
+            flyway.migrate();
+            log.info("Validated and migrated the schema in {} ms", millisSince(start));
+            return;
+        }
+        MigrationManifest expected = readManifest();
+        if (expected != null && expected.isApplied(flyway.getConfiguration().getDataSource(),
+                flyway.getConfiguration().getTable())) {
+            log.info("Schema history matches the migration manifest up to version {}, checked in {} ms",
+                    expected.latestVersion(), millisSince(start));
+            return;
+        }
+        if (mode == MigrationMode.VERIFY) {
+            throw new IllegalStateException(expected == null
+                    ? "No migration manifest at " + manifest + " to verify the schema against"
+                    : "Schema is not migrated to version " + expected.latestVersion() + ", run MigrationJob first");
+        }
+        if (expected == null) {
+            log.warn("No migration manifest at {}, validating every migration", manifest);
+        }
+        flyway.migrate();
+        log.info("Validated and migrated the schema in {} ms", millisSince(start));
+    }
+
+    private static long millisSince(long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    private MigrationManifest readManifest() throws IOException {
+        if (!manifest.exists()) {
+            return null;
+        }
+        try (InputStream in = manifest.getInputStream()) {
+            return MigrationManifest.read(in);
+        }
     }
 }
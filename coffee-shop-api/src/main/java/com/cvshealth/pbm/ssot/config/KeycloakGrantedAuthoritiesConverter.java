@@ -4,7 +4,6 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -14,23 +13,10 @@ import java.util.Map;
 public class KeycloakGrantedAuthoritiesConverter implements IdpGrantedAuthoritiesConverter {
     @Override
     public Collection<GrantedAuthority> convert(Jwt jwt) {
-        Map<String, Object> realmAccess = jwt.getClaimAsMap("realm_access");
-        if (realmAccess == null) {
+        // the raw claim, getClaimAsMap would copy it on every request
+        if (!(jwt.getClaims().get("realm_access") instanceof Map<?, ?> realmAccess)) {
             return List.of();
         }
-        @SuppressWarnings("unchecked")
-        List<String> roles = (List<String>) realmAccess.get("roles");
-        if (roles == null || roles.isEmpty()) {
-            return List.of();
-        }
-        return roles.stream()
-            .filter(role -> 
-                "artifact-admin".equals(role) ||
-                "artifact-user".equals(role) ||
-                "artifact-readonly".equals(role)
-            )
-            .map(SimpleGrantedAuthority::new)
-            .map(GrantedAuthority.class::cast)
-            .toList();
+        return ArtifactAuthorities.of(realmAccess.get("roles"), false);
     }
 }
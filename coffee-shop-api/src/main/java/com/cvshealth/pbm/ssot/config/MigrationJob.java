@@ -0,0 +1,37 @@
+package com.cvshealth.pbm.ssot.config;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+import java.util.Arrays;
+
+/**
+ * Migrates the schema and exits, without starting the web server or anything else, so that
+ * migrations can run as a one-shot job ahead of a rollout. The application then starts with
+ * {@code database.migration.mode=verify} and only checks the schema history. Reads the same
+ * configuration as the application; the mode defaults to manifest, which returns at once when
+ * there is nothing to migrate.
+ *
+ * <pre>
+ * java -cp application.jar com.cvshealth.pbm.ssot.config.MigrationJob --spring.profiles.active=prod
+ * </pre>
+ */
+public final class MigrationJob {
+
+    private MigrationJob() {
+    }
+
+    public static void main(String[] args) {
+        String[] jobArgs = args;
+        if (Arrays.stream(args).noneMatch(arg -> arg.startsWith("--database.migration.mode="))) {
+            jobArgs = Arrays.copyOf(args, args.length + 1);
+            jobArgs[args.length] = "--database.migration.mode=manifest";
+        }
+        System.exit(SpringApplication.exit(new SpringApplicationBuilder(DataSourceAutoConfiguration.class,
+                FlywayConfig.class)
+                .web(WebApplicationType.NONE)
+                .run(jobArgs)));
+    }
+}
@@ -0,0 +1,139 @@
+package com.cvshealth.pbm.ssot.config;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.MigrationVersion;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Versions and Flyway checksums of the versioned migrations, computed when the project is built
+ * (exec-maven-plugin in process-classes runs {@link #main}) and packaged as
+ * {@code db/migration.manifest}. Comparing it with the schema history takes one query, where
+ * Flyway scans the classpath and checksums every script.
+ */
+public final class MigrationManifest {
+
+    public static final String RESOURCE = "db/migration.manifest";
+
+    // version -> checksum, oldest first
+    private final Map<String, Integer> checksums;
+
+    MigrationManifest(Map<String, Integer> checksums) {
+        Map<String, Integer> sorted = new LinkedHashMap<>();
+        checksums.keySet().stream()
+            .sorted(Comparator.comparing(MigrationVersion::fromVersion))
+            .forEach(version -> sorted.put(version, checksums.get(version)));
+        this.checksums = sorted;
+    }
+
+    /**
+     * Writes the manifest of the migrations in {@code args[0]} to {@code args[1]}
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: MigrationManifest <migration directory> <manifest file>");
+        }
+        MigrationManifest manifest = scan(Path.of(args[0]));
+        manifest.write(Path.of(args[1]));
+        System.out.printf("Wrote %d migrations up to %s to %s%n", manifest.checksums.size(),
+            manifest.latestVersion(), args[1]);
+    }
+
+    /**
+     * Flyway resolves the scripts and computes the checksums itself, against an empty in-memory
+     * database, so they are the ones it writes to the schema history. Nothing is migrated.
+     */
+    static MigrationManifest scan(Path directory) {
+        Flyway flyway = Flyway.configure()
+            .dataSource("jdbc:h2:mem:migration-manifest", "sa", "")
+            .locations("filesystem:" + directory.toAbsolutePath())
+            .load();
+        Map<String, Integer> checksums = new HashMap<>();
+        for (MigrationInfo migration : flyway.info().all()) {
+            if (migration.getVersion() != null) {
+                checksums.put(migration.getVersion().getVersion(), migration.getChecksum());
+            }
+        }
+        return new MigrationManifest(checksums);
+    }
+
+    static MigrationManifest read(InputStream in) throws IOException {
+        Map<String, Integer> checksums = new HashMap<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split("\t");
+            checksums.put(fields[0], Integer.parseInt(fields[1]));
+        }
+        return new MigrationManifest(checksums);
+    }
+
+    void write(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("# version\tchecksum, generated by " + MigrationManifest.class.getName() + "\n");
+            for (Map.Entry<String, Integer> entry : checksums.entrySet()) {
+                out.write(entry.getKey() + "\t" + entry.getValue() + "\n");
+            }
+        }
+    }
+
+    Map<String, Integer> checksums() {
+        return checksums;
+    }
+
+    String latestVersion() {
+        String latest = null;
+        for (String version : checksums.keySet()) {
+            latest = version;
+        }
+        return latest;
+    }
+
+    /**
+     * Whether every migration of the manifest was applied successfully with the same checksum,
+     * according to the Flyway schema history {@code table}. False when the table does not exist.
+     */
+    boolean isApplied(DataSource dataSource, String table) {
+        Map<String, Integer> applied = new HashMap<>();
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT \"version\", \"checksum\", \"success\" FROM \""
+                 + table + "\" WHERE \"version\" IS NOT NULL")) {
+            while (rows.next()) {
+                if (!rows.getBoolean(3)) {
+                    return false;
+                }
+                applied.put(rows.getString(1), (Integer) rows.getObject(2));
+            }
+        } catch (SQLException e) {
+            return false;
+        }
+        for (Map.Entry<String, Integer> entry : checksums.entrySet()) {
+            if (!applied.containsKey(entry.getKey()) || !Objects.equals(applied.get(entry.getKey()), entry.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
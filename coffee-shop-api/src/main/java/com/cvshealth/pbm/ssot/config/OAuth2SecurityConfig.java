@@ -1,5 +1,6 @@
 package com.cvshealth.pbm.ssot.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
@@ -27,6 +28,13 @@ public class OAuth2SecurityConfig {
     @Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri:}")
     private String jwkSetUri;
 
+    // verified tokens kept until they expire, 0 verifies every request
+    @Value("${security.jwt-cache.max-entries:10000}")
+    private int jwtCacheMaxEntries;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
 
 
     @Autowired
@@ -75,6 +83,11 @@ public class OAuth2SecurityConfig {
 
     @Bean
     public JwtDecoder jwtDecoder() {
+        JwtDecoder decoder = nimbusJwtDecoder();
+        return jwtCacheMaxEntries > 0 ? new CachingJwtDecoder(decoder, jwtCacheMaxEntries, meterRegistry) : decoder;
+    }
+
+    private JwtDecoder nimbusJwtDecoder() {
         if (!jwkSetUri.isEmpty()) {
             // Use JWK Set URI if provided
             return NimbusJwtDecoder.withJwkSetUri(jwkSetUri).build();
@@ -0,0 +1,90 @@
+package com.cvshealth.pbm.ssot.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Per call consistency of reads that {@link ReplicaRoutingDataSource} may serve from the read
+ * replica. A read-only transaction normally sees the replica, at most
+ * {@code database.replica.max-lag} behind the primary. Within {@link #after} it only uses the
+ * replica once that has replayed the given primary WAL position, which makes a call read its own
+ * writes; within {@link #onPrimary} it always reads the primary. Scopes are per thread, nested
+ * scopes keep the strictest requirement.
+ */
+public final class ReadConsistency {
+
+    static final long ANY = 0;
+    static final long PRIMARY = Long.MAX_VALUE;
+
+    private static final ThreadLocal<Long> REQUIRED = new ThreadLocal<>();
+
+    private ReadConsistency() {
+    }
+
+    public static <T> T onPrimary(Supplier<T> work) {
+        return after(PRIMARY, work);
+    }
+
+    /**
+     * Run {@code work} with reads that see at least everything committed on the primary up to {@code position}
+     */
+    public static <T> T after(long position, Supplier<T> work) {
+        Long outer = enter(position);
+        try {
+            return work.get();
+        } finally {
+            exit(outer);
+        }
+    }
+
+    /**
+     * @return the requirement of the enclosing scope, to pass to {@link #exit}
+     */
+    static Long enter(long position) {
+        Long outer = REQUIRED.get();
+        REQUIRED.set(outer == null ? position : Math.max(outer, position));
+        return outer;
+    }
+
+    static void exit(Long outer) {
+        if (outer == null) {
+            REQUIRED.remove();
+        } else {
+            REQUIRED.set(outer);
+        }
+    }
+
+    static long required() {
+        Long required = REQUIRED.get();
+        return required == null ? ANY : required;
+    }
+
+    /**
+     * {@code task} with the requirement of the calling thread, for work handed to another thread
+     */
+    static Runnable propagate(Runnable task) {
+        long required = required();
+        if (required == ANY) {
+            return task;
+        }
+        return () -> after(required, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Parses a Postgres WAL position (pg_lsn) such as {@code 16/B374D848}
+     */
+    public static long parsePosition(String lsn) {
+        int slash = lsn.indexOf('/');
+        if (slash <= 0 || slash == lsn.length() - 1) {
+            throw new IllegalArgumentException("Not a WAL position: " + lsn);
+        }
+        return (Long.parseLong(lsn.substring(0, slash), 16) << 32) | Long.parseLong(lsn.substring(slash + 1), 16);
+    }
+
+    public static String formatPosition(long position) {
+        return Long.toHexString(position >>> 32).toUpperCase() + "/"
+            + Long.toHexString(position & 0xFFFFFFFFL).toUpperCase();
+    }
+}
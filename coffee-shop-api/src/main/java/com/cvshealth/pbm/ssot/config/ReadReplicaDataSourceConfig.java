@@ -0,0 +1,177 @@
+package com.cvshealth.pbm.ssot.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Read/write splitting over a Postgres streaming replica, active when
+ * {@code spring.datasource.replica.jdbc-url} is set. The application's DataSource hands out
+ * primary connections, except to {@code @Transactional(readOnly = true)} work, which reads from
+ * the replica through {@link ReplicaRoutingDataSource} while the replica keeps up. The two
+ * HikariCP pools are sized separately: the primary by {@code spring.datasource.hikari.*}, the
+ * replica by {@code spring.datasource.replica.*}.
+ *
+ * Write responses carry the primary's WAL position as {@value #WRITE_POSITION_HEADER}; a client
+ * that sends it back as {@value #READ_AFTER_HEADER} reads its own writes.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.datasource.replica.jdbc-url")
+public class ReadReplicaDataSourceConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadReplicaDataSourceConfig.class);
+
+    public static final String READ_AFTER_HEADER = "X-Read-After";
+    public static final String WRITE_POSITION_HEADER = "X-Write-Position";
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    /**
+     * Same credentials and driver as the primary unless {@code spring.datasource.replica.*} says otherwise
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.replica")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setDriverClassName(properties.determineDriverClassName());
+        dataSource.setUsername(properties.determineUsername());
+        dataSource.setPassword(properties.determinePassword());
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                                             @Qualifier("replicaDataSource") DataSource replica,
+                                                             @Value("${database.replica.max-lag:5s}") Duration maxLag,
+                                                             MeterRegistry meterRegistry) {
+        return new ReplicaRoutingDataSource(primary, replica, maxLag, meterRegistry);
+    }
+
+    /**
+     * The DataSource of JPA, Flyway and everything else. Connections are fetched on first use,
+     * when the transaction's read-only flag is known.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary, ReplicaRoutingDataSource reads) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(reads);
+        return dataSource;
+    }
+
+    @Bean
+    public ReadAfterFilter readAfterFilter() {
+        return new ReadAfterFilter();
+    }
+
+    /**
+     * Exports stream on the task executor, they keep the read consistency of their request
+     */
+    @Bean
+    public TaskDecorator readConsistencyTaskDecorator() {
+        return ReadConsistency::propagate;
+    }
+
+    /**
+     * Applies {@value #READ_AFTER_HEADER} to the reads of the request
+     */
+    static class ReadAfterFilter extends OncePerRequestFilter {
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                throws ServletException, IOException {
+            String header = request.getHeader(READ_AFTER_HEADER);
+            if (header == null) {
+                chain.doFilter(request, response);
+                return;
+            }
+            long position;
+            try {
+                position = ReadConsistency.parsePosition(header.trim());
+            } catch (IllegalArgumentException e) {
+                response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid " + READ_AFTER_HEADER + " header: " + header);
+                return;
+            }
+            Long outer = ReadConsistency.enter(position);
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                ReadConsistency.exit(outer);
+            }
+        }
+    }
+
+    /**
+     * Adds {@value #WRITE_POSITION_HEADER} to successful responses of requests that may have written
+     */
+    @ControllerAdvice
+    @ConditionalOnProperty(name = "spring.datasource.replica.jdbc-url")
+    static class WritePositionAdvice implements ResponseBodyAdvice<Object> {
+
+        private final ReplicaRoutingDataSource reads;
+
+        WritePositionAdvice(ReplicaRoutingDataSource reads) {
+            this.reads = reads;
+        }
+
+        @Override
+        public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+            return true;
+        }
+
+        @Override
+        public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType contentType,
+                                      Class<? extends HttpMessageConverter<?>> converterType,
+                                      ServerHttpRequest request, ServerHttpResponse response) {
+            if (HttpMethod.GET.equals(request.getMethod()) || HttpMethod.HEAD.equals(request.getMethod())
+                    || response instanceof ServletServerHttpResponse servlet && servlet.getServletResponse().getStatus() >= 400) {
+                return body;
+            }
+            try {
+                response.getHeaders().set(WRITE_POSITION_HEADER, ReadConsistency.formatPosition(reads.primaryPosition()));
+            } catch (SQLException e) {
+                log.warn("No {} header, the primary's WAL position could not be read: {}", WRITE_POSITION_HEADER,
+                    e.getMessage());
+            }
+            return body;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.cvshealth.pbm.ssot.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Connections for read-only transactions: from the read replica while it is reachable, no more
+ * than {@code database.replica.max-lag} behind and has replayed the position the call asked for
+ * with {@link ReadConsistency}; from the primary otherwise. The lag is checked every
+ * {@code database.replica.lag-check-interval}. A replica that has replayed the primary's current
+ * WAL position has no lag however old its last transaction; one that has not is as far behind as
+ * the last transaction it replayed.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    enum Target { PRIMARY, REPLICA }
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final double maxLagSeconds;
+    private final Counter primaryReads;
+    private final Counter replicaReads;
+
+    // nothing is read from the replica until the first check found it current enough
+    private volatile boolean replicaUsable;
+    private volatile long replayedPosition;
+    private volatile double lagSeconds = Double.NaN;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, Duration maxLag, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replica = replica;
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        this.primaryReads = Counter.builder("datasource.reads").tag("target", "primary")
+            .description("Read-only transactions by the database they read from").register(meterRegistry);
+        this.replicaReads = Counter.builder("datasource.reads").tag("target", "replica").register(meterRegistry);
+        Gauge.builder("datasource.replica.lag", this, r -> r.lagSeconds).baseUnit("seconds").register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return count(target(ReadConsistency.required())).getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return count(target(ReadConsistency.required())).getConnection(username, password);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return target(ReadConsistency.required());
+    }
+
+    private DataSource count(Target target) {
+        if (target == Target.REPLICA) {
+            replicaReads.increment();
+            return replica;
+        }
+        primaryReads.increment();
+        return primary;
+    }
+
+    Target target(long required) {
+        if (!replicaUsable || required == ReadConsistency.PRIMARY) {
+            return Target.PRIMARY;
+        }
+        if (required > replayedPosition) {
+            // the last check may just predate the write, ask the replica before giving up on it
+            try {
+                replayed(replayedPosition());
+            } catch (SQLException e) {
+                return Target.PRIMARY;
+            }
+            if (required > replayedPosition) {
+                return Target.PRIMARY;
+            }
+        }
+        return Target.REPLICA;
+    }
+
+    /**
+     * The primary's current WAL position; a read after it sees everything committed so far
+     */
+    public long primaryPosition() throws SQLException {
+        return position(primary, "SELECT pg_current_wal_lsn()::text");
+    }
+
+    @Scheduled(fixedDelayString = "${database.replica.lag-check-interval:PT1S}")
+    public void checkLag() {
+        boolean usable;
+        try {
+            long current = primaryPosition();
+            try (Connection connection = replica.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rows = statement.executeQuery("SELECT pg_last_wal_replay_lsn()::text, "
+                     + "EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp())")) {
+                rows.next();
+                if (rows.getString(1) == null) {
+                    throw new SQLException("The read replica is not a streaming standby");
+                }
+                long replayed = ReadConsistency.parsePosition(rows.getString(1));
+                replayed(replayed);
+                double behind = rows.getDouble(2);
+                lagSeconds = replayed >= current ? 0 : rows.wasNull() ? Double.POSITIVE_INFINITY : behind;
+            }
+            usable = lagSeconds <= maxLagSeconds;
+            if (usable != replicaUsable) {
+                log.info(usable ? "Reading from the replica, {} s behind" : "Reading from the primary, the replica is {} s behind",
+                    lagSeconds);
+            }
+        } catch (SQLException e) {
+            usable = false;
+            lagSeconds = Double.NaN;
+            if (replicaUsable) {
+                log.warn("Reading from the primary, the replica lag could not be checked: {}", e.getMessage());
+            }
+        }
+        replicaUsable = usable;
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    public double getLagSeconds() {
+        return lagSeconds;
+    }
+
+    private long replayedPosition() throws SQLException {
+        return position(replica, "SELECT pg_last_wal_replay_lsn()::text");
+    }
+
+    private synchronized void replayed(long position) {
+        replayedPosition = Math.max(replayedPosition, position);
+    }
+
+    private static long position(DataSource dataSource, String query) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery(query)) {
+            rows.next();
+            String lsn = rows.getString(1);
+            if (lsn == null) {
+                throw new SQLException("No WAL position from " + query);
+            }
+            return ReadConsistency.parsePosition(lsn);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.cvshealth.pbm.ssot.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reports virtual threads that block while pinned to their carrier thread, inside a
+ * synchronized block or a native frame, for longer than {@code virtual-threads.pinned-threshold}.
+ * Every such event is recorded in the {@code jvm.threads.virtual.pinned} timer and each distinct
+ * stack is logged once. Only active when requests run on virtual threads.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int MAX_LOGGED_STACKS = 256;
+    private static final int MAX_FRAMES = 24;
+
+    private final Duration threshold;
+    private final Timer pinned;
+    private final Set<String> loggedStacks = ConcurrentHashMap.newKeySet();
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                       @Value("${virtual-threads.pinned-threshold:20ms}") Duration threshold) {
+        this.threshold = threshold;
+        this.pinned = Timer.builder("jvm.threads.virtual.pinned")
+            .description("Time virtual threads spent blocked while pinned to their carrier")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        log.info("Reporting virtual threads pinned for longer than {} ms", threshold.toMillis());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinned.record(event.getDuration());
+        String stack = stack(event.getStackTrace());
+        if (loggedStacks.size() < MAX_LOGGED_STACKS && loggedStacks.add(stack)) {
+            log.warn("Virtual thread {} was pinned to its carrier for {} ms{}",
+                event.getThread() == null ? "?" : event.getThread().getJavaName(),
+                event.getDuration().toMillis(), stack);
+        }
+    }
+
+    private static String stack(RecordedStackTrace trace) {
+        if (trace == null) {
+            return "";
+        }
+        StringBuilder stack = new StringBuilder();
+        for (RecordedFrame frame : trace.getFrames().subList(0, Math.min(MAX_FRAMES, trace.getFrames().size()))) {
+            stack.append("\n\tat ").append(frame.getMethod().getType().getName())
+                .append('.').append(frame.getMethod().getName())
+                .append(':').append(frame.getLineNumber());
+        }
+        return stack.toString();
+    }
+}
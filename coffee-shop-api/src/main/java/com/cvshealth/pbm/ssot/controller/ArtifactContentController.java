@@ -0,0 +1,162 @@
+package com.cvshealth.pbm.ssot.controller;
+
+import com.cvshealth.pbm.ssot.dto.ArtifactContent;
+import com.cvshealth.pbm.ssot.dto.ContentManifest;
+import com.cvshealth.pbm.ssot.model.Artifact;
+import com.cvshealth.pbm.ssot.service.ArtifactContentService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/artifacts/{id}/content")
+@Tag(name = "Artifacts", description = "Artifact management endpoints")
+public class ArtifactContentController {
+
+    // Tomcat writes a file itself with sendfile(2) once the handler returns, see Http11Processor
+    static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final int COPY_BLOCK_SIZE = 256 * 1024;
+
+    private final ArtifactContentService contentService;
+
+    public ArtifactContentController(ArtifactContentService contentService) {
+        this.contentService = contentService;
+    }
+
+    // PUT /api/artifacts/{id}/content - Requires: artifact-admin or artifact-user
+    @PutMapping
+    @Operation(
+        summary = "Upload artifact content",
+        description = "Streams the request body to the content store, replacing the previous binary. "
+            + "Accessible by admin and user roles only.",
+        security = @SecurityRequirement(name = "bearerAuth")
+    )
+    public Artifact uploadContent(@PathVariable Long id, HttpServletRequest request) throws IOException {
+        // Authorization: HTTP Method PUT + /api/** = artifact-admin|artifact-user
+        return contentService.upload(id, request.getInputStream(), request.getContentType(),
+            request.getContentLengthLong());
+    }
+
+    // PUT /api/artifacts/{id}/content/manifest - Requires: artifact-admin or artifact-user
+    @PutMapping("/manifest")
+    @Operation(
+        summary = "Set artifact content from stored chunks",
+        description = "Makes the listed chunks, in order, the artifact content. Chunks the server does not have are "
+            + "returned with 409 as missingChunks. Accessible by admin and user roles only.",
+        security = @SecurityRequirement(name = "bearerAuth")
+    )
+    public Artifact commitManifest(@PathVariable Long id, @RequestBody ContentManifest manifest) throws IOException {
+        // Authorization: HTTP Method PUT + /api/** = artifact-admin|artifact-user
+        return contentService.commitManifest(id, manifest);
+    }
+
+    // GET /api/artifacts/{id}/content - Requires: artifact-admin, artifact-user, or artifact-readonly
+    @GetMapping
+    @Operation(
+        summary = "Download artifact content",
+        description = "Returns the artifact binary. A single byte range is honoured with 206 Partial Content. "
+            + "Accessible by admin, user, and readonly roles.",
+        security = @SecurityRequirement(name = "bearerAuth")
+    )
+    public void downloadContent(@PathVariable Long id,
+                                @RequestHeader(value = HttpHeaders.RANGE, required = false) String rangeHeader,
+                                HttpServletRequest request, HttpServletResponse response) throws IOException {
+        // Authorization: HTTP Method GET + /api/** = artifact-admin|artifact-user|artifact-readonly
+        ArtifactContent content = contentService.open(id);
+        long length = content.length();
+        long start = 0;
+        long end = length - 1;
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        HttpRange range = singleRange(rangeHeader);
+        if (range != null) {
+            start = range.getRangeStart(length);
+            end = range.getRangeEnd(length);
+            if (start >= length) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                return;
+            }
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+        long count = end - start + 1;
+        response.setContentType(content.contentType());
+        response.setContentLengthLong(count);
+        if (count == 0 || "HEAD".equals(request.getMethod())) {
+            return;
+        }
+
+        send(content.segments(), start, end, request, response);
+    }
+
+    /**
+     * Write content bytes {@code [start, end]} from the chunk files holding them
+     */
+    private static void send(List<ArtifactContent.Segment> chunks, long start, long end, HttpServletRequest request,
+                             HttpServletResponse response) throws IOException {
+        List<ArtifactContent.Segment> segments = chunks.stream()
+            .filter(segment -> segment.offset() <= end && segment.offset() + segment.length() > start)
+            .toList();
+        if (segments.size() == 1 && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            ArtifactContent.Segment segment = segments.get(0);
+            request.setAttribute(SENDFILE_FILENAME, segment.path().toString());
+            request.setAttribute(SENDFILE_START, start - segment.offset());
+            request.setAttribute(SENDFILE_END, end + 1 - segment.offset());
+            return;
+        }
+        // sendfile takes a single file. Spanning chunks (or TLS, other containers) is copied in
+        // large blocks: Tomcat writes arrays bigger than its buffer straight to the socket, while
+        // transferTo into a stream channel would move 8KB at a time
+        OutputStream out = response.getOutputStream();
+        byte[] block = new byte[COPY_BLOCK_SIZE];
+        for (ArtifactContent.Segment segment : segments) {
+            long from = Math.max(start, segment.offset()) - segment.offset();
+            long to = Math.min(end + 1, segment.offset() + segment.length()) - segment.offset();
+            try (FileChannel file = FileChannel.open(segment.path(), StandardOpenOption.READ)) {
+                while (from < to) {
+                    int read = file.read(ByteBuffer.wrap(block, 0, (int) Math.min(block.length, to - from)), from);
+                    if (read == -1) {
+                        throw new EOFException(segment.path() + " is shorter than recorded");
+                    }
+                    out.write(block, 0, read);
+                    from += read;
+                }
+            }
+        }
+    }
+
+    /**
+     * The one range of the header, or null to send the whole content: a malformed header is
+     * ignored and a multi-range request gets the full body, both allowed by RFC 9110
+     */
+    private static HttpRange singleRange(String rangeHeader) {
+        if (rangeHeader == null) {
+            return null;
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -1,13 +1,33 @@
 package com.cvshealth.pbm.ssot.controller;
 
+import com.cvshealth.pbm.ssot.dto.ArtifactPage;
+import com.cvshealth.pbm.ssot.dto.ArtifactRequest;
+import com.cvshealth.pbm.ssot.dto.ArtifactRevision;
+import com.cvshealth.pbm.ssot.dto.ArtifactSearchResult;
+import com.cvshealth.pbm.ssot.model.Artifact;
+import com.cvshealth.pbm.ssot.model.ArtifactStatus;
+import com.cvshealth.pbm.ssot.search.ArtifactSearchIndex;
+import com.cvshealth.pbm.ssot.service.ArtifactResponseCache;
+import com.cvshealth.pbm.ssot.service.ArtifactService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
 import java.time.LocalDateTime;
-import java.util.HashMap;
-import java.util.List;
+import java.time.ZoneId;
 import java.util.Map;
 
 @RestController
@@ -15,36 +35,99 @@ import java.util.Map;
 @Tag(name = "Artifacts", description = "Artifact management endpoints")
 public class ArtifactController {
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    // clients may keep responses but have to revalidate them with If-None-Match
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private final ArtifactService artifactService;
+    private final ArtifactSearchIndex searchIndex;
+
+    public ArtifactController(ArtifactService artifactService, ArtifactSearchIndex searchIndex) {
+        this.artifactService = artifactService;
+        this.searchIndex = searchIndex;
+    }
+
     // GET /api/artifacts - Requires: artifact-admin, artifact-user, or artifact-readonly
     @GetMapping
     @Operation(
         summary = "Get all artifacts",
-        description = "Returns list of all artifacts. Accessible by admin, user, and readonly roles.",
+        description = "Returns one page of artifacts, oldest first, optionally filtered by type and status. "
+            + "Pass nextCursor as cursor to get the following page. The weak ETag changes whenever an artifact "
+            + "of the page changes; If-None-Match with it returns 304. Accessible by admin, user, and readonly roles.",
         security = @SecurityRequirement(name = "bearerAuth")
     )
-    public List<Map<String, Object>> getAllArtifacts() {
+    public ResponseEntity<ArtifactPage> getAllArtifacts(@RequestParam(required = false) String type,
+                                                        @RequestParam(required = false) ArtifactStatus status,
+                                                        @RequestParam(required = false) String cursor,
+                                                        @RequestParam(defaultValue = "" + ArtifactService.DEFAULT_PAGE_SIZE) int limit,
+                                                        WebRequest request) {
         // Authorization: HTTP Method GET + /api/** = artifact-admin|artifact-user|artifact-readonly
-        return List.of(
-            Map.of("id", 1, "name", "Artifact 1", "type", "library"),
-            Map.of("id", 2, "name", "Artifact 2", "type", "application")
-        );
+        ArtifactPage page = artifactService.list(type, status, cursor, limit);
+        String etag = etag(page);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(REVALIDATE).eTag(etag).body(page);
+    }
+
+    // GET /api/artifacts/search - Requires: artifact-admin, artifact-user, or artifact-readonly
+    @GetMapping("/search")
+    @Operation(
+        summary = "Search artifacts",
+        description = "Returns the artifacts whose name, type or description contain every word of q, best matches "
+            + "first, with the number of matches per type and status. Without q all artifacts match, most "
+            + "recently changed first. Accessible by admin, user, and readonly roles.",
+        security = @SecurityRequirement(name = "bearerAuth")
+    )
+    public ArtifactSearchResult searchArtifacts(@RequestParam(required = false) String q,
+                                                @RequestParam(required = false) String type,
+                                                @RequestParam(required = false) ArtifactStatus status,
+                                                @RequestParam(defaultValue = "" + ArtifactSearchIndex.DEFAULT_LIMIT) int limit) {
+        // Authorization: HTTP Method GET + /api/** = artifact-admin|artifact-user|artifact-readonly
+        return searchIndex.search(q, type, status, limit);
+    }
+
+    // GET /api/artifacts/export - Requires: artifact-admin, artifact-user, or artifact-readonly
+    @GetMapping("/export")
+    @Operation(
+        summary = "Export artifacts",
+        description = "Streams all matching artifacts as newline delimited JSON. "
+            + "Accessible by admin, user, and readonly roles.",
+        security = @SecurityRequirement(name = "bearerAuth")
+    )
+    public ResponseEntity<StreamingResponseBody> exportArtifacts(@RequestParam(required = false) String type,
+                                                                 @RequestParam(required = false) ArtifactStatus status) {
+        // Authorization: HTTP Method GET + /api/** = artifact-admin|artifact-user|artifact-readonly
+        return ResponseEntity.ok()
+            .contentType(NDJSON)
+            .body(out -> artifactService.export(type, status, out));
     }
 
     // GET /api/artifacts/{id} - Requires: artifact-admin, artifact-user, or artifact-readonly
     @GetMapping("/{id}")
     @Operation(
         summary = "Get artifact by ID",
-        description = "Returns a specific artifact by ID. Accessible by admin, user, and readonly roles.",
+        description = "Returns a specific artifact by ID with its revision as ETag and updatedAt as Last-Modified. "
+            + "If-None-Match or If-Modified-Since return 304 when the artifact is unchanged. "
+            + "Accessible by admin, user, and readonly roles.",
         security = @SecurityRequirement(name = "bearerAuth")
     )
-    public Map<String, Object> getArtifactById(@PathVariable Long id) {
+    @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = Artifact.class)))
+    public ResponseEntity<byte[]> getArtifactById(@PathVariable Long id, WebRequest request) throws IOException {
         // Authorization: HTTP Method GET + /api/** = artifact-admin|artifact-user|artifact-readonly
-        return Map.of(
-            "id", id,
-            "name", "Artifact " + id,
-            "type", "library",
-            "createdAt", LocalDateTime.now()
-        );
+        // the conditional headers are checked against the revision alone, the row is only read on a miss
+        ArtifactRevision current = artifactService.revision(id);
+        if (request.checkNotModified(etag(current.revision()), epochMillis(current.updatedAt()))) {
+            return null;
+        }
+        ArtifactResponseCache.Entry json = artifactService.json(current);
+        return ResponseEntity.ok()
+            .cacheControl(REVALIDATE)
+            .eTag(etag(json.revision()))
+            .lastModified(epochMillis(json.updatedAt()))
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(json.json());
     }
 
     // POST /api/artifacts - Requires: artifact-admin or artifact-user
@@ -54,13 +137,9 @@ public class ArtifactController {
         description = "Creates a new artifact. Accessible by admin and user roles only.",
         security = @SecurityRequirement(name = "bearerAuth")
     )
-    public Map<String, Object> createArtifact(@RequestBody Map<String, Object> artifact) {
+    public Artifact createArtifact(@RequestBody ArtifactRequest artifact, Principal principal) {
         // Authorization: HTTP Method POST + /api/** = artifact-admin|artifact-user
-        Map<String, Object> created = new HashMap<>(artifact);
-        created.put("id", System.currentTimeMillis());
-        created.put("createdAt", LocalDateTime.now());
-        created.put("status", "created");
-        return created;
+        return artifactService.create(artifact, principal == null ? null : principal.getName());
     }
 
     // PUT /api/artifacts/{id} - Requires: artifact-admin or artifact-user
@@ -70,13 +149,9 @@ public class ArtifactController {
         description = "Updates an existing artifact. Accessible by admin and user roles only.",
         security = @SecurityRequirement(name = "bearerAuth")
     )
-    public Map<String, Object> updateArtifact(@PathVariable Long id, @RequestBody Map<String, Object> artifact) {
+    public Artifact updateArtifact(@PathVariable Long id, @RequestBody ArtifactRequest artifact) {
         // Authorization: HTTP Method PUT + /api/** = artifact-admin|artifact-user
-        Map<String, Object> updated = new HashMap<>(artifact);
-        updated.put("id", id);
-        updated.put("updatedAt", LocalDateTime.now());
-        updated.put("status", "updated");
-        return updated;
+        return artifactService.update(id, artifact);
     }
 
     // DELETE /api/artifacts/{id} - Requires: artifact-admin only
@@ -88,10 +163,31 @@ public class ArtifactController {
     )
     public Map<String, Object> deleteArtifact(@PathVariable Long id) {
         // Authorization: HTTP Method DELETE + /api/** = artifact-admin
+        artifactService.delete(id);
         return Map.of(
             "id", id,
             "status", "deleted",
             "deletedAt", LocalDateTime.now()
         );
     }
+
+    private static String etag(long revision) {
+        return "\"" + revision + "\"";
+    }
+
+    /**
+     * Weak, the page is compared by the ids and revisions it contains rather than byte for byte
+     */
+    private static String etag(ArtifactPage page) {
+        StringBuilder key = new StringBuilder();
+        for (Artifact artifact : page.items()) {
+            key.append(artifact.getId()).append(':').append(artifact.getRevision()).append(',');
+        }
+        key.append(page.nextCursor());
+        return "W/\"" + DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    private static long epochMillis(LocalDateTime time) {
+        return time == null ? -1 : time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
 }
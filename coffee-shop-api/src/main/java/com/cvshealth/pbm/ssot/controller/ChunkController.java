@@ -0,0 +1,58 @@
+package com.cvshealth.pbm.ssot.controller;
+
+import com.cvshealth.pbm.ssot.service.ArtifactContentService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.bind.annotation.*;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Chunk level upload for clients that split content on their side: they send only the chunks
+ * the server is missing and then set the artifact content with PUT /api/artifacts/{id}/content/manifest
+ */
+@RestController
+@RequestMapping("/api/artifacts/chunks")
+@Tag(name = "Artifacts", description = "Artifact management endpoints")
+public class ChunkController {
+
+    private final ArtifactContentService contentService;
+
+    public ChunkController(ArtifactContentService contentService) {
+        this.contentService = contentService;
+    }
+
+    // POST /api/artifacts/chunks/missing - Requires: artifact-admin or artifact-user
+    @PostMapping("/missing")
+    @Operation(
+        summary = "Find missing chunks",
+        description = "Returns the chunk SHA-256s of the request the server does not store. "
+            + "Accessible by admin and user roles only.",
+        security = @SecurityRequirement(name = "bearerAuth")
+    )
+    public List<String> findMissing(@RequestBody List<String> chunks) {
+        // Authorization: HTTP Method POST + /api/** = artifact-admin|artifact-user
+        return contentService.missingChunks(chunks);
+    }
+
+    // PUT /api/artifacts/chunks/{sha256} - Requires: artifact-admin or artifact-user
+    @PutMapping("/{sha256}")
+    @Operation(
+        summary = "Upload chunk",
+        description = "Stores a chunk of at most 4MB under the SHA-256 of its bytes. "
+            + "Accessible by admin and user roles only.",
+        security = @SecurityRequirement(name = "bearerAuth")
+    )
+    public Map<String, Object> uploadChunk(@PathVariable String sha256, HttpServletRequest request) throws IOException {
+        // Authorization: HTTP Method PUT + /api/** = artifact-admin|artifact-user
+        boolean stored = contentService.storeChunk(sha256, request.getInputStream());
+        return Map.of(
+            "sha256", sha256,
+            "status", stored ? "stored" : "deduplicated"
+        );
+    }
+}
@@ -0,0 +1,16 @@
+package com.cvshealth.pbm.ssot.dto;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Stored binary of an artifact as the chunk files to send in order
+ */
+public record ArtifactContent(List<Segment> segments, long length, String contentType, String sha256) {
+
+    /**
+     * Chunk file holding content bytes {@code [offset, offset + length)}
+     */
+    public record Segment(Path path, long offset, int length) {
+    }
+}
@@ -0,0 +1,11 @@
+package com.cvshealth.pbm.ssot.dto;
+
+import com.cvshealth.pbm.ssot.model.Artifact;
+
+import java.util.List;
+
+/**
+ * One page of GET /api/artifacts; pass {@code nextCursor} back to get the next page, it is null on the last one
+ */
+public record ArtifactPage(List<Artifact> items, String nextCursor) {
+}
@@ -0,0 +1,9 @@
+package com.cvshealth.pbm.ssot.dto;
+
+import com.cvshealth.pbm.ssot.model.ArtifactStatus;
+
+/**
+ * Body of POST and PUT /api/artifacts
+ */
+public record ArtifactRequest(String name, String version, String type, String description, ArtifactStatus status) {
+}
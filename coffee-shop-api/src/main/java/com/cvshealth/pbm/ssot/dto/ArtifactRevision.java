@@ -0,0 +1,9 @@
+package com.cvshealth.pbm.ssot.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * What conditional GETs of an artifact are decided on, read without the rest of the row
+ */
+public record ArtifactRevision(Long id, long revision, LocalDateTime updatedAt) {
+}
@@ -0,0 +1,13 @@
+package com.cvshealth.pbm.ssot.dto;
+
+import com.cvshealth.pbm.ssot.model.Artifact;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * GET /api/artifacts/search: the best matches, the total number of matches and per facet
+ * ({@code type}, {@code status}) the number of matches of each value, most frequent first
+ */
+public record ArtifactSearchResult(long total, List<Artifact> items, Map<String, Map<String, Integer>> facets) {
+}
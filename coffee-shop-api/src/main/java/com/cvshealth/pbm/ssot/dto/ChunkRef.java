@@ -0,0 +1,7 @@
+package com.cvshealth.pbm.ssot.dto;
+
+/**
+ * One chunk of an artifact's content in upload order
+ */
+public record ChunkRef(String sha256, int length) {
+}
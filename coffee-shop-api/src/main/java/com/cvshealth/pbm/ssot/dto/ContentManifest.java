@@ -0,0 +1,10 @@
+package com.cvshealth.pbm.ssot.dto;
+
+import java.util.List;
+
+/**
+ * Body of PUT /api/artifacts/{id}/content/manifest: the content as an ordered list of chunk SHA-256s,
+ * each uploaded beforehand with PUT /api/artifacts/chunks/{sha256} unless the server already had it
+ */
+public record ContentManifest(String contentType, List<String> chunks) {
+}
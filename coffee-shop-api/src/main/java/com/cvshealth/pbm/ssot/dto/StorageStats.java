@@ -0,0 +1,10 @@
+package com.cvshealth.pbm.ssot.dto;
+
+/**
+ * Content store usage for GET /api/admin/storage. {@code dedupeRatio} is the uploaded content
+ * size over the stored chunk size; ingest throughput covers the time spent receiving bodies.
+ */
+public record StorageStats(long logicalBytes, long storedBytes, long chunks, long unreferencedChunks,
+                           long unreferencedBytes, double dedupeRatio, long ingestedBytes, long chunksStored,
+                           long chunksDeduplicated, double ingestMegabytesPerSecond, long chunksCollected) {
+}
@@ -0,0 +1,32 @@
+package com.cvshealth.pbm.ssot.dto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * JVM, connection pool and health figures for GET /api/admin/stats and /api/admin/system/health,
+ * sampled in the background every {@code admin.stats.sample-interval}. Figures a platform does
+ * not report are -1.
+ */
+public record SystemSnapshot(LocalDateTime sampledAt, Duration uptime, Memory memory, Cpu cpu, Gc gc,
+                             int threads, Pool pool, Storage storage, Map<String, String> health) {
+
+    public record Memory(long heapUsed, long heapCommitted, long heapMax, long nonHeapUsed) {
+    }
+
+    /**
+     * Loads are fractions of all CPUs, averaged by the JVM over its recent past
+     */
+    public record Cpu(double processLoad, double systemLoad, int cores) {
+    }
+
+    public record Gc(long collections, long collectionMillis) {
+    }
+
+    public record Pool(int active, int idle, int pending, int max) {
+    }
+
+    public record Storage(long usableBytes, long totalBytes) {
+    }
+}
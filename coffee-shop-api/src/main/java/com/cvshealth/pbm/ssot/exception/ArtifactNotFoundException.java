@@ -0,0 +1,12 @@
+package com.cvshealth.pbm.ssot.exception;
+
+public class ArtifactNotFoundException extends RuntimeException {
+
+    public ArtifactNotFoundException(Long id) {
+        super("Artifact " + id + " not found");
+    }
+
+    public ArtifactNotFoundException(String message) {
+        super(message);
+    }
+}
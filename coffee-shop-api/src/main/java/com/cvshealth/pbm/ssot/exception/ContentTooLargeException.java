@@ -0,0 +1,10 @@
+package com.cvshealth.pbm.ssot.exception;
+
+import org.springframework.util.unit.DataSize;
+
+public class ContentTooLargeException extends RuntimeException {
+
+    public ContentTooLargeException(DataSize maxContentSize) {
+        super("Artifact content exceeds the limit of " + maxContentSize);
+    }
+}
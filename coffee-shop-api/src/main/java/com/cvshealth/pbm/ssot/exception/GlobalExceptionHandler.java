@@ -1,10 +1,12 @@
 package com.cvshealth.pbm.ssot.exception;
 
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -13,14 +15,46 @@ import java.util.Map;
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    @ExceptionHandler(ArtifactNotFoundException.class)
+    public ResponseEntity<Map<String, Object>> handleNotFound(ArtifactNotFoundException ex, WebRequest request) {
+        return error(HttpStatus.NOT_FOUND, ex.getMessage(), request);
+    }
+
+    @ExceptionHandler({IllegalArgumentException.class, MethodArgumentTypeMismatchException.class})
+    public ResponseEntity<Map<String, Object>> handleBadRequest(Exception ex, WebRequest request) {
+        return error(HttpStatus.BAD_REQUEST, ex.getMessage(), request);
+    }
+
+    @ExceptionHandler(ContentTooLargeException.class)
+    public ResponseEntity<Map<String, Object>> handleTooLarge(ContentTooLargeException ex, WebRequest request) {
+        return error(HttpStatus.PAYLOAD_TOO_LARGE, ex.getMessage(), request);
+    }
+
+    @ExceptionHandler(MissingChunksException.class)
+    public ResponseEntity<Map<String, Object>> handleMissingChunks(MissingChunksException ex, WebRequest request) {
+        ResponseEntity<Map<String, Object>> response = error(HttpStatus.CONFLICT, ex.getMessage(), request);
+        response.getBody().put("missingChunks", ex.getMissing());
+        return response;
+    }
+
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<Map<String, Object>> handleConflict(DataIntegrityViolationException ex, WebRequest request) {
+        // the driver message may include row values, the unique (name, version) constraint is the usual cause
+        return error(HttpStatus.CONFLICT, "Artifact conflicts with an existing one", request);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, Object>> handleGlobalException(Exception ex, WebRequest request) {
+        return error(HttpStatus.INTERNAL_SERVER_ERROR, ex.getMessage(), request);
+    }
+
+    private static ResponseEntity<Map<String, Object>> error(HttpStatus status, String message, WebRequest request) {
         Map<String, Object> errorDetails = new HashMap<>();
         errorDetails.put("timestamp", LocalDateTime.now());
-        errorDetails.put("message", ex.getMessage());
+        errorDetails.put("message", message);
         errorDetails.put("details", request.getDescription(false));
-        errorDetails.put("status", HttpStatus.INTERNAL_SERVER_ERROR.value());
+        errorDetails.put("status", status.value());
 
-        return new ResponseEntity<>(errorDetails, HttpStatus.INTERNAL_SERVER_ERROR);
+        return new ResponseEntity<>(errorDetails, status);
     }
 }
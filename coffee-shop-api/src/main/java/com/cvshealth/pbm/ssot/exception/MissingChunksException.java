@@ -0,0 +1,17 @@
+package com.cvshealth.pbm.ssot.exception;
+
+import java.util.List;
+
+public class MissingChunksException extends RuntimeException {
+
+    private final List<String> missing;
+
+    public MissingChunksException(List<String> missing) {
+        super(missing.size() + " chunks are not stored, upload them and retry");
+        this.missing = missing;
+    }
+
+    public List<String> getMissing() {
+        return missing;
+    }
+}
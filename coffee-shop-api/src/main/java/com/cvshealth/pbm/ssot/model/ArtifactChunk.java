@@ -0,0 +1,68 @@
+package com.cvshealth.pbm.ssot.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+import java.io.Serializable;
+
+/**
+ * Position {@code seq} of an artifact's content, starting at {@code contentOffset}
+ */
+@Entity
+@Table(name = "artifact_chunks")
+@IdClass(ArtifactChunk.Key.class)
+public class ArtifactChunk {
+
+    @Id
+    @Column(name = "artifact_id")
+    private Long artifactId;
+
+    @Id
+    private int seq;
+
+    @Column(name = "chunk_sha256", nullable = false, length = 64)
+    private String chunkSha256;
+
+    @Column(name = "content_offset", nullable = false)
+    private long contentOffset;
+
+    @Column(name = "chunk_length", nullable = false)
+    private int length;
+
+    protected ArtifactChunk() {
+    }
+
+    public ArtifactChunk(Long artifactId, int seq, String chunkSha256, long contentOffset, int length) {
+        this.artifactId = artifactId;
+        this.seq = seq;
+        this.chunkSha256 = chunkSha256;
+        this.contentOffset = contentOffset;
+        this.length = length;
+    }
+
+    public Long getArtifactId() {
+        return artifactId;
+    }
+
+    public int getSeq() {
+        return seq;
+    }
+
+    public String getChunkSha256() {
+        return chunkSha256;
+    }
+
+    public long getContentOffset() {
+        return contentOffset;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    public record Key(Long artifactId, int seq) implements Serializable {
+    }
+}
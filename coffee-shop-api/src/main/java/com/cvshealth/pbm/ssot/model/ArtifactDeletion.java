@@ -0,0 +1,40 @@
+package com.cvshealth.pbm.ssot.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * Tombstone of a deleted artifact, see V1.6.0__Create_artifact_deletions.sql. Other instances
+ * read them to drop the artifact from their search index.
+ */
+@Entity
+@Table(name = "artifact_deletions")
+public class ArtifactDeletion {
+
+    @Id
+    @Column(name = "artifact_id")
+    private Long artifactId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+
+    protected ArtifactDeletion() {
+    }
+
+    public ArtifactDeletion(Long artifactId, LocalDateTime deletedAt) {
+        this.artifactId = artifactId;
+        this.deletedAt = deletedAt;
+    }
+
+    public Long getArtifactId() {
+        return artifactId;
+    }
+
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+}
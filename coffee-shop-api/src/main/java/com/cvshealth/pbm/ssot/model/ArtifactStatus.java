@@ -0,0 +1,7 @@
+package com.cvshealth.pbm.ssot.model;
+
+public enum ArtifactStatus {
+    ACTIVE,
+    DEPRECATED,
+    ARCHIVED
+}
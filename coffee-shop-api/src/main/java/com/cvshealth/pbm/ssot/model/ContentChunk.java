@@ -0,0 +1,53 @@
+package com.cvshealth.pbm.ssot.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * A stored chunk, see V1.4.0__Create_content_chunks.sql. Rows are inserted and counted with
+ * queries in ContentChunkRepository; the entity is only read and removed.
+ */
+@Entity
+@Table(name = "content_chunks")
+public class ContentChunk {
+
+    @Id
+    @Column(length = 64)
+    private String sha256;
+
+    @Column(name = "chunk_length", nullable = false)
+    private int length;
+
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "touched_at", nullable = false)
+    private LocalDateTime touchedAt;
+
+    public String getSha256() {
+        return sha256;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    public int getRefCount() {
+        return refCount;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getTouchedAt() {
+        return touchedAt;
+    }
+}
@@ -0,0 +1,21 @@
+package com.cvshealth.pbm.ssot.repository;
+
+import com.cvshealth.pbm.ssot.model.ArtifactChunk;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface ArtifactChunkRepository extends JpaRepository<ArtifactChunk, ArtifactChunk.Key> {
+
+    List<ArtifactChunk> findByArtifactIdOrderBySeq(Long artifactId);
+
+    @Query("SELECT c.chunkSha256 FROM ArtifactChunk c WHERE c.artifactId = :artifactId")
+    List<String> findChunkSha256s(@Param("artifactId") Long artifactId);
+
+    @Modifying
+    @Query("DELETE FROM ArtifactChunk c WHERE c.artifactId = :artifactId")
+    int deleteByArtifactId(@Param("artifactId") Long artifactId);
+}
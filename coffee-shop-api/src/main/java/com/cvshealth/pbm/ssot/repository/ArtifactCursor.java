@@ -0,0 +1,34 @@
+package com.cvshealth.pbm.ssot.repository;
+
+import com.cvshealth.pbm.ssot.model.Artifact;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Keyset position after the last artifact of a page, ordered by (createdAt, id).
+ * Clients get it as an opaque url-safe token.
+ */
+public record ArtifactCursor(LocalDateTime createdAt, long id) {
+
+    public static ArtifactCursor after(Artifact artifact) {
+        return new ArtifactCursor(artifact.getCreatedAt(), artifact.getId());
+    }
+
+    public static ArtifactCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new ArtifactCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((createdAt + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
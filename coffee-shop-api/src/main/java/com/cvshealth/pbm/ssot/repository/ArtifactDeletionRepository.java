@@ -0,0 +1,20 @@
+package com.cvshealth.pbm.ssot.repository;
+
+import com.cvshealth.pbm.ssot.model.ArtifactDeletion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ArtifactDeletionRepository extends JpaRepository<ArtifactDeletion, Long> {
+
+    @Query("SELECT d.artifactId FROM ArtifactDeletion d WHERE d.deletedAt > :since")
+    List<Long> findDeletedSince(@Param("since") LocalDateTime since);
+
+    @Modifying
+    @Query("DELETE FROM ArtifactDeletion d WHERE d.deletedAt < :before")
+    int deleteOlderThan(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,24 @@
+package com.cvshealth.pbm.ssot.repository;
+
+import com.cvshealth.pbm.ssot.model.Artifact;
+import com.cvshealth.pbm.ssot.model.ArtifactStatus;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Keyset queries over artifacts, ordered by (createdAt, id). A null filter matches everything.
+ */
+public interface ArtifactQueries {
+
+    /**
+     * Up to {@code limit} artifacts after {@code after}, or from the start when it is null
+     */
+    List<Artifact> findPage(String type, ArtifactStatus status, ArtifactCursor after, int limit);
+
+    /**
+     * All matching artifacts, fetched from the database in chunks and detached as they are
+     * consumed. Must be closed and consumed inside a transaction.
+     */
+    Stream<Artifact> streamAll(String type, ArtifactStatus status);
+}
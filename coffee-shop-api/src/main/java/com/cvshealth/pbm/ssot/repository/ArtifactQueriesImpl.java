@@ -0,0 +1,68 @@
+package com.cvshealth.pbm.ssot.repository;
+
+import com.cvshealth.pbm.ssot.model.Artifact;
+import com.cvshealth.pbm.ssot.model.ArtifactStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+class ArtifactQueriesImpl implements ArtifactQueries {
+
+    static final int STREAM_FETCH_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Artifact> findPage(String type, ArtifactStatus status, ArtifactCursor after, int limit) {
+        return query(type, status, after)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<Artifact> streamAll(String type, ArtifactStatus status) {
+        // detaching keeps the persistence context from growing with every row read
+        return query(type, status, null)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .getResultStream()
+                .peek(entityManager::detach);
+    }
+
+    private TypedQuery<Artifact> query(String type, ArtifactStatus status, ArtifactCursor after) {
+        List<String> conditions = new ArrayList<>();
+        if (type != null) {
+            conditions.add("a.type = :type");
+        }
+        if (status != null) {
+            conditions.add("a.status = :status");
+        }
+        if (after != null) {
+            // the leading >= lets the database start the index scan at the cursor
+            conditions.add("a.createdAt >= :createdAt AND (a.createdAt > :createdAt OR a.id > :id)");
+        }
+        String jpql = "SELECT a FROM Artifact a"
+                + (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions))
+                + " ORDER BY a.createdAt, a.id";
+
+        TypedQuery<Artifact> query = entityManager.createQuery(jpql, Artifact.class);
+        if (type != null) {
+            query.setParameter("type", type);
+        }
+        if (status != null) {
+            query.setParameter("status", status);
+        }
+        if (after != null) {
+            query.setParameter("createdAt", after.createdAt());
+            query.setParameter("id", after.id());
+        }
+        return query;
+    }
+}
@@ -0,0 +1,33 @@
+package com.cvshealth.pbm.ssot.repository;
+
+import com.cvshealth.pbm.ssot.dto.ArtifactRevision;
+import com.cvshealth.pbm.ssot.model.Artifact;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface ArtifactRepository extends JpaRepository<Artifact, Long>, ArtifactQueries {
+
+    @Query("SELECT new com.cvshealth.pbm.ssot.dto.ArtifactRevision(a.id, a.revision, a.updatedAt) "
+            + "FROM Artifact a WHERE a.id = :id")
+    Optional<ArtifactRevision> findRevision(@Param("id") Long id);
+
+    @Query("SELECT a FROM Artifact a WHERE a.updatedAt > :since ORDER BY a.updatedAt")
+    List<Artifact> findUpdatedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Bytes of content uploaded over all artifacts, before deduplication
+     */
+    @Query("SELECT COALESCE(SUM(a.contentLength), 0) FROM Artifact a")
+    long sumContentLength();
+
+    /**
+     * One (createdBy, number of artifacts) row per creator
+     */
+    @Query("SELECT a.createdBy, COUNT(a) FROM Artifact a GROUP BY a.createdBy")
+    List<Object[]> countByCreator();
+}
@@ -0,0 +1,57 @@
+package com.cvshealth.pbm.ssot.repository;
+
+import com.cvshealth.pbm.ssot.model.ContentChunk;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ContentChunkRepository extends JpaRepository<ContentChunk, String> {
+
+    /**
+     * Plain insert rather than save(), which would merge into a concurrently inserted row
+     * and reset its ref_count; a duplicate fails with a constraint violation instead
+     */
+    @Modifying
+    @Query(value = "INSERT INTO content_chunks (sha256, chunk_length, ref_count, created_at, touched_at) "
+            + "VALUES (:sha256, :length, 0, :now, :now)", nativeQuery = true)
+    void insert(@Param("sha256") String sha256, @Param("length") int length, @Param("now") LocalDateTime now);
+
+    /**
+     * Restart the grace period of a chunk an upload is about to reference
+     *
+     * @return 0 when the chunk is not stored
+     */
+    @Modifying
+    @Query("UPDATE ContentChunk c SET c.touchedAt = :now WHERE c.sha256 = :sha256")
+    int touch(@Param("sha256") String sha256, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE ContentChunk c SET c.touchedAt = :now WHERE c.sha256 IN :sha256s")
+    int touchAll(@Param("sha256s") Collection<String> sha256s, @Param("now") LocalDateTime now);
+
+    /**
+     * @param delta references added, negative to release
+     * @return 0 when the chunk is not stored
+     */
+    @Modifying
+    @Query("UPDATE ContentChunk c SET c.refCount = c.refCount + :delta, c.touchedAt = :now WHERE c.sha256 = :sha256")
+    int addReferences(@Param("sha256") String sha256, @Param("delta") int delta, @Param("now") LocalDateTime now);
+
+    @Query("SELECT c.sha256 FROM ContentChunk c WHERE c.sha256 IN :sha256s")
+    List<String> findPresent(@Param("sha256s") Collection<String> sha256s);
+
+    @Query("SELECT c.sha256 FROM ContentChunk c WHERE c.refCount = 0 AND c.touchedAt < :cutoff ORDER BY c.touchedAt")
+    List<String> findCollectable(@Param("cutoff") LocalDateTime cutoff, Limit limit);
+
+    @Query("SELECT COUNT(c), COALESCE(SUM(c.length), 0) FROM ContentChunk c")
+    List<Object[]> totals();
+
+    @Query("SELECT COUNT(c), COALESCE(SUM(c.length), 0) FROM ContentChunk c WHERE c.refCount = 0")
+    List<Object[]> unreferencedTotals();
+}
@@ -0,0 +1,15 @@
+package com.cvshealth.pbm.ssot.search;
+
+import com.cvshealth.pbm.ssot.model.Artifact;
+import com.cvshealth.pbm.ssot.model.ArtifactStatus;
+
+/**
+ * The searchable fields of an artifact, copied off the entity so indexing can run on other threads
+ */
+record ArtifactDocument(long id, String name, String type, String description, ArtifactStatus status) {
+
+    static ArtifactDocument of(Artifact artifact) {
+        return new ArtifactDocument(artifact.getId(), artifact.getName(), artifact.getType(),
+                artifact.getDescription(), artifact.getStatus());
+    }
+}
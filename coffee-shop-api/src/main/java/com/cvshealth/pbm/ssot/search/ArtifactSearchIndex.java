@@ -0,0 +1,277 @@
+package com.cvshealth.pbm.ssot.search;
+
+import com.cvshealth.pbm.ssot.config.ReadConsistency;
+import com.cvshealth.pbm.ssot.dto.ArtifactSearchResult;
+import com.cvshealth.pbm.ssot.model.Artifact;
+import com.cvshealth.pbm.ssot.model.ArtifactStatus;
+import com.cvshealth.pbm.ssot.repository.ArtifactRepository;
+import com.cvshealth.pbm.ssot.service.ArtifactChangedEvent;
+import com.cvshealth.pbm.ssot.service.ArtifactService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory full-text index of artifact names, types and descriptions behind
+ * GET /api/artifacts/search. It is built from the database when the application starts,
+ * before it reports ready, and kept current from {@link ArtifactChangedEvent}s after their
+ * transaction commits. Those only cover this instance, so every
+ * {@code artifact.search.refresh-interval} the artifacts updated and the deletion tombstones
+ * written since the last refresh are read back as well, by any instance. Each refresh reaches
+ * {@code artifact.search.refresh-overlap} further back than the previous one started, for
+ * transactions that committed late and for clock differences between instances.
+ * A rebuild tokenizes batches of artifacts on {@code artifact.search.rebuild-threads} threads
+ * and swaps the result in at the end; changes committed meanwhile are replayed onto it.
+ */
+@Component
+public class ArtifactSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ArtifactSearchIndex.class);
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 200;
+    static final int REBUILD_BATCH_SIZE = 10_000;
+    // compact once deleted documents outnumber live ones, and not for a handful of them
+    private static final int MIN_DELETED_TO_COMPACT = 1024;
+
+    private final ArtifactService artifactService;
+    private final ArtifactRepository repository;
+    private final int rebuildThreads;
+    private final Duration refreshOverlap;
+    private final Duration deletionRetention;
+    private final Timer searchTime;
+    private final Timer rebuildTime;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private InvertedIndex index = new InvertedIndex();
+    // changes committed while a rebuild runs, replayed onto the rebuilt index
+    private List<Consumer<InvertedIndex>> pending;
+    // changes after this are read by the next refresh, null until the first rebuild
+    private volatile LocalDateTime refreshFrom;
+
+    public ArtifactSearchIndex(ArtifactService artifactService, ArtifactRepository repository,
+                               MeterRegistry meterRegistry,
+                               @Value("${artifact.search.rebuild-threads:0}") int rebuildThreads,
+                               @Value("${artifact.search.refresh-overlap:PT1M}") Duration refreshOverlap,
+                               @Value("${artifact.search.deletion-retention:P1D}") Duration deletionRetention) {
+        this.artifactService = artifactService;
+        this.repository = repository;
+        this.rebuildThreads = rebuildThreads > 0 ? rebuildThreads : Runtime.getRuntime().availableProcessors();
+        this.refreshOverlap = refreshOverlap;
+        this.deletionRetention = deletionRetention;
+        this.searchTime = Timer.builder("artifact.search.time")
+            .description("Index lookup time of artifact searches, without loading the hits")
+            .publishPercentiles(0.5, 0.99).register(meterRegistry);
+        this.rebuildTime = Timer.builder("artifact.search.rebuild.time").register(meterRegistry);
+        Gauge.builder("artifact.search.documents", this, ArtifactSearchIndex::size).register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        rebuild();
+    }
+
+    @TransactionalEventListener
+    public void onArtifactChanged(ArtifactChangedEvent event) {
+        change(target -> apply(target, event));
+    }
+
+    /**
+     * Index the changes other instances committed since the last refresh
+     */
+    @Scheduled(initialDelayString = "${artifact.search.refresh-interval:PT30S}",
+               fixedDelayString = "${artifact.search.refresh-interval:PT30S}")
+    public void refresh() {
+        LocalDateTime since = refreshFrom;
+        if (since == null) {
+            return;
+        }
+        LocalDateTime started = now();
+        // from the primary: a lagging replica could miss rows the next refresh no longer reads
+        List<Artifact> updated = ReadConsistency.onPrimary(() -> artifactService.updatedSince(since));
+        List<Long> deleted = ReadConsistency.onPrimary(() -> artifactService.deletedSince(since));
+        change(target -> {
+            updated.forEach(artifact -> target.add(ArtifactDocument.of(artifact)));
+            deleted.forEach(target::delete);
+        });
+        refreshFrom = started.minus(refreshOverlap);
+        artifactService.purgeDeletions(started.minus(deletionRetention));
+    }
+
+    /**
+     * Artifacts matching every word of {@code query} in their name, type or description, filtered
+     * by type and status. Without a query all artifacts match, the most recently indexed first.
+     */
+    public ArtifactSearchResult search(String query, String type, ArtifactStatus status, int limit) {
+        int hitCount = Math.max(1, Math.min(limit, MAX_LIMIT));
+        InvertedIndex.SearchHits hits;
+        long start = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            hits = index.search(query, type, status, hitCount);
+        } finally {
+            lock.readLock().unlock();
+        }
+        searchTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        List<Long> ids = new ArrayList<>(hits.artifactIds().length);
+        for (long id : hits.artifactIds()) {
+            ids.add(id);
+        }
+        Map<Long, Artifact> loaded = repository.findAllById(ids).stream()
+            .collect(Collectors.toMap(Artifact::getId, Function.identity()));
+        // an artifact deleted since the lookup is left out rather than failing the search
+        List<Artifact> items = ids.stream().map(loaded::get).filter(a -> a != null).toList();
+
+        Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+        facets.put("type", byCount(hits.types()));
+        facets.put("status", byCount(hits.statuses()));
+        return new ArtifactSearchResult(hits.total(), items, facets);
+    }
+
+    /**
+     * Index every artifact in the database from scratch
+     *
+     * @return number of artifacts indexed
+     */
+    public int rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            throw new IllegalStateException("A search index rebuild is already running");
+        }
+        long start = System.nanoTime();
+        LocalDateTime started = now();
+        ExecutorService workers = Executors.newFixedThreadPool(rebuildThreads);
+        try {
+            lock.writeLock().lock();
+            try {
+                pending = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            List<Future<InvertedIndex>> segments = new ArrayList<>();
+            // from the primary: changes a replica has yet to replay were committed before the
+            // rebuild started and would not be among the pending ones
+            ReadConsistency.onPrimary(() -> artifactService.scan(REBUILD_BATCH_SIZE, batch -> {
+                List<ArtifactDocument> documents = batch.stream().map(ArtifactDocument::of).toList();
+                segments.add(workers.submit(() -> segment(documents)));
+            }));
+            InvertedIndex rebuilt = new InvertedIndex();
+            for (Future<InvertedIndex> segment : segments) {
+                rebuilt.append(segment.get());
+            }
+
+            lock.writeLock().lock();
+            try {
+                for (Consumer<InvertedIndex> change : pending) {
+                    change.accept(rebuilt);
+                }
+                index = rebuilt;
+                refreshFrom = started.minus(refreshOverlap);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            long elapsed = System.nanoTime() - start;
+            rebuildTime.record(elapsed, TimeUnit.NANOSECONDS);
+            log.info("Indexed {} artifacts for search in {} ms on {} threads", rebuilt.size(),
+                TimeUnit.NANOSECONDS.toMillis(elapsed), rebuildThreads);
+            return rebuilt.size();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Search index rebuild interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Search index rebuild failed", e.getCause());
+        } finally {
+            lock.writeLock().lock();
+            try {
+                pending = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            workers.shutdownNow();
+            rebuilding.set(false);
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void change(Consumer<InvertedIndex> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(index);
+            if (pending != null) {
+                pending.add(change);
+            }
+            if (index.deletedCount() >= MIN_DELETED_TO_COMPACT && index.deletedCount() > index.size()) {
+                index.compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    private static InvertedIndex segment(List<ArtifactDocument> documents) {
+        InvertedIndex segment = new InvertedIndex();
+        for (ArtifactDocument document : documents) {
+            segment.add(document);
+        }
+        return segment;
+    }
+
+    private static void apply(InvertedIndex target, ArtifactChangedEvent event) {
+        if (event.deleted()) {
+            target.delete(event.id());
+        } else {
+            target.add(ArtifactDocument.of(event.artifact()));
+        }
+    }
+
+    private static Map<String, Integer> byCount(Map<String, Integer> counts) {
+        Map<String, Integer> sorted = new LinkedHashMap<>();
+        counts.entrySet().stream()
+            .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(Map.Entry.comparingByKey()))
+            .forEach(e -> sorted.put(e.getKey(), e.getValue()));
+        return sorted;
+    }
+}
@@ -0,0 +1,525 @@
+package com.cvshealth.pbm.ssot.search;
+
+import com.cvshealth.pbm.ssot.model.ArtifactStatus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Term to document postings of the name, type and description of artifacts, each entry with a
+ * bit per field the term occurs in, and the type and status of every document kept as ordinals
+ * for filtering and facet counts. Documents get increasing ids, so postings stay sorted by
+ * appending; an update deletes the old document and adds a new one, and {@link #compact()}
+ * drops deleted documents.
+ * <p>
+ * Not thread safe, {@link ArtifactSearchIndex} guards it with a read/write lock.
+ */
+final class InvertedIndex {
+
+    static final String[] FIELDS = {"name", "type", "description"};
+    private static final float[] FIELD_WEIGHTS = {3f, 2f, 1f};
+    private static final ArtifactStatus[] STATUSES = ArtifactStatus.values();
+    static final int MAX_TERMS = 32;
+
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final List<String> types = new ArrayList<>();
+    private final Map<String, Integer> typeOrdinals = new HashMap<>();
+    private final Map<Long, Integer> docsByArtifact = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+    // live documents per (type, status), which answer the facets of a search without words
+    private int[] liveCounts = new int[STATUSES.length + 1];
+
+    private long[] artifactIds = new long[1024];
+    private int[] typeOrds = new int[1024];
+    private byte[] statusOrds = new byte[1024];
+    private int maxDoc;
+    private int deletedCount;
+
+    /**
+     * Index {@code document}, replacing an earlier version of the same artifact
+     */
+    void add(ArtifactDocument document) {
+        Integer previous = docsByArtifact.put(document.id(), maxDoc);
+        if (previous != null) {
+            markDeleted(previous);
+        }
+        int doc = maxDoc++;
+        ensureCapacity(maxDoc);
+        artifactIds[doc] = document.id();
+        typeOrds[doc] = typeOrdinal(document.type());
+        statusOrds[doc] = (byte) (document.status() == null ? -1 : document.status().ordinal());
+        liveCounts[cell(typeOrds[doc], statusOrds[doc])]++;
+        String[] values = {document.name(), document.type(), document.description()};
+        for (int field = 0; field < FIELDS.length; field++) {
+            for (String token : tokenize(values[field])) {
+                postings.computeIfAbsent(token, t -> new Postings()).add(doc, 1 << field);
+            }
+        }
+    }
+
+    void delete(long artifactId) {
+        Integer doc = docsByArtifact.remove(artifactId);
+        if (doc != null) {
+            markDeleted(doc);
+        }
+    }
+
+    /**
+     * Append a freshly built index, used to merge the segments of a parallel rebuild.
+     * The artifacts of {@code other} must not be in this index yet.
+     */
+    void append(InvertedIndex other) {
+        int base = maxDoc;
+        ensureCapacity(base + other.maxDoc);
+        for (int doc = 0; doc < other.maxDoc; doc++) {
+            artifactIds[base + doc] = other.artifactIds[doc];
+            int typeOrd = other.typeOrds[doc];
+            typeOrds[base + doc] = typeOrd < 0 ? -1 : typeOrdinal(other.types.get(typeOrd));
+            statusOrds[base + doc] = other.statusOrds[doc];
+            liveCounts[cell(typeOrds[base + doc], statusOrds[base + doc])]++;
+            if (other.deleted.get(doc)) {
+                markDeleted(base + doc);
+            } else {
+                docsByArtifact.put(other.artifactIds[doc], base + doc);
+            }
+        }
+        for (Map.Entry<String, Postings> entry : other.postings.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), t -> new Postings()).append(entry.getValue(), base);
+        }
+        maxDoc = base + other.maxDoc;
+    }
+
+    /**
+     * Renumber the live documents and drop the deleted ones from every postings list
+     */
+    void compact() {
+        int[] remap = new int[maxDoc];
+        int live = 0;
+        for (int doc = 0; doc < maxDoc; doc++) {
+            if (deleted.get(doc)) {
+                remap[doc] = -1;
+            } else {
+                artifactIds[live] = artifactIds[doc];
+                typeOrds[live] = typeOrds[doc];
+                statusOrds[live] = statusOrds[doc];
+                remap[doc] = live++;
+            }
+        }
+        Iterator<Postings> lists = postings.values().iterator();
+        while (lists.hasNext()) {
+            if (lists.next().remap(remap) == 0) {
+                lists.remove();
+            }
+        }
+        docsByArtifact.clear();
+        for (int doc = 0; doc < live; doc++) {
+            docsByArtifact.put(artifactIds[doc], doc);
+        }
+        deleted.clear();
+        deletedCount = 0;
+        maxDoc = live;
+    }
+
+    int maxDoc() {
+        return maxDoc;
+    }
+
+    int deletedCount() {
+        return deletedCount;
+    }
+
+    int size() {
+        return maxDoc - deletedCount;
+    }
+
+    /**
+     * Documents containing every term of {@code query} in any field, best first, newest first on
+     * equal scores. Without terms every document matches. Facet counts leave out the filter of
+     * their own field, so they tell how many hits picking another type or status would give.
+     */
+    SearchHits search(String query, String type, ArtifactStatus status, int limit) {
+        int typeFilter = -1;
+        if (type != null) {
+            Integer ord = typeOrdinals.get(type);
+            typeFilter = ord == null ? Integer.MIN_VALUE : ord;
+        }
+        Collector collector = new Collector(typeFilter, status == null ? -1 : status.ordinal(), limit);
+
+        List<String> terms = new ArrayList<>(tokenize(query));
+        if (terms.size() > MAX_TERMS) {
+            throw new IllegalArgumentException("A search takes at most " + MAX_TERMS + " words");
+        }
+        if (terms.isEmpty()) {
+            for (int typeOrd = -1; typeOrd < types.size(); typeOrd++) {
+                for (int statusOrd = -1; statusOrd < STATUSES.length; statusOrd++) {
+                    collector.count(typeOrd, statusOrd, liveCounts[cell(typeOrd, statusOrd)]);
+                }
+            }
+            // newest first, so the walk ends as soon as the page is full
+            for (int doc = maxDoc - 1; doc >= 0 && !collector.full(); doc--) {
+                if (!deleted.get(doc)) {
+                    collector.offer(doc, 0f);
+                }
+            }
+            return collector.hits();
+        }
+
+        // candidates come from the rarest term, the others are looked up for those only
+        List<Postings> lists = new ArrayList<>(terms.size());
+        for (String term : terms) {
+            Postings list = postings.get(term);
+            if (list == null) {
+                return collector.hits();
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(list -> list.size));
+        Postings rarest = lists.get(0);
+        float[] rarestScores = fieldScores(rarest);
+        if (lists.size() == 1) {
+            for (int j = 0; j < rarest.size; j++) {
+                if (!deleted.get(rarest.docs[j])) {
+                    collector.collect(rarest.docs[j], rarestScores[rarest.fields[j]]);
+                }
+            }
+            return collector.hits();
+        }
+        int[] docs = Arrays.copyOf(rarest.docs, rarest.size);
+        float[] scores = new float[docs.length];
+        for (int j = 0; j < docs.length; j++) {
+            scores[j] = rarestScores[rarest.fields[j]];
+        }
+        int candidates = docs.length;
+        for (int i = 1; i < lists.size() && candidates > 0; i++) {
+            Postings list = lists.get(i);
+            float[] fieldScores = fieldScores(list);
+            int n = 0;
+            int from = 0;
+            for (int j = 0; j < candidates && from < list.size; j++) {
+                from = list.seek(from, docs[j]);
+                if (from < list.size && list.docs[from] == docs[j]) {
+                    docs[n] = docs[j];
+                    scores[n++] = scores[j] + fieldScores[list.fields[from]];
+                }
+            }
+            candidates = n;
+        }
+        for (int j = 0; j < candidates; j++) {
+            if (!deleted.get(docs[j])) {
+                collector.collect(docs[j], scores[j]);
+            }
+        }
+        return collector.hits();
+    }
+
+    /**
+     * Lower cased runs of letters and digits, each once
+     */
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Score of a term by the fields it occurs in: the weights of those fields times its idf
+     */
+    private float[] fieldScores(Postings list) {
+        float idf = (float) Math.log(1 + (double) Math.max(1, size()) / Math.max(1, list.size));
+        float[] scores = new float[1 << FIELDS.length];
+        for (int fields = 1; fields < scores.length; fields++) {
+            for (int field = 0; field < FIELDS.length; field++) {
+                if ((fields & (1 << field)) != 0) {
+                    scores[fields] += FIELD_WEIGHTS[field] * idf;
+                }
+            }
+        }
+        return scores;
+    }
+
+    private int typeOrdinal(String type) {
+        if (type == null) {
+            return -1;
+        }
+        return typeOrdinals.computeIfAbsent(type, t -> {
+            types.add(t);
+            liveCounts = Arrays.copyOf(liveCounts, (types.size() + 1) * (STATUSES.length + 1));
+            return types.size() - 1;
+        });
+    }
+
+    private void markDeleted(int doc) {
+        if (!deleted.get(doc)) {
+            deleted.set(doc);
+            deletedCount++;
+            liveCounts[cell(typeOrds[doc], statusOrds[doc])]--;
+        }
+    }
+
+    private static int cell(int typeOrd, int statusOrd) {
+        return (typeOrd + 1) * (STATUSES.length + 1) + statusOrd + 1;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > artifactIds.length) {
+            int grown = Math.max(capacity, artifactIds.length + (artifactIds.length >> 1));
+            artifactIds = Arrays.copyOf(artifactIds, grown);
+            typeOrds = Arrays.copyOf(typeOrds, grown);
+            statusOrds = Arrays.copyOf(statusOrds, grown);
+        }
+    }
+
+    /**
+     * Artifact ids of the best {@code limit} hits, in order, and the facet counts
+     */
+    record SearchHits(int total, long[] artifactIds, Map<String, Integer> types, Map<String, Integer> statuses) {
+    }
+
+    /**
+     * Counts the facets of every match and keeps the best hits that pass both filters
+     */
+    private final class Collector {
+        private final int typeFilter;
+        private final int statusFilter;
+        private final int[] typeCounts = new int[types.size()];
+        private final int[] statusCounts = new int[STATUSES.length];
+        private final TopDocs top;
+        private int total;
+
+        Collector(int typeFilter, int statusFilter, int limit) {
+            this.typeFilter = typeFilter;
+            this.statusFilter = statusFilter;
+            this.top = new TopDocs(limit);
+        }
+
+        void collect(int doc, float score) {
+            if (count(typeOrds[doc], statusOrds[doc], 1)) {
+                top.offer(score, doc);
+            }
+        }
+
+        /**
+         * Count {@code n} matches of the given type and status
+         *
+         * @return whether they pass both filters
+         */
+        boolean count(int typeOrd, int statusOrd, int n) {
+            boolean typeMatches = typeFilter == -1 || typeOrd == typeFilter;
+            boolean statusMatches = statusFilter == -1 || statusOrd == statusFilter;
+            if (statusMatches && typeOrd >= 0) {
+                typeCounts[typeOrd] += n;
+            }
+            if (typeMatches && statusOrd >= 0) {
+                statusCounts[statusOrd] += n;
+            }
+            if (typeMatches && statusMatches) {
+                total += n;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Consider a match, already counted, for the best hits
+         */
+        void offer(int doc, float score) {
+            boolean typeMatches = typeFilter == -1 || typeOrds[doc] == typeFilter;
+            boolean statusMatches = statusFilter == -1 || statusOrds[doc] == statusFilter;
+            if (typeMatches && statusMatches) {
+                top.offer(score, doc);
+            }
+        }
+
+        boolean full() {
+            return top.full();
+        }
+
+        SearchHits hits() {
+            int[] docs = top.docs();
+            long[] ids = new long[docs.length];
+            for (int i = 0; i < docs.length; i++) {
+                ids[i] = artifactIds[docs[i]];
+            }
+            Map<String, Integer> typeFacet = new HashMap<>();
+            for (int ord = 0; ord < typeCounts.length; ord++) {
+                if (typeCounts[ord] > 0) {
+                    typeFacet.put(types.get(ord), typeCounts[ord]);
+                }
+            }
+            Map<String, Integer> statusFacet = new HashMap<>();
+            for (int ord = 0; ord < statusCounts.length; ord++) {
+                if (statusCounts[ord] > 0) {
+                    statusFacet.put(STATUSES[ord].name(), statusCounts[ord]);
+                }
+            }
+            return new SearchHits(total, ids, typeFacet, statusFacet);
+        }
+    }
+
+    /**
+     * Sorted documents containing a term, with a bit per field it occurs in
+     */
+    private static final class Postings {
+        int[] docs = new int[4];
+        byte[] fields = new byte[4];
+        int size;
+
+        void add(int doc, int field) {
+            if (size > 0 && docs[size - 1] == doc) {
+                fields[size - 1] |= (byte) field;
+                return;
+            }
+            grow(size + 1);
+            docs[size] = doc;
+            fields[size++] = (byte) field;
+        }
+
+        void append(Postings other, int base) {
+            grow(size + other.size);
+            for (int i = 0; i < other.size; i++) {
+                docs[size] = other.docs[i] + base;
+                fields[size++] = other.fields[i];
+            }
+        }
+
+        private void grow(int capacity) {
+            if (capacity > docs.length) {
+                int grown = Math.max(capacity, docs.length * 2);
+                docs = Arrays.copyOf(docs, grown);
+                fields = Arrays.copyOf(fields, grown);
+            }
+        }
+
+        /**
+         * First position at or after {@code from} holding a document not below {@code doc}
+         */
+        int seek(int from, int doc) {
+            int bound = 1;
+            while (from + bound < size && docs[from + bound] < doc) {
+                bound <<= 1;
+            }
+            int low = from + (bound >> 1);
+            int high = Math.min(from + bound, size);
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (docs[mid] < doc) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        int remap(int[] remap) {
+            int n = 0;
+            for (int i = 0; i < size; i++) {
+                int doc = remap[docs[i]];
+                if (doc >= 0) {
+                    docs[n] = doc;
+                    fields[n++] = fields[i];
+                }
+            }
+            size = n;
+            return n;
+        }
+    }
+
+    /**
+     * Min-heap of the best hits so far, a score and document packed into one long. Non-negative
+     * float bits order like the floats, and the document id breaks ties in favour of newer ones.
+     */
+    private static final class TopDocs {
+        private final long[] heap;
+        private int size;
+
+        TopDocs(int limit) {
+            heap = new long[Math.max(0, limit)];
+        }
+
+        void offer(float score, int doc) {
+            if (heap.length == 0) {
+                return;
+            }
+            long entry = ((long) Float.floatToIntBits(score) << 32) | doc;
+            if (size < heap.length) {
+                heap[size] = entry;
+                siftUp(size++);
+            } else if (entry > heap[0]) {
+                heap[0] = entry;
+                siftDown(0);
+            }
+        }
+
+        boolean full() {
+            return size == heap.length;
+        }
+
+        int[] docs() {
+            long[] sorted = Arrays.copyOf(heap, size);
+            Arrays.sort(sorted);
+            int[] docs = new int[size];
+            for (int i = 0; i < size; i++) {
+                docs[i] = (int) sorted[size - 1 - i];
+            }
+            return docs;
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (heap[parent] <= heap[i]) {
+                    return;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int smallest = i;
+                int left = 2 * i + 1;
+                int right = left + 1;
+                if (left < size && heap[left] < heap[smallest]) {
+                    smallest = left;
+                }
+                if (right < size && heap[right] < heap[smallest]) {
+                    smallest = right;
+                }
+                if (smallest == i) {
+                    return;
+                }
+                swap(i, smallest);
+                i = smallest;
+            }
+        }
+
+        private void swap(int i, int j) {
+            long tmp = heap[i];
+            heap[i] = heap[j];
+            heap[j] = tmp;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.cvshealth.pbm.ssot.service;
+
+import com.cvshealth.pbm.ssot.model.Artifact;
+
+/**
+ * Published by {@link ArtifactService} when an artifact is created, updated or deleted; for a
+ * deletion {@code artifact} is the state it was deleted in
+ */
+public record ArtifactChangedEvent(Change change, Artifact artifact) {
+
+    public enum Change {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    public Long id() {
+        return artifact.getId();
+    }
+
+    public boolean deleted() {
+        return change == Change.DELETED;
+    }
+}
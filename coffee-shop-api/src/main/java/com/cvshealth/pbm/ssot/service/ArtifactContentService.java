@@ -0,0 +1,276 @@
+package com.cvshealth.pbm.ssot.service;
+
+import com.cvshealth.pbm.ssot.dto.ArtifactContent;
+import com.cvshealth.pbm.ssot.dto.ChunkRef;
+import com.cvshealth.pbm.ssot.dto.ContentManifest;
+import com.cvshealth.pbm.ssot.dto.StorageStats;
+import com.cvshealth.pbm.ssot.exception.ArtifactNotFoundException;
+import com.cvshealth.pbm.ssot.exception.ContentTooLargeException;
+import com.cvshealth.pbm.ssot.exception.MissingChunksException;
+import com.cvshealth.pbm.ssot.model.Artifact;
+import com.cvshealth.pbm.ssot.repository.ArtifactRepository;
+import com.cvshealth.pbm.ssot.storage.ChunkStore;
+import com.cvshealth.pbm.ssot.storage.ContentDefinedChunker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Uploads and downloads of artifact binaries in the content-addressed chunk store.
+ *
+ * <p>A streamed upload is split with {@link ContentDefinedChunker}; chunks the store already
+ * has are only touched, the others are written. Clients that chunk on their side can skip
+ * sending known chunks altogether: ask for the missing ones, upload those with
+ * {@link #storeChunk} and attach the list with {@link #commitManifest}. Uploads can take
+ * minutes, so no transaction is held while bodies stream to disk; the chunk list is attached
+ * in one transaction at the end. Until then the stored chunks are unreferenced, so a streamed
+ * upload touches them again every half {@code artifact.storage.gc.grace} to keep the garbage
+ * collector off them.
+ */
+@Service
+public class ArtifactContentService {
+
+    private static final Pattern SHA256 = Pattern.compile("[0-9a-f]{64}");
+
+    private final ArtifactRepository repository;
+    private final ChunkIndex chunkIndex;
+    private final ChunkStore chunkStore;
+    private final DataSize maxContentSize;
+    private final long touchIntervalNanos;
+
+    private final Counter receivedBytes;
+    private final Counter storedBytes;
+    private final Counter chunksStored;
+    private final Counter chunksDeduplicated;
+    private final Timer ingestTime;
+    private final MeterRegistry meterRegistry;
+
+    public ArtifactContentService(ArtifactRepository repository, ChunkIndex chunkIndex, ChunkStore chunkStore,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${artifact.storage.max-content-size:20GB}") DataSize maxContentSize,
+                                  @Value("${artifact.storage.gc.grace:PT1H}") Duration grace) {
+        this.repository = repository;
+        this.chunkIndex = chunkIndex;
+        this.chunkStore = chunkStore;
+        this.maxContentSize = maxContentSize;
+        this.touchIntervalNanos = grace.dividedBy(2).toNanos();
+        this.meterRegistry = meterRegistry;
+        this.receivedBytes = Counter.builder("artifact.ingest.received").baseUnit("bytes")
+            .description("Content bytes received by uploads").register(meterRegistry);
+        this.storedBytes = Counter.builder("artifact.ingest.stored").baseUnit("bytes")
+            .description("Content bytes written as new chunks").register(meterRegistry);
+        this.chunksStored = Counter.builder("artifact.ingest.chunks").tag("outcome", "stored")
+            .description("Uploaded chunks by outcome").register(meterRegistry);
+        this.chunksDeduplicated = Counter.builder("artifact.ingest.chunks").tag("outcome", "deduplicated")
+            .description("Uploaded chunks by outcome").register(meterRegistry);
+        this.ingestTime = Timer.builder("artifact.ingest.time")
+            .description("Time spent receiving and storing content").register(meterRegistry);
+    }
+
+    /**
+     * @param declaredLength Content-Length of the request, -1 when the body is chunked
+     */
+    public Artifact upload(Long id, InputStream body, String contentType, long declaredLength) throws IOException {
+        if (!repository.existsById(id)) {
+            throw new ArtifactNotFoundException(id);
+        }
+        if (declaredLength > maxContentSize.toBytes()) {
+            throw new ContentTooLargeException(maxContentSize);
+        }
+        long started = System.nanoTime();
+        MessageDigest content = sha256();
+        List<ChunkRef> refs = new ArrayList<>();
+        Set<String> stored = new LinkedHashSet<>();
+        long touched = started;
+        long length = 0;
+        try {
+            ContentDefinedChunker chunker = new ContentDefinedChunker(body);
+            while (chunker.next()) {
+                length += chunker.length();
+                receivedBytes.increment(chunker.length());
+                if (length > maxContentSize.toBytes()) {
+                    // chunks stored so far stay unreferenced until the garbage collector removes them
+                    throw new ContentTooLargeException(maxContentSize);
+                }
+                content.update(chunker.buffer(), chunker.offset(), chunker.length());
+                String chunk = digest(chunker.buffer(), chunker.offset(), chunker.length());
+                storeIfAbsent(chunk, chunker.buffer(), chunker.offset(), chunker.length());
+                refs.add(new ChunkRef(chunk, chunker.length()));
+                stored.add(chunk);
+                if (System.nanoTime() - touched > touchIntervalNanos) {
+                    // a chunk already collected is reported by attach() as missing
+                    chunkIndex.touch(stored);
+                    touched = System.nanoTime();
+                }
+            }
+        } finally {
+            ingestTime.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+        return chunkIndex.attach(id, refs, contentTypeOrDefault(contentType), hex(content.digest()));
+    }
+
+    /**
+     * Store one chunk uploaded by a client that chunks on its side
+     *
+     * @return true when the chunk was new
+     */
+    public boolean storeChunk(String sha256, InputStream body) throws IOException {
+        requireSha256(sha256);
+        long started = System.nanoTime();
+        try {
+            byte[] data = body.readNBytes(ContentDefinedChunker.MAX_SIZE + 1);
+            if (data.length > ContentDefinedChunker.MAX_SIZE) {
+                throw new ContentTooLargeException(DataSize.ofBytes(ContentDefinedChunker.MAX_SIZE));
+            }
+            receivedBytes.increment(data.length);
+            String actual = digest(data, 0, data.length);
+            if (!actual.equals(sha256)) {
+                throw new IllegalArgumentException("Chunk body hashes to " + actual + ", not " + sha256);
+            }
+            return storeIfAbsent(sha256, data, 0, data.length);
+        } finally {
+            ingestTime.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * @return the chunks of {@code sha256s} the store does not have, in request order
+     */
+    public List<String> missingChunks(List<String> sha256s) {
+        sha256s.forEach(ArtifactContentService::requireSha256);
+        return chunkIndex.missing(sha256s);
+    }
+
+    /**
+     * Make the listed, already stored chunks the content of the artifact. The content digest is
+     * computed by reading the chunks back from local disk.
+     *
+     * @throws MissingChunksException listing the chunks to upload before retrying
+     */
+    public Artifact commitManifest(Long id, ContentManifest manifest) throws IOException {
+        if (manifest.chunks() == null || manifest.chunks().isEmpty()) {
+            throw new IllegalArgumentException("A manifest lists at least one chunk");
+        }
+        manifest.chunks().forEach(ArtifactContentService::requireSha256);
+        Map<String, Integer> lengths = chunkIndex.lengths(manifest.chunks());
+        List<String> missing = manifest.chunks().stream().filter(c -> !lengths.containsKey(c)).distinct().toList();
+        if (!missing.isEmpty()) {
+            throw new MissingChunksException(missing);
+        }
+        long length = manifest.chunks().stream().mapToLong(lengths::get).sum();
+        if (length > maxContentSize.toBytes()) {
+            throw new ContentTooLargeException(maxContentSize);
+        }
+
+        MessageDigest content = sha256();
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        List<ChunkRef> refs = new ArrayList<>(manifest.chunks().size());
+        for (String chunk : manifest.chunks()) {
+            try (FileChannel file = FileChannel.open(chunkStore.path(chunk), StandardOpenOption.READ)) {
+                while (file.read(buffer.clear()) != -1) {
+                    content.update(buffer.flip());
+                }
+            }
+            refs.add(new ChunkRef(chunk, lengths.get(chunk)));
+        }
+        return chunkIndex.attach(id, refs, contentTypeOrDefault(manifest.contentType()), hex(content.digest()));
+    }
+
+    public ArtifactContent open(Long id) {
+        Artifact artifact = repository.findById(id).orElseThrow(() -> new ArtifactNotFoundException(id));
+        if (!artifact.hasContent()) {
+            throw new ArtifactNotFoundException("Artifact " + id + " has no content");
+        }
+        List<ArtifactContent.Segment> segments = chunkIndex.chunksOf(id).stream()
+            .map(c -> new ArtifactContent.Segment(chunkStore.path(c.getChunkSha256()), c.getContentOffset(),
+                c.getLength()))
+            .toList();
+        return new ArtifactContent(segments, artifact.getContentLength(), artifact.getContentType(),
+            artifact.getContentSha256());
+    }
+
+    public StorageStats stats() {
+        ChunkIndex.Totals totals = chunkIndex.totals();
+        long logical = repository.sumContentLength();
+        double seconds = ingestTime.totalTime(TimeUnit.SECONDS);
+        return new StorageStats(logical, totals.bytes(), totals.chunks(), totals.unreferencedChunks(),
+            totals.unreferencedBytes(), totals.bytes() == 0 ? 1.0 : (double) logical / totals.bytes(),
+            (long) receivedBytes.count(), (long) chunksStored.count(), (long) chunksDeduplicated.count(),
+            seconds == 0 ? 0 : receivedBytes.count() / (1024 * 1024) / seconds,
+            (long) meterRegistry.counter("artifact.gc.chunks").count());
+    }
+
+    /**
+     * Write the chunk unless the store has it; the touch also restarts its garbage collection grace period
+     *
+     * @return true when the chunk was written
+     */
+    private boolean storeIfAbsent(String sha256, byte[] data, int offset, int length) throws IOException {
+        if (chunkIndex.touch(sha256)) {
+            chunksDeduplicated.increment();
+            return false;
+        }
+        chunkStore.write(sha256, data, offset, length);
+        try {
+            chunkIndex.register(sha256, length);
+        } catch (DataIntegrityViolationException e) {
+            // stored by a concurrent upload in the meantime, same bytes under the same name
+            chunkIndex.touch(sha256);
+            chunksDeduplicated.increment();
+            return false;
+        }
+        chunksStored.increment();
+        storedBytes.increment(length);
+        return true;
+    }
+
+    private static void requireSha256(String sha256) {
+        if (sha256 == null || !SHA256.matcher(sha256).matches()) {
+            throw new IllegalArgumentException("Not a lowercase hex SHA-256: " + sha256);
+        }
+    }
+
+    private static String contentTypeOrDefault(String contentType) {
+        return contentType == null ? MediaType.APPLICATION_OCTET_STREAM_VALUE : contentType;
+    }
+
+    private static String digest(byte[] data, int offset, int length) {
+        MessageDigest digest = sha256();
+        digest.update(data, offset, length);
+        return hex(digest.digest());
+    }
+
+    private static String hex(byte[] digest) {
+        return HexFormat.of().formatHex(digest);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.cvshealth.pbm.ssot.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Serialized JSON of recently read artifacts, least recently used first out once
+ * {@code artifact.cache.max-size} is exceeded. Entries carry the row revision they were
+ * serialized at and are only served for that revision, so a change made elsewhere (another
+ * replica, a missed eviction) never leaks stale JSON; evicting on writes just frees the memory early.
+ */
+@Component
+public class ArtifactResponseCache {
+
+    private final long maxBytes;
+    private final Map<Long, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long bytes;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public ArtifactResponseCache(MeterRegistry meterRegistry,
+                                 @Value("${artifact.cache.max-size:32MB}") DataSize maxSize) {
+        this.maxBytes = maxSize.toBytes();
+        this.hits = Counter.builder("artifact.response.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("artifact.response.cache").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("artifact.response.cache.size", this, ArtifactResponseCache::size).register(meterRegistry);
+    }
+
+    /**
+     * @return the cached JSON of the artifact at {@code revision}, null when absent or older
+     */
+    public synchronized Entry get(Long id, long revision) {
+        Entry entry = entries.get(id);
+        if (entry == null || entry.revision() != revision) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry;
+    }
+
+    public synchronized void put(Long id, Entry entry) {
+        if (entry.json().length > maxBytes) {
+            return;
+        }
+        Entry previous = entries.get(id);
+        if (previous != null && previous.revision() > entry.revision()) {
+            // a slower reader finished after a newer revision was cached
+            return;
+        }
+        Entry replaced = entries.put(id, entry);
+        bytes += entry.json().length - (replaced == null ? 0 : replaced.json().length);
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            bytes -= eldest.next().json().length;
+            eldest.remove();
+        }
+    }
+
+    public synchronized void evict(Long id) {
+        Entry removed = entries.remove(id);
+        if (removed != null) {
+            bytes -= removed.json().length;
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public record Entry(long revision, LocalDateTime updatedAt, byte[] json) {
+    }
+}
@@ -0,0 +1,235 @@
+package com.cvshealth.pbm.ssot.service;
+
+import com.cvshealth.pbm.ssot.dto.ArtifactPage;
+import com.cvshealth.pbm.ssot.dto.ArtifactRequest;
+import com.cvshealth.pbm.ssot.dto.ArtifactRevision;
+import com.cvshealth.pbm.ssot.exception.ArtifactNotFoundException;
+import com.cvshealth.pbm.ssot.model.Artifact;
+import com.cvshealth.pbm.ssot.model.ArtifactDeletion;
+import com.cvshealth.pbm.ssot.model.ArtifactStatus;
+import com.cvshealth.pbm.ssot.repository.ArtifactCursor;
+import com.cvshealth.pbm.ssot.repository.ArtifactDeletionRepository;
+import com.cvshealth.pbm.ssot.repository.ArtifactRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@Service
+@Transactional
+public class ArtifactService {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+    static final int EXPORT_BATCH_SIZE = MAX_PAGE_SIZE;
+
+    private final ArtifactRepository repository;
+    private final ArtifactDeletionRepository deletions;
+    private final ObjectMapper objectMapper;
+    private final ChunkIndex chunkIndex;
+    private final ArtifactResponseCache responseCache;
+    private final ApplicationEventPublisher events;
+    private final TransactionTemplate pageReads;
+
+    public ArtifactService(ArtifactRepository repository, ArtifactDeletionRepository deletions,
+                           ObjectMapper objectMapper, ChunkIndex chunkIndex,
+                           ArtifactResponseCache responseCache, ApplicationEventPublisher events,
+                           PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.deletions = deletions;
+        this.objectMapper = objectMapper;
+        this.chunkIndex = chunkIndex;
+        this.responseCache = responseCache;
+        this.events = events;
+        this.pageReads = new TransactionTemplate(transactionManager);
+        this.pageReads.setReadOnly(true);
+    }
+
+    /**
+     * One page in (createdAt, id) order starting after {@code cursor}.
+     * One extra row is read to tell whether another page follows.
+     */
+    @Transactional(readOnly = true)
+    public ArtifactPage list(String type, ArtifactStatus status, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        ArtifactCursor after = cursor == null || cursor.isBlank() ? null : ArtifactCursor.decode(cursor);
+        List<Artifact> rows = repository.findPage(type, status, after, pageSize + 1);
+        if (rows.size() <= pageSize) {
+            return new ArtifactPage(rows, null);
+        }
+        List<Artifact> items = List.copyOf(rows.subList(0, pageSize));
+        return new ArtifactPage(items, ArtifactCursor.after(items.get(pageSize - 1)).encode());
+    }
+
+    /**
+     * Writes every matching artifact as one JSON line, reading them a page at a time in a
+     * transaction of its own. No connection is held while the output is written, so a slow
+     * client does not keep one out of the pool; artifacts changed during the export show up as
+     * of the page that read them.
+     *
+     * @return number of artifacts written
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long export(String type, ArtifactStatus status, OutputStream out) throws IOException {
+        return export(type, status, out, EXPORT_BATCH_SIZE);
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    long export(String type, ArtifactStatus status, OutputStream out, int batchSize) throws IOException {
+        long count = 0;
+        ArtifactCursor after = null;
+        List<Artifact> rows;
+        do {
+            ArtifactCursor cursor = after;
+            rows = pageReads.execute(tx -> repository.findPage(type, status, cursor, batchSize));
+            for (Artifact artifact : rows) {
+                out.write(objectMapper.writeValueAsBytes(artifact));
+                out.write('\n');
+            }
+            count += rows.size();
+            if (!rows.isEmpty()) {
+                after = ArtifactCursor.after(rows.get(rows.size() - 1));
+            }
+        } while (rows.size() == batchSize);
+        out.flush();
+        return count;
+    }
+
+    /**
+     * Hands every artifact to {@code consumer} in batches of {@code batchSize}, oldest first
+     *
+     * @return number of artifacts read
+     */
+    @Transactional(readOnly = true)
+    public long scan(int batchSize, Consumer<List<Artifact>> consumer) {
+        long count = 0;
+        List<Artifact> batch = new ArrayList<>(batchSize);
+        try (Stream<Artifact> artifacts = repository.streamAll(null, null)) {
+            Iterator<Artifact> iterator = artifacts.iterator();
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                if (batch.size() == batchSize) {
+                    consumer.accept(batch);
+                    count += batch.size();
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            consumer.accept(batch);
+            count += batch.size();
+        }
+        return count;
+    }
+
+    /**
+     * Artifacts created or updated after {@code since} by any instance, oldest change first
+     */
+    @Transactional(readOnly = true)
+    public List<Artifact> updatedSince(LocalDateTime since) {
+        return repository.findUpdatedSince(since);
+    }
+
+    /**
+     * Ids of the artifacts deleted after {@code since} by any instance
+     */
+    @Transactional(readOnly = true)
+    public List<Long> deletedSince(LocalDateTime since) {
+        return deletions.findDeletedSince(since);
+    }
+
+    /**
+     * @return number of deletion tombstones older than {@code before} removed
+     */
+    public int purgeDeletions(LocalDateTime before) {
+        return deletions.deleteOlderThan(before);
+    }
+
+    @Transactional(readOnly = true)
+    public Artifact get(Long id) {
+        return repository.findById(id).orElseThrow(() -> new ArtifactNotFoundException(id));
+    }
+
+    /**
+     * Revision and modification time of an artifact without reading the rest of the row
+     */
+    @Transactional(readOnly = true)
+    public ArtifactRevision revision(Long id) {
+        return repository.findRevision(id).orElseThrow(() -> new ArtifactNotFoundException(id));
+    }
+
+    /**
+     * The artifact as JSON, serialized once per revision. The entry returned may be newer than
+     * {@code current} when the artifact changed in between, never older.
+     */
+    @Transactional(readOnly = true)
+    public ArtifactResponseCache.Entry json(ArtifactRevision current) throws IOException {
+        ArtifactResponseCache.Entry cached = responseCache.get(current.id(), current.revision());
+        if (cached != null) {
+            return cached;
+        }
+        Artifact artifact = get(current.id());
+        ArtifactResponseCache.Entry entry = new ArtifactResponseCache.Entry(artifact.getRevision(),
+                artifact.getUpdatedAt(), objectMapper.writeValueAsBytes(artifact));
+        responseCache.put(artifact.getId(), entry);
+        return entry;
+    }
+
+    public Artifact create(ArtifactRequest request, String createdBy) {
+        Artifact artifact = new Artifact();
+        apply(artifact, request);
+        artifact.setCreatedBy(createdBy);
+        Artifact saved = repository.saveAndFlush(artifact);
+        events.publishEvent(new ArtifactChangedEvent(ArtifactChangedEvent.Change.CREATED, saved));
+        return saved;
+    }
+
+    public Artifact update(Long id, ArtifactRequest request) {
+        Artifact artifact = get(id);
+        apply(artifact, request);
+        responseCache.evict(id);
+        Artifact saved = repository.saveAndFlush(artifact);
+        events.publishEvent(new ArtifactChangedEvent(ArtifactChangedEvent.Change.UPDATED, saved));
+        return saved;
+    }
+
+    public void delete(Long id) {
+        Artifact artifact = get(id);
+        // the chunks are deleted by the garbage collector once nothing references them
+        chunkIndex.release(id);
+        repository.delete(artifact);
+        deletions.save(new ArtifactDeletion(id, LocalDateTime.now().truncatedTo(ChronoUnit.MICROS)));
+        responseCache.evict(id);
+        events.publishEvent(new ArtifactChangedEvent(ArtifactChangedEvent.Change.DELETED, artifact));
+    }
+
+    private static void apply(Artifact artifact, ArtifactRequest request) {
+        if (isBlank(request.name()) || isBlank(request.version()) || isBlank(request.type())) {
+            throw new IllegalArgumentException("name, version and type are required");
+        }
+        artifact.setName(request.name());
+        artifact.setVersion(request.version());
+        artifact.setType(request.type());
+        artifact.setDescription(request.description());
+        if (request.status() != null) {
+            artifact.setStatus(request.status());
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -0,0 +1,85 @@
+package com.cvshealth.pbm.ssot.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Deletes chunks that no artifact has referenced for {@code artifact.storage.gc.grace}.
+ * The grace period covers uploads in flight, which store chunks before referencing them;
+ * streamed uploads touch their chunks every half period for as long as they run.
+ */
+@Component
+public class ChunkGarbageCollector {
+
+    private static final Logger log = LoggerFactory.getLogger(ChunkGarbageCollector.class);
+
+    static final int BATCH_SIZE = 500;
+
+    private final ChunkIndex chunkIndex;
+    private final Duration grace;
+    private final Counter collectedChunks;
+    private final Counter collectedBytes;
+
+    public ChunkGarbageCollector(ChunkIndex chunkIndex, MeterRegistry meterRegistry,
+                                 @Value("${artifact.storage.gc.grace:PT1H}") Duration grace) {
+        this.chunkIndex = chunkIndex;
+        this.grace = grace;
+        this.collectedChunks = Counter.builder("artifact.gc.chunks")
+            .description("Unreferenced chunks deleted").register(meterRegistry);
+        this.collectedBytes = Counter.builder("artifact.gc.bytes").baseUnit("bytes")
+            .description("Bytes freed by deleting unreferenced chunks").register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${artifact.storage.gc.interval:PT10M}",
+               fixedDelayString = "${artifact.storage.gc.interval:PT10M}")
+    public void run() {
+        collect(ChunkIndex.now().minus(grace));
+    }
+
+    /**
+     * Delete the chunks unreferenced and untouched since {@code cutoff}
+     *
+     * @return number of chunks deleted
+     */
+    public int collect(LocalDateTime cutoff) {
+        int removed = 0;
+        long freed = 0;
+        List<String> candidates;
+        do {
+            candidates = chunkIndex.collectable(cutoff, BATCH_SIZE);
+            int removedInBatch = 0;
+            for (String sha256 : candidates) {
+                try {
+                    int bytes = chunkIndex.remove(sha256, cutoff);
+                    if (bytes > 0) {
+                        removedInBatch++;
+                        freed += bytes;
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("Unable to delete chunk {}: {}", sha256, e.getMessage());
+                }
+            }
+            removed += removedInBatch;
+            // a batch that freed nothing would come back unchanged
+            if (removedInBatch == 0) {
+                break;
+            }
+        } while (candidates.size() == BATCH_SIZE);
+
+        collectedChunks.increment(removed);
+        collectedBytes.increment(freed);
+        if (removed > 0) {
+            log.info("Deleted {} unreferenced chunks, {} bytes freed", removed, freed);
+        }
+        return removed;
+    }
+}
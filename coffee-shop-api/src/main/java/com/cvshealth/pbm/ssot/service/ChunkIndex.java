@@ -0,0 +1,251 @@
+package com.cvshealth.pbm.ssot.service;
+
+import com.cvshealth.pbm.ssot.dto.ChunkRef;
+import com.cvshealth.pbm.ssot.exception.ArtifactNotFoundException;
+import com.cvshealth.pbm.ssot.exception.MissingChunksException;
+import com.cvshealth.pbm.ssot.model.Artifact;
+import com.cvshealth.pbm.ssot.model.ArtifactChunk;
+import com.cvshealth.pbm.ssot.model.ContentChunk;
+import com.cvshealth.pbm.ssot.repository.ArtifactChunkRepository;
+import com.cvshealth.pbm.ssot.repository.ContentChunkRepository;
+import com.cvshealth.pbm.ssot.storage.ChunkStore;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Reference counts of stored chunks and the chunk lists of artifacts.
+ *
+ * <p>A chunk row is inserted with no references when its file is written, gains a reference
+ * for every artifact position using it when an upload is attached, and loses them when the
+ * artifact content is replaced or deleted. Every change restarts the garbage collection grace
+ * period in {@code touched_at}. Removal locks the row and re-checks it, so an upload touching
+ * the chunk at the same time either keeps it alive or finds it gone and writes it again.
+ * The file is only deleted once the row delete has committed.
+ */
+@Service
+@Transactional
+public class ChunkIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ChunkIndex.class);
+
+    /** Chunks per UPDATE when touching the chunks of a long upload */
+    static final int TOUCH_BATCH_SIZE = 1000;
+
+    private final ContentChunkRepository chunks;
+    private final ArtifactChunkRepository artifactChunks;
+    private final ChunkStore chunkStore;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ChunkIndex(ContentChunkRepository chunks, ArtifactChunkRepository artifactChunks, ChunkStore chunkStore) {
+        this.chunks = chunks;
+        this.artifactChunks = artifactChunks;
+        this.chunkStore = chunkStore;
+    }
+
+    /**
+     * @return false when the chunk is not stored and has to be written
+     */
+    public boolean touch(String sha256) {
+        return chunks.touch(sha256, now()) > 0;
+    }
+
+    /**
+     * Restart the grace period of chunks an upload in flight has stored so far
+     *
+     * @return the number of chunks still stored
+     */
+    public int touch(Collection<String> sha256s) {
+        LocalDateTime now = now();
+        List<String> all = List.copyOf(sha256s);
+        int touched = 0;
+        for (int from = 0; from < all.size(); from += TOUCH_BATCH_SIZE) {
+            touched += chunks.touchAll(all.subList(from, Math.min(from + TOUCH_BATCH_SIZE, all.size())), now);
+        }
+        return touched;
+    }
+
+    /**
+     * Record a chunk whose file was just written; fails with a DataIntegrityViolationException
+     * when another upload recorded it first
+     */
+    public void register(String sha256, int length) {
+        chunks.insert(sha256, length, now());
+    }
+
+    /**
+     * Read on the primary like {@link #missing}: a manifest may list chunks stored a moment ago
+     */
+    public Map<String, Integer> lengths(Collection<String> sha256s) {
+        Map<String, Integer> lengths = new LinkedHashMap<>();
+        chunks.findAllById(new HashSet<>(sha256s)).forEach(c -> lengths.put(c.getSha256(), c.getLength()));
+        return lengths;
+    }
+
+    /**
+     * Not read-only, so it reads the primary rather than a replica: the answer decides which
+     * chunks an upload sends, a lagging replica would ask for chunks again
+     */
+    public List<String> missing(List<String> sha256s) {
+        if (sha256s.isEmpty()) {
+            return List.of();
+        }
+        Collection<String> present = new HashSet<>(chunks.findPresent(new HashSet<>(sha256s)));
+        return sha256s.stream().filter(sha256 -> !present.contains(sha256)).distinct().toList();
+    }
+
+    @Transactional(readOnly = true)
+    public List<ArtifactChunk> chunksOf(Long artifactId) {
+        return artifactChunks.findByArtifactIdOrderBySeq(artifactId);
+    }
+
+    /**
+     * Make {@code refs} the content of the artifact, releasing its previous chunks.
+     * Concurrent uploads to the same artifact are serialized on the artifact row.
+     *
+     * @throws MissingChunksException when a chunk is no longer stored, nothing is changed then
+     */
+    public Artifact attach(Long artifactId, List<ChunkRef> refs, String contentType, String sha256) {
+        Artifact artifact = entityManager.find(Artifact.class, artifactId, LockModeType.PESSIMISTIC_WRITE);
+        if (artifact == null) {
+            throw new ArtifactNotFoundException(artifactId);
+        }
+        release(artifactId);
+
+        LocalDateTime now = now();
+        List<String> missing = new ArrayList<>();
+        counts(refs.stream().map(ChunkRef::sha256).toList()).forEach((chunk, count) -> {
+            if (chunks.addReferences(chunk, count, now) == 0) {
+                missing.add(chunk);
+            }
+        });
+        if (!missing.isEmpty()) {
+            throw new MissingChunksException(missing);
+        }
+
+        long offset = 0;
+        for (int seq = 0; seq < refs.size(); seq++) {
+            ChunkRef ref = refs.get(seq);
+            entityManager.persist(new ArtifactChunk(artifactId, seq, ref.sha256(), offset, ref.length()));
+            offset += ref.length();
+        }
+        artifact.setContentLength(offset);
+        artifact.setContentType(contentType);
+        artifact.setContentSha256(sha256);
+        artifact.setContentUpdatedAt(now);
+        return artifact;
+    }
+
+    /**
+     * Drop the chunk list of an artifact and its references
+     */
+    public void release(Long artifactId) {
+        // hashes only: loaded entities would clash with the rows attach() persists next
+        List<String> previous = artifactChunks.findChunkSha256s(artifactId);
+        if (previous.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = now();
+        artifactChunks.deleteByArtifactId(artifactId);
+        counts(previous).forEach((chunk, count) -> chunks.addReferences(chunk, -count, now));
+    }
+
+    @Transactional(readOnly = true)
+    public List<String> collectable(LocalDateTime cutoff, int limit) {
+        return chunks.findCollectable(cutoff, Limit.of(limit));
+    }
+
+    /**
+     * Delete a chunk that is still unreferenced and untouched since {@code cutoff}. The row is
+     * deleted first; its file is moved aside while the row lock keeps uploads of the same chunk
+     * waiting, deleted after the commit and put back if the transaction rolls back.
+     *
+     * @return the bytes freed, 0 when the chunk was kept
+     */
+    public int remove(String sha256, LocalDateTime cutoff) {
+        ContentChunk chunk = entityManager.find(ContentChunk.class, sha256, LockModeType.PESSIMISTIC_WRITE);
+        if (chunk == null || chunk.getRefCount() > 0 || !chunk.getTouchedAt().isBefore(cutoff)) {
+            return 0;
+        }
+        entityManager.remove(chunk);
+        entityManager.flush();
+        Path retired;
+        try {
+            retired = chunkStore.retire(sha256);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (retired != null) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    settle(sha256, retired, status == STATUS_COMMITTED);
+                }
+            });
+        }
+        return chunk.getLength();
+    }
+
+    @Transactional(readOnly = true)
+    public Totals totals() {
+        Object[] all = chunks.totals().get(0);
+        Object[] unreferenced = chunks.unreferencedTotals().get(0);
+        return new Totals(number(all[0]), number(all[1]), number(unreferenced[0]), number(unreferenced[1]));
+    }
+
+    private void settle(String sha256, Path retired, boolean committed) {
+        try {
+            if (committed) {
+                Files.deleteIfExists(retired);
+            } else {
+                chunkStore.restore(sha256, retired);
+            }
+        } catch (IOException e) {
+            log.warn("Unable to {} the file of chunk {}: {}", committed ? "delete" : "restore", sha256,
+                e.getMessage());
+        }
+    }
+
+    /**
+     * References per chunk, sorted so concurrent uploads lock shared chunk rows in the same order
+     */
+    private static Map<String, Integer> counts(List<String> sha256s) {
+        Map<String, Integer> counts = new TreeMap<>();
+        sha256s.forEach(sha256 -> counts.merge(sha256, 1, Integer::sum));
+        return counts;
+    }
+
+    private static long number(Object value) {
+        return ((Number) value).longValue();
+    }
+
+    static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    public record Totals(long chunks, long bytes, long unreferencedChunks, long unreferencedBytes) {
+    }
+}
@@ -0,0 +1,212 @@
+package com.cvshealth.pbm.ssot.service;
+
+import com.cvshealth.pbm.ssot.dto.SystemSnapshot;
+import com.cvshealth.pbm.ssot.repository.ArtifactRepository;
+import com.cvshealth.pbm.ssot.storage.ChunkStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.HealthComponent;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Numbers behind the admin dashboards, cheap enough to poll every second. Artifact and user
+ * counts follow the {@link ArtifactChangedEvent}s of this instance and are read back from the
+ * database once the application is ready and every {@code admin.stats.reconcile-every} samples,
+ * which takes in the changes of other instances and any event that raced the previous read.
+ * A user is anyone who created an artifact still present, the accounts themselves live in the
+ * IdP. JVM, pool and health figures are sampled on a schedule and served from the last snapshot.
+ */
+@Component
+public class SystemStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(SystemStatsService.class);
+
+    // artifacts created without a principal are counted but belong to no user
+    private static final String ANONYMOUS = "";
+
+    private final ArtifactRepository repository;
+    private final MeterRegistry meterRegistry;
+    private final HealthEndpoint healthEndpoint;
+    private final ChunkStore chunkStore;
+    private final int reconcileEvery;
+
+    private final AtomicLong artifacts = new AtomicLong();
+    private final Map<String, Long> artifactsByCreator = new ConcurrentHashMap<>();
+    private volatile SystemSnapshot snapshot;
+    private int samples;
+
+    public SystemStatsService(ArtifactRepository repository, MeterRegistry meterRegistry,
+                              HealthEndpoint healthEndpoint, ChunkStore chunkStore,
+                              @Value("${admin.stats.reconcile-every:12}") int reconcileEvery) {
+        this.repository = repository;
+        this.meterRegistry = meterRegistry;
+        this.healthEndpoint = healthEndpoint;
+        this.chunkStore = chunkStore;
+        this.reconcileEvery = Math.max(1, reconcileEvery);
+        Gauge.builder("artifacts.total", artifacts, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("artifacts.users", this, SystemStatsService::users).register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        reconcile();
+    }
+
+    @TransactionalEventListener
+    public synchronized void onArtifactChanged(ArtifactChangedEvent event) {
+        String creator = creator(event.artifact().getCreatedBy());
+        switch (event.change()) {
+            case CREATED -> {
+                artifacts.incrementAndGet();
+                artifactsByCreator.merge(creator, 1L, Long::sum);
+            }
+            case DELETED -> {
+                artifacts.decrementAndGet();
+                // the creator goes with their last artifact
+                artifactsByCreator.computeIfPresent(creator, (c, count) -> count <= 1 ? null : count - 1);
+            }
+            case UPDATED -> {
+                // the creator of an artifact never changes
+            }
+        }
+    }
+
+    /**
+     * Replace the counts with COUNT ... GROUP BY created_by
+     */
+    public void reconcile() {
+        List<Object[]> rows;
+        try {
+            rows = repository.countByCreator();
+        } catch (DataAccessException e) {
+            log.warn("Unable to count artifacts: {}", e.getMessage());
+            return;
+        }
+        Map<String, Long> counted = new HashMap<>();
+        long total = 0;
+        for (Object[] row : rows) {
+            long count = ((Number) row[1]).longValue();
+            counted.put(creator((String) row[0]), count);
+            total += count;
+        }
+        synchronized (this) {
+            artifactsByCreator.keySet().retainAll(counted.keySet());
+            artifactsByCreator.putAll(counted);
+            artifacts.set(total);
+        }
+    }
+
+    public long artifacts() {
+        return artifacts.get();
+    }
+
+    public int users() {
+        return artifactsByCreator.size() - (artifactsByCreator.containsKey(ANONYMOUS) ? 1 : 0);
+    }
+
+    /**
+     * The latest sample, taken now if there is none yet
+     */
+    public SystemSnapshot snapshot() {
+        SystemSnapshot current = snapshot;
+        return current != null ? current : sample();
+    }
+
+    @Scheduled(fixedRateString = "${admin.stats.sample-interval:PT5S}")
+    public void refresh() {
+        sample();
+        if (++samples % reconcileEvery == 0) {
+            reconcile();
+        }
+    }
+
+    private SystemSnapshot sample() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long collections = 0;
+        long collectionMillis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            collections += Math.max(0, gc.getCollectionCount());
+            collectionMillis += Math.max(0, gc.getCollectionTime());
+        }
+        SystemSnapshot sampled = new SystemSnapshot(
+            LocalDateTime.now(),
+            Duration.ofMillis(ManagementFactory.getRuntimeMXBean().getUptime()),
+            new SystemSnapshot.Memory(memory.getHeapMemoryUsage().getUsed(), memory.getHeapMemoryUsage().getCommitted(),
+                memory.getHeapMemoryUsage().getMax(), memory.getNonHeapMemoryUsage().getUsed()),
+            cpu(),
+            new SystemSnapshot.Gc(collections, collectionMillis),
+            ManagementFactory.getThreadMXBean().getThreadCount(),
+            new SystemSnapshot.Pool(gauge("hikaricp.connections.active"), gauge("hikaricp.connections.idle"),
+                gauge("hikaricp.connections.pending"), gauge("hikaricp.connections.max")),
+            storage(),
+            health());
+        snapshot = sampled;
+        return sampled;
+    }
+
+    private static SystemSnapshot.Cpu cpu() {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof com.sun.management.OperatingSystemMXBean sun) {
+            return new SystemSnapshot.Cpu(sun.getProcessCpuLoad(), sun.getCpuLoad(), os.getAvailableProcessors());
+        }
+        return new SystemSnapshot.Cpu(-1, os.getSystemLoadAverage() / os.getAvailableProcessors(),
+            os.getAvailableProcessors());
+    }
+
+    /**
+     * Summed over the connection pools, primary and read replica when there is one
+     */
+    private int gauge(String name) {
+        Collection<Gauge> gauges = meterRegistry.find(name).gauges();
+        return gauges.isEmpty() ? -1 : (int) gauges.stream().mapToDouble(Gauge::value).sum();
+    }
+
+    private SystemSnapshot.Storage storage() {
+        try {
+            FileStore store = Files.getFileStore(chunkStore.root());
+            return new SystemSnapshot.Storage(store.getUsableSpace(), store.getTotalSpace());
+        } catch (IOException e) {
+            log.warn("Unable to read content store usage: {}", e.getMessage());
+            return new SystemSnapshot.Storage(-1, -1);
+        }
+    }
+
+    private Map<String, String> health() {
+        Map<String, String> health = new LinkedHashMap<>();
+        for (String component : new String[]{"db", "diskSpace"}) {
+            HealthComponent status = healthEndpoint.healthForPath(component);
+            health.put(component, status == null ? "UNKNOWN" : status.getStatus().getCode());
+        }
+        return health;
+    }
+
+    private static String creator(String createdBy) {
+        return createdBy == null ? ANONYMOUS : createdBy;
+    }
+}
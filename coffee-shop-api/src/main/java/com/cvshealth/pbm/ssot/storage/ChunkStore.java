@@ -0,0 +1,81 @@
+package com.cvshealth.pbm.ssot.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Chunk files on local disk under {@code artifact.storage.root}/chunks, named by the hex
+ * SHA-256 of their bytes and fanned out over two directory levels. A chunk is written to a
+ * temp file and renamed into place, so a present file is always complete. Which chunks are
+ * referenced is tracked in the database, see ChunkIndex.
+ */
+@Component
+public class ChunkStore {
+
+    private final Path root;
+
+    public ChunkStore(@Value("${artifact.storage.root:data/artifact-store}") Path root) throws IOException {
+        this.root = Files.createDirectories(root.toAbsolutePath().normalize().resolve("chunks"));
+    }
+
+    public Path root() {
+        return root;
+    }
+
+    public Path path(String sha256) {
+        return root.resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4)).resolve(sha256);
+    }
+
+    public boolean exists(String sha256) {
+        return Files.exists(path(sha256));
+    }
+
+    public void write(String sha256, byte[] data, int offset, int length) throws IOException {
+        Path target = path(sha256);
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), sha256, ".upload");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ByteBuffer chunk = ByteBuffer.wrap(data, offset, length);
+                while (chunk.hasRemaining()) {
+                    channel.write(chunk);
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public void delete(String sha256) throws IOException {
+        Files.deleteIfExists(path(sha256));
+    }
+
+    /**
+     * Move the chunk file out of its place, to be deleted or put back once the removal of its
+     * row is decided
+     *
+     * @return the retired file, null when the chunk had no file
+     */
+    public Path retire(String sha256) throws IOException {
+        Path target = path(sha256);
+        if (!Files.exists(target)) {
+            return null;
+        }
+        Path retired = Files.createTempFile(target.getParent(), sha256, ".retired");
+        Files.move(target, retired, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return retired;
+    }
+
+    public void restore(String sha256, Path retired) throws IOException {
+        Files.move(retired, path(sha256), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
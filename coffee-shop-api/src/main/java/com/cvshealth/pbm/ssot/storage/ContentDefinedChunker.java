@@ -0,0 +1,129 @@
+package com.cvshealth.pbm.ssot.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.SplittableRandom;
+
+/**
+ * Splits a stream into content-defined chunks with a gear rolling hash (FastCDC style).
+ * A cut depends only on the bytes right before it, so an insert or delete early in a file
+ * moves the chunk boundaries near the edit and the rest of the chunks keep their hashes.
+ * Normalized chunking uses a stricter mask below the average size and a looser one above,
+ * which keeps most chunks close to the average.
+ *
+ * <p>Not thread safe; the returned chunk is a view of the internal buffer that is valid
+ * until the next call to {@link #next()}.
+ */
+public class ContentDefinedChunker {
+
+    public static final int MIN_SIZE = 256 * 1024;
+    public static final int AVG_SIZE = 1024 * 1024;
+    public static final int MAX_SIZE = 4 * 1024 * 1024;
+
+    // the high bits of a gear hash depend on the last 64 bytes, so the masks select high bits
+    private static final long MASK_SMALL = mask(22);
+    private static final long MASK_LARGE = mask(18);
+
+    private static final long[] GEAR = new long[256];
+
+    static {
+        // fixed seed: boundaries have to be identical on every node and across restarts
+        SplittableRandom random = new SplittableRandom(0x5EED_C0FFEEL);
+        for (int i = 0; i < GEAR.length; i++) {
+            GEAR[i] = random.nextLong();
+        }
+    }
+
+    private final InputStream in;
+    // twice the largest chunk, so the unread tail is moved to the front every few chunks rather than every chunk
+    private final byte[] buffer = new byte[2 * MAX_SIZE];
+    private int start;
+    private int limit;
+    private int chunkLength;
+    private boolean eof;
+
+    public ContentDefinedChunker(InputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * Advance to the next chunk
+     *
+     * @return false once the stream is exhausted
+     */
+    public boolean next() throws IOException {
+        start += chunkLength;
+        chunkLength = 0;
+        fill();
+        if (start == limit) {
+            return false;
+        }
+        chunkLength = cut(buffer, start, limit - start);
+        return true;
+    }
+
+    public byte[] buffer() {
+        return buffer;
+    }
+
+    public int offset() {
+        return start;
+    }
+
+    public int length() {
+        return chunkLength;
+    }
+
+    /**
+     * Length of the first chunk of {@code data[offset, offset + length)}, the whole range when
+     * no cut point is found before {@link #MAX_SIZE}
+     */
+    static int cut(byte[] data, int offset, int length) {
+        if (length <= MIN_SIZE) {
+            return length;
+        }
+        int end = offset + Math.min(length, MAX_SIZE);
+        int normal = offset + Math.min(length, AVG_SIZE);
+        long hash = 0;
+        int i = offset + MIN_SIZE;
+        for (; i < normal; i++) {
+            hash = (hash << 1) + GEAR[data[i] & 0xFF];
+            if ((hash & MASK_SMALL) == 0) {
+                return i + 1 - offset;
+            }
+        }
+        for (; i < end; i++) {
+            hash = (hash << 1) + GEAR[data[i] & 0xFF];
+            if ((hash & MASK_LARGE) == 0) {
+                return i + 1 - offset;
+            }
+        }
+        return end - offset;
+    }
+
+    /**
+     * Top up the buffer so a full {@link #MAX_SIZE} window follows {@code start}, unless the stream ends first
+     */
+    private void fill() throws IOException {
+        if (eof || limit - start >= MAX_SIZE) {
+            return;
+        }
+        if (start > buffer.length - MAX_SIZE) {
+            System.arraycopy(buffer, start, buffer, 0, limit - start);
+            limit -= start;
+            start = 0;
+        }
+        while (limit < buffer.length) {
+            int read = in.read(buffer, limit, buffer.length - limit);
+            if (read == -1) {
+                eof = true;
+                return;
+            }
+            limit += read;
+        }
+    }
+
+    private static long mask(int bits) {
+        return ((1L << bits) - 1) << (64 - bits);
+    }
+}
@@ -0,0 +1,31 @@
+-- V1.2.0__Create_artifacts_table.sql
+-- Enables the artifacts table drafted in V1.1.0 for the JPA Artifact entity.
+-- GET /api/artifacts pages with keyset cursors on (created_at, id), so the indexes end with
+-- those columns and a filtered page is a single index range scan in cursor order.
+
+CREATE TABLE IF NOT EXISTS artifacts (
+    id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    version VARCHAR(100) NOT NULL,
+    type VARCHAR(50) NOT NULL,
+    description VARCHAR(2000),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    created_by VARCHAR(100),
+    status VARCHAR(20) NOT NULL DEFAULT 'ACTIVE',
+
+    CONSTRAINT uk_artifacts_name_version UNIQUE (name, version)
+);
+
+-- Unfiltered pages
+CREATE INDEX IF NOT EXISTS idx_artifacts_created_at ON artifacts(created_at, id);
+-- Pages filtered by type or status
+CREATE INDEX IF NOT EXISTS idx_artifacts_type ON artifacts(type, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_artifacts_status ON artifacts(status, created_at, id);
+
+COMMENT ON TABLE artifacts IS 'Store information about artifacts managed by the system';
+COMMENT ON COLUMN artifacts.type IS 'Type of artifact: JAR, WAR, Docker, etc.';
+COMMENT ON COLUMN artifacts.status IS 'Status: ACTIVE, DEPRECATED, ARCHIVED';
+
+INSERT INTO schema_info (version, description, applied_at)
+VALUES ('V1.2.0', 'Artifacts table with keyset pagination indexes', CURRENT_TIMESTAMP);
@@ -0,0 +1,13 @@
+-- V1.3.0__Add_artifact_content.sql
+-- Metadata of the binary uploaded with PUT /api/artifacts/{id}/content.
+-- The bytes live in the content store on disk, these columns stay NULL until the first upload.
+
+ALTER TABLE artifacts ADD COLUMN IF NOT EXISTS content_length BIGINT;
+ALTER TABLE artifacts ADD COLUMN IF NOT EXISTS content_type VARCHAR(255);
+ALTER TABLE artifacts ADD COLUMN IF NOT EXISTS content_sha256 VARCHAR(64);
+ALTER TABLE artifacts ADD COLUMN IF NOT EXISTS content_updated_at TIMESTAMP;
+
+COMMENT ON COLUMN artifacts.content_sha256 IS 'Hex SHA-256 of the uploaded binary';
+
+INSERT INTO schema_info (version, description, applied_at)
+VALUES ('V1.3.0', 'Artifact binary content metadata', CURRENT_TIMESTAMP);
@@ -0,0 +1,35 @@
+-- V1.4.0__Create_content_chunks.sql
+-- Content-addressed storage of artifact binaries. Uploads are split into content-defined
+-- chunks stored once per SHA-256 on disk; content_chunks counts the artifacts referencing
+-- each chunk and artifact_chunks lists the chunks of an artifact in order.
+-- Chunks whose ref_count stayed 0 for the grace period are removed by the garbage collector.
+
+CREATE TABLE IF NOT EXISTS content_chunks (
+    sha256 VARCHAR(64) PRIMARY KEY,
+    chunk_length INT NOT NULL,
+    ref_count INT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    touched_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Garbage collector scan
+CREATE INDEX IF NOT EXISTS idx_content_chunks_unreferenced ON content_chunks(ref_count, touched_at);
+
+CREATE TABLE IF NOT EXISTS artifact_chunks (
+    artifact_id BIGINT NOT NULL,
+    seq INT NOT NULL,
+    chunk_sha256 VARCHAR(64) NOT NULL,
+    content_offset BIGINT NOT NULL,
+    chunk_length INT NOT NULL,
+
+    PRIMARY KEY (artifact_id, seq),
+    CONSTRAINT fk_artifact_chunks_artifact FOREIGN KEY (artifact_id) REFERENCES artifacts(id) ON DELETE CASCADE,
+    CONSTRAINT fk_artifact_chunks_chunk FOREIGN KEY (chunk_sha256) REFERENCES content_chunks(sha256)
+);
+
+CREATE INDEX IF NOT EXISTS idx_artifact_chunks_chunk ON artifact_chunks(chunk_sha256);
+
+COMMENT ON COLUMN content_chunks.touched_at IS 'Last upload or release, starts the garbage collection grace period';
+
+INSERT INTO schema_info (version, description, applied_at)
+VALUES ('V1.4.0', 'Content-addressed chunk storage', CURRENT_TIMESTAMP);
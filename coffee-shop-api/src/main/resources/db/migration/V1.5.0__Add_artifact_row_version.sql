@@ -0,0 +1,9 @@
+-- V1.5.0__Add_artifact_row_version.sql
+-- Optimistic lock counter of an artifact row, bumped by every metadata or content change.
+-- It is the strong ETag of GET /api/artifacts/{id}; the existing version column is the
+-- artifact's own release version.
+
+ALTER TABLE artifacts ADD COLUMN IF NOT EXISTS row_version BIGINT NOT NULL DEFAULT 0;
+
+INSERT INTO schema_info (version, description, applied_at)
+VALUES ('V1.5.0', 'Artifact row version for ETags', CURRENT_TIMESTAMP);
@@ -0,0 +1,15 @@
+-- V1.6.0__Create_artifact_deletions.sql
+-- Every instance keeps its own search index and polls for the changes other instances made:
+-- artifacts by updated_at, deletions by the tombstones below. Tombstones are removed once
+-- they are older than artifact.search.deletion-retention.
+
+CREATE TABLE IF NOT EXISTS artifact_deletions (
+    artifact_id BIGINT PRIMARY KEY,
+    deleted_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_artifact_deletions_deleted_at ON artifact_deletions(deleted_at);
+CREATE INDEX IF NOT EXISTS idx_artifacts_updated_at ON artifacts(updated_at);
+
+INSERT INTO schema_info (version, description, applied_at)
+VALUES ('V1.6.0', 'Artifact deletion tombstones for search index refreshes', CURRENT_TIMESTAMP);
@@ -0,0 +1,104 @@
+package com.cvshealth.pbm.ssot.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CachingJwtDecoderTest {
+
+    private final Instant start = Instant.parse("2026-01-01T00:00:00Z");
+    private final MutableClock clock = new MutableClock(start);
+    private final AtomicInteger verifications = new AtomicInteger();
+
+    private final JwtDecoder delegate = token -> {
+        verifications.incrementAndGet();
+        if (token.startsWith("bad")) {
+            throw new BadJwtException("signature");
+        }
+        Jwt.Builder jwt = Jwt.withTokenValue(token).header("alg", "RS256").subject("alice").issuedAt(clock.now);
+        if (!token.startsWith("eternal")) {
+            jwt.expiresAt(clock.now.plus(Duration.ofMinutes(5)));
+        }
+        return jwt.build();
+    };
+
+    @Test
+    void verifiesATokenOnceUntilItExpires() {
+        CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 10, new SimpleMeterRegistry(), clock);
+
+        Jwt first = decoder.decode("token-a");
+        assertThat(decoder.decode("token-a")).isSameAs(first);
+        assertThat(verifications).hasValue(1);
+
+        decoder.decode("token-b");
+        assertThat(verifications).hasValue(2);
+
+        clock.now = start.plus(Duration.ofMinutes(5));
+        decoder.decode("token-a");
+        assertThat(verifications).hasValue(3);
+    }
+
+    @Test
+    void keepsNeitherRejectedNorNonExpiringTokens() {
+        CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 10, new SimpleMeterRegistry(), clock);
+
+        assertThatThrownBy(() -> decoder.decode("bad-token")).isInstanceOf(BadJwtException.class);
+        assertThatThrownBy(() -> decoder.decode("bad-token")).isInstanceOf(BadJwtException.class);
+        decoder.decode("eternal-token");
+        decoder.decode("eternal-token");
+
+        assertThat(verifications).hasValue(4);
+        assertThat(decoder.size()).isZero();
+    }
+
+    @Test
+    void makesRoomByDroppingExpiredTokensOnly() {
+        CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 2, new SimpleMeterRegistry(), clock);
+        decoder.decode("token-a");
+        decoder.decode("token-b");
+
+        decoder.decode("token-c");
+        assertThat(decoder.size()).isEqualTo(2);
+
+        clock.now = start.plus(Duration.ofMinutes(10));
+        decoder.decode("token-c");
+        assertThat(decoder.size()).isEqualTo(1);
+        decoder.decode("token-c");
+        assertThat(verifications).hasValue(4);
+    }
+
+    private static final class MutableClock extends Clock {
+        Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.cvshealth.pbm.ssot.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdpGrantedAuthoritiesConverterTest {
+
+    private final KeycloakGrantedAuthoritiesConverter keycloak = new KeycloakGrantedAuthoritiesConverter();
+    private final AzureEntraGrantedAuthoritiesConverter azure = new AzureEntraGrantedAuthoritiesConverter();
+
+    @Test
+    void keycloakGrantsTheKnownRealmRoles() {
+        Jwt jwt = jwt("realm_access", Map.of("roles", List.of("offline_access", "artifact-user", "artifact_admin")));
+
+        assertThat(names(keycloak.convert(jwt))).containsExactly("artifact-user");
+        assertThat(keycloak.convert(jwt("sub", "alice"))).isEmpty();
+        assertThat(keycloak.convert(jwt("realm_access", Map.of("roles", 42)))).isEmpty();
+    }
+
+    @Test
+    void aSingleRoleMayComeAsAString() {
+        assertThat(names(keycloak.convert(jwt("realm_access", Map.of("roles", "artifact-admin")))))
+            .containsExactly("artifact-admin");
+        assertThat(keycloak.convert(jwt("realm_access", Map.of("roles", "artifact_admin")))).isEmpty();
+        assertThat(names(azure.convert(jwt("roles", "artifact_readonly")))).containsExactly("artifact-readonly");
+        assertThat(azure.convert(jwt("roles", "Directory.Read"))).isEmpty();
+    }
+
+    @Test
+    void azureAcceptsUnderscoredRolesOnce() {
+        Jwt jwt = jwt("roles", List.of("artifact_admin", "artifact-admin", "artifact-readonly", "Directory.Read"));
+
+        assertThat(names(azure.convert(jwt))).containsExactlyInAnyOrder("artifact-admin", "artifact-readonly");
+        assertThat(azure.convert(jwt("sub", "alice"))).isEmpty();
+    }
+
+    @Test
+    void tokensWithTheSameRolesShareTheirAuthorities() {
+        Collection<GrantedAuthority> first = azure.convert(jwt("roles", List.of("artifact_user")));
+        Collection<GrantedAuthority> second = keycloak.convert(jwt("realm_access", Map.of("roles", List.of("artifact-user"))));
+
+        assertThat(first).isSameAs(second);
+    }
+
+    private static Jwt jwt(String claim, Object value) {
+        return Jwt.withTokenValue("token").header("alg", "RS256").claim(claim, value).build();
+    }
+
+    private static List<String> names(Collection<GrantedAuthority> authorities) {
+        return authorities.stream().map(GrantedAuthority::getAuthority).toList();
+    }
+}
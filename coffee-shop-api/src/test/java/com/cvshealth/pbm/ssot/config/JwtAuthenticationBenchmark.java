@@ -0,0 +1,106 @@
+package com.cvshealth.pbm.ssot.config;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of authenticating a Keycloak access token: verifying it with Nimbus and
+ * streaming its roles into new authorities every time, as before, against the verified token
+ * cache and the shared authorities.
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args=JwtAuthenticationBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationBenchmark {
+
+    private String token;
+    private JwtDecoder nimbus;
+    private JwtDecoder cached;
+    private final KeycloakGrantedAuthoritiesConverter converter = new KeycloakGrantedAuthoritiesConverter();
+
+    @Setup
+    public void setUp() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keys = generator.generateKeyPair();
+        Instant now = Instant.now();
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+            .issuer("http://localhost:9180/realms/artifact-realm")
+            .subject("alice")
+            .issueTime(Date.from(now))
+            .expirationTime(Date.from(now.plus(Duration.ofHours(1))))
+            .claim("realm_access", Map.of("roles",
+                List.of("offline_access", "uma_authorization", "artifact-user", "artifact-readonly")))
+            .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader(JWSAlgorithm.RS256), claims);
+        jwt.sign(new RSASSASigner(keys.getPrivate()));
+        token = jwt.serialize();
+        nimbus = NimbusJwtDecoder.withPublicKey((RSAPublicKey) keys.getPublic()).build();
+        cached = new CachingJwtDecoder(nimbus, 10_000, new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public Collection<GrantedAuthority> verifyEveryRequest() {
+        return streamRoles(nimbus.decode(token));
+    }
+
+    @Benchmark
+    public Collection<GrantedAuthority> cachedVerification() {
+        return converter.convert(cached.decode(token));
+    }
+
+    /**
+     * KeycloakGrantedAuthoritiesConverter as it was before the shared authorities
+     */
+    @SuppressWarnings("unchecked")
+    private static Collection<GrantedAuthority> streamRoles(Jwt jwt) {
+        Map<String, Object> realmAccess = jwt.getClaimAsMap("realm_access");
+        List<String> roles = (List<String>) realmAccess.get("roles");
+        return roles.stream()
+            .filter(role ->
+                "artifact-admin".equals(role) ||
+                "artifact-user".equals(role) ||
+                "artifact-readonly".equals(role)
+            )
+            .map(SimpleGrantedAuthority::new)
+            .map(GrantedAuthority.class::cast)
+            .toList();
+    }
+}
@@ -0,0 +1,91 @@
+package com.cvshealth.pbm.ssot.config;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The manifest packaged by the build against the schema history Flyway wrote for the test database
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class MigrationManifestTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private Flyway flyway;
+
+    @Test
+    void packagedManifestMatchesTheChecksumsFlywayRecorded() throws Exception {
+        MigrationManifest manifest = packaged();
+        String table = flyway.getConfiguration().getTable();
+        Map<String, Integer> recorded = new HashMap<>();
+        new JdbcTemplate(dataSource).query("SELECT \"version\", \"checksum\" FROM \"" + table
+                + "\" WHERE \"version\" IS NOT NULL AND \"checksum\" IS NOT NULL",
+            rs -> {
+                recorded.put(rs.getString(1), rs.getInt(2));
+            });
+
+        assertThat(manifest.checksums()).isNotEmpty().isEqualTo(recorded);
+        assertThat(manifest.isApplied(dataSource, table)).isTrue();
+    }
+
+    @Test
+    void changedOrPendingMigrationsDoNotMatch() throws Exception {
+        Map<String, Integer> checksums = new LinkedHashMap<>(packaged().checksums());
+        String table = flyway.getConfiguration().getTable();
+
+        Map<String, Integer> pending = new LinkedHashMap<>(checksums);
+        pending.put("99.0.0", 1);
+        assertThat(new MigrationManifest(pending).isApplied(dataSource, table)).isFalse();
+
+        Map<String, Integer> edited = new LinkedHashMap<>(checksums);
+        edited.computeIfPresent("1.0.0", (version, checksum) -> checksum + 1);
+        assertThat(new MigrationManifest(edited).isApplied(dataSource, table)).isFalse();
+
+        assertThat(new MigrationManifest(checksums).isApplied(dataSource, "no_schema_history")).isFalse();
+    }
+
+    @Test
+    void scansVersionedScriptsInVersionOrder(@TempDir Path directory) throws Exception {
+        Files.writeString(directory.resolve("V1.10.0__Later.sql"), "SELECT 2;\n");
+        Files.writeString(directory.resolve("V1.9.0__Earlier.sql"), "SELECT 1;\n");
+        Files.writeString(directory.resolve("R__Repeatable.sql"), "SELECT 3;\n");
+        Files.writeString(directory.resolve("README.md"), "not a migration\n");
+
+        MigrationManifest scanned = MigrationManifest.scan(directory);
+        Path file = directory.resolve("out/migration.manifest");
+        scanned.write(file);
+        MigrationManifest read;
+        try (InputStream in = Files.newInputStream(file)) {
+            read = MigrationManifest.read(in);
+        }
+
+        assertThat(scanned.checksums()).containsOnlyKeys("1.9.0", "1.10.0");
+        assertThat(read.checksums()).containsExactlyEntriesOf(scanned.checksums());
+        assertThat(read.latestVersion()).isEqualTo("1.10.0");
+    }
+
+    private static MigrationManifest packaged() throws Exception {
+        try (InputStream in = new ClassPathResource(MigrationManifest.RESOURCE).getInputStream()) {
+            return MigrationManifest.read(in);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.cvshealth.pbm.ssot.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReadConsistencyTest {
+
+    @Test
+    void parsesAndFormatsWalPositions() {
+        long position = ReadConsistency.parsePosition("16/B374D848");
+
+        assertThat(position).isEqualTo(0x16_B374D848L);
+        assertThat(ReadConsistency.formatPosition(position)).isEqualTo("16/B374D848");
+        assertThat(ReadConsistency.parsePosition("0/0")).isZero();
+        assertThat(ReadConsistency.parsePosition("1/a")).isGreaterThan(ReadConsistency.parsePosition("0/FFFFFFFF"));
+        for (String invalid : new String[] {"", "16", "/1", "1/", "x/1"}) {
+            assertThatThrownBy(() -> ReadConsistency.parsePosition(invalid)).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    void nestedScopesKeepTheStrictestRequirement() {
+        assertThat(ReadConsistency.required()).isEqualTo(ReadConsistency.ANY);
+
+        ReadConsistency.after(20, () -> {
+            assertThat(ReadConsistency.required()).isEqualTo(20);
+            ReadConsistency.after(10, () -> {
+                assertThat(ReadConsistency.required()).isEqualTo(20);
+                return ReadConsistency.onPrimary(() -> assertThat(ReadConsistency.required())
+                    .isEqualTo(ReadConsistency.PRIMARY));
+            });
+            return assertThat(ReadConsistency.required()).isEqualTo(20);
+        });
+
+        assertThat(ReadConsistency.required()).isEqualTo(ReadConsistency.ANY);
+    }
+
+    @Test
+    void propagatesToTasksRunElsewhere() throws Exception {
+        AtomicLong seen = new AtomicLong(-1);
+        Runnable task = ReadConsistency.after(42, () -> ReadConsistency.propagate(() -> seen.set(ReadConsistency.required())));
+
+        Thread thread = new Thread(task);
+        thread.start();
+        thread.join();
+
+        assertThat(seen).hasValue(42);
+        Runnable plain = () -> { };
+        assertThat(ReadConsistency.propagate(plain)).isSameAs(plain);
+    }
+}
@@ -0,0 +1,232 @@
+package com.cvshealth.pbm.ssot.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.Network;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.images.builder.Transferable;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Read/write routing against a Postgres primary and a hot standby streaming from it. Skipped
+ * where Docker is not available.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+class ReadReplicaRoutingTest {
+
+    private static final String IMAGE = "postgres:16-alpine";
+    private static final Network NETWORK = Network.newNetwork();
+
+    @Container
+    static final PostgreSQLContainer<?> primary = new PostgreSQLContainer<>(IMAGE)
+            .withNetwork(NETWORK)
+            .withNetworkAliases("primary")
+            .withCommand("postgres", "-c", "fsync=off", "-c", "wal_level=replica", "-c", "max_wal_senders=4")
+            .withCopyToContainer(Transferable.of(
+                    "echo 'host replication all all scram-sha-256' >> \"$PGDATA/pg_hba.conf\"\n"),
+                    "/docker-entrypoint-initdb.d/replication.sh");
+
+    // cloned from the primary with pg_basebackup once that accepts connections, then started as a hot standby
+    @Container
+    static final GenericContainer<?> replica = new GenericContainer<>(IMAGE)
+            .dependsOn(primary)
+            .withNetwork(NETWORK)
+            .withExposedPorts(PostgreSQLContainer.POSTGRESQL_PORT)
+            .withEnv("PGPASSWORD", "test")
+            .withCreateContainerCmdModifier(cmd -> cmd.withUser("postgres").withEntrypoint("bash"))
+            .withCommand("-c", "until pg_basebackup -h primary -U test -D /tmp/replica -R -X stream; "
+                    + "do rm -rf /tmp/replica; sleep 1; done; "
+                    + "exec postgres -D /tmp/replica -c hot_standby=on -c fsync=off")
+            .waitingFor(Wait.forLogMessage(".*ready to accept read-only connections.*", 1)
+                    .withStartupTimeout(Duration.ofMinutes(2)));
+
+    @DynamicPropertySource
+    static void databases(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", primary::getJdbcUrl);
+        registry.add("spring.datasource.username", primary::getUsername);
+        registry.add("spring.datasource.password", primary::getPassword);
+        registry.add("spring.datasource.driver-class-name", primary::getDriverClassName);
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> 6);
+        registry.add("spring.datasource.replica.jdbc-url", () -> "jdbc:postgresql://" + replica.getHost() + ":"
+                + replica.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT) + "/" + primary.getDatabaseName());
+        registry.add("spring.datasource.replica.maximum-pool-size", () -> 3);
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+        registry.add("database.replica.max-lag", () -> "1h");
+        registry.add("database.replica.lag-check-interval", () -> "PT0.2S");
+    }
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private HikariDataSource primaryPool;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private HikariDataSource replicaPool;
+
+    @Autowired
+    private ReplicaRoutingDataSource routing;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private JdbcTemplate jdbc;
+    private TransactionTemplate reads;
+    private TransactionTemplate writes;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        jdbc = new JdbcTemplate(dataSource);
+        reads = new TransactionTemplate(transactionManager);
+        reads.setReadOnly(true);
+        writes = new TransactionTemplate(transactionManager);
+        await(routing::isReplicaUsable);
+    }
+
+    @AfterEach
+    void resumeReplay() {
+        new JdbcTemplate(replicaPool).execute("SELECT pg_wal_replay_resume()");
+    }
+
+    @Test
+    void readOnlyTransactionsReadTheReplica() {
+        assertThat(readOnlyInRecovery()).isTrue();
+        assertThat(Boolean.TRUE.equals(writes.execute(tx -> inRecovery()))).isFalse();
+        assertThat(inRecovery()).isFalse();
+        boolean onPrimary = ReadConsistency.onPrimary(this::readOnlyInRecovery);
+        assertThat(onPrimary).isFalse();
+    }
+
+    @Test
+    void readsAfterAWritePositionWaitForTheReplicaOrReadThePrimary() throws Exception {
+        new JdbcTemplate(replicaPool).execute("SELECT pg_wal_replay_pause()");
+        writes.executeWithoutResult(tx -> jdbc.update("CREATE TABLE IF NOT EXISTS replica_probe (id int)"));
+        writes.executeWithoutResult(tx -> jdbc.update("INSERT INTO replica_probe VALUES (1)"));
+        long written = routing.primaryPosition();
+
+        // the replica cannot have seen the row, and a read that asks for it does not go there
+        boolean fromReplica = ReadConsistency.after(written, this::readOnlyInRecovery);
+        int probes = ReadConsistency.after(written, this::readOnlyProbes);
+        assertThat(fromReplica).isFalse();
+        assertThat(probes).isEqualTo(1);
+
+        new JdbcTemplate(replicaPool).execute("SELECT pg_wal_replay_resume()");
+        await(() -> ReadConsistency.after(written, this::readOnlyInRecovery));
+        probes = ReadConsistency.after(written, this::readOnlyProbes);
+        assertThat(probes).isEqualTo(1);
+    }
+
+    @Test
+    void aReplicaBehindMaxLagIsNotRead() throws Exception {
+        ReplicaRoutingDataSource strict = new ReplicaRoutingDataSource(primaryPool, replicaPool,
+                Duration.ofMillis(500), new SimpleMeterRegistry());
+        strict.checkLag();
+        assertThat(strict.isReplicaUsable()).isTrue();
+
+        new JdbcTemplate(replicaPool).execute("SELECT pg_wal_replay_pause()");
+        writes.executeWithoutResult(tx -> jdbc.update("CREATE TABLE IF NOT EXISTS replica_probe (id int)"));
+        Thread.sleep(1000);
+        writes.executeWithoutResult(tx -> jdbc.update("INSERT INTO replica_probe VALUES (2)"));
+        strict.checkLag();
+        assertThat(strict.isReplicaUsable()).isFalse();
+        assertThat(strict.getLagSeconds()).isGreaterThan(0.5);
+        assertThat(strict.target(ReadConsistency.ANY)).isEqualTo(ReplicaRoutingDataSource.Target.PRIMARY);
+
+        new JdbcTemplate(replicaPool).execute("SELECT pg_wal_replay_resume()");
+        await(() -> {
+            strict.checkLag();
+            return strict.isReplicaUsable();
+        });
+        assertThat(strict.target(ReadConsistency.ANY)).isEqualTo(ReplicaRoutingDataSource.Target.REPLICA);
+    }
+
+    @Test
+    void writeResponsesTellClientsWhereToReadTheirWrites() throws Exception {
+        String position = mockMvc.perform(post("/api/artifacts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"name": "replicated", "version": "1.0.0", "type": "JAR"}
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(ReadReplicaDataSourceConfig.WRITE_POSITION_HEADER))
+                .andReturn().getResponse().getHeader(ReadReplicaDataSourceConfig.WRITE_POSITION_HEADER);
+
+        mockMvc.perform(get("/api/artifacts").param("type", "JAR")
+                        .header(ReadReplicaDataSourceConfig.READ_AFTER_HEADER, position))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(ReadReplicaDataSourceConfig.WRITE_POSITION_HEADER))
+                .andExpect(jsonPath("$.items[?(@.name == 'replicated')]").exists());
+
+        mockMvc.perform(get("/api/artifacts").header(ReadReplicaDataSourceConfig.READ_AFTER_HEADER, "yesterday"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void poolsAreSizedSeparately() {
+        assertThat(primaryPool.getMaximumPoolSize()).isEqualTo(6);
+        assertThat(primaryPool.isReadOnly()).isFalse();
+        assertThat(replicaPool.getMaximumPoolSize()).isEqualTo(3);
+        assertThat(replicaPool.isReadOnly()).isTrue();
+        assertThat(replicaPool.getUsername()).isEqualTo(primary.getUsername());
+    }
+
+    private boolean inRecovery() {
+        return Boolean.TRUE.equals(jdbc.queryForObject("SELECT pg_is_in_recovery()", Boolean.class));
+    }
+
+    private boolean readOnlyInRecovery() {
+        return Boolean.TRUE.equals(reads.execute(tx -> inRecovery()));
+    }
+
+    private int readOnlyProbes() {
+        Integer probes = reads.execute(tx -> jdbc.queryForObject("SELECT count(*) FROM replica_probe WHERE id = 1",
+                Integer.class));
+        return probes == null ? 0 : probes;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition met within 30 s").isLessThan(deadline);
+            Thread.sleep(100);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.cvshealth.pbm.ssot.controller;
+
+import com.cvshealth.pbm.ssot.dto.ArtifactRequest;
+import com.cvshealth.pbm.ssot.model.Artifact;
+import com.cvshealth.pbm.ssot.repository.ArtifactRepository;
+import com.cvshealth.pbm.ssot.service.ArtifactService;
+import com.cvshealth.pbm.ssot.service.SystemStatsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AdminControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ArtifactService artifactService;
+
+    @Autowired
+    private SystemStatsService systemStats;
+
+    @Autowired
+    private ArtifactRepository repository;
+
+    @Test
+    void countsFollowCreatesAndDeletes() throws Exception {
+        long artifacts = systemStats.artifacts();
+        int users = systemStats.users();
+
+        Artifact first = artifactService.create(request("stats-a"), "stats-user");
+        Artifact second = artifactService.create(request("stats-b"), "stats-user");
+        artifactService.update(second.getId(), request("stats-c"));
+
+        assertThat(systemStats.artifacts()).isEqualTo(artifacts + 2);
+        assertThat(systemStats.users()).isEqualTo(users + 1);
+        mockMvc.perform(get("/api/admin/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalArtifacts").value(artifacts + 2))
+                .andExpect(jsonPath("$.totalUsers").value(users + 1));
+
+        artifactService.delete(first.getId());
+        assertThat(systemStats.users()).isEqualTo(users + 1);
+        artifactService.delete(second.getId());
+        assertThat(systemStats.artifacts()).isEqualTo(artifacts);
+        assertThat(systemStats.users()).isEqualTo(users);
+    }
+
+    @Test
+    void reconcileCountsChangesOfOtherInstances() {
+        systemStats.reconcile();
+        long artifacts = systemStats.artifacts();
+        int users = systemStats.users();
+        // saved without an event, like an artifact created on another instance
+        Artifact other = new Artifact();
+        other.setName("stats-other");
+        other.setVersion("1.0.0");
+        other.setType("library");
+        other.setCreatedBy("stats-other-user");
+        other = repository.saveAndFlush(other);
+
+        systemStats.reconcile();
+        assertThat(systemStats.artifacts()).isEqualTo(artifacts + 1);
+        assertThat(systemStats.users()).isEqualTo(users + 1);
+
+        repository.deleteById(other.getId());
+        systemStats.reconcile();
+        assertThat(systemStats.artifacts()).isEqualTo(artifacts);
+        assertThat(systemStats.users()).isEqualTo(users);
+    }
+
+    @Test
+    void systemHealthIsServedFromTheSnapshot() throws Exception {
+        mockMvc.perform(get("/api/admin/system/health"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.memory.heapUsed").value(greaterThan(0)))
+                .andExpect(jsonPath("$.cpu.cores").value(greaterThan(0)))
+                .andExpect(jsonPath("$.threads").value(greaterThan(0)))
+                .andExpect(jsonPath("$.pool.max").value(greaterThan(0)))
+                .andExpect(jsonPath("$.health.db").value("UP"));
+
+        assertThat(systemStats.snapshot()).isSameAs(systemStats.snapshot());
+    }
+
+    private static ArtifactRequest request(String name) {
+        return new ArtifactRequest(name, "1.0.0", "JAR", null, null);
+    }
+}
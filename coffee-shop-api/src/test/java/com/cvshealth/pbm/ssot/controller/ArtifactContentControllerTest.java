@@ -0,0 +1,176 @@
+package com.cvshealth.pbm.ssot.controller;
+
+import com.cvshealth.pbm.ssot.model.Artifact;
+import com.cvshealth.pbm.ssot.repository.ArtifactRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs on a real Tomcat, so ranges within one chunk go through sendfile; the MockMvc case covers the
+ * block copy fallback
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ArtifactContentControllerTest {
+
+    @TempDir
+    static Path storageRoot;
+
+    @DynamicPropertySource
+    static void storage(DynamicPropertyRegistry registry) {
+        registry.add("artifact.storage.root", () -> storageRoot.toString());
+        registry.add("artifact.storage.max-content-size", () -> "8MB");
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ArtifactRepository repository;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+    // several content-defined chunks, so ranges cross chunk files
+    private final byte[] body = new byte[3_000_000];
+    private Long id;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+        new Random(7).nextBytes(body);
+        Artifact artifact = new Artifact();
+        artifact.setName("app");
+        artifact.setVersion("1.0.0");
+        artifact.setType("JAR");
+        id = repository.save(artifact).getId();
+    }
+
+    @Test
+    void uploadRecordsLengthAndDigest() throws Exception {
+        HttpResponse<String> response = upload(body);
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        Artifact stored = repository.findById(id).orElseThrow();
+        assertThat(stored.getContentLength()).isEqualTo(body.length);
+        assertThat(stored.getContentType()).isEqualTo("application/java-archive");
+        assertThat(stored.getContentSha256())
+            .isEqualTo(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body)));
+    }
+
+    @Test
+    void downloadsWholeContent() throws Exception {
+        upload(body);
+
+        HttpResponse<byte[]> response = download(null);
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Accept-Ranges")).contains("bytes");
+        assertThat(response.body()).isEqualTo(body);
+    }
+
+    @Test
+    void servesSingleRanges() throws Exception {
+        upload(body);
+
+        HttpResponse<byte[]> middle = download("bytes=1000-1999");
+        assertThat(middle.statusCode()).isEqualTo(206);
+        assertThat(middle.headers().firstValue("Content-Range")).contains("bytes 1000-1999/3000000");
+        assertThat(middle.body()).isEqualTo(Arrays.copyOfRange(body, 1000, 2000));
+
+        HttpResponse<byte[]> suffix = download("bytes=-500");
+        assertThat(suffix.statusCode()).isEqualTo(206);
+        assertThat(suffix.body()).isEqualTo(Arrays.copyOfRange(body, body.length - 500, body.length));
+
+        HttpResponse<byte[]> spanning = download("bytes=200000-2799999");
+        assertThat(spanning.statusCode()).isEqualTo(206);
+        assertThat(spanning.body()).isEqualTo(Arrays.copyOfRange(body, 200_000, 2_800_000));
+
+        HttpResponse<byte[]> open = download("bytes=2999990-");
+        assertThat(open.body()).isEqualTo(Arrays.copyOfRange(body, 2_999_990, body.length));
+    }
+
+    @Test
+    void rejectsUnsatisfiableRange() throws Exception {
+        upload(body);
+
+        HttpResponse<byte[]> response = download("bytes=3000000-");
+
+        assertThat(response.statusCode()).isEqualTo(416);
+        assertThat(response.headers().firstValue("Content-Range")).contains("bytes */3000000");
+    }
+
+    @Test
+    void fallsBackToBlockCopyWithoutSendfile() throws Exception {
+        upload(body);
+
+        mockMvc.perform(get("/api/artifacts/{id}/content", id).header("Range", "bytes=10-19"))
+            .andExpect(status().isPartialContent())
+            .andExpect(header().string("Content-Range", "bytes 10-19/3000000"))
+            .andExpect(content().bytes(Arrays.copyOfRange(body, 10, 20)));
+    }
+
+    @Test
+    void rejectsContentOverTheLimit() throws Exception {
+        // chunked, so the limit is hit while streaming rather than on Content-Length
+        byte[] oversized = new byte[8 * 1024 * 1024 + 1];
+        HttpResponse<String> response = http.send(HttpRequest.newBuilder(uri())
+                .PUT(HttpRequest.BodyPublishers.ofInputStream(() -> new ByteArrayInputStream(oversized)))
+                .build(), HttpResponse.BodyHandlers.ofString());
+
+        assertThat(response.statusCode()).isEqualTo(413);
+        assertThat(repository.findById(id).orElseThrow().getContentLength()).isNull();
+    }
+
+    @Test
+    void missingContentIsNotFound() throws Exception {
+        assertThat(download(null).statusCode()).isEqualTo(404);
+    }
+
+    private HttpResponse<String> upload(byte[] content) throws Exception {
+        return http.send(HttpRequest.newBuilder(uri())
+                .header("Content-Type", "application/java-archive")
+                .PUT(HttpRequest.BodyPublishers.ofByteArray(content))
+                .build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<byte[]> download(String range) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri()).GET();
+        if (range != null) {
+            request.header("Range", range);
+        }
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private URI uri() {
+        return URI.create("http://localhost:" + port + "/api/artifacts/" + id + "/content");
+    }
+}
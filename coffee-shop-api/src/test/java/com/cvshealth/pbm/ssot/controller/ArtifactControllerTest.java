@@ -0,0 +1,153 @@
+package com.cvshealth.pbm.ssot.controller;
+
+import com.cvshealth.pbm.ssot.model.Artifact;
+import com.cvshealth.pbm.ssot.repository.ArtifactRepository;
+import com.cvshealth.pbm.ssot.service.ArtifactResponseCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ArtifactControllerTest {
+
+    private static final String UPDATE = """
+            {"name": "app", "version": "1.0.1", "type": "JAR"}
+            """;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ArtifactRepository repository;
+
+    @Autowired
+    private ArtifactResponseCache responseCache;
+
+    private Long id;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+        Artifact artifact = new Artifact();
+        artifact.setName("app");
+        artifact.setVersion("1.0.0");
+        artifact.setType("JAR");
+        id = repository.save(artifact).getId();
+    }
+
+    @Test
+    void unchangedArtifactIsNotModified() throws Exception {
+        String etag = mockMvc.perform(get("/api/artifacts/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andExpect(jsonPath("$.version").value("1.0.0"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/artifacts/{id}", id).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void ifModifiedSinceIsHonoured() throws Exception {
+        String lastModified = mockMvc.perform(get("/api/artifacts/{id}", id))
+                .andReturn().getResponse().getHeader(HttpHeaders.LAST_MODIFIED);
+
+        mockMvc.perform(get("/api/artifacts/{id}", id).header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void updateChangesEtagAndEvictsCachedJson() throws Exception {
+        mockMvc.perform(get("/api/artifacts/{id}", id)).andExpect(status().isOk());
+        assertThat(responseCache.get(id, 0)).isNotNull();
+
+        mockMvc.perform(put("/api/artifacts/{id}", id).contentType(MediaType.APPLICATION_JSON).content(UPDATE))
+                .andExpect(status().isOk());
+        assertThat(responseCache.get(id, 0)).isNull();
+
+        mockMvc.perform(get("/api/artifacts/{id}", id).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(jsonPath("$.version").value("1.0.1"));
+    }
+
+    @Test
+    void deletedArtifactIsNotFoundDespiteEtag() throws Exception {
+        mockMvc.perform(get("/api/artifacts/{id}", id)).andExpect(status().isOk());
+        mockMvc.perform(delete("/api/artifacts/{id}", id)).andExpect(status().isOk());
+
+        assertThat(responseCache.get(id, 0)).isNull();
+        mockMvc.perform(get("/api/artifacts/{id}", id).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void pageEtagChangesWithItsArtifacts() throws Exception {
+        String etag = mockMvc.perform(get("/api/artifacts"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).startsWith("W/\"");
+
+        mockMvc.perform(get("/api/artifacts").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(put("/api/artifacts/{id}", id).contentType(MediaType.APPLICATION_JSON).content(UPDATE))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/artifacts").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].version").value("1.0.1"));
+    }
+
+    @Test
+    void searchFollowsCreateUpdateAndDelete() throws Exception {
+        String created = mockMvc.perform(post("/api/artifacts").contentType(MediaType.APPLICATION_JSON).content("""
+                        {"name": "claims-engine", "version": "2.0.0", "type": "JAR", "description": "Adjudicates claims"}
+                        """))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long searchId = Long.parseLong(created.replaceAll(".*\"id\":(\\d+).*", "$1"));
+
+        mockMvc.perform(get("/api/artifacts/search").param("q", "Claims").param("type", "JAR"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.items[0].name").value("claims-engine"))
+                .andExpect(jsonPath("$.facets.type.JAR").value(1))
+                .andExpect(jsonPath("$.facets.status.ACTIVE").value(1));
+
+        mockMvc.perform(put("/api/artifacts/{id}", searchId).contentType(MediaType.APPLICATION_JSON).content("""
+                        {"name": "pricing-engine", "version": "2.0.1", "type": "JAR"}
+                        """))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/artifacts/search").param("q", "claims"))
+                .andExpect(jsonPath("$.total").value(0));
+        mockMvc.perform(get("/api/artifacts/search").param("q", "engine pricing"))
+                .andExpect(jsonPath("$.items[0].version").value("2.0.1"));
+
+        mockMvc.perform(delete("/api/artifacts/{id}", searchId)).andExpect(status().isOk());
+        mockMvc.perform(get("/api/artifacts/search").param("q", "pricing"))
+                .andExpect(jsonPath("$.total").value(0));
+    }
+}
@@ -0,0 +1,72 @@
+package com.cvshealth.pbm.ssot.search;
+
+import com.cvshealth.pbm.ssot.model.Artifact;
+import com.cvshealth.pbm.ssot.model.ArtifactDeletion;
+import com.cvshealth.pbm.ssot.repository.ArtifactDeletionRepository;
+import com.cvshealth.pbm.ssot.repository.ArtifactRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Changes written straight to the repositories publish no events, like the changes of another instance
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ArtifactSearchIndexTest {
+
+    @Autowired
+    private ArtifactSearchIndex searchIndex;
+
+    @Autowired
+    private ArtifactRepository repository;
+
+    @Autowired
+    private ArtifactDeletionRepository deletions;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+        deletions.deleteAll();
+        searchIndex.rebuild();
+    }
+
+    @Test
+    void refreshPicksUpChangesOfOtherInstances() {
+        Artifact artifact = new Artifact();
+        artifact.setName("ledger-service");
+        artifact.setVersion("1.0.0");
+        artifact.setType("library");
+        artifact = repository.saveAndFlush(artifact);
+
+        assertThat(searchIndex.search("ledger", null, null, 10).total()).isZero();
+        searchIndex.refresh();
+        assertThat(searchIndex.search("ledger", null, null, 10).items())
+            .extracting(Artifact::getId).containsExactly(artifact.getId());
+
+        artifact.setDescription("posting journal");
+        artifact = repository.saveAndFlush(artifact);
+        searchIndex.refresh();
+        assertThat(searchIndex.search("journal", null, null, 10).total()).isEqualTo(1);
+
+        repository.deleteById(artifact.getId());
+        deletions.saveAndFlush(new ArtifactDeletion(artifact.getId(), LocalDateTime.now()));
+        searchIndex.refresh();
+        assertThat(searchIndex.search("ledger", null, null, 10).total()).isZero();
+    }
+
+    @Test
+    void refreshRemovesTombstonesPastTheRetention() {
+        deletions.saveAndFlush(new ArtifactDeletion(-1L, LocalDateTime.now().minusDays(2)));
+
+        searchIndex.refresh();
+
+        assertThat(deletions.count()).isZero();
+    }
+}
@@ -0,0 +1,92 @@
+package com.cvshealth.pbm.ssot.search;
+
+import com.cvshealth.pbm.ssot.model.ArtifactStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvertedIndexTest {
+
+    private InvertedIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new InvertedIndex();
+        index.add(new ArtifactDocument(1, "claims-engine", "JAR", "Adjudicates pharmacy claims", ArtifactStatus.ACTIVE));
+        index.add(new ArtifactDocument(2, "formulary-loader", "JAR", "Loads claims formulary files", ArtifactStatus.DEPRECATED));
+        index.add(new ArtifactDocument(3, "claims-ui", "WAR", "Web front end", ArtifactStatus.ACTIVE));
+        index.add(new ArtifactDocument(4, "pricing", "DOCKER", "Pricing service", ArtifactStatus.ARCHIVED));
+    }
+
+    @Test
+    void everyTermHasToMatchAndNameMatchesRankFirst() {
+        InvertedIndex.SearchHits hits = index.search("Claims", null, null, 10);
+
+        assertThat(hits.total()).isEqualTo(3);
+        // name and description beat name alone, which beats description alone
+        assertThat(hits.artifactIds()).containsExactly(1L, 3L, 2L);
+        assertThat(index.search("claims front", null, null, 10).artifactIds()).containsExactly(3L);
+        assertThat(index.search("claims nothing", null, null, 10).total()).isZero();
+    }
+
+    @Test
+    void facetsLeaveOutTheirOwnFilter() {
+        InvertedIndex.SearchHits hits = index.search("claims", "JAR", ArtifactStatus.ACTIVE, 10);
+
+        assertThat(hits.artifactIds()).containsExactly(1L);
+        assertThat(hits.types()).isEqualTo(Map.of("JAR", 1, "WAR", 1));
+        assertThat(hits.statuses()).isEqualTo(Map.of("ACTIVE", 1, "DEPRECATED", 1));
+        assertThat(index.search("claims", "EAR", null, 10).total()).isZero();
+    }
+
+    @Test
+    void emptyQueryMatchesEverythingNewestFirst() {
+        InvertedIndex.SearchHits hits = index.search(" ", null, null, 2);
+
+        assertThat(hits.total()).isEqualTo(4);
+        assertThat(hits.artifactIds()).containsExactly(4L, 3L);
+    }
+
+    @Test
+    void updatesReplaceAndDeletesRemoveDocuments() {
+        index.add(new ArtifactDocument(3, "member-portal", "WAR", "Web front end", ArtifactStatus.ACTIVE));
+        index.delete(1);
+
+        assertThat(index.search("claims", null, null, 10).artifactIds()).containsExactly(2L);
+        assertThat(index.search("portal", null, null, 10).artifactIds()).containsExactly(3L);
+        assertThat(index.deletedCount()).isEqualTo(2);
+
+        index.compact();
+        assertThat(index.maxDoc()).isEqualTo(3);
+        assertThat(index.search("claims", null, null, 10).artifactIds()).containsExactly(2L);
+        assertThat(index.search("", null, null, 10).artifactIds()).containsExactly(3L, 4L, 2L);
+    }
+
+    @Test
+    void appendedSegmentsSearchLikeOneIndex() {
+        InvertedIndex first = new InvertedIndex();
+        first.add(new ArtifactDocument(1, "claims-engine", "JAR", "Adjudicates pharmacy claims", ArtifactStatus.ACTIVE));
+        first.add(new ArtifactDocument(2, "formulary-loader", "JAR", "Loads claims formulary files", ArtifactStatus.DEPRECATED));
+        InvertedIndex second = new InvertedIndex();
+        second.add(new ArtifactDocument(3, "claims-ui", "WAR", "Web front end", ArtifactStatus.ACTIVE));
+        second.add(new ArtifactDocument(4, "pricing", "DOCKER", "Pricing service", ArtifactStatus.ARCHIVED));
+        InvertedIndex merged = new InvertedIndex();
+        merged.append(first);
+        merged.append(second);
+
+        for (String query : new String[]{"claims", "web", "", "pricing service"}) {
+            InvertedIndex.SearchHits expected = index.search(query, null, null, 10);
+            InvertedIndex.SearchHits actual = merged.search(query, null, null, 10);
+            assertThat(actual.artifactIds()).containsExactly(expected.artifactIds());
+            assertThat(actual.types()).isEqualTo(expected.types());
+        }
+    }
+
+    @Test
+    void tokenizesOnNonAlphanumerics() {
+        assertThat(InvertedIndex.tokenize("Claims-Engine v2.1, claims")).containsExactly("claims", "engine", "v2", "1");
+    }
+}
@@ -0,0 +1,205 @@
+package com.cvshealth.pbm.ssot.service;
+
+import com.cvshealth.pbm.ssot.dto.ContentManifest;
+import com.cvshealth.pbm.ssot.dto.StorageStats;
+import com.cvshealth.pbm.ssot.exception.MissingChunksException;
+import com.cvshealth.pbm.ssot.model.Artifact;
+import com.cvshealth.pbm.ssot.model.ArtifactChunk;
+import com.cvshealth.pbm.ssot.repository.ArtifactRepository;
+import com.cvshealth.pbm.ssot.repository.ContentChunkRepository;
+import com.cvshealth.pbm.ssot.storage.ChunkStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ArtifactContentServiceTest {
+
+    @TempDir
+    static Path storageRoot;
+
+    @DynamicPropertySource
+    static void storage(DynamicPropertyRegistry registry) {
+        registry.add("artifact.storage.root", () -> storageRoot.toString());
+    }
+
+    @Autowired
+    private ArtifactContentService contentService;
+
+    @Autowired
+    private ArtifactService artifactService;
+
+    @Autowired
+    private ChunkIndex chunkIndex;
+
+    @Autowired
+    private ChunkGarbageCollector garbageCollector;
+
+    @Autowired
+    private ChunkStore chunkStore;
+
+    @Autowired
+    private ArtifactRepository repository;
+
+    @Autowired
+    private ContentChunkRepository chunks;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+        chunks.deleteAll();
+    }
+
+    @Test
+    void secondVersionStoresOnlyTheChangedChunks() throws Exception {
+        byte[] v1 = random(8_000_000, 1);
+        byte[] v2 = Arrays.copyOf(v1, v1.length + 1000);
+        System.arraycopy(random(1000, 2), 0, v2, v1.length, 1000);
+        Arrays.fill(v2, 3_000_000, 3_000_100, (byte) 7);
+
+        contentService.upload(artifact("1.0").getId(), new ByteArrayInputStream(v1), null, v1.length);
+        long storedAfterV1 = chunkIndex.totals().bytes();
+        Artifact second = contentService.upload(artifact("1.1").getId(), new ByteArrayInputStream(v2), null,
+            v2.length);
+
+        assertThat(storedAfterV1).isEqualTo(v1.length);
+        // the edited chunk and the last one are new, the rest is shared
+        assertThat(chunkIndex.totals().bytes() - storedAfterV1).isLessThan(v2.length / 2);
+        assertThat(second.getContentLength()).isEqualTo(v2.length);
+        assertThat(second.getContentSha256()).isEqualTo(sha256(v2));
+
+        StorageStats stats = contentService.stats();
+        assertThat(stats.logicalBytes()).isEqualTo(v1.length + v2.length);
+        assertThat(stats.dedupeRatio()).isGreaterThan(1.5);
+    }
+
+    @Test
+    void garbageCollectorKeepsSharedChunksAndFreesTheRest() throws Exception {
+        byte[] shared = random(3_000_000, 3);
+        byte[] other = random(3_000_000, 4);
+        Artifact a = artifact("1.0");
+        Artifact b = artifact("2.0");
+        contentService.upload(a.getId(), new ByteArrayInputStream(shared), null, -1);
+        contentService.upload(b.getId(), new ByteArrayInputStream(shared), null, -1);
+        List<ArtifactChunk> sharedChunks = chunkIndex.chunksOf(a.getId());
+        contentService.upload(b.getId(), new ByteArrayInputStream(other), null, -1);
+        List<ArtifactChunk> replaced = chunkIndex.chunksOf(b.getId());
+
+        artifactService.delete(b.getId());
+        LocalDateTime future = LocalDateTime.now().plusMinutes(1);
+        int collected = garbageCollector.collect(future);
+
+        assertThat(collected).isEqualTo(replaced.size());
+        assertThat(replaced).allSatisfy(c -> assertThat(chunkStore.exists(c.getChunkSha256())).isFalse());
+        assertThat(sharedChunks).allSatisfy(c -> assertThat(Files.exists(chunkStore.path(c.getChunkSha256()))).isTrue());
+        assertThat(chunks.findAllById(sharedChunks.stream().map(ArtifactChunk::getChunkSha256).toList()))
+            .allSatisfy(c -> assertThat(c.getRefCount()).isEqualTo(1));
+    }
+
+    @Test
+    void gracePeriodProtectsFreshChunks() throws Exception {
+        Artifact artifact = artifact("1.0");
+        contentService.upload(artifact.getId(), new ByteArrayInputStream(random(1_000_000, 5)), null, -1);
+        artifactService.delete(artifact.getId());
+
+        assertThat(garbageCollector.collect(LocalDateTime.now().minusMinutes(1))).isZero();
+        assertThat(chunkIndex.totals().unreferencedChunks()).isPositive();
+    }
+
+    @Test
+    void chunkFileOutlivesARolledBackRemoval() throws Exception {
+        Artifact artifact = artifact("1.0");
+        contentService.upload(artifact.getId(), new ByteArrayInputStream(random(300_000, 8)), null, -1);
+        String chunk = chunkIndex.chunksOf(artifact.getId()).get(0).getChunkSha256();
+        artifactService.delete(artifact.getId());
+        LocalDateTime future = LocalDateTime.now().plusMinutes(1);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            assertThat(chunkIndex.remove(chunk, future)).isEqualTo(300_000);
+            assertThat(chunkStore.exists(chunk)).isFalse();
+            status.setRollbackOnly();
+        });
+
+        assertThat(chunks.existsById(chunk)).isTrue();
+        assertThat(chunkStore.exists(chunk)).isTrue();
+        assertThat(chunkIndex.touch(List.of(chunk))).isEqualTo(1);
+        assertThat(garbageCollector.collect(LocalDateTime.now().plusMinutes(1))).isEqualTo(1);
+        assertThat(chunkStore.exists(chunk)).isFalse();
+    }
+
+    @Test
+    void manifestUploadSendsOnlyMissingChunks() throws Exception {
+        byte[] first = random(300_000, 6);
+        byte[] second = random(200_000, 7);
+        Artifact artifact = artifact("1.0");
+        contentService.storeChunk(sha256(first), new ByteArrayInputStream(first));
+
+        assertThat(contentService.missingChunks(List.of(sha256(first), sha256(second))))
+            .containsExactly(sha256(second));
+        assertThatThrownBy(() -> contentService.commitManifest(artifact.getId(),
+                new ContentManifest("application/zip", List.of(sha256(first), sha256(second)))))
+            .isInstanceOf(MissingChunksException.class);
+
+        contentService.storeChunk(sha256(second), new ByteArrayInputStream(second));
+        Artifact committed = contentService.commitManifest(artifact.getId(),
+            new ContentManifest("application/zip", List.of(sha256(first), sha256(second), sha256(first))));
+
+        byte[] whole = new byte[800_000];
+        System.arraycopy(first, 0, whole, 0, 300_000);
+        System.arraycopy(second, 0, whole, 300_000, 200_000);
+        System.arraycopy(first, 0, whole, 500_000, 300_000);
+        assertThat(committed.getContentLength()).isEqualTo(whole.length);
+        assertThat(committed.getContentSha256()).isEqualTo(sha256(whole));
+        assertThat(chunks.findById(sha256(first)).orElseThrow().getRefCount()).isEqualTo(2);
+    }
+
+    @Test
+    void rejectsChunkWithWrongDigest() {
+        byte[] data = random(1000, 8);
+
+        assertThatThrownBy(() -> contentService.storeChunk(sha256(random(1000, 9)), new ByteArrayInputStream(data)))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Artifact artifact(String version) {
+        Artifact artifact = new Artifact();
+        artifact.setName("app");
+        artifact.setVersion(version);
+        artifact.setType("JAR");
+        return repository.save(artifact);
+    }
+
+    private static String sha256(byte[] data) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+    }
+
+    private static byte[] random(int size, long seed) {
+        byte[] data = new byte[size];
+        new Random(seed).nextBytes(data);
+        return data;
+    }
+}
@@ -0,0 +1,139 @@
+package com.cvshealth.pbm.ssot.service;
+
+import com.cvshealth.pbm.ssot.dto.ArtifactPage;
+import com.cvshealth.pbm.ssot.model.Artifact;
+import com.cvshealth.pbm.ssot.model.ArtifactStatus;
+import com.cvshealth.pbm.ssot.repository.ArtifactRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs against the Flyway schema, validate fails the context if the entity and migration drift apart
+ */
+@SpringBootTest(properties = "spring.jpa.hibernate.ddl-auto=validate")
+@ActiveProfiles("test")
+class ArtifactServiceTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    @Autowired
+    private ArtifactService artifactService;
+
+    @Autowired
+    private ArtifactRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void pagesThroughEqualTimestampsWithoutGapsOrDuplicates() {
+        // three artifacts per timestamp, so page boundaries fall between rows that only differ by id
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            expected.add(save("lib-" + i, "library", ArtifactStatus.ACTIVE, T0.plusSeconds(i / 3)).getId());
+        }
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            ArtifactPage page = artifactService.list(null, null, cursor, 5);
+            page.items().forEach(a -> seen.add(a.getId()));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(seen).containsExactlyElementsOf(expected);
+        assertThat(pages).isEqualTo(3);
+    }
+
+    @Test
+    void lastFullPageHasNoCursor() {
+        for (int i = 0; i < 4; i++) {
+            save("lib-" + i, "library", ArtifactStatus.ACTIVE, T0.plusSeconds(i));
+        }
+
+        assertThat(artifactService.list(null, null, null, 4).nextCursor()).isNull();
+        assertThat(artifactService.list(null, null, null, 3).nextCursor()).isNotNull();
+    }
+
+    @Test
+    void filtersByTypeAndStatus() {
+        save("a", "library", ArtifactStatus.ACTIVE, T0);
+        save("b", "application", ArtifactStatus.ACTIVE, T0.plusSeconds(1));
+        save("c", "library", ArtifactStatus.ARCHIVED, T0.plusSeconds(2));
+        save("d", "library", ArtifactStatus.ACTIVE, T0.plusSeconds(3));
+
+        assertThat(artifactService.list("library", null, null, 10).items())
+            .extracting(Artifact::getName).containsExactly("a", "c", "d");
+        assertThat(artifactService.list(null, ArtifactStatus.ACTIVE, null, 10).items())
+            .extracting(Artifact::getName).containsExactly("a", "b", "d");
+
+        ArtifactPage first = artifactService.list("library", ArtifactStatus.ACTIVE, null, 1);
+        assertThat(first.items()).extracting(Artifact::getName).containsExactly("a");
+        assertThat(artifactService.list("library", ArtifactStatus.ACTIVE, first.nextCursor(), 1).items())
+            .extracting(Artifact::getName).containsExactly("d");
+    }
+
+    @Test
+    void exportsOneJsonLinePerArtifact() throws Exception {
+        for (int i = 0; i < 7; i++) {
+            save("lib-" + i, i % 2 == 0 ? "library" : "application", ArtifactStatus.ACTIVE, T0.plusSeconds(i));
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = artifactService.export("library", null, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(written).isEqualTo(4);
+        assertThat(lines).hasSize(4);
+        assertThat(lines.get(0)).contains("\"name\":\"lib-0\"");
+        assertThat(lines.get(3)).contains("\"name\":\"lib-6\"");
+    }
+
+    @Test
+    void exportsAcrossBatchBoundaries() throws Exception {
+        for (int i = 0; i < 9; i++) {
+            save("lib-" + i, "library", ArtifactStatus.ACTIVE, T0.plusSeconds(i / 2));
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = artifactService.export(null, null, out, 3);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(written).isEqualTo(9);
+        for (int i = 0; i < 9; i++) {
+            assertThat(lines.get(i)).contains("\"name\":\"lib-" + i + "\"");
+        }
+    }
+
+    @Test
+    void rejectsMalformedCursor() {
+        assertThatThrownBy(() -> artifactService.list(null, null, "not-a-cursor", 10))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Artifact save(String name, String type, ArtifactStatus status, LocalDateTime createdAt) {
+        Artifact artifact = new Artifact();
+        artifact.setName(name);
+        artifact.setVersion("1.0.0");
+        artifact.setType(type);
+        artifact.setStatus(status);
+        artifact.setCreatedAt(createdAt);
+        return repository.save(artifact);
+    }
+}
@@ -0,0 +1,100 @@
+package com.cvshealth.pbm.ssot.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ContentDefinedChunkerTest {
+
+    @Test
+    void chunksReassembleToTheInputWithinSizeBounds() throws Exception {
+        byte[] data = random(20_000_000, 1);
+
+        List<byte[]> chunks = chunk(data);
+
+        ByteArrayOutputStream joined = new ByteArrayOutputStream();
+        for (int i = 0; i < chunks.size(); i++) {
+            byte[] chunk = chunks.get(i);
+            joined.write(chunk);
+            assertThat(chunk.length).isLessThanOrEqualTo(ContentDefinedChunker.MAX_SIZE);
+            if (i < chunks.size() - 1) {
+                assertThat(chunk.length).isGreaterThan(ContentDefinedChunker.MIN_SIZE);
+            }
+        }
+        assertThat(joined.toByteArray()).isEqualTo(data);
+        // normalized chunking keeps the average near 1MB
+        assertThat(chunks.size()).isBetween(10, 30);
+    }
+
+    @Test
+    void insertNearTheStartKeepsTheLaterChunks() throws Exception {
+        byte[] original = random(16_000_000, 2);
+        byte[] edited = new byte[original.length + 100];
+        System.arraycopy(original, 0, edited, 0, 500_000);
+        System.arraycopy(random(100, 3), 0, edited, 500_000, 100);
+        System.arraycopy(original, 500_000, edited, 500_100, original.length - 500_000);
+
+        Set<String> before = hashes(chunk(original));
+        List<String> after = new ArrayList<>(hashes(chunk(edited)));
+        after.removeAll(before);
+
+        // only the chunk containing the insert, and at most its neighbour, change
+        assertThat(after.size()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void sameInputGivesSameBoundaries() throws Exception {
+        byte[] data = random(6_000_000, 4);
+
+        assertThat(hashes(chunk(data))).isEqualTo(hashes(chunk(data)));
+    }
+
+    @Test
+    void emptyAndSmallInputs() throws Exception {
+        assertThat(chunk(new byte[0])).isEmpty();
+        assertThat(chunk(new byte[10])).hasSize(1);
+    }
+
+    private static List<byte[]> chunk(byte[] data) throws IOException {
+        // a stream that returns short reads, like a socket
+        ByteArrayInputStream in = new ByteArrayInputStream(data) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, 8192));
+            }
+        };
+        ContentDefinedChunker chunker = new ContentDefinedChunker(in);
+        List<byte[]> chunks = new ArrayList<>();
+        while (chunker.next()) {
+            byte[] chunk = new byte[chunker.length()];
+            System.arraycopy(chunker.buffer(), chunker.offset(), chunk, 0, chunker.length());
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+
+    private static Set<String> hashes(List<byte[]> chunks) throws Exception {
+        Set<String> hashes = new HashSet<>();
+        for (byte[] chunk : chunks) {
+            hashes.add(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(chunk)));
+        }
+        return hashes;
+    }
+
+    private static byte[] random(int size, long seed) {
+        byte[] data = new byte[size];
+        new Random(seed).nextBytes(data);
+        return data;
+    }
+}
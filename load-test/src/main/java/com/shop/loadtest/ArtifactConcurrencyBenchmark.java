@@ -0,0 +1,210 @@
+package com.shop.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.InputStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrent-request capacity of coffee-shop-api. --concurrency clients keep
+ * GET /artifacts/export streams open and read them slowly, the way clients on a slow link
+ * do, so every export occupies whatever server thread writes it for seconds. Meanwhile one
+ * probe client pages through GET /artifacts. The benchmark reports how many exports were
+ * being written at once, the time until an export sent its first byte and the probe
+ * latency. Run it once with the platform thread pools and once with
+ * VIRTUAL_THREADS_ENABLED=true on Java 21 to compare. --artifacts artifacts of type
+ * CONCURRENCY are created first unless they exist.
+ *
+ * <pre>
+ * mvn -q compile exec:java -Dexec.mainClass=com.shop.loadtest.ArtifactConcurrencyBenchmark \
+ *     -Dexec.args="--concurrency 400 --artifacts 5000 --duration 60s --token $TOKEN"
+ * </pre>
+ */
+public class ArtifactConcurrencyBenchmark {
+
+    private static final String TYPE = "CONCURRENCY";
+    private static final long MAX_TRACKABLE_MS = TimeUnit.MINUTES.toMillis(10);
+    private static final Duration PROBE_TIMEOUT = Duration.ofSeconds(5);
+    // a slow client reads 16 KB every 100 ms, about 160 KB/s
+    private static final int READ_SIZE = 16 << 10;
+    private static final long READ_PAUSE_MILLIS = 100;
+    private static final int SEED_THREADS = 8;
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        seed(http, config, new ObjectMapper());
+        String exportUrl = config.artifactsUrl + "/export?type=" + TYPE;
+        String probeUrl = config.artifactsUrl + "?type=" + TYPE + "&limit=20";
+
+        Recorder firstByte = new Recorder(MAX_TRACKABLE_MS, 3);
+        Recorder probe = new Recorder(MAX_TRACKABLE_MS, 3);
+        LongAdder exportsCompleted = new LongAdder();
+        LongAdder exportErrors = new LongAdder();
+        LongAdder probeTimeouts = new LongAdder();
+        LongAdder probeErrors = new LongAdder();
+        AtomicInteger streaming = new AtomicInteger();
+        AtomicInteger maxStreaming = new AtomicInteger();
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch done = new CountDownLatch(config.concurrency + 1);
+
+        ExecutorService clients = Executors.newFixedThreadPool(config.concurrency + 1);
+        for (int i = 0; i < config.concurrency; i++) {
+            clients.execute(() -> {
+                byte[] buffer = new byte[READ_SIZE];
+                while (running.get()) {
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<InputStream> response = ArtifactTransferBenchmark.send(http, config,
+                                ArtifactTransferBenchmark.request(config, exportUrl).GET(),
+                                HttpResponse.BodyHandlers.ofInputStream());
+                        try (InputStream body = response.body()) {
+                            int read = body.read(buffer);
+                            firstByte.recordValue(millisSince(start));
+                            maxStreaming.accumulateAndGet(streaming.incrementAndGet(), Math::max);
+                            try {
+                                while (read >= 0 && running.get()) {
+                                    Thread.sleep(READ_PAUSE_MILLIS);
+                                    read = body.read(buffer);
+                                }
+                            } finally {
+                                streaming.decrementAndGet();
+                            }
+                            if (read < 0) {
+                                exportsCompleted.increment();
+                            }
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    } catch (Exception e) {
+                        if (running.get()) {
+                            exportErrors.increment();
+                        }
+                    }
+                }
+                done.countDown();
+            });
+        }
+        clients.execute(() -> {
+            while (running.get()) {
+                long start = System.nanoTime();
+                try {
+                    ArtifactTransferBenchmark.send(http, config,
+                            ArtifactTransferBenchmark.request(config, probeUrl).timeout(PROBE_TIMEOUT).GET(),
+                            HttpResponse.BodyHandlers.discarding());
+                    probe.recordValue(millisSince(start));
+                } catch (HttpTimeoutException e) {
+                    probeTimeouts.increment();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                } catch (Exception e) {
+                    probeErrors.increment();
+                }
+            }
+            done.countDown();
+        });
+
+        System.out.printf("Warming up for %s with %d slow export clients against %s%n", config.warmup,
+                config.concurrency, config.artifactsUrl);
+        Thread.sleep(config.warmup.toMillis());
+        firstByte.reset();
+        probe.reset();
+        exportsCompleted.reset();
+        exportErrors.reset();
+        probeTimeouts.reset();
+        probeErrors.reset();
+        maxStreaming.set(streaming.get());
+
+        long started = System.nanoTime();
+        long samples = 0;
+        long streamingSum = 0;
+        while (System.nanoTime() - started < config.duration.toNanos()) {
+            Thread.sleep(1000);
+            streamingSum += streaming.get();
+            samples++;
+        }
+        Histogram firstBytes = firstByte.getIntervalHistogram();
+        Histogram probes = probe.getIntervalHistogram();
+        double elapsed = (System.nanoTime() - started) / 1e9;
+        running.set(false);
+        clients.shutdownNow();
+        done.await(30, TimeUnit.SECONDS);
+
+        System.out.printf("exports being written: %.0f on average, %d at most, of %d clients%n",
+                (double) streamingSum / Math.max(1, samples), maxStreaming.get(), config.concurrency);
+        System.out.printf("exports: %d started, %d completed, %d errors in %.1f s%n", firstBytes.getTotalCount(),
+                exportsCompleted.sum(), exportErrors.sum(), elapsed);
+        System.out.printf("export first byte ms: p50 %d  p90 %d  p99 %d  max %d%n",
+                firstBytes.getValueAtPercentile(50), firstBytes.getValueAtPercentile(90),
+                firstBytes.getValueAtPercentile(99), firstBytes.getMaxValue());
+        System.out.printf("probe: %.1f requests/s, %d timeouts (%d s), %d errors%n", probes.getTotalCount() / elapsed,
+                probeTimeouts.sum(), PROBE_TIMEOUT.toSeconds(), probeErrors.sum());
+        System.out.printf("probe latency ms: p50 %d  p90 %d  p99 %d  max %d%n", probes.getValueAtPercentile(50),
+                probes.getValueAtPercentile(90), probes.getValueAtPercentile(99), probes.getMaxValue());
+        System.exit(0);
+    }
+
+    /**
+     * Create artifacts of type CONCURRENCY until there are --artifacts of them
+     */
+    private static void seed(HttpClient http, LoadTestConfig config, ObjectMapper objectMapper) throws Exception {
+        String body = ArtifactTransferBenchmark.send(http, config,
+                ArtifactTransferBenchmark.request(config, config.artifactsUrl + "/search?type=" + TYPE + "&limit=1")
+                        .GET(), HttpResponse.BodyHandlers.ofString()).body();
+        long existing = objectMapper.readTree(body).path("total").asLong();
+        int missing = (int) Math.max(0, config.artifactCount - existing);
+        if (missing == 0) {
+            return;
+        }
+        System.out.printf("Creating %d artifacts of type %s%n", missing, TYPE);
+        String description = "Seeded by ArtifactConcurrencyBenchmark to make the export long enough to hold a "
+                + "server thread while a slow client reads it. ".repeat(3);
+        ExecutorService seeders = Executors.newFixedThreadPool(SEED_THREADS);
+        try {
+            List<Future<?>> created = new ArrayList<>();
+            for (int i = 0; i < missing; i++) {
+                String artifact = objectMapper.writeValueAsString(Map.of(
+                        "name", "concurrency-" + (existing + i),
+                        "version", "1.0." + i,
+                        "type", TYPE,
+                        "description", description));
+                created.add(seeders.submit(() -> ArtifactTransferBenchmark.send(http, config,
+                        ArtifactTransferBenchmark.request(config, config.artifactsUrl)
+                                .header("Content-Type", "application/json")
+                                .POST(HttpRequest.BodyPublishers.ofString(artifact)),
+                        HttpResponse.BodyHandlers.discarding())));
+            }
+            for (Future<?> f : created) {
+                f.get();
+            }
+        } finally {
+            seeders.shutdownNow();
+        }
+    }
+
+    private static long millisSince(long start) {
+        return Math.min(MAX_TRACKABLE_MS, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+}
@@ -0,0 +1,155 @@
+package com.shop.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.InputStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Uploads --versions successive versions of a --size artifact to coffee-shop-api, each one the
+ * previous with --edits more small inserts at random positions, the way a rebuilt archive
+ * differs from the last. After every upload it reports the ingest throughput and, from
+ * GET /admin/storage, the bytes the content store actually added and the dedupe ratio so far.
+ * Versions are generated while streaming, nothing is written to the client disk. The
+ * statistics are store wide, so run it against an otherwise idle server.
+ *
+ * <pre>
+ * mvn -q compile exec:java -Dexec.mainClass=com.shop.loadtest.ArtifactDedupBenchmark \
+ *     -Dexec.args="--size 2GB --versions 5 --edits 20 --token $TOKEN"
+ * </pre>
+ */
+public class ArtifactDedupBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        ObjectMapper objectMapper = new ObjectMapper();
+        String storageUrl = config.artifactsUrl.replaceFirst("/artifacts$", "/admin/storage");
+        String name = "dedup-benchmark-" + System.currentTimeMillis();
+
+        long[] positions = new SplittableRandom(7).longs((long) config.versions * config.edits, 0,
+                config.transferSize).toArray();
+        List<Long> ids = new ArrayList<>();
+        try {
+            JsonNode before = stats(http, config, objectMapper, storageUrl);
+            System.out.printf("Uploading %d versions of %d MB, %d inserts each%n", config.versions,
+                    config.transferSize >> 20, config.edits);
+            for (int v = 1; v <= config.versions; v++) {
+                String artifact = ArtifactTransferBenchmark.send(http, config,
+                        ArtifactTransferBenchmark.request(config, config.artifactsUrl)
+                                .header("Content-Type", "application/json")
+                                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(Map.of(
+                                        "name", name, "version", "1." + v, "type", "BIN")))),
+                        HttpResponse.BodyHandlers.ofString()).body();
+                long id = objectMapper.readTree(artifact).path("id").asLong();
+                ids.add(id);
+
+                long[] inserts = Arrays.copyOf(positions, (v - 1) * config.edits);
+                Arrays.sort(inserts);
+                long start = System.nanoTime();
+                ArtifactTransferBenchmark.send(http, config,
+                        ArtifactTransferBenchmark.request(config, config.artifactsUrl + "/" + id + "/content")
+                                .header("Content-Type", "application/octet-stream")
+                                .PUT(HttpRequest.BodyPublishers.ofInputStream(
+                                        () -> new VersionContent(config.transferSize, inserts))),
+                        HttpResponse.BodyHandlers.discarding());
+                long size = config.transferSize + (long) inserts.length * VersionContent.INSERT_LENGTH;
+                double throughput = ArtifactTransferBenchmark.mbPerSecond(size, start);
+
+                JsonNode after = stats(http, config, objectMapper, storageUrl);
+                System.out.printf("version %d: %.0f MB/s, stored %.1f MB of %.1f MB, dedupe ratio %.2f%n", v,
+                        throughput, (after.path("storedBytes").asLong() - before.path("storedBytes").asLong()) / 1048576.0,
+                        size / 1048576.0, after.path("dedupeRatio").asDouble());
+                before = after;
+            }
+            JsonNode stats = stats(http, config, objectMapper, storageUrl);
+            System.out.printf("server: ingest %.0f MB/s, %d chunks stored, %d deduplicated%n",
+                    stats.path("ingestMegabytesPerSecond").asDouble(), stats.path("chunksStored").asLong(),
+                    stats.path("chunksDeduplicated").asLong());
+        } finally {
+            for (long id : ids) {
+                ArtifactTransferBenchmark.send(http, config,
+                        ArtifactTransferBenchmark.request(config, config.artifactsUrl + "/" + id).DELETE(),
+                        HttpResponse.BodyHandlers.discarding());
+            }
+        }
+        System.exit(0);
+    }
+
+    private static JsonNode stats(HttpClient http, LoadTestConfig config, ObjectMapper objectMapper, String url)
+            throws Exception {
+        return objectMapper.readTree(ArtifactTransferBenchmark.send(http, config,
+                ArtifactTransferBenchmark.request(config, url).GET(), HttpResponse.BodyHandlers.ofString()).body());
+    }
+
+    /**
+     * Deterministic random base content of {@code size} bytes with {@link #INSERT_LENGTH} random
+     * bytes inserted before each of the sorted base positions in {@code inserts}
+     */
+    static final class VersionContent extends InputStream {
+
+        static final int INSERT_LENGTH = 100;
+        private static final int BLOCK = 1 << 20;
+
+        private final long size;
+        private final long[] inserts;
+        private final byte[] block = new byte[BLOCK];
+        private final byte[] insert = new byte[INSERT_LENGTH];
+        private long blockIndex = -1;
+        private long position;
+        private int nextInsert;
+        private int insertPosition = INSERT_LENGTH;
+
+        VersionContent(long size, long[] inserts) {
+            this.size = size;
+            this.inserts = inserts;
+        }
+
+        @Override
+        public int read() {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) == -1 ? -1 : one[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (insertPosition < INSERT_LENGTH) {
+                int n = Math.min(len, INSERT_LENGTH - insertPosition);
+                System.arraycopy(insert, insertPosition, b, off, n);
+                insertPosition += n;
+                return n;
+            }
+            if (nextInsert < inserts.length && inserts[nextInsert] == position) {
+                new SplittableRandom(position ^ nextInsert).nextBytes(insert);
+                nextInsert++;
+                insertPosition = 0;
+                return read(b, off, len);
+            }
+            if (position >= size) {
+                return -1;
+            }
+            long limit = nextInsert < inserts.length ? inserts[nextInsert] : size;
+            int offset = (int) (position % BLOCK);
+            int n = (int) Math.min(Math.min(len, limit - position), BLOCK - offset);
+            if (position / BLOCK != blockIndex) {
+                blockIndex = position / BLOCK;
+                new SplittableRandom(blockIndex).nextBytes(block);
+            }
+            System.arraycopy(block, offset, b, off, n);
+            position += n;
+            return n;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.shop.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Throughput of coffee-shop-api artifact content transfers on a large file: upload with
+ * PUT /artifacts/{id}/content, a full download, and a download split into
+ * --range-parallelism concurrent Range requests the way download managers fetch. The test
+ * file of --size random bytes is generated once under target/. Downloads are discarded on
+ * the client so the numbers reflect the server and the network, not the client disk.
+ *
+ * <pre>
+ * mvn -q compile exec:java -Dexec.mainClass=com.shop.loadtest.ArtifactTransferBenchmark \
+ *     -Dexec.args="--size 4GB --runs 3 --token $TOKEN"
+ * </pre>
+ */
+public class ArtifactTransferBenchmark {
+
+    private static final int FILL_CHUNK = 8 << 20;
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        Path file = testFile(config.transferSize);
+        HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        String artifact = send(http, config, request(config, config.artifactsUrl)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(Map.of(
+                        "name", "transfer-benchmark",
+                        "version", String.valueOf(System.currentTimeMillis()),
+                        "type", "BIN")))), HttpResponse.BodyHandlers.ofString()).body();
+        String contentUrl = config.artifactsUrl + "/" + objectMapper.readTree(artifact).path("id").asLong()
+                + "/content";
+        System.out.printf("Transferring %d MB to %s%n", config.transferSize >> 20, contentUrl);
+
+        ExecutorService ranges = Executors.newFixedThreadPool(config.rangeParallelism);
+        try {
+            for (int i = 1; i <= config.runs; i++) {
+                long start = System.nanoTime();
+                send(http, config, request(config, contentUrl)
+                        .header("Content-Type", "application/octet-stream")
+                        .PUT(HttpRequest.BodyPublishers.ofFile(file)), HttpResponse.BodyHandlers.discarding());
+                double upload = mbPerSecond(config.transferSize, start);
+
+                start = System.nanoTime();
+                long received = download(http, config, contentUrl, null);
+                double download = mbPerSecond(received, start);
+
+                start = System.nanoTime();
+                received = rangedDownload(http, config, contentUrl, ranges);
+                double ranged = mbPerSecond(received, start);
+
+                System.out.printf("run %d: upload %.0f MB/s, download %.0f MB/s, %d ranges %.0f MB/s%n", i, upload,
+                        download, config.rangeParallelism, ranged);
+            }
+        } finally {
+            ranges.shutdownNow();
+            send(http, config, request(config, contentUrl.substring(0, contentUrl.lastIndexOf('/'))).DELETE(),
+                    HttpResponse.BodyHandlers.discarding());
+        }
+        System.exit(0);
+    }
+
+    private static long rangedDownload(HttpClient http, LoadTestConfig config, String url, ExecutorService ranges)
+            throws Exception {
+        long part = (config.transferSize + config.rangeParallelism - 1) / config.rangeParallelism;
+        List<Future<Long>> parts = new ArrayList<>();
+        for (long from = 0; from < config.transferSize; from += part) {
+            String range = "bytes=" + from + "-" + (Math.min(from + part, config.transferSize) - 1);
+            parts.add(ranges.submit(() -> download(http, config, url, range)));
+        }
+        long total = 0;
+        for (Future<Long> f : parts) {
+            total += f.get();
+        }
+        return total;
+    }
+
+    private static long download(HttpClient http, LoadTestConfig config, String url, String range)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = request(config, url).GET();
+        if (range != null) {
+            request.header("Range", range);
+        }
+        HttpResponse<InputStream> response = send(http, config, request, HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream body = response.body()) {
+            return body.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+
+    static <T> HttpResponse<T> send(HttpClient http, LoadTestConfig config, HttpRequest.Builder request,
+                                            HttpResponse.BodyHandler<T> handler)
+            throws IOException, InterruptedException {
+        HttpResponse<T> response = http.send(request.build(), handler);
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException(response.request().method() + " " + response.uri() + " returned "
+                    + response.statusCode());
+        }
+        return response;
+    }
+
+    static HttpRequest.Builder request(LoadTestConfig config, String url) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofMinutes(30));
+        if (config.token != null) {
+            builder.header("Authorization", "Bearer " + config.token);
+        }
+        return builder;
+    }
+
+    private static Path testFile(long size) throws IOException {
+        Path file = Path.of("target", "transfer-" + size + ".bin");
+        if (Files.exists(file) && Files.size(file) == size) {
+            return file;
+        }
+        Files.createDirectories(file.getParent());
+        // random so that nothing on the way can compress the body
+        SplittableRandom random = new SplittableRandom(42);
+        byte[] chunk = new byte[FILL_CHUNK];
+        try (OutputStream out = Files.newOutputStream(file)) {
+            for (long written = 0; written < size; written += chunk.length) {
+                for (int i = 0; i < chunk.length; i += 8) {
+                    long value = random.nextLong();
+                    for (int b = 0; b < 8; b++) {
+                        chunk[i + b] = (byte) (value >>> (b * 8));
+                    }
+                }
+                out.write(chunk, 0, (int) Math.min(chunk.length, size - written));
+            }
+        }
+        return file;
+    }
+
+    static double mbPerSecond(long bytes, long startNanos) {
+        return (bytes / 1048576.0) / ((System.nanoTime() - startNanos) / 1e9);
+    }
+}
@@ -0,0 +1,108 @@
+package com.shop.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Thin HTTP client for the generated Kogito REST endpoints of order-app and brew-app
+ */
+public class CoffeeShopClient {
+
+    private final HttpClient http;
+    private final ObjectMapper objectMapper;
+    private final String token;
+
+    public CoffeeShopClient(ObjectMapper objectMapper, String token, int maxConnections) {
+        this.objectMapper = objectMapper;
+        this.token = token;
+        this.http = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(java.util.concurrent.Executors.newFixedThreadPool(Math.max(2, maxConnections)))
+                .build();
+    }
+
+    /**
+     * Start an OrderDrink instance and return its id (which is also the orderId)
+     */
+    public String startOrder(String orderAppUrl, Map<String, Object> body) throws IOException, InterruptedException {
+        return startOrderForModel(orderAppUrl, body).path("id").asText();
+    }
+
+    /**
+     * Start an OrderDrink instance and return the process model of the response,
+     * which holds the final variables when the instance completed synchronously
+     */
+    public JsonNode startOrderForModel(String orderAppUrl, Map<String, Object> body) throws IOException, InterruptedException {
+        HttpResponse<String> response = send(request(orderAppUrl + "/OrderDrink")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body))));
+        expect(response, 200, 201);
+        return objectMapper.readTree(response.body());
+    }
+
+    /**
+     * @return true while the OrderDrink instance is still active
+     */
+    public boolean isOrderActive(String orderAppUrl, String orderId) throws IOException, InterruptedException {
+        HttpResponse<String> response = send(request(orderAppUrl + "/OrderDrink/" + orderId).GET());
+        if (response.statusCode() == 404) {
+            return false;
+        }
+        expect(response, 200);
+        return true;
+    }
+
+    public JsonNode listTasks(String baseUrl, String user, String group) throws IOException, InterruptedException {
+        HttpResponse<String> response = send(request(baseUrl + "/usertasks/instance" + identity(user, group)).GET());
+        expect(response, 200);
+        return objectMapper.readTree(response.body());
+    }
+
+    public void transition(String baseUrl, String taskId, String user, String group, String transition,
+                           Map<String, Object> data) throws IOException, InterruptedException {
+        Map<String, Object> body = data == null
+                ? Map.of("transitionId", transition)
+                : Map.of("transitionId", transition, "data", data);
+        HttpResponse<String> response = send(request(baseUrl + "/usertasks/instance/" + taskId + "/transition" + identity(user, group))
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body))));
+        expect(response, 200);
+    }
+
+    private HttpRequest.Builder request(String url) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json");
+        if (token != null && !token.isBlank()) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder builder) throws IOException, InterruptedException {
+        return http.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String identity(String user, String group) {
+        return "?user=" + URLEncoder.encode(user, StandardCharsets.UTF_8)
+                + "&group=" + URLEncoder.encode(group, StandardCharsets.UTF_8);
+    }
+
+    private static void expect(HttpResponse<String> response, int... statuses) throws IOException {
+        for (int status : statuses) {
+            if (response.statusCode() == status) {
+                return;
+            }
+        }
+        throw new IOException("HTTP " + response.statusCode() + " from " + response.uri());
+    }
+}
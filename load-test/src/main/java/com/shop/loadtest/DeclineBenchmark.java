@@ -0,0 +1,114 @@
+package com.shop.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop throughput benchmark of the declined card path. Every request starts an
+ * OrderDrink with a card PaymentService rejects, so each instance is cancelled within
+ * the start call; the benchmark reports completed cancellations per second and latency.
+ * Run it against two builds to compare cancellation strategies.
+ *
+ * <pre>
+ * mvn -q compile exec:java -Dexec.mainClass=com.shop.loadtest.DeclineBenchmark \
+ *     -Dexec.args="--concurrency 32 --warmup 15s --duration 60s"
+ * </pre>
+ */
+public class DeclineBenchmark {
+
+    private static final long MAX_TRACKABLE_MS = TimeUnit.MINUTES.toMillis(1);
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        if (config.testcontainers) {
+            try (SoakEnvironment environment = new SoakEnvironment()) {
+                environment.start(config);
+                run(config);
+            }
+        } else {
+            run(config);
+        }
+    }
+
+    static void run(LoadTestConfig config) throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        CoffeeShopClient client = new CoffeeShopClient(objectMapper, config.token, config.concurrency);
+        Map<String, Object> order = declinedOrder();
+
+        Recorder recorder = new Recorder(MAX_TRACKABLE_MS, 3);
+        LongAdder errors = new LongAdder();
+        LongAdder notCancelled = new LongAdder();
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch done = new CountDownLatch(config.concurrency);
+        ExecutorService workers = Executors.newFixedThreadPool(config.concurrency);
+        for (int i = 0; i < config.concurrency; i++) {
+            workers.execute(() -> {
+                while (running.get()) {
+                    long start = System.nanoTime();
+                    try {
+                        JsonNode model = client.startOrderForModel(config.orderAppUrl, order);
+                        recorder.recordValue(Math.min(MAX_TRACKABLE_MS,
+                                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+                        if (!"CANCELLED".equals(model.path("drinkOrder").path("orderStatus").asText())) {
+                            notCancelled.increment();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    } catch (Exception e) {
+                        errors.increment();
+                    }
+                }
+                done.countDown();
+            });
+        }
+
+        System.out.printf("Warming up for %s with %d clients against %s%n", config.warmup, config.concurrency,
+                config.orderAppUrl);
+        Thread.sleep(config.warmup.toMillis());
+        recorder.reset();
+        errors.reset();
+        notCancelled.reset();
+
+        long started = System.nanoTime();
+        Thread.sleep(config.duration.toMillis());
+        Histogram histogram = recorder.getIntervalHistogram();
+        double elapsed = (System.nanoTime() - started) / 1e9;
+        running.set(false);
+        done.await(30, TimeUnit.SECONDS);
+        workers.shutdownNow();
+
+        System.out.printf("declined orders: %d in %.1f s = %.1f orders/s%n", histogram.getTotalCount(), elapsed,
+                histogram.getTotalCount() / elapsed);
+        System.out.printf("latency ms: p50 %d  p90 %d  p99 %d  p99.9 %d  max %d%n",
+                histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(90),
+                histogram.getValueAtPercentile(99), histogram.getValueAtPercentile(99.9), histogram.getMaxValue());
+        System.out.printf("errors: %d, not cancelled: %d%n", errors.sum(), notCancelled.sum());
+        System.exit(0);
+    }
+
+    static Map<String, Object> declinedOrder() {
+        // PaymentService declines card numbers starting with 0000
+        return Map.of("drinkOrder", Map.of(
+                "drinkType", "COFFEE",
+                "drinkSize", "MEDIUM",
+                "paymentType", "CARD",
+                "cardPayment", Map.of(
+                        "cardNumber", "0000111122223333",
+                        "expDate", "12/2030",
+                        "nameOnCard", "Decline Storm",
+                        "amount", BigDecimal.valueOf(4.29),
+                        "cardType", "VISA")));
+    }
+}
@@ -0,0 +1,150 @@
+package com.shop.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command line options of the load test driver. Every option can also be given as a
+ * system property with the same name, e.g. -Drate=20.
+ */
+public class LoadTestConfig {
+
+    String orderAppUrl = "http://localhost:8081";
+    String brewAppUrl = "http://localhost:8082";
+    double rate = 5;
+    Duration duration = Duration.ofMinutes(5);
+    Duration drain = Duration.ofSeconds(30);
+    Duration warmup = Duration.ofSeconds(10);
+    Duration reportInterval = Duration.ofSeconds(10);
+    Duration taskPollInterval = Duration.ofMillis(500);
+    int concurrency = 64;
+    Path mix;
+    String token;
+    String cashierUser = "jdoe";
+    String cashierGroup = "cashier";
+    String baristaUser = "alice";
+    String baristaGroup = "barista";
+    long seed = 42;
+    boolean testcontainers;
+    Path orderAppJar = Path.of("../order-app/target/quarkus-app/quarkus-run.jar");
+    Path brewAppJar = Path.of("../brew-app/target/quarkus-app/quarkus-run.jar");
+    Path orderAppNative = Path.of("../order-app/target/order-app-1.0.0-SNAPSHOT-runner");
+    Path brewAppNative = Path.of("../brew-app/target/brew-app-1.0.0-SNAPSHOT-runner");
+    int runs = 3;
+    String artifactsUrl = "http://localhost:8080/api/api/artifacts";
+    long transferSize = 4L << 30;
+    int rangeParallelism = 8;
+    int versions = 5;
+    int edits = 20;
+    int artifactCount = 5000;
+
+    public static LoadTestConfig parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String name : new String[] {"order-url", "brew-url", "rate", "duration", "drain", "report-interval",
+                "task-poll-interval", "concurrency", "mix", "token", "cashier", "barista", "seed",
+                "testcontainers", "order-app-jar", "brew-app-jar", "warmup", "order-app-native",
+                "brew-app-native", "runs", "artifacts-url", "size", "range-parallelism", "versions", "edits",
+                "artifacts"}) {
+            String value = System.getProperty(name);
+            if (value != null) {
+                options.put(name, value);
+            }
+        }
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument " + args[i]);
+            }
+            String name = args[i].substring(2);
+            if ("testcontainers".equals(name)) {
+                options.put(name, "true");
+            } else if (i + 1 < args.length) {
+                options.put(name, args[++i]);
+            } else {
+                throw new IllegalArgumentException("Missing value for " + args[i]);
+            }
+        }
+
+        LoadTestConfig config = new LoadTestConfig();
+        options.forEach(config::apply);
+        return config;
+    }
+
+    private void apply(String name, String value) {
+        switch (name) {
+            case "order-url" -> orderAppUrl = value;
+            case "brew-url" -> brewAppUrl = value;
+            case "rate" -> rate = Double.parseDouble(value);
+            case "duration" -> duration = parseDuration(value);
+            case "drain" -> drain = parseDuration(value);
+            case "warmup" -> warmup = parseDuration(value);
+            case "report-interval" -> reportInterval = parseDuration(value);
+            case "task-poll-interval" -> taskPollInterval = parseDuration(value);
+            case "concurrency" -> concurrency = Integer.parseInt(value);
+            case "mix" -> mix = Path.of(value);
+            case "token" -> token = value;
+            case "cashier" -> {
+                String[] parts = value.split(":");
+                cashierUser = parts[0];
+                cashierGroup = parts.length > 1 ? parts[1] : cashierGroup;
+            }
+            case "barista" -> {
+                String[] parts = value.split(":");
+                baristaUser = parts[0];
+                baristaGroup = parts.length > 1 ? parts[1] : baristaGroup;
+            }
+            case "seed" -> seed = Long.parseLong(value);
+            case "testcontainers" -> testcontainers = Boolean.parseBoolean(value);
+            case "order-app-jar" -> orderAppJar = Path.of(value);
+            case "brew-app-jar" -> brewAppJar = Path.of(value);
+            case "order-app-native" -> orderAppNative = Path.of(value);
+            case "brew-app-native" -> brewAppNative = Path.of(value);
+            case "runs" -> runs = Integer.parseInt(value);
+            case "artifacts-url" -> artifactsUrl = value;
+            case "size" -> transferSize = parseSize(value);
+            case "range-parallelism" -> rangeParallelism = Integer.parseInt(value);
+            case "versions" -> versions = Integer.parseInt(value);
+            case "edits" -> edits = Integer.parseInt(value);
+            case "artifacts" -> artifactCount = Integer.parseInt(value);
+            default -> throw new IllegalArgumentException("Unknown option --" + name);
+        }
+    }
+
+    /**
+     * Accepts 90s, 10m, 2h, 500ms or a plain number of seconds
+     */
+    static Duration parseDuration(String value) {
+        String v = value.trim().toLowerCase();
+        if (v.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(v.substring(0, v.length() - 2)));
+        }
+        if (v.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(v.substring(0, v.length() - 1)));
+        }
+        if (v.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(v.substring(0, v.length() - 1)));
+        }
+        if (v.endsWith("h")) {
+            return Duration.ofHours(Long.parseLong(v.substring(0, v.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(v));
+    }
+
+    /**
+     * Accepts 4GB, 512MB, 64KB or a plain number of bytes
+     */
+    static long parseSize(String value) {
+        String v = value.trim().toUpperCase();
+        if (v.endsWith("GB")) {
+            return Long.parseLong(v.substring(0, v.length() - 2)) << 30;
+        }
+        if (v.endsWith("MB")) {
+            return Long.parseLong(v.substring(0, v.length() - 2)) << 20;
+        }
+        if (v.endsWith("KB")) {
+            return Long.parseLong(v.substring(0, v.length() - 2)) << 10;
+        }
+        return Long.parseLong(v);
+    }
+}
@@ -0,0 +1,106 @@
+package com.shop.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shop.loadtest.StageStats.Stage;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Open-model load driver for the coffee-shop flow.
+ * Orders are started at a fixed arrival rate regardless of how fast the system answers,
+ * cashier and barista tasks are completed by background pollers, and per-stage
+ * throughput and latency percentiles are printed at every report interval.
+ *
+ * <pre>
+ * mvn -q compile exec:java -Dexec.args="--rate 20 --duration 10m"
+ * mvn -q compile exec:java -Dexec.args="--testcontainers --rate 10 --duration 2m"
+ * </pre>
+ */
+public class LoadTestRunner {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        if (config.testcontainers) {
+            try (SoakEnvironment environment = new SoakEnvironment()) {
+                environment.start(config);
+                run(config);
+            }
+        } else {
+            run(config);
+        }
+    }
+
+    static void run(LoadTestConfig config) throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        OrderMix mix = OrderMix.load(config.mix, objectMapper);
+        StageStats stats = new StageStats();
+        OrderTracker tracker = new OrderTracker(stats);
+        CoffeeShopClient client = new CoffeeShopClient(objectMapper, config.token, config.concurrency);
+        Random random = new Random(config.seed);
+
+        ScheduledExecutorService arrivals = Executors.newSingleThreadScheduledExecutor();
+        ScheduledExecutorService pollers = Executors.newScheduledThreadPool(3);
+        ExecutorService submitters = Executors.newFixedThreadPool(config.concurrency);
+        Semaphore inFlightRequests = new Semaphore(config.concurrency);
+
+        long periodNanos = (long) (TimeUnit.SECONDS.toNanos(1) / config.rate);
+        arrivals.scheduleAtFixedRate(() -> {
+            if (!inFlightRequests.tryAcquire()) {
+                // all submitters busy: the system is not keeping up with the arrival rate
+                stats.error(Stage.SUBMIT);
+                return;
+            }
+            Map<String, Object> order;
+            synchronized (random) {
+                order = mix.next(random);
+            }
+            submitters.execute(() -> {
+                long start = System.currentTimeMillis();
+                try {
+                    String orderId = client.startOrder(config.orderAppUrl, order);
+                    stats.record(Stage.SUBMIT, System.currentTimeMillis() - start);
+                    tracker.submitted(orderId, start);
+                } catch (Exception e) {
+                    stats.error(Stage.SUBMIT);
+                } finally {
+                    inFlightRequests.release();
+                }
+            });
+        }, 0, periodNanos, TimeUnit.NANOSECONDS);
+
+        long pollMillis = config.taskPollInterval.toMillis();
+        pollers.scheduleWithFixedDelay(new TaskCompleter(client, config.orderAppUrl, config.cashierUser,
+                config.cashierGroup, "Task", Map.of("isPaid", "YES"), tracker, stats), pollMillis, pollMillis, TimeUnit.MILLISECONDS);
+        pollers.scheduleWithFixedDelay(new TaskCompleter(client, config.brewAppUrl, config.baristaUser,
+                config.baristaGroup, "Task Brew", Map.of("brewStatus", "YES"), tracker, stats), pollMillis, pollMillis, TimeUnit.MILLISECONDS);
+        pollers.scheduleWithFixedDelay(new ReadyWatcher(client, config.orderAppUrl, tracker, stats),
+                pollMillis, pollMillis, TimeUnit.MILLISECONDS);
+
+        System.out.printf("Driving %.1f orders/s for %s against %s%n", config.rate, config.duration, config.orderAppUrl);
+        long started = System.nanoTime();
+        long reportMillis = config.reportInterval.toMillis();
+        long end = started + config.duration.toNanos();
+        while (System.nanoTime() < end) {
+            Thread.sleep(Math.min(reportMillis, TimeUnit.NANOSECONDS.toMillis(end - System.nanoTime()) + 1));
+            stats.reportInterval(System.out, reportMillis / 1000.0);
+        }
+
+        // stop arrivals but keep completing tasks so in-flight orders can finish
+        arrivals.shutdown();
+        submitters.shutdown();
+        submitters.awaitTermination(config.drain.toMillis(), TimeUnit.MILLISECONDS);
+        Thread.sleep(config.drain.toMillis());
+        pollers.shutdownNow();
+
+        double elapsed = (System.nanoTime() - started) / 1e9;
+        stats.reportTotal(System.out, elapsed);
+        System.out.printf("orders still in flight: %d%n", tracker.inFlight());
+        System.exit(0);
+    }
+}
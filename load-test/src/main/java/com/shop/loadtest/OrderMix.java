@@ -0,0 +1,110 @@
+package com.shop.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Weighted order mix used to generate OrderDrink start requests.
+ * Weights come from order-mix.json (bundled default or a file passed with --mix).
+ */
+public class OrderMix {
+
+    private final Weighted drinkType;
+    private final Weighted drinkSize;
+    private final Weighted paymentType;
+    private final Weighted cardType;
+    private final double declinedCardRatio;
+    private final Map<String, BigDecimal> amounts;
+
+    OrderMix(JsonNode mix) {
+        this.drinkType = new Weighted(mix.path("drinkType"));
+        this.drinkSize = new Weighted(mix.path("drinkSize"));
+        this.paymentType = new Weighted(mix.path("paymentType"));
+        this.cardType = new Weighted(mix.path("cardType"));
+        this.declinedCardRatio = mix.path("declinedCardRatio").asDouble(0);
+        this.amounts = new LinkedHashMap<>();
+        // order-app rejects card amounts that differ from the catalog price of the drink
+        mix.path("amount").fields().forEachRemaining(type -> type.getValue().fields().forEachRemaining(
+                size -> amounts.put(type.getKey() + '/' + size.getKey(), size.getValue().decimalValue())));
+    }
+
+    public static OrderMix load(Path file, ObjectMapper objectMapper) throws IOException {
+        if (file != null) {
+            return new OrderMix(objectMapper.readTree(Files.readAllBytes(file)));
+        }
+        try (InputStream in = OrderMix.class.getResourceAsStream("/order-mix.json")) {
+            return new OrderMix(objectMapper.readTree(in));
+        }
+    }
+
+    /**
+     * Build the body of a POST /OrderDrink request
+     */
+    public Map<String, Object> next(Random random) {
+        String type = drinkType.pick(random);
+        String size = drinkSize.pick(random);
+        String payment = paymentType.pick(random);
+
+        Map<String, Object> order = new LinkedHashMap<>();
+        order.put("drinkType", type);
+        order.put("drinkSize", size);
+        order.put("paymentType", payment);
+        if ("CARD".equals(payment)) {
+            boolean declined = random.nextDouble() < declinedCardRatio;
+            Map<String, Object> card = new LinkedHashMap<>();
+            // PaymentService declines card numbers starting with 0000
+            card.put("cardNumber", declined ? "0000111122223333" : "4532123456789012");
+            card.put("expDate", "12/2030");
+            card.put("nameOnCard", "Load Test");
+            card.put("amount", amounts.getOrDefault(type + '/' + size, BigDecimal.valueOf(4.99)));
+            card.put("cardType", cardType.pick(random));
+            order.put("cardPayment", card);
+        }
+        return Map.of("drinkOrder", order);
+    }
+
+    static final class Weighted {
+        private final List<String> values = new ArrayList<>();
+        private final List<Double> cumulative = new ArrayList<>();
+        private double total;
+
+        Weighted(JsonNode weights) {
+            Iterator<Map.Entry<String, JsonNode>> fields = weights.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                double weight = field.getValue().asDouble();
+                if (weight <= 0) {
+                    continue;
+                }
+                total += weight;
+                values.add(field.getKey());
+                cumulative.add(total);
+            }
+            if (values.isEmpty()) {
+                throw new IllegalArgumentException("Order mix needs at least one positive weight per field");
+            }
+        }
+
+        String pick(Random random) {
+            double point = random.nextDouble() * total;
+            for (int i = 0; i < cumulative.size(); i++) {
+                if (point < cumulative.get(i)) {
+                    return values.get(i);
+                }
+            }
+            return values.get(values.size() - 1);
+        }
+    }
+}
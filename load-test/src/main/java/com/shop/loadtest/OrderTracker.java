@@ -0,0 +1,73 @@
+package com.shop.loadtest;
+
+import com.shop.loadtest.StageStats.Stage;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps per-order timestamps so each stage can be measured from the moment the order was submitted
+ */
+public class OrderTracker {
+
+    private final StageStats stats;
+    private final Map<String, Long> submitted = new ConcurrentHashMap<>();
+    private final Map<String, Long> brewQueued = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> awaitingReady = new ConcurrentHashMap<>();
+
+    public OrderTracker(StageStats stats) {
+        this.stats = stats;
+    }
+
+    public void submitted(String orderId, long submittedAtMillis) {
+        submitted.put(orderId, submittedAtMillis);
+    }
+
+    public void paid(String orderId) {
+        Long start = submitted.get(orderId);
+        if (start != null) {
+            stats.record(Stage.CASH_PAYMENT, now() - start);
+        }
+    }
+
+    public void brewQueued(String orderId) {
+        Long start = submitted.get(orderId);
+        if (start != null && brewQueued.putIfAbsent(orderId, now()) == null) {
+            stats.record(Stage.BREW_QUEUED, now() - start);
+        }
+    }
+
+    public void brewed(String orderId) {
+        Long queued = brewQueued.remove(orderId);
+        if (queued != null) {
+            stats.record(Stage.BREW, now() - queued);
+        }
+        if (submitted.containsKey(orderId)) {
+            awaitingReady.put(orderId, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Orders whose drink was brewed and which have not yet been seen as finished
+     */
+    public Iterator<String> awaitingReady() {
+        return awaitingReady.keySet().iterator();
+    }
+
+    public void ready(String orderId) {
+        awaitingReady.remove(orderId);
+        Long start = submitted.remove(orderId);
+        if (start != null) {
+            stats.record(Stage.READY, now() - start);
+        }
+    }
+
+    public int inFlight() {
+        return submitted.size();
+    }
+
+    private static long now() {
+        return System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,37 @@
+package com.shop.loadtest;
+
+import com.shop.loadtest.StageStats.Stage;
+
+import java.util.Iterator;
+
+/**
+ * Marks brewed orders as ready once their OrderDrink instance has left the runtime
+ */
+public class ReadyWatcher implements Runnable {
+
+    private final CoffeeShopClient client;
+    private final String orderAppUrl;
+    private final OrderTracker tracker;
+    private final StageStats stats;
+
+    public ReadyWatcher(CoffeeShopClient client, String orderAppUrl, OrderTracker tracker, StageStats stats) {
+        this.client = client;
+        this.orderAppUrl = orderAppUrl;
+        this.tracker = tracker;
+        this.stats = stats;
+    }
+
+    @Override
+    public void run() {
+        for (Iterator<String> orders = tracker.awaitingReady(); orders.hasNext(); ) {
+            String orderId = orders.next();
+            try {
+                if (!client.isOrderActive(orderAppUrl, orderId)) {
+                    tracker.ready(orderId);
+                }
+            } catch (Exception e) {
+                stats.error(Stage.READY);
+            }
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.shop.loadtest;
+
+import org.testcontainers.containers.KafkaContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts Postgres and Kafka with Testcontainers and launches the packaged order-app and
+ * brew-app against them, with authentication turned off for the run. Apps are either the
+ * quarkus-run.jar of a JVM build or the runner executable of a native build.
+ */
+public class SoakEnvironment implements AutoCloseable {
+
+    static final int ORDER_APP_PORT = 18081;
+    static final int BREW_APP_PORT = 18082;
+
+    private final PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>(DockerImageName.parse("postgres:17-alpine"))
+                    .withUsername("kogito")
+                    .withPassword("Ch@ngeme");
+    private final KafkaContainer kafka = new KafkaContainer(DockerImageName.parse("confluentinc/cp-kafka:7.6.1"));
+    private static final String[] DATABASES = {"order-app-db", "brew-app-db"};
+
+    private final List<Process> apps = new ArrayList<>();
+
+    public void start(LoadTestConfig config) throws Exception {
+        startInfrastructure();
+
+        launch(config.orderAppJar, ORDER_APP_PORT, "order-app-db");
+        launch(config.brewAppJar, BREW_APP_PORT, "brew-app-db");
+        config.orderAppUrl = "http://localhost:" + ORDER_APP_PORT;
+        config.brewAppUrl = "http://localhost:" + BREW_APP_PORT;
+
+        awaitReady(config.orderAppUrl, Duration.ofMinutes(2), 500);
+        awaitReady(config.brewAppUrl, Duration.ofMinutes(2), 500);
+    }
+
+    void startInfrastructure() throws Exception {
+        postgres.start();
+        kafka.start();
+        for (String db : DATABASES) {
+            psql("CREATE DATABASE \"" + db + "\" OWNER kogito");
+        }
+    }
+
+    /**
+     * Stop the running apps and recreate their databases, so the next launch starts from an empty schema
+     */
+    void reset() throws Exception {
+        stopApps();
+        for (String db : DATABASES) {
+            psql("DROP DATABASE IF EXISTS \"" + db + "\" WITH (FORCE)");
+            psql("CREATE DATABASE \"" + db + "\" OWNER kogito");
+        }
+    }
+
+    Process launch(Path app, int port, String database) throws IOException {
+        return launch(app, port, database, List.of());
+    }
+
+    /**
+     * @param jvmOptions extra options for a JVM build, ignored for native executables
+     */
+    Process launch(Path app, int port, String database, List<String> jvmOptions) throws IOException {
+        if (!Files.exists(app)) {
+            throw new IllegalStateException(app + " not found, package the app first (./mvnw package)");
+        }
+        Path log = Path.of("target", "app-" + port + ".log");
+        Files.createDirectories(log.getParent());
+        boolean jvm = app.getFileName().toString().endsWith(".jar");
+        List<String> command = new ArrayList<>();
+        command.add(jvm ? Path.of(System.getProperty("java.home"), "bin", "java").toString()
+                : app.toAbsolutePath().toString());
+        if (jvm) {
+            command.addAll(jvmOptions);
+        }
+        command.add("-Dquarkus.http.port=" + port);
+        command.add("-Dquarkus.oidc.tenant-enabled=false");
+        command.add("-Dkogito.security.auth.enabled=false");
+        command.add("-Dquarkus.http.auth.permission.authenticated.policy=permit");
+        if (jvm) {
+            command.add("-jar");
+            command.add(app.toAbsolutePath().toString());
+        }
+        ProcessBuilder builder = new ProcessBuilder(command);
+        builder.environment().putAll(Map.of(
+                "DB_HOST", postgres.getHost(),
+                "DB_PORT", String.valueOf(postgres.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT)),
+                "DB_NAME", database,
+                "DB_USER", "kogito",
+                "DB_PASSWORD", "Ch@ngeme",
+                "KAFKA_BOOTSTRAP_SERVERS", kafka.getBootstrapServers().replace("PLAINTEXT://", ""),
+                "KAFKA_SECURITY_PROTOCOL", "PLAINTEXT",
+                "KAFKA_SASL_JAAS_CONFIG", "unused"));
+        builder.redirectErrorStream(true).redirectOutput(log.toFile());
+        Process process = builder.start();
+        apps.add(process);
+        return process;
+    }
+
+    void stopApps() throws InterruptedException {
+        for (Process app : apps) {
+            app.destroy();
+        }
+        for (Process app : apps) {
+            if (!app.waitFor(30, TimeUnit.SECONDS)) {
+                app.destroyForcibly();
+            }
+        }
+        apps.clear();
+    }
+
+    private void psql(String sql) throws Exception {
+        postgres.execInContainer("psql", "-U", "kogito", "-d", postgres.getDatabaseName(), "-c", sql);
+    }
+
+    static void awaitReady(String baseUrl, Duration timeout, long pollMillis) throws InterruptedException {
+        HttpClient http = HttpClient.newHttpClient();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                HttpResponse<Void> response = http.send(
+                        HttpRequest.newBuilder(URI.create(baseUrl + "/q/health/ready")).GET().build(),
+                        HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(pollMillis);
+        }
+        throw new IllegalStateException(baseUrl + " did not become ready within " + timeout);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        stopApps();
+        kafka.stop();
+        postgres.stop();
+    }
+}
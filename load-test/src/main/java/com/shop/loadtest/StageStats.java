@@ -0,0 +1,89 @@
+package com.shop.loadtest;
+
+import org.HdrHistogram.Recorder;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms and error counts per stage of the order flow
+ */
+public class StageStats {
+
+    public enum Stage {
+        /** POST /OrderDrink round trip */
+        SUBMIT,
+        /** order submitted until Task CashPayment is completed */
+        CASH_PAYMENT,
+        /** order submitted until Task Brew shows up in brew-app */
+        BREW_QUEUED,
+        /** Task Brew seen until it is completed */
+        BREW,
+        /** order submitted until the OrderDrink instance has finished */
+        READY
+    }
+
+    private static final long MAX_TRACKABLE_MS = TimeUnit.HOURS.toMillis(1);
+
+    private final Map<Stage, Recorder> recorders = new EnumMap<>(Stage.class);
+    private final Map<Stage, Histogram> totals = new EnumMap<>(Stage.class);
+    private final Map<Stage, LongAdder> errors = new EnumMap<>(Stage.class);
+
+    public StageStats() {
+        for (Stage stage : Stage.values()) {
+            recorders.put(stage, new Recorder(MAX_TRACKABLE_MS, 3));
+            totals.put(stage, new Histogram(MAX_TRACKABLE_MS, 3));
+            errors.put(stage, new LongAdder());
+        }
+    }
+
+    public void record(Stage stage, long millis) {
+        recorders.get(stage).recordValue(Math.max(0, Math.min(millis, MAX_TRACKABLE_MS)));
+    }
+
+    public void error(Stage stage) {
+        errors.get(stage).increment();
+    }
+
+    /**
+     * Print the interval since the last report and fold it into the run totals
+     */
+    public synchronized void reportInterval(PrintStream out, double intervalSeconds) {
+        out.printf("%-13s %9s %9s %9s %9s %9s %9s %7s%n", "stage", "count", "per-sec", "p50 ms", "p90 ms", "p99 ms", "max ms", "errors");
+        for (Stage stage : Stage.values()) {
+            Histogram interval = recorders.get(stage).getIntervalHistogram();
+            totals.get(stage).add(interval);
+            print(out, stage, interval, intervalSeconds);
+        }
+    }
+
+    public synchronized void reportTotal(PrintStream out, double elapsedSeconds) {
+        out.println("==== totals ====");
+        out.printf("%-13s %9s %9s %9s %9s %9s %9s %7s%n", "stage", "count", "per-sec", "p50 ms", "p90 ms", "p99 ms", "max ms", "errors");
+        for (Stage stage : Stage.values()) {
+            totals.get(stage).add(recorders.get(stage).getIntervalHistogram());
+            print(out, stage, totals.get(stage), elapsedSeconds);
+        }
+    }
+
+    public long count(Stage stage) {
+        return totals.get(stage).getTotalCount();
+    }
+
+    private void print(PrintStream out, Stage stage, Histogram histogram, double seconds) {
+        long count = histogram.getTotalCount();
+        out.printf("%-13s %9d %9.1f %9d %9d %9d %9d %7d%n",
+                stage.name().toLowerCase(),
+                count,
+                seconds > 0 ? count / seconds : 0.0,
+                histogram.getValueAtPercentile(50),
+                histogram.getValueAtPercentile(90),
+                histogram.getValueAtPercentile(99),
+                histogram.getMaxValue(),
+                errors.get(stage).sum());
+    }
+}
@@ -0,0 +1,240 @@
+package com.shop.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+/**
+ * Compares the JVM build, the JVM build with an AppCDS archive and the native build of
+ * order-app and brew-app. Each run recreates the databases, launches both apps and reports
+ * the time from launch until /q/health/ready answers and the resident memory once ready.
+ * A cash OrderDrink is then taken end to end (cashier task, barista task, drink-ready),
+ * which gives the time to the first order and doubles as a smoke test. Postgres and Kafka
+ * run in Testcontainers; a build whose binaries are missing is skipped. The AppCDS archives
+ * are created from the jars by a training run on first use, the same way Dockerfile.jvm does.
+ *
+ * <pre>
+ * mvn -q compile exec:java -Dexec.mainClass=com.shop.loadtest.StartupComparison -Dexec.args="--runs 5"
+ * </pre>
+ */
+public class StartupComparison {
+
+    private static final Duration START_TIMEOUT = Duration.ofMinutes(2);
+    private static final Duration SMOKE_TIMEOUT = Duration.ofMinutes(1);
+    private static final long READY_POLL_MILLIS = 10;
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        config.orderAppUrl = "http://localhost:" + SoakEnvironment.ORDER_APP_PORT;
+        config.brewAppUrl = "http://localhost:" + SoakEnvironment.BREW_APP_PORT;
+        CoffeeShopClient client = new CoffeeShopClient(new ObjectMapper(), config.token, 4);
+
+        Path orderArchive = Path.of("target", "order-app-cds.jsa");
+        Path brewArchive = Path.of("target", "brew-app-cds.jsa");
+        List<Build> builds = List.of(
+                new Build("jvm", config.orderAppJar, config.brewAppJar, List.of(), List.of()),
+                new Build("appcds", config.orderAppJar, config.brewAppJar,
+                        List.of("-XX:SharedArchiveFile=" + orderArchive),
+                        List.of("-XX:SharedArchiveFile=" + brewArchive)),
+                new Build("native", config.orderAppNative, config.brewAppNative, List.of(), List.of()));
+
+        List<Run> results = new ArrayList<>();
+        try (SoakEnvironment environment = new SoakEnvironment()) {
+            environment.startInfrastructure();
+            for (Build build : builds) {
+                if (!Files.exists(build.orderApp) || !Files.exists(build.brewApp)) {
+                    System.out.printf("Skipping %s build, %s or %s not found%n", build.name, build.orderApp,
+                            build.brewApp);
+                    continue;
+                }
+                if ("appcds".equals(build.name)
+                        && !(train(build.orderApp, orderArchive) && train(build.brewApp, brewArchive))) {
+                    System.out.println("Skipping appcds build, the training run failed");
+                    continue;
+                }
+                for (int i = 1; i <= config.runs; i++) {
+                    environment.reset();
+                    Run run = new Run(build.name, i);
+                    Process order = environment.launch(build.orderApp, SoakEnvironment.ORDER_APP_PORT,
+                            "order-app-db", build.orderOptions);
+                    run.orderReadyMillis = awaitReady(config.orderAppUrl);
+                    run.orderRssKb = rssKb(order);
+                    Process brew = environment.launch(build.brewApp, SoakEnvironment.BREW_APP_PORT,
+                            "brew-app-db", build.brewOptions);
+                    run.brewReadyMillis = awaitReady(config.brewAppUrl);
+                    run.brewRssKb = rssKb(brew);
+                    run.firstOrderMillis = smokeOrder(client, config);
+                    run.orderRssAfterSmokeKb = rssKb(order);
+                    run.brewRssAfterSmokeKb = rssKb(brew);
+                    System.out.println(run);
+                    results.add(run);
+                }
+            }
+        }
+
+        System.out.println();
+        System.out.println("build   order ready  brew ready  order RSS  brew RSS  order RSS*  brew RSS*  first order");
+        for (Build build : builds) {
+            List<Run> runs = results.stream().filter(r -> r.build.equals(build.name)).toList();
+            if (runs.isEmpty()) {
+                continue;
+            }
+            System.out.printf("%-7s %9d ms %8d ms %7d MB %6d MB %8d MB %7d MB %8d ms%n", build.name,
+                    median(runs, r -> r.orderReadyMillis), median(runs, r -> r.brewReadyMillis),
+                    median(runs, r -> r.orderRssKb) / 1024, median(runs, r -> r.brewRssKb) / 1024,
+                    median(runs, r -> r.orderRssAfterSmokeKb) / 1024, median(runs, r -> r.brewRssAfterSmokeKb) / 1024,
+                    median(runs, r -> r.firstOrderMillis));
+        }
+        System.out.println("medians of " + config.runs + " runs, RSS* after the first order");
+        System.exit(0);
+    }
+
+    /**
+     * Quarkus stops right after static init with quarkus.appcds.generate, so no database or Kafka is needed
+     */
+    private static boolean train(Path jar, Path archive) throws IOException, InterruptedException {
+        if (Files.exists(archive)) {
+            return true;
+        }
+        Files.createDirectories(archive.getParent());
+        Process training = new ProcessBuilder(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-XX:ArchiveClassesAtExit=" + archive.toAbsolutePath(),
+                "-Dquarkus.appcds.generate=true",
+                "-jar", jar.toAbsolutePath().toString())
+                .redirectErrorStream(true)
+                .redirectOutput(Path.of("target", archive.getFileName() + ".log").toFile())
+                .start();
+        if (!training.waitFor(5, TimeUnit.MINUTES)) {
+            training.destroyForcibly();
+            return false;
+        }
+        return training.exitValue() == 0 && Files.exists(archive);
+    }
+
+    private static long awaitReady(String baseUrl) throws InterruptedException {
+        long start = System.nanoTime();
+        SoakEnvironment.awaitReady(baseUrl, START_TIMEOUT, READY_POLL_MILLIS);
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    /**
+     * Start a cash order, pay it, brew it and wait for the drink-ready message to complete the instance
+     *
+     * @return milliseconds from the start request until the OrderDrink instance completed
+     */
+    static long smokeOrder(CoffeeShopClient client, LoadTestConfig config) throws Exception {
+        long start = System.nanoTime();
+        long deadline = start + SMOKE_TIMEOUT.toNanos();
+        String orderId = client.startOrder(config.orderAppUrl, Map.of("drinkOrder", Map.of(
+                "drinkType", "COFFEE",
+                "drinkSize", "SMALL",
+                "paymentType", "CASH")));
+        completeTask(client, config.orderAppUrl, config.cashierUser, config.cashierGroup, "Task",
+                Map.of("isPaid", "YES"), orderId, deadline);
+        completeTask(client, config.brewAppUrl, config.baristaUser, config.baristaGroup, "Task Brew",
+                Map.of("brewStatus", "YES"), orderId, deadline);
+        while (client.isOrderActive(config.orderAppUrl, orderId)) {
+            checkDeadline(deadline, "order " + orderId + " did not complete");
+            Thread.sleep(50);
+        }
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    private static void completeTask(CoffeeShopClient client, String baseUrl, String user, String group,
+                                     String taskName, Map<String, Object> output, String orderId,
+                                     long deadline) throws Exception {
+        while (true) {
+            for (JsonNode task : client.listTasks(baseUrl, user, group)) {
+                if (taskName.equals(task.path("taskName").asText()) && orderId.equals(TaskCompleter.orderIdOf(task))) {
+                    String taskId = task.path("id").asText();
+                    if (!"Reserved".equals(task.path("status").path("name").asText())) {
+                        client.transition(baseUrl, taskId, user, group, "claim", null);
+                    }
+                    client.transition(baseUrl, taskId, user, group, "complete", output);
+                    return;
+                }
+            }
+            checkDeadline(deadline, taskName + " of order " + orderId + " did not show up");
+            Thread.sleep(50);
+        }
+    }
+
+    private static void checkDeadline(long deadline, String message) {
+        if (System.nanoTime() > deadline) {
+            throw new IllegalStateException(message + " within " + SMOKE_TIMEOUT);
+        }
+    }
+
+    /**
+     * Resident set size from /proc, -1 where that is not available
+     */
+    static long rssKb(Process process) throws IOException {
+        Path status = Path.of("/proc", String.valueOf(process.pid()), "status");
+        if (!Files.exists(status)) {
+            return -1;
+        }
+        for (String line : Files.readAllLines(status)) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.replaceAll("[^0-9]", ""));
+            }
+        }
+        return -1;
+    }
+
+    private static long median(List<Run> runs, ToLongFunction<Run> value) {
+        long[] values = runs.stream().mapToLong(value).toArray();
+        Arrays.sort(values);
+        return values[values.length / 2];
+    }
+
+    static final class Build {
+        final String name;
+        final Path orderApp;
+        final Path brewApp;
+        final List<String> orderOptions;
+        final List<String> brewOptions;
+
+        Build(String name, Path orderApp, Path brewApp, List<String> orderOptions, List<String> brewOptions) {
+            this.name = name;
+            this.orderApp = orderApp;
+            this.brewApp = brewApp;
+            this.orderOptions = orderOptions;
+            this.brewOptions = brewOptions;
+        }
+    }
+
+    static final class Run {
+        final String build;
+        final int index;
+        long orderReadyMillis;
+        long brewReadyMillis;
+        long orderRssKb;
+        long brewRssKb;
+        long orderRssAfterSmokeKb;
+        long brewRssAfterSmokeKb;
+        long firstOrderMillis;
+
+        Run(String build, int index) {
+            this.build = build;
+            this.index = index;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s run %d: order-app ready in %d ms (%d MB), brew-app ready in %d ms (%d MB), "
+                            + "first order %d ms", build, index, orderReadyMillis, orderRssKb / 1024,
+                    brewReadyMillis, brewRssKb / 1024, firstOrderMillis);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.shop.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.shop.loadtest.StageStats.Stage;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Polls a user task inbox and completes every task it finds, playing the cashier
+ * (Task CashPayment) or barista (Task Brew) role.
+ */
+public class TaskCompleter implements Runnable {
+
+    private final CoffeeShopClient client;
+    private final String baseUrl;
+    private final String user;
+    private final String group;
+    private final String taskName;
+    private final Map<String, Object> output;
+    private final OrderTracker tracker;
+    private final StageStats stats;
+    private final Set<String> seen = ConcurrentHashMap.newKeySet();
+
+    public TaskCompleter(CoffeeShopClient client, String baseUrl, String user, String group, String taskName,
+                         Map<String, Object> output, OrderTracker tracker, StageStats stats) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.user = user;
+        this.group = group;
+        this.taskName = taskName;
+        this.output = output;
+        this.tracker = tracker;
+        this.stats = stats;
+    }
+
+    @Override
+    public void run() {
+        JsonNode tasks;
+        try {
+            tasks = client.listTasks(baseUrl, user, group);
+        } catch (Exception e) {
+            stats.error(completedStage());
+            return;
+        }
+        for (JsonNode task : tasks) {
+            if (!taskName.equals(task.path("taskName").asText())) {
+                continue;
+            }
+            String taskId = task.path("id").asText();
+            String orderId = orderIdOf(task);
+            if (seen.add(taskId) && isBrew()) {
+                tracker.brewQueued(orderId);
+            }
+            try {
+                if (!"Reserved".equals(task.path("status").path("name").asText())) {
+                    client.transition(baseUrl, taskId, user, group, "claim", null);
+                }
+                client.transition(baseUrl, taskId, user, group, "complete", output);
+                seen.remove(taskId);
+                if (isBrew()) {
+                    tracker.brewed(orderId);
+                } else {
+                    tracker.paid(orderId);
+                }
+            } catch (Exception e) {
+                stats.error(completedStage());
+            }
+        }
+    }
+
+    private boolean isBrew() {
+        return "Task Brew".equals(taskName);
+    }
+
+    private Stage completedStage() {
+        return isBrew() ? Stage.BREW : Stage.CASH_PAYMENT;
+    }
+
+    static String orderIdOf(JsonNode task) {
+        // MakeDrink carries the OrderDrink id in drinkOrder.orderId, OrderDrink tasks belong to the order itself
+        JsonNode orderId = task.path("inputs").path("drinkOrder").path("orderId");
+        if (orderId.isTextual()) {
+            return orderId.asText();
+        }
+        return task.path("processInfo").path("processInstanceId").asText();
+    }
+}
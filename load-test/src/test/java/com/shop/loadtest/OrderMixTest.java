@@ -0,0 +1,60 @@
+package com.shop.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderMixTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void followsConfiguredPaymentMix() throws Exception {
+        OrderMix mix = OrderMix.load(null, new ObjectMapper());
+        Random random = new Random(42);
+        int orders = 20_000;
+        int card = 0;
+        for (int i = 0; i < orders; i++) {
+            Map<String, Object> order = (Map<String, Object>) mix.next(random).get("drinkOrder");
+            if ("CARD".equals(order.get("paymentType"))) {
+                card++;
+                assertTrue(order.containsKey("cardPayment"));
+            } else {
+                assertFalse(order.containsKey("cardPayment"));
+            }
+        }
+        double cardRatio = card / (double) orders;
+        assertTrue(Math.abs(cardRatio - 0.7) < 0.02, "card ratio " + cardRatio);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void pricesCardPaymentsByDrinkTypeAndSize() throws Exception {
+        OrderMix mix = OrderMix.load(null, new ObjectMapper());
+        Random random = new Random(7);
+        for (int i = 0; i < 1_000; i++) {
+            Map<String, Object> order = (Map<String, Object>) mix.next(random).get("drinkOrder");
+            if ("LATTE".equals(order.get("drinkType")) && "LARGE".equals(order.get("drinkSize"))
+                    && order.containsKey("cardPayment")) {
+                Map<String, Object> card = (Map<String, Object>) order.get("cardPayment");
+                assertEquals(0, new BigDecimal("5.49").compareTo((BigDecimal) card.get("amount")));
+                return;
+            }
+        }
+        throw new AssertionError("no large latte card order generated");
+    }
+
+    @Test
+    void parsesDurations() {
+        assertEquals(Duration.ofMillis(250), LoadTestConfig.parseDuration("250ms"));
+        assertEquals(Duration.ofSeconds(30), LoadTestConfig.parseDuration("30s"));
+        assertEquals(Duration.ofMinutes(5), LoadTestConfig.parseDuration("5m"));
+    }
+}
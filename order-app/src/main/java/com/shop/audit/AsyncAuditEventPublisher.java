@@ -0,0 +1,214 @@
+package com.shop.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.kie.kogito.event.DataEvent;
+import org.kie.kogito.event.EventPublisher;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Audit sink that takes process events off the transaction's critical path.
+ * Events are serialized and queued on a lock-free ring buffer; a single background
+ * thread flushes them in JDBC batches. When the ring is full events spill to a local
+ * file (if enabled) and are replayed on the next flush, otherwise they are dropped and counted.
+ */
+@ApplicationScoped
+public class AsyncAuditEventPublisher implements EventPublisher {
+
+    private static final Logger LOG = Logger.getLogger(AsyncAuditEventPublisher.class);
+
+    @ConfigProperty(name = "shop.audit.async.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "shop.audit.async.buffer-size", defaultValue = "8192")
+    int bufferSize;
+
+    @ConfigProperty(name = "shop.audit.async.batch-size", defaultValue = "500")
+    int batchSize;
+
+    @ConfigProperty(name = "shop.audit.async.flush-interval-ms", defaultValue = "200")
+    long flushIntervalMs;
+
+    @ConfigProperty(name = "shop.audit.async.spill.enabled", defaultValue = "true")
+    boolean spillEnabled;
+
+    @ConfigProperty(name = "shop.audit.async.spill.path", defaultValue = "data/audit-spill.jsonl")
+    String spillPath;
+
+    @Inject
+    AuditBatchWriter writer;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    MeterRegistry registry;
+
+    private AuditRingBuffer<AuditRecord> ring;
+    private AuditSpillFile spillFile;
+    private ScheduledExecutorService flusher;
+    private List<AuditRecord> retry = List.of();
+
+    private Counter enqueued;
+    private Counter spilled;
+    private Counter dropped;
+    private Counter written;
+    private Timer flushTimer;
+
+    void onStart(@Observes StartupEvent event) {
+        if (!enabled) {
+            LOG.info("Async audit sink disabled");
+            return;
+        }
+        ring = new AuditRingBuffer<>(bufferSize);
+        spillFile = new AuditSpillFile(Path.of(spillPath), objectMapper);
+
+        Gauge.builder("shop.audit.ring.occupancy", ring, AuditRingBuffer::size)
+                .description("Audit events waiting in the ring buffer")
+                .register(registry);
+        Gauge.builder("shop.audit.ring.capacity", ring, AuditRingBuffer::capacity)
+                .register(registry);
+        enqueued = registry.counter("shop.audit.events", "result", "enqueued");
+        spilled = registry.counter("shop.audit.events", "result", "spilled");
+        dropped = registry.counter("shop.audit.events", "result", "dropped");
+        written = registry.counter("shop.audit.events", "result", "written");
+        flushTimer = Timer.builder("shop.audit.flush")
+                .description("Time to write one audit batch")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "audit-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        LOG.infof("Async audit sink started with ring capacity %d, spill %s", ring.capacity(),
+                spillEnabled ? spillPath : "disabled");
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        if (flusher == null) {
+            return;
+        }
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // last drain on the caller thread; anything that cannot be written goes to disk
+        flush();
+        if (spillEnabled) {
+            ring.drain(this::spill, Integer.MAX_VALUE);
+        }
+        spillFile.close();
+    }
+
+    @Override
+    public void publish(DataEvent<?> event) {
+        if (ring == null) {
+            return;
+        }
+        AuditRecord record = toRecord(event);
+        if (record == null) {
+            return;
+        }
+        if (ring.offer(record)) {
+            enqueued.increment();
+        } else if (spillEnabled) {
+            spill(record);
+        } else {
+            dropped.increment();
+        }
+    }
+
+    @Override
+    public void publish(Collection<DataEvent<?>> events) {
+        for (DataEvent<?> event : events) {
+            publish(event);
+        }
+    }
+
+    void flush() {
+        try {
+            if (!retry.isEmpty()) {
+                writeBatch(retry);
+                retry = List.of();
+            }
+            if (spillEnabled && spillFile.hasPending()) {
+                List<AuditRecord> replayed = spillFile.beginReplay();
+                for (int from = 0; from < replayed.size(); from += batchSize) {
+                    writeBatch(replayed.subList(from, Math.min(replayed.size(), from + batchSize)));
+                }
+                spillFile.commitReplay();
+            }
+            List<AuditRecord> batch = new ArrayList<>(batchSize);
+            while (ring.drain(batch::add, batchSize) > 0) {
+                try {
+                    writeBatch(batch);
+                } catch (Exception e) {
+                    retry = List.copyOf(batch);
+                    throw e;
+                }
+                batch.clear();
+            }
+        } catch (Exception e) {
+            // the records stay in retry / spill file and are written on the next run; records of
+            // this attempt that did commit are skipped then, inserts are idempotent on the event id
+            LOG.warnf("Audit flush failed, will retry: %s", e.getMessage());
+        }
+    }
+
+    private void writeBatch(List<AuditRecord> batch) throws Exception {
+        flushTimer.recordCallable(() -> {
+            writer.write(batch);
+            return null;
+        });
+        written.increment(batch.size());
+    }
+
+    private void spill(AuditRecord record) {
+        try {
+            spillFile.append(record);
+            spilled.increment();
+        } catch (IOException e) {
+            dropped.increment();
+            LOG.debugf("Dropping audit event %s, spill failed: %s", record.getEventId(), e.getMessage());
+        }
+    }
+
+    private AuditRecord toRecord(DataEvent<?> event) {
+        try {
+            return new AuditRecord(
+                    event.getId(),
+                    event.getType(),
+                    event.getKogitoProcessId(),
+                    event.getKogitoProcessInstanceId(),
+                    event.getTime(),
+                    objectMapper.writeValueAsString(event.getData()));
+        } catch (Exception e) {
+            dropped.increment();
+            LOG.debugf("Unable to serialize audit event %s: %s", event.getId(), e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.shop.audit;
+
+import io.agroal.api.AgroalDataSource;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Writes queued audit records with a single JDBC batch per flush.
+ * The table comes from the order-app kie-flyway module. Inserts are idempotent on the event id:
+ * a batch retried after a failed flush or a spill file replayed again after a crash may contain
+ * records that were already committed.
+ */
+@ApplicationScoped
+public class AuditBatchWriter {
+
+    private static final String INSERT =
+            "INSERT INTO shop_audit_event (event_id, event_type, process_id, process_instance_id, event_time, payload) " +
+            "VALUES (?, ?, ?, ?, ?, ?) ON CONFLICT (event_id) DO NOTHING";
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    public void write(List<AuditRecord> records) throws SQLException {
+        if (records.isEmpty()) {
+            return;
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(INSERT)) {
+                for (AuditRecord record : records) {
+                    statement.setString(1, record.getEventId());
+                    statement.setString(2, record.getEventType());
+                    statement.setString(3, record.getProcessId());
+                    statement.setString(4, record.getProcessInstanceId());
+                    if (record.getEventTime() != null) {
+                        statement.setTimestamp(5, Timestamp.from(record.getEventTime().toInstant()));
+                    } else {
+                        statement.setNull(5, Types.TIMESTAMP_WITH_TIMEZONE);
+                    }
+                    statement.setString(6, record.getPayload());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.shop.audit;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Flattened audit event as it is queued and written to the audit table
+ */
+public class AuditRecord {
+    private String eventId;
+    private String eventType;
+    private String processId;
+    private String processInstanceId;
+    private OffsetDateTime eventTime;
+    private String payload;
+
+    public AuditRecord() {}
+
+    public AuditRecord(String eventId, String eventType, String processId, String processInstanceId,
+                       OffsetDateTime eventTime, String payload) {
+        this.eventId = eventId;
+        this.eventType = eventType;
+        this.processId = processId;
+        this.processInstanceId = processInstanceId;
+        this.eventTime = eventTime;
+        this.payload = payload;
+    }
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(String eventType) {
+        this.eventType = eventType;
+    }
+
+    public String getProcessId() {
+        return processId;
+    }
+
+    public void setProcessId(String processId) {
+        this.processId = processId;
+    }
+
+    public String getProcessInstanceId() {
+        return processInstanceId;
+    }
+
+    public void setProcessInstanceId(String processInstanceId) {
+        this.processInstanceId = processInstanceId;
+    }
+
+    public OffsetDateTime getEventTime() {
+        return eventTime;
+    }
+
+    public void setEventTime(OffsetDateTime eventTime) {
+        this.eventTime = eventTime;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    @Override
+    public String toString() {
+        return "AuditRecord{" +
+                "eventId='" + eventId + '\'' +
+                ", eventType='" + eventType + '\'' +
+                ", processId='" + processId + '\'' +
+                ", processInstanceId='" + processInstanceId + '\'' +
+                ", eventTime=" + eventTime +
+                '}';
+    }
+}
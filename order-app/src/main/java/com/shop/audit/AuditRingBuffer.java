@@ -0,0 +1,87 @@
+package com.shop.audit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded multi-producer / single-consumer ring buffer.
+ * Producers claim slots with a CAS on the tail sequence, so enqueue never blocks;
+ * a full ring is reported back to the caller instead of waiting.
+ */
+public class AuditRingBuffer<T> {
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<T> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    public AuditRingBuffer(int requestedCapacity) {
+        if (requestedCapacity < 2) {
+            throw new IllegalArgumentException("Ring buffer capacity must be at least 2");
+        }
+        this.capacity = Integer.highestOneBit(requestedCapacity - 1) << 1;
+        this.mask = capacity - 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Try to enqueue an element.
+     * @return false when the ring is full
+     */
+    public boolean offer(T element) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) (position & mask);
+            long sequence = sequences.get(index);
+            long diff = sequence - position;
+            if (diff == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.set(index, element);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+            } else if (diff < 0) {
+                return false;
+            }
+            // another producer won the slot, retry with the new tail
+        }
+    }
+
+    /**
+     * Drain up to {@code max} elements. Must only be called from the single consumer thread.
+     * @return number of drained elements
+     */
+    public int drain(Consumer<T> consumer, int max) {
+        int drained = 0;
+        long position = head.get();
+        while (drained < max) {
+            int index = (int) (position & mask);
+            if (sequences.get(index) != position + 1) {
+                break;
+            }
+            T element = slots.getAndSet(index, null);
+            sequences.set(index, position + capacity);
+            position++;
+            drained++;
+            consumer.accept(element);
+        }
+        head.set(position);
+        return drained;
+    }
+
+    public int size() {
+        return (int) Math.max(0, Math.min(capacity, tail.get() - head.get()));
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,102 @@
+package com.shop.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.jboss.logging.Logger;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only JSON lines file used when the ring buffer is full.
+ * Writers append under a lock; the flusher rotates the file before replaying it
+ * so new spills never race with the replay.
+ */
+public class AuditSpillFile {
+
+    private static final Logger LOG = Logger.getLogger(AuditSpillFile.class);
+
+    private final Path file;
+    private final Path replayFile;
+    private final ObjectMapper objectMapper;
+    private BufferedWriter writer;
+
+    public AuditSpillFile(Path file, ObjectMapper objectMapper) {
+        this.file = file;
+        this.replayFile = file.resolveSibling(file.getFileName() + ".replay");
+        this.objectMapper = objectMapper;
+    }
+
+    public synchronized void append(AuditRecord record) throws IOException {
+        if (writer == null) {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+        writer.write(objectMapper.writeValueAsString(record));
+        writer.newLine();
+        writer.flush();
+    }
+
+    public boolean hasPending() {
+        return Files.exists(replayFile) || Files.exists(file);
+    }
+
+    /**
+     * Read back spilled records. The caller must call {@link #commitReplay()} once
+     * the records are durably stored, otherwise they are returned again next time.
+     */
+    public List<AuditRecord> beginReplay() throws IOException {
+        if (!Files.exists(replayFile)) {
+            synchronized (this) {
+                if (!Files.exists(file)) {
+                    return List.of();
+                }
+                closeWriter();
+                Files.move(file, replayFile, StandardCopyOption.ATOMIC_MOVE);
+            }
+        }
+        List<AuditRecord> records = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(replayFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    records.add(objectMapper.readValue(line, AuditRecord.class));
+                } catch (IOException e) {
+                    // a torn last line after a crash must not block the rest of the file
+                    LOG.warnf("Skipping unreadable spilled audit record: %s", e.getMessage());
+                }
+            }
+        }
+        return records;
+    }
+
+    public void commitReplay() throws IOException {
+        Files.deleteIfExists(replayFile);
+    }
+
+    public synchronized void close() {
+        closeWriter();
+    }
+
+    private void closeWriter() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                LOG.warnf("Failed to close audit spill file %s: %s", file, e.getMessage());
+            }
+            writer = null;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.shop.catalog;
+
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.PUT;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+
+import java.util.List;
+
+@Path("/catalog")
+@Produces(MediaType.APPLICATION_JSON)
+public class CatalogResource {
+
+    @Inject
+    CatalogService catalogService;
+
+    @GET
+    public CatalogSnapshot catalog() {
+        return new CatalogSnapshot(catalogService.current());
+    }
+
+    /**
+     * Change one or more prices; the new version is live on every replica once the push arrives.
+     * Card payments are checked against these prices, so only admins and managers may change them.
+     */
+    @PUT
+    @RolesAllowed({"admin", "manager"})
+    @Path("/prices")
+    @Consumes(MediaType.APPLICATION_JSON)
+    public CatalogSnapshot updatePrices(List<PriceUpdate> updates) {
+        try {
+            return new CatalogSnapshot(catalogService.update(updates));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.shop.catalog;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shop.model.DrinkOrder.DrinkSize;
+import com.shop.model.DrinkOrder.DrinkType;
+
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.reactive.messaging.Channel;
+import org.eclipse.microprofile.reactive.messaging.Emitter;
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.jboss.logging.Logger;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Serves menu prices from an in-memory {@link PriceTable}. Admin updates are written to
+ * Postgres, swapped in locally and pushed to the other replicas on the shop-catalog topic.
+ * A table only ever replaces an older version, so late or replayed pushes are harmless;
+ * the periodic reload covers pushes a replica missed.
+ */
+@ApplicationScoped
+public class CatalogService {
+
+    private static final Logger LOG = Logger.getLogger(CatalogService.class);
+
+    @ConfigProperty(name = "shop.catalog.refresh-interval", defaultValue = "5m")
+    Duration refreshInterval;
+
+    @Inject
+    CatalogStore store;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    @Channel("catalog-updates")
+    Emitter<String> updates;
+
+    private final AtomicReference<PriceTable> snapshot = new AtomicReference<>(PriceTable.EMPTY);
+    private ScheduledExecutorService refresher;
+
+    void onStart(@Observes @Priority(2) StartupEvent event) {
+        refresh();
+        refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "catalog-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refresher.scheduleWithFixedDelay(this::refresh, refreshInterval.toMillis(), refreshInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    public PriceTable current() {
+        return snapshot.get();
+    }
+
+    /**
+     * @return the menu price, or null when the combination is not on the menu
+     */
+    public BigDecimal price(DrinkType type, DrinkSize size) {
+        return snapshot.get().price(type, size);
+    }
+
+    public PriceTable update(List<PriceUpdate> priceUpdates) {
+        if (priceUpdates == null || priceUpdates.isEmpty()) {
+            throw new IllegalArgumentException("At least one price is required");
+        }
+        for (PriceUpdate update : priceUpdates) {
+            if (update.getDrinkType() == null || update.getDrinkSize() == null) {
+                throw new IllegalArgumentException("drinkType and drinkSize are required");
+            }
+            if (update.getPrice() == null || update.getPrice().compareTo(BigDecimal.ZERO) <= 0) {
+                throw new IllegalArgumentException("price must be positive");
+            }
+        }
+        PriceTable table;
+        try {
+            table = store.update(priceUpdates);
+        } catch (Exception e) {
+            throw new IllegalStateException("Unable to update catalog", e);
+        }
+        install(table);
+        try {
+            updates.send(objectMapper.writeValueAsString(new CatalogSnapshot(table)));
+        } catch (JsonProcessingException e) {
+            LOG.warnf("Unable to publish catalog version %d: %s", table.getVersion(), e.getMessage());
+        }
+        return table;
+    }
+
+    @Incoming("catalog-changes")
+    public void onCatalogChange(String message) {
+        try {
+            install(objectMapper.readValue(message, CatalogSnapshot.class).toTable());
+        } catch (JsonProcessingException e) {
+            LOG.warnf("Ignoring malformed catalog update: %s", e.getMessage());
+        }
+    }
+
+    private void install(PriceTable table) {
+        PriceTable previous = snapshot.getAndAccumulate(table,
+                (current, next) -> next.getVersion() > current.getVersion() ? next : current);
+        if (table.getVersion() > previous.getVersion()) {
+            LOG.infof("Catalog version %d installed", table.getVersion());
+        }
+    }
+
+    private void refresh() {
+        try {
+            install(store.load());
+        } catch (Exception e) {
+            // keep serving the last snapshot
+            LOG.warnf("Unable to load catalog: %s", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.shop.catalog;
+
+import com.shop.model.DrinkOrder.DrinkSize;
+import com.shop.model.DrinkOrder.DrinkType;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Wire form of a {@link PriceTable}, returned by GET /catalog and pushed to the other replicas.
+ */
+public class CatalogSnapshot {
+    private long version;
+    private Map<DrinkType, Map<DrinkSize, BigDecimal>> prices;
+
+    public CatalogSnapshot() {}
+
+    public CatalogSnapshot(PriceTable table) {
+        this.version = table.getVersion();
+        this.prices = table.toMap();
+    }
+
+    public PriceTable toTable() {
+        return PriceTable.of(version, prices);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public Map<DrinkType, Map<DrinkSize, BigDecimal>> getPrices() {
+        return prices;
+    }
+
+    public void setPrices(Map<DrinkType, Map<DrinkSize, BigDecimal>> prices) {
+        this.prices = prices;
+    }
+
+    @Override
+    public String toString() {
+        return "CatalogSnapshot{" +
+                "version=" + version +
+                ", prices=" + prices +
+                '}';
+    }
+}
@@ -0,0 +1,96 @@
+package com.shop.catalog;
+
+import com.shop.model.DrinkOrder.DrinkSize;
+import com.shop.model.DrinkOrder.DrinkType;
+
+import io.agroal.api.AgroalDataSource;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Postgres copy of the menu prices. A single version row is bumped by every update, so all
+ * replicas can tell which snapshot is newer. The tables and the initial menu come from the
+ * order-app kie-flyway migrations.
+ */
+@ApplicationScoped
+public class CatalogStore {
+
+    private static final String UPSERT_PRICE =
+            "INSERT INTO shop_catalog_price (drink_type, drink_size, price) VALUES (?, ?, ?) " +
+            "ON CONFLICT (drink_type, drink_size) DO UPDATE SET price = EXCLUDED.price";
+
+    // one statement, so the version and the prices come from the same snapshot
+    private static final String SELECT =
+            "SELECT v.version, p.drink_type, p.drink_size, p.price " +
+            "FROM shop_catalog_version v LEFT JOIN shop_catalog_price p ON TRUE WHERE v.id = 1";
+
+    private static final String BUMP_VERSION =
+            "UPDATE shop_catalog_version SET version = version + 1 WHERE id = 1";
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    public PriceTable load() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return read(connection);
+        }
+    }
+
+    /**
+     * Apply the updates and bump the version in one transaction. The version row lock
+     * serialises concurrent admins, so the returned table is exactly what this update produced.
+     */
+    public PriceTable update(Collection<PriceUpdate> updates) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (Statement bump = connection.createStatement();
+                 PreparedStatement upsert = connection.prepareStatement(UPSERT_PRICE)) {
+                bump.executeUpdate(BUMP_VERSION);
+                for (PriceUpdate update : updates) {
+                    upsert.setString(1, update.getDrinkType().name());
+                    upsert.setString(2, update.getDrinkSize().name());
+                    upsert.setBigDecimal(3, update.getPrice());
+                    upsert.addBatch();
+                }
+                upsert.executeBatch();
+                PriceTable table = read(connection);
+                connection.commit();
+                return table;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    private static PriceTable read(Connection connection) throws SQLException {
+        long version = 0;
+        Map<DrinkType, Map<DrinkSize, BigDecimal>> prices = new EnumMap<>(DrinkType.class);
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(SELECT)) {
+            while (rs.next()) {
+                version = rs.getLong(1);
+                String type = rs.getString(2);
+                if (type == null) {
+                    continue;
+                }
+                prices.computeIfAbsent(DrinkType.valueOf(type), t -> new EnumMap<>(DrinkSize.class))
+                        .put(DrinkSize.valueOf(rs.getString(3)), rs.getBigDecimal(4));
+            }
+        }
+        return PriceTable.of(version, prices);
+    }
+}
@@ -0,0 +1,74 @@
+package com.shop.catalog;
+
+import com.shop.model.DrinkOrder.DrinkSize;
+import com.shop.model.DrinkOrder.DrinkType;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Immutable, versioned price snapshot indexed by enum ordinals, so a lookup is two array
+ * reads and allocates nothing. Updates build a whole new table and swap it in; readers keep
+ * whatever table they already hold.
+ */
+public final class PriceTable {
+
+    private static final DrinkType[] TYPES = DrinkType.values();
+    private static final DrinkSize[] SIZES = DrinkSize.values();
+
+    public static final PriceTable EMPTY = new PriceTable(0, new BigDecimal[TYPES.length][SIZES.length]);
+
+    private final long version;
+    private final BigDecimal[][] prices;
+
+    private PriceTable(long version, BigDecimal[][] prices) {
+        this.version = version;
+        this.prices = prices;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return the price, or null when the combination is not on the menu
+     */
+    public BigDecimal price(DrinkType type, DrinkSize size) {
+        return prices[type.ordinal()][size.ordinal()];
+    }
+
+    public Map<DrinkType, Map<DrinkSize, BigDecimal>> toMap() {
+        Map<DrinkType, Map<DrinkSize, BigDecimal>> map = new EnumMap<>(DrinkType.class);
+        for (DrinkType type : TYPES) {
+            Map<DrinkSize, BigDecimal> sizes = new EnumMap<>(DrinkSize.class);
+            for (DrinkSize size : SIZES) {
+                BigDecimal price = price(type, size);
+                if (price != null) {
+                    sizes.put(size, price);
+                }
+            }
+            if (!sizes.isEmpty()) {
+                map.put(type, sizes);
+            }
+        }
+        return map;
+    }
+
+    public static PriceTable of(long version, Map<DrinkType, Map<DrinkSize, BigDecimal>> map) {
+        BigDecimal[][] prices = new BigDecimal[TYPES.length][SIZES.length];
+        if (map != null) {
+            map.forEach((type, sizes) -> sizes.forEach(
+                    (size, price) -> prices[type.ordinal()][size.ordinal()] = price));
+        }
+        return new PriceTable(version, prices);
+    }
+
+    @Override
+    public String toString() {
+        return "PriceTable{" +
+                "version=" + version +
+                ", prices=" + toMap() +
+                '}';
+    }
+}
@@ -0,0 +1,53 @@
+package com.shop.catalog;
+
+import com.shop.model.DrinkOrder.DrinkSize;
+import com.shop.model.DrinkOrder.DrinkType;
+
+import java.math.BigDecimal;
+
+public class PriceUpdate {
+    private DrinkType drinkType;
+    private DrinkSize drinkSize;
+    private BigDecimal price;
+
+    public PriceUpdate() {}
+
+    public PriceUpdate(DrinkType drinkType, DrinkSize drinkSize, BigDecimal price) {
+        this.drinkType = drinkType;
+        this.drinkSize = drinkSize;
+        this.price = price;
+    }
+
+    public DrinkType getDrinkType() {
+        return drinkType;
+    }
+
+    public void setDrinkType(DrinkType drinkType) {
+        this.drinkType = drinkType;
+    }
+
+    public DrinkSize getDrinkSize() {
+        return drinkSize;
+    }
+
+    public void setDrinkSize(DrinkSize drinkSize) {
+        this.drinkSize = drinkSize;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+
+    @Override
+    public String toString() {
+        return "PriceUpdate{" +
+                "drinkType=" + drinkType +
+                ", drinkSize=" + drinkSize +
+                ", price=" + price +
+                '}';
+    }
+}
@@ -0,0 +1,141 @@
+package com.shop.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+import org.kie.api.event.process.ProcessCompletedEvent;
+import org.kie.api.event.process.ProcessNodeLeftEvent;
+import org.kie.api.runtime.process.NodeInstance;
+import org.kie.api.runtime.process.ProcessInstance;
+import org.kie.api.runtime.process.WorkflowProcessInstance;
+import org.kie.kogito.internal.process.event.DefaultKogitoProcessEventListener;
+import org.kie.kogito.internal.process.runtime.KogitoNodeInstance;
+import org.kie.kogito.internal.process.runtime.KogitoProcessInstance;
+
+import com.shop.model.DrinkOrder;
+import com.shop.model.DrinkOrder.OrderStatus;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records per-node and per-process latency for OrderDrink.
+ * Durations come from the persisted trigger/start dates of the instances, so wait states
+ * that complete in a later transaction (or on another replica) are measured correctly.
+ * Timers publish HdrHistogram-backed percentiles and Prometheus histogram buckets.
+ */
+@ApplicationScoped
+public class ProcessLatencyListener extends DefaultKogitoProcessEventListener {
+
+    private static final Logger LOG = Logger.getLogger(ProcessLatencyListener.class);
+
+    static final String BREWING_NODE = "Brewing";
+
+    @Inject
+    MeterRegistry registry;
+
+    private final ConcurrentHashMap<String, Timer> timers = new ConcurrentHashMap<>();
+
+    @Override
+    public void afterNodeLeft(ProcessNodeLeftEvent event) {
+        NodeInstance nodeInstance = event.getNodeInstance();
+        String nodeName = nodeInstance.getNodeName();
+        if (nodeName == null || nodeName.isBlank()) {
+            // unnamed gateways and end events only add label cardinality
+            return;
+        }
+        Date triggered = ((KogitoNodeInstance) nodeInstance).getTriggerTime();
+        if (triggered == null) {
+            return;
+        }
+        ProcessInstance processInstance = event.getProcessInstance();
+        String processId = processInstance.getProcessId();
+        int state = processInstance.getState();
+        OrderStatus status = orderStatus(processInstance);
+        long nanos = elapsedNanos(triggered);
+        timer("shop.process.node.duration", processId, nodeName, nodeOutcome(state, status)).record(Duration.ofNanos(nanos));
+
+        if (BREWING_NODE.equals(nodeName) && reachedReady(state, status)) {
+            // drink-ready received for a drink brew-app made, not for one it rejected
+            Date started = ((KogitoProcessInstance) processInstance).getStartDate();
+            if (started != null) {
+                timer("shop.order.to.ready", processId, "end-to-end", "ready").record(Duration.ofNanos(elapsedNanos(started)));
+                timer("shop.order.to.ready", processId, "brew", "ready").record(Duration.ofNanos(nanos));
+                LOG.debugf("Order %s ready after %d ms", processInstance.getId(), elapsedNanos(started) / 1_000_000);
+            }
+        }
+    }
+
+    @Override
+    public void afterProcessCompleted(ProcessCompletedEvent event) {
+        ProcessInstance processInstance = event.getProcessInstance();
+        Date started = ((KogitoProcessInstance) processInstance).getStartDate();
+        if (started == null) {
+            return;
+        }
+        timer("shop.process.duration", processInstance.getProcessId(), "process", outcome(processInstance))
+                .record(Duration.ofNanos(elapsedNanos(started)));
+    }
+
+    private String outcome(ProcessInstance processInstance) {
+        return processOutcome(processInstance.getState(), orderStatus(processInstance));
+    }
+
+    /**
+     * Every cancellation path sets the order CANCELLED before its end event; an order that
+     * completed otherwise was brewed
+     */
+    static String processOutcome(int processState, OrderStatus status) {
+        if (status == OrderStatus.CANCELLED) {
+            return "CANCELLED";
+        }
+        return processState == ProcessInstance.STATE_COMPLETED ? "READY" : "ABORTED";
+    }
+
+    /**
+     * A node left while the instance is still running completed; one left because the instance
+     * was aborted or terminated elsewhere was cut short. Nodes that ran on a cancelled order are
+     * told apart, so declined payments and rejected drinks do not blend into the normal path.
+     */
+    static String nodeOutcome(int processState, OrderStatus status) {
+        if (processState != ProcessInstance.STATE_ACTIVE) {
+            return "ABORTED";
+        }
+        return status == OrderStatus.CANCELLED ? "CANCELLED" : "COMPLETED";
+    }
+
+    /**
+     * brew-app answers drink-ready for rejected drinks too, with the order CANCELLED
+     */
+    static boolean reachedReady(int processState, OrderStatus status) {
+        return processState == ProcessInstance.STATE_ACTIVE && status != null && status != OrderStatus.CANCELLED;
+    }
+
+    private static OrderStatus orderStatus(ProcessInstance processInstance) {
+        if (processInstance instanceof WorkflowProcessInstance) {
+            Object variable = ((WorkflowProcessInstance) processInstance).getVariable("drinkOrder");
+            if (variable instanceof DrinkOrder) {
+                return ((DrinkOrder) variable).getOrderStatus();
+            }
+        }
+        return null;
+    }
+
+    private Timer timer(String name, String processId, String node, String outcome) {
+        return timers.computeIfAbsent(name + '|' + processId + '|' + node + '|' + outcome,
+                key -> Timer.builder(name)
+                        .tag("process", processId)
+                        .tag("node", node)
+                        .tag("outcome", outcome)
+                        .publishPercentiles(0.5, 0.95, 0.99)
+                        .publishPercentileHistogram()
+                        .register(registry));
+    }
+
+    private static long elapsedNanos(Date since) {
+        return Math.max(0, (System.currentTimeMillis() - since.getTime()) * 1_000_000);
+    }
+}
@@ -0,0 +1,44 @@
+package com.shop.nativeimage;
+
+import com.shop.audit.AuditRecord;
+import com.shop.catalog.CatalogSnapshot;
+import com.shop.catalog.PriceUpdate;
+import com.shop.filter.ErrorResponse;
+import com.shop.model.CardPayment;
+import com.shop.model.DrinkOrder;
+import com.shop.model.PaymentStatus;
+import com.shop.pos.CashReceipt;
+import com.shop.pos.ReceiptResult;
+import com.shop.query.InstancePage;
+import com.shop.query.OrderHistoryEntry;
+import com.shop.query.OrderStatusView;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+/**
+ * Types that Jackson reads or writes reflectively outside the generated Kogito endpoints:
+ * process variables, Kafka payloads, the audit spill file and hand-built REST responses.
+ * The JVM build does not need this; the native image only keeps what is registered here.
+ */
+@RegisterForReflection(targets = {
+        DrinkOrder.class,
+        DrinkOrder.DrinkType.class,
+        DrinkOrder.DrinkSize.class,
+        DrinkOrder.OrderStatus.class,
+        DrinkOrder.PaymentType.class,
+        CardPayment.class,
+        CardPayment.CardType.class,
+        PaymentStatus.class,
+        PaymentStatus.Status.class,
+        CatalogSnapshot.class,
+        PriceUpdate.class,
+        CashReceipt.class,
+        ReceiptResult.class,
+        AuditRecord.class,
+        InstancePage.class,
+        OrderStatusView.class,
+        OrderHistoryEntry.class,
+        ErrorResponse.class
+})
+public class ReflectionRegistrations {
+}
@@ -1,16 +1,89 @@
 package com.shop.order;
 
+import com.shop.query.InstancePage;
+import com.shop.query.InstanceQueryService;
+import com.shop.query.OrderHistoryEntry;
+import com.shop.query.OrderStatusRepository;
+import com.shop.query.OrderStatusView;
+
+import io.smallrye.mutiny.Uni;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.DefaultValue;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.NotFoundException;
 import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.core.MediaType;
 
+import java.util.List;
+
 @Path("/orders")
 public class OrderResource {
 
+    @Inject
+    InstanceQueryService instanceQueryService;
+
+    @Inject
+    OrderStatusRepository orderStatus;
+
     @GET
     @Produces(MediaType.TEXT_PLAIN)
     public String hello() {
         return "Hello from Order Service!";
     }
+
+    /**
+     * Dashboard view of process instances, paged with keyset cursors.
+     * Only the variable paths passed in {@code var} (e.g. drinkOrder.orderStatus) are returned.
+     */
+    @GET
+    @Path("/instances")
+    @Produces(MediaType.APPLICATION_JSON)
+    public InstancePage instances(@QueryParam("processId") @DefaultValue("OrderDrink") String processId,
+                                  @QueryParam("state") String state,
+                                  @QueryParam("cursor") String cursor,
+                                  @QueryParam("limit") @DefaultValue("50") int limit,
+                                  @QueryParam("var") List<String> variables) {
+        try {
+            return instanceQueryService.find(processId, state, cursor, limit, variables);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+    }
+
+    /**
+     * Statuses of several orders, e.g. for a pickup screen: /orders/status?id=a&id=b
+     */
+    @GET
+    @Path("/status")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Uni<List<OrderStatusView>> statuses(@QueryParam("id") List<String> orderIds) {
+        if (orderIds == null || orderIds.isEmpty()) {
+            throw new BadRequestException("At least one id is required");
+        }
+        try {
+            return orderStatus.statuses(orderIds);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+    }
+
+    @GET
+    @Path("/{orderId}/status")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Uni<OrderStatusView> status(@PathParam("orderId") String orderId) {
+        return orderStatus.status(orderId)
+                .onItem().ifNull().failWith(() -> new NotFoundException("Order " + orderId + " not found"));
+    }
+
+    @GET
+    @Path("/{orderId}/history")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Uni<List<OrderHistoryEntry>> history(@PathParam("orderId") String orderId,
+                                                @QueryParam("limit") @DefaultValue("100") int limit) {
+        return orderStatus.history(orderId, limit);
+    }
 }
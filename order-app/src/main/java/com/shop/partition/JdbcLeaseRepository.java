@@ -0,0 +1,106 @@
+package com.shop.partition;
+
+import io.agroal.api.AgroalDataSource;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Postgres lease table. Acquisition is a single conditional upsert, so two replicas racing
+ * for the same partition cannot both win. Expiry times are set and compared in SQL against the
+ * database clock. The tables come from the order-app kie-flyway migrations.
+ */
+@ApplicationScoped
+public class JdbcLeaseRepository implements LeaseRepository {
+
+    // epoch millis of the database clock, clock_timestamp() keeps moving inside a transaction unlike now()
+    private static final String NOW = "(EXTRACT(EPOCH FROM clock_timestamp()) * 1000)::BIGINT";
+
+    private static final String HEARTBEAT =
+            "INSERT INTO shop_lease_member (member_id, expires_at) VALUES (?, " + NOW + " + ?) " +
+            "ON CONFLICT (member_id) DO UPDATE SET expires_at = EXCLUDED.expires_at";
+
+    private static final String ACQUIRE =
+            "INSERT INTO shop_partition_lease (partition_id, owner, expires_at) VALUES (?, ?, " + NOW + " + ?) " +
+            "ON CONFLICT (partition_id) DO UPDATE SET owner = EXCLUDED.owner, expires_at = EXCLUDED.expires_at " +
+            "WHERE shop_partition_lease.owner = EXCLUDED.owner OR shop_partition_lease.expires_at < " + NOW;
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    @Override
+    public void heartbeat(String member, long ttlMillis) {
+        update(HEARTBEAT, member, ttlMillis);
+    }
+
+    @Override
+    public void leave(String member) {
+        update("DELETE FROM shop_lease_member WHERE member_id = ?", member);
+    }
+
+    @Override
+    public List<String> liveMembers() {
+        List<String> members = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT member_id FROM shop_lease_member WHERE expires_at >= " + NOW);
+             ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                members.add(rs.getString(1));
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Unable to read lease members", e);
+        }
+        return members;
+    }
+
+    @Override
+    public List<Lease> leases() {
+        List<Lease> leases = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(
+                     "SELECT partition_id, owner, expires_at FROM shop_partition_lease WHERE expires_at >= " + NOW)) {
+            while (rs.next()) {
+                leases.add(new Lease(rs.getInt(1), rs.getString(2), rs.getLong(3)));
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Unable to read partition leases", e);
+        }
+        return leases;
+    }
+
+    @Override
+    public boolean tryAcquire(int partition, String owner, long ttlMillis) {
+        return update(ACQUIRE, partition, owner, ttlMillis) == 1;
+    }
+
+    @Override
+    public void renew(String owner, long ttlMillis) {
+        update("UPDATE shop_partition_lease SET expires_at = " + NOW + " + ? WHERE owner = ?", ttlMillis, owner);
+    }
+
+    @Override
+    public void release(int partition, String owner) {
+        update("DELETE FROM shop_partition_lease WHERE partition_id = ? AND owner = ?", partition, owner);
+    }
+
+    private int update(String sql, Object... parameters) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+            return statement.executeUpdate();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Lease update failed", e);
+        }
+    }
+}
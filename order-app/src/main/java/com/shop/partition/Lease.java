@@ -0,0 +1,37 @@
+package com.shop.partition;
+
+/**
+ * Ownership of one partition until {@code expiresAt} (epoch millis of the lease store's clock)
+ */
+public class Lease {
+    private final int partition;
+    private final String owner;
+    private final long expiresAt;
+
+    public Lease(int partition, String owner, long expiresAt) {
+        this.partition = partition;
+        this.owner = owner;
+        this.expiresAt = expiresAt;
+    }
+
+    public int getPartition() {
+        return partition;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    @Override
+    public String toString() {
+        return "Lease{" +
+                "partition=" + partition +
+                ", owner='" + owner + '\'' +
+                ", expiresAt=" + expiresAt +
+                '}';
+    }
+}
@@ -0,0 +1,42 @@
+package com.shop.partition;
+
+import java.util.List;
+
+/**
+ * Shared store of replica memberships and partition leases.
+ * Every operation must be atomic on its own; the coordinator never holds locks across calls.
+ * Expiry is decided by the store's own clock, never by the clocks of the replicas, so a replica
+ * whose clock runs ahead cannot take leases that are still valid.
+ */
+public interface LeaseRepository {
+
+    /**
+     * Register or refresh a replica as a live member for {@code ttlMillis}
+     */
+    void heartbeat(String member, long ttlMillis);
+
+    void leave(String member);
+
+    /**
+     * Members whose heartbeat has not expired
+     */
+    List<String> liveMembers();
+
+    /**
+     * Leases that have not expired
+     */
+    List<Lease> leases();
+
+    /**
+     * Take a partition for {@code ttlMillis} if it is free, expired or already owned by {@code owner}.
+     * @return true if {@code owner} holds the lease afterwards
+     */
+    boolean tryAcquire(int partition, String owner, long ttlMillis);
+
+    /**
+     * Extend every lease still held by {@code owner} to {@code ttlMillis} from now
+     */
+    void renew(String owner, long ttlMillis);
+
+    void release(int partition, String owner);
+}
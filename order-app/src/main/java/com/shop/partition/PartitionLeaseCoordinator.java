@@ -0,0 +1,134 @@
+package com.shop.partition;
+
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+/**
+ * Splits a fixed number of partitions across the live replicas through leases.
+ * Each {@link #rebalance()} round refreshes membership, renews the replica's leases,
+ * gives away partitions above its fair share and takes free or expired ones below it.
+ * Fair shares are computed from the sorted member list so every replica agrees on them
+ * without talking to the others; a replica that stops renewing loses its partitions once
+ * the leases expire. Lease expiry is judged by the repository's clock; {@code clock} only
+ * measures how long this replica may trust its last renewal.
+ */
+public class PartitionLeaseCoordinator {
+
+    private static final Logger LOG = Logger.getLogger(PartitionLeaseCoordinator.class);
+
+    private final LeaseRepository repository;
+    private final String member;
+    private final int partitions;
+    private final long leaseMillis;
+    private final LongSupplier clock;
+
+    private volatile BitSet owned = new BitSet();
+    private volatile long validUntil;
+
+    public PartitionLeaseCoordinator(LeaseRepository repository, String member, int partitions, long leaseMillis,
+                                     LongSupplier clock) {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("At least one partition is required");
+        }
+        this.repository = repository;
+        this.member = member;
+        this.partitions = partitions;
+        this.leaseMillis = leaseMillis;
+        this.clock = clock;
+    }
+
+    public void rebalance() {
+        // local validity starts before the database stamps the renewal, so it ends before the lease does
+        long started = clock.getAsLong();
+        repository.heartbeat(member, leaseMillis);
+        repository.renew(member, leaseMillis);
+
+        List<String> members = new ArrayList<>(repository.liveMembers());
+        if (!members.contains(member)) {
+            members.add(member);
+        }
+        Collections.sort(members);
+        int target = fairShare(members.indexOf(member), members.size());
+
+        BitSet mine = new BitSet(partitions);
+        Set<Integer> taken = new HashSet<>();
+        for (Lease lease : repository.leases()) {
+            if (lease.getPartition() >= partitions) {
+                continue;
+            }
+            if (member.equals(lease.getOwner())) {
+                mine.set(lease.getPartition());
+            } else {
+                taken.add(lease.getPartition());
+            }
+        }
+
+        // shed from the top so the partitions that stay keep their owner
+        for (int p = mine.length() - 1; p >= 0 && mine.cardinality() > target; p = mine.previousSetBit(p - 1)) {
+            repository.release(p, member);
+            mine.clear(p);
+        }
+        // start looking at a member specific offset to avoid every joiner racing for partition 0
+        int offset = Math.floorMod(member.hashCode(), partitions);
+        for (int i = 0; i < partitions && mine.cardinality() < target; i++) {
+            int p = (offset + i) % partitions;
+            if (!mine.get(p) && !taken.contains(p) && repository.tryAcquire(p, member, leaseMillis)) {
+                mine.set(p);
+            }
+        }
+
+        if (!mine.equals(owned)) {
+            LOG.infof("Replica %s owns %d of %d partitions (%d live members)", member, mine.cardinality(),
+                    partitions, members.size());
+        }
+        owned = mine;
+        validUntil = started + leaseMillis;
+    }
+
+    /**
+     * Give up every partition, e.g. on shutdown, so the other replicas take over without waiting for expiry
+     */
+    public void leave() {
+        BitSet mine = owned;
+        owned = new BitSet();
+        for (int p = mine.nextSetBit(0); p >= 0; p = mine.nextSetBit(p + 1)) {
+            repository.release(p, member);
+        }
+        repository.leave(member);
+    }
+
+    /**
+     * Ownership is only trusted while the last renewal is valid, so a replica cut off from
+     * the database stops acting on partitions that others may already have taken.
+     */
+    public boolean owns(String key) {
+        return isValid() && owned.get(partitionOf(key));
+    }
+
+    public int partitionOf(String key) {
+        return Math.floorMod(key.hashCode(), partitions);
+    }
+
+    public int[] ownedPartitions() {
+        return isValid() ? owned.stream().toArray() : new int[0];
+    }
+
+    public String getMember() {
+        return member;
+    }
+
+    private boolean isValid() {
+        return clock.getAsLong() < validUntil;
+    }
+
+    int fairShare(int index, int memberCount) {
+        return partitions / memberCount + (index < partitions % memberCount ? 1 : 0);
+    }
+}
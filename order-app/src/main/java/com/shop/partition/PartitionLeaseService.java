@@ -0,0 +1,109 @@
+package com.shop.partition;
+
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Gives each order-app replica a hash range of process instance ids. Timer loading only
+ * reads the partitions this replica owns. With partitioning disabled the replica owns everything.
+ */
+@ApplicationScoped
+public class PartitionLeaseService {
+
+    private static final Logger LOG = Logger.getLogger(PartitionLeaseService.class);
+
+    @ConfigProperty(name = "shop.partitioning.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "shop.partitioning.partitions", defaultValue = "64")
+    int partitions;
+
+    @ConfigProperty(name = "shop.partitioning.lease-duration", defaultValue = "30s")
+    Duration leaseDuration;
+
+    @ConfigProperty(name = "shop.partitioning.renew-interval", defaultValue = "10s")
+    Duration renewInterval;
+
+    @ConfigProperty(name = "shop.partitioning.member-id")
+    Optional<String> memberId;
+
+    @ConfigProperty(name = "quarkus.application.name")
+    String applicationName;
+
+    @Inject
+    JdbcLeaseRepository repository;
+
+    private PartitionLeaseCoordinator coordinator;
+    private ScheduledExecutorService scheduler;
+
+    void onStart(@Observes @Priority(2) StartupEvent event) {
+        if (!enabled) {
+            return;
+        }
+        String member = memberId.orElse(applicationName + "-" + UUID.randomUUID());
+        coordinator = new PartitionLeaseCoordinator(repository, member, partitions, leaseDuration.toMillis(),
+                System::currentTimeMillis);
+        rebalance();
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "partition-leases");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::rebalance, renewInterval.toMillis(), renewInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+        LOG.infof("Partitioned timer loading enabled for %s with %d partitions", member, partitions);
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        try {
+            coordinator.leave();
+        } catch (Exception e) {
+            LOG.warnf("Unable to release partition leases: %s", e.getMessage());
+        }
+    }
+
+    public boolean owns(String key) {
+        if (!enabled) {
+            return true;
+        }
+        return coordinator != null && coordinator.owns(key);
+    }
+
+    public int partitionOf(String key) {
+        return Math.floorMod(key.hashCode(), partitions);
+    }
+
+    public int[] ownedPartitions() {
+        if (!enabled) {
+            return IntStream.range(0, partitions).toArray();
+        }
+        return coordinator == null ? new int[0] : coordinator.ownedPartitions();
+    }
+
+    private void rebalance() {
+        try {
+            coordinator.rebalance();
+        } catch (Exception e) {
+            // leases are kept until expiry, a missed round only delays rebalancing
+            LOG.warnf("Partition rebalance failed: %s", e.getMessage());
+        }
+    }
+}
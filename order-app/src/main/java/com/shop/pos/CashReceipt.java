@@ -0,0 +1,74 @@
+package com.shop.pos;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+/**
+ * Cash receipt rung up at a POS terminal. The order id is the OrderDrink process instance id.
+ * The cashier is the authenticated caller who sent it, never read from the request body.
+ */
+public class CashReceipt {
+    private String receiptId;
+    private String orderId;
+    private BigDecimal amount;
+    @JsonIgnore
+    private String cashier;
+    @JsonIgnore
+    private Set<String> cashierRoles = Set.of();
+
+    public CashReceipt() {}
+
+    public CashReceipt(String receiptId, String orderId, BigDecimal amount) {
+        this.receiptId = receiptId;
+        this.orderId = orderId;
+        this.amount = amount;
+    }
+
+    public String getReceiptId() {
+        return receiptId;
+    }
+
+    public void setReceiptId(String receiptId) {
+        this.receiptId = receiptId;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(String orderId) {
+        this.orderId = orderId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public String getCashier() {
+        return cashier;
+    }
+
+    public Set<String> getCashierRoles() {
+        return cashierRoles;
+    }
+
+    public void setCashier(String cashier, Set<String> roles) {
+        this.cashier = cashier;
+        this.cashierRoles = roles == null ? Set.of() : Set.copyOf(roles);
+    }
+
+    @Override
+    public String toString() {
+        return "CashReceipt{" +
+                "receiptId='" + receiptId + '\'' +
+                ", orderId='" + orderId + '\'' +
+                ", amount=" + amount +
+                '}';
+    }
+}
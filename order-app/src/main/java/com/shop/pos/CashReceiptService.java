@@ -0,0 +1,289 @@
+package com.shop.pos;
+
+import com.shop.catalog.CatalogService;
+import com.shop.model.DrinkOrder;
+import com.shop.model.DrinkOrder.OrderStatus;
+import com.shop.partition.PartitionLeaseService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.kie.kogito.Application;
+import org.kie.kogito.Model;
+import org.kie.kogito.auth.IdentityProviders;
+import org.kie.kogito.auth.SecurityPolicy;
+import org.kie.kogito.process.Process;
+import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.WorkItem;
+import org.kie.kogito.services.uow.UnitOfWorkExecutor;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Completes "Task CashPayment" from POS receipts instead of a cashier claiming and completing
+ * each task over the task REST API. The task is completed under the identity of the cashier who
+ * sent the receipt, so its ActorId and GroupId are enforced as for a cashier completing it by
+ * hand; queued receipts keep that identity. All receipts of a batch are applied in one unit of work,
+ * so the instances are persisted once at commit. A batch that fails, while applying or at
+ * commit, leaves nothing behind and is applied again one receipt per unit of work. Receipts
+ * whose order is not waiting for cash yet are queued and retried until they match or expire.
+ */
+@ApplicationScoped
+public class CashReceiptService {
+
+    private static final Logger LOG = Logger.getLogger(CashReceiptService.class);
+
+    /** TaskName of the "Task CashPayment" user task */
+    static final String CASH_TASK = "Task";
+    static final String PAID = "YES";
+    /** GroupId of "Task CashPayment", required to send receipts */
+    static final String CASHIER_ROLE = "cashier";
+
+    @ConfigProperty(name = "shop.pos.max-batch", defaultValue = "500")
+    int maxBatch;
+
+    @ConfigProperty(name = "shop.pos.retry-interval", defaultValue = "5s")
+    Duration retryInterval;
+
+    @ConfigProperty(name = "shop.pos.max-queue-age", defaultValue = "1h")
+    Duration maxQueueAge;
+
+    @Inject
+    @Named("OrderDrink")
+    Process<? extends Model> orderDrink;
+
+    @Inject
+    Application application;
+
+    @Inject
+    PendingReceiptStore store;
+
+    @Inject
+    PartitionLeaseService partitions;
+
+    @Inject
+    CatalogService catalogService;
+
+    @Inject
+    MeterRegistry registry;
+
+    private ScheduledExecutorService retrier;
+
+    void onStart(@Observes StartupEvent event) {
+        retrier = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "pos-receipts");
+            thread.setDaemon(true);
+            return thread;
+        });
+        retrier.scheduleWithFixedDelay(this::retryQueued, retryInterval.toMillis(), retryInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        if (retrier != null) {
+            retrier.shutdownNow();
+        }
+    }
+
+    /**
+     * @param cashier name of the authenticated caller, the tasks are completed as them
+     * @param roles   roles of the caller, matched against the GroupId of the task
+     */
+    public List<ReceiptResult> ingest(List<CashReceipt> receipts, String cashier, Set<String> roles) {
+        if (receipts == null || receipts.isEmpty()) {
+            throw new IllegalArgumentException("At least one receipt is required");
+        }
+        if (receipts.size() > maxBatch) {
+            throw new IllegalArgumentException("At most " + maxBatch + " receipts per batch");
+        }
+        for (CashReceipt receipt : receipts) {
+            if (receipt != null) {
+                receipt.setCashier(cashier, roles);
+            }
+        }
+        ReceiptBatch batch = ReceiptBatch.of(receipts);
+        List<ReceiptResult> results = new ArrayList<>(batch.results());
+        List<CashReceipt> accepted = new ArrayList<>(batch.accepted());
+        List<ReceiptResult> applied = complete(accepted);
+
+        // complete() answers in receipt order
+        List<CashReceipt> unmatched = new ArrayList<>();
+        for (int i = 0; i < accepted.size(); i++) {
+            if (applied.get(i).getOutcome() == ReceiptOutcome.QUEUED) {
+                unmatched.add(accepted.get(i));
+            }
+        }
+        Set<String> queued;
+        try {
+            queued = store.enqueue(unmatched, System.currentTimeMillis());
+        } catch (SQLException e) {
+            throw new IllegalStateException("Unable to queue unmatched receipts", e);
+        }
+        for (ReceiptResult result : applied) {
+            if (result.getOutcome() == ReceiptOutcome.QUEUED && !queued.contains(result.getOrderId())) {
+                result.setOutcome(ReceiptOutcome.IGNORED);
+                result.setMessage("a receipt for this order is already queued");
+            }
+        }
+        results.addAll(applied);
+        for (ReceiptResult result : results) {
+            registry.counter("shop.pos.receipts", "outcome", result.getOutcome().name()).increment();
+        }
+        return results;
+    }
+
+    /**
+     * Apply the receipts in a single unit of work, answering one result per receipt in order.
+     * Results are only answered for committed work: when the batch fails, it is rolled back as a
+     * whole and every receipt gets a unit of work of its own, where one that fails is reported as
+     * queued without affecting the others.
+     */
+    List<ReceiptResult> complete(Collection<CashReceipt> receipts) {
+        if (receipts.isEmpty()) {
+            return new ArrayList<>();
+        }
+        try {
+            return UnitOfWorkExecutor.executeInUnitOfWork(application.unitOfWorkManager(), () -> {
+                List<ReceiptResult> results = new ArrayList<>(receipts.size());
+                for (CashReceipt receipt : receipts) {
+                    results.add(apply(receipt));
+                }
+                return results;
+            });
+        } catch (RuntimeException e) {
+            if (receipts.size() > 1) {
+                LOG.warnf("Batch of %d receipts rolled back, applying them one by one: %s", receipts.size(),
+                        e.getMessage());
+            }
+        }
+        List<ReceiptResult> results = new ArrayList<>(receipts.size());
+        for (CashReceipt receipt : receipts) {
+            try {
+                results.add(UnitOfWorkExecutor.executeInUnitOfWork(application.unitOfWorkManager(),
+                        () -> apply(receipt)));
+            } catch (RuntimeException e) {
+                LOG.warnf("Unable to apply receipt for order %s: %s", receipt.getOrderId(), e.getMessage());
+                results.add(new ReceiptResult(receipt, ReceiptOutcome.QUEUED, e.getMessage()));
+            }
+        }
+        return results;
+    }
+
+    private ReceiptResult apply(CashReceipt receipt) {
+        return orderDrink.instances().findById(receipt.getOrderId())
+                .map(instance -> complete(instance, receipt))
+                .orElseGet(() -> new ReceiptResult(receipt, ReceiptOutcome.QUEUED, "order not found"));
+    }
+
+    private ReceiptResult complete(ProcessInstance<? extends Model> instance, CashReceipt receipt) {
+        if (instance.status() != ProcessInstance.STATE_ACTIVE) {
+            return new ReceiptResult(receipt, ReceiptOutcome.IGNORED, "order is no longer active");
+        }
+        Object order = instance.variables().toMap().get("drinkOrder");
+        for (WorkItem workItem : instance.workItems()) {
+            if (CASH_TASK.equals(workItem.getName())) {
+                if (receipt.getCashier() == null
+                        || !mayComplete(workItem.getParameters(), receipt.getCashier(), receipt.getCashierRoles())) {
+                    return new ReceiptResult(receipt, ReceiptOutcome.REJECTED,
+                            "cashier is not allowed to complete the cash payment task");
+                }
+                String mismatch = order instanceof DrinkOrder ? checkAmount((DrinkOrder) order, receipt) : null;
+                if (mismatch != null) {
+                    return new ReceiptResult(receipt, ReceiptOutcome.REJECTED, mismatch);
+                }
+                // the engine checks the task's ActorId and GroupId against the policy again
+                instance.completeWorkItem(workItem.getId(), Map.of("isPaid", PAID), SecurityPolicy.of(
+                        IdentityProviders.of(receipt.getCashier(), receipt.getCashierRoles())));
+                return new ReceiptResult(receipt, ReceiptOutcome.COMPLETED, null);
+            }
+        }
+        OrderStatus status = order instanceof DrinkOrder ? ((DrinkOrder) order).getOrderStatus() : null;
+        if (status == null || status == OrderStatus.ORDERED || status == OrderStatus.RECEIVED) {
+            // the instance has not reached the cash task yet
+            return new ReceiptResult(receipt, ReceiptOutcome.QUEUED, "order is not waiting for cash payment yet");
+        }
+        return new ReceiptResult(receipt, ReceiptOutcome.IGNORED, "order is " + status);
+    }
+
+    /**
+     * Whether {@code user} is one of the task's actors or holds one of its groups; a task with
+     * neither is open to anyone
+     */
+    static boolean mayComplete(Map<String, Object> parameters, String user, Set<String> roles) {
+        Set<String> actors = names(parameters.get("ActorId"));
+        Set<String> groups = names(parameters.get("GroupId"));
+        if (actors.isEmpty() && groups.isEmpty()) {
+            return true;
+        }
+        return actors.contains(user) || groups.stream().anyMatch(roles::contains);
+    }
+
+    private static Set<String> names(Object parameter) {
+        if (parameter == null) {
+            return Set.of();
+        }
+        return Stream.of(parameter.toString().split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .collect(Collectors.toSet());
+    }
+
+    private String checkAmount(DrinkOrder order, CashReceipt receipt) {
+        if (order.getDrinkType() == null || order.getDrinkSize() == null) {
+            return null;
+        }
+        BigDecimal price = catalogService.price(order.getDrinkType(), order.getDrinkSize());
+        if (price != null && receipt.getAmount().compareTo(price) != 0) {
+            return "amount " + receipt.getAmount() + " does not match price " + price;
+        }
+        return null;
+    }
+
+    private void retryQueued() {
+        try {
+            int[] owned = partitions.ownedPartitions();
+            long cutoff = System.currentTimeMillis() - maxQueueAge.toMillis();
+            for (CashReceipt expired : store.expire(owned, cutoff)) {
+                LOG.warnf("Dropping unmatched receipt %s for order %s after %s", expired.getReceiptId(),
+                        expired.getOrderId(), maxQueueAge);
+                registry.counter("shop.pos.receipts", "outcome", "EXPIRED").increment();
+            }
+            List<CashReceipt> queued = store.load(owned, maxBatch);
+            if (queued.isEmpty()) {
+                return;
+            }
+            List<String> done = new ArrayList<>();
+            for (ReceiptResult result : complete(queued)) {
+                if (result.getOutcome() != ReceiptOutcome.QUEUED) {
+                    done.add(result.getOrderId());
+                    registry.counter("shop.pos.receipts", "outcome", result.getOutcome().name()).increment();
+                }
+            }
+            // a completed receipt that stays queued after a failed delete is ignored on the next round
+            store.remove(done);
+            if (!done.isEmpty()) {
+                LOG.infof("Matched %d of %d queued receipts", done.size(), queued.size());
+            }
+        } catch (Exception e) {
+            LOG.warnf("Retrying queued receipts failed: %s", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.shop.pos;
+
+import com.shop.partition.PartitionLeaseService;
+
+import io.agroal.api.AgroalDataSource;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Queue of receipts that arrived before their order reached "Task CashPayment".
+ * One row per order; rows carry the partition of the order so each replica only retries its own range.
+ * The shop_pos_receipt_pending table comes from the order-app kie-flyway migrations.
+ */
+@ApplicationScoped
+public class PendingReceiptStore {
+
+    private static final String INSERT =
+            "INSERT INTO shop_pos_receipt_pending (order_id, receipt_id, amount, partition_id, received_at, " +
+            "cashier, cashier_roles) VALUES (?, ?, ?, ?, ?, ?, ?) ON CONFLICT (order_id) DO NOTHING";
+
+    private static final String SELECT =
+            "SELECT order_id, receipt_id, amount, cashier, cashier_roles FROM shop_pos_receipt_pending " +
+            "WHERE partition_id = ANY(?) ORDER BY received_at LIMIT ?";
+
+    private static final String EXPIRE =
+            "DELETE FROM shop_pos_receipt_pending WHERE partition_id = ANY(?) AND received_at < ? " +
+            "RETURNING order_id, receipt_id, amount, cashier, cashier_roles";
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    @Inject
+    PartitionLeaseService partitions;
+
+    /**
+     * @return the order ids that were queued, receipts of orders that already have a queued receipt are skipped
+     */
+    public Set<String> enqueue(Collection<CashReceipt> receipts, long now) throws SQLException {
+        Set<String> queued = new HashSet<>();
+        if (receipts.isEmpty()) {
+            return queued;
+        }
+        List<CashReceipt> ordered = new ArrayList<>(receipts);
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(INSERT)) {
+            for (CashReceipt receipt : ordered) {
+                statement.setString(1, receipt.getOrderId());
+                statement.setString(2, receipt.getReceiptId());
+                statement.setBigDecimal(3, receipt.getAmount());
+                statement.setInt(4, partitions.partitionOf(receipt.getOrderId()));
+                statement.setLong(5, now);
+                statement.setString(6, receipt.getCashier());
+                statement.setString(7, String.join(",", receipt.getCashierRoles()));
+                statement.addBatch();
+            }
+            int[] counts = statement.executeBatch();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0) {
+                    queued.add(ordered.get(i).getOrderId());
+                }
+            }
+        }
+        return queued;
+    }
+
+    /**
+     * Oldest queued receipts of the given partitions
+     */
+    public List<CashReceipt> load(int[] partitionIds, int limit) throws SQLException {
+        List<CashReceipt> receipts = new ArrayList<>();
+        if (partitionIds.length == 0) {
+            return receipts;
+        }
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT)) {
+            statement.setArray(1, partitionArray(connection, partitionIds));
+            statement.setInt(2, limit);
+            read(statement, receipts);
+        }
+        return receipts;
+    }
+
+    /**
+     * Remove and return the receipts of the given partitions queued before {@code cutoff}
+     */
+    public List<CashReceipt> expire(int[] partitionIds, long cutoff) throws SQLException {
+        List<CashReceipt> receipts = new ArrayList<>();
+        if (partitionIds.length == 0) {
+            return receipts;
+        }
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(EXPIRE)) {
+            statement.setArray(1, partitionArray(connection, partitionIds));
+            statement.setLong(2, cutoff);
+            read(statement, receipts);
+        }
+        return receipts;
+    }
+
+    public void remove(Collection<String> orderIds) throws SQLException {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "DELETE FROM shop_pos_receipt_pending WHERE order_id = ANY(?)")) {
+            statement.setArray(1, connection.createArrayOf("varchar", orderIds.toArray()));
+            statement.executeUpdate();
+        }
+    }
+
+    private static Array partitionArray(Connection connection, int[] partitionIds) throws SQLException {
+        Integer[] ids = new Integer[partitionIds.length];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = partitionIds[i];
+        }
+        return connection.createArrayOf("integer", ids);
+    }
+
+    private static void read(PreparedStatement statement, List<CashReceipt> receipts) throws SQLException {
+        try (ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                CashReceipt receipt = new CashReceipt(rs.getString(2), rs.getString(1), rs.getBigDecimal(3));
+                String roles = rs.getString(5);
+                receipt.setCashier(rs.getString(4), roles == null || roles.isEmpty() ? Set.of() : Set.of(roles.split(",")));
+                receipts.add(receipt);
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.shop.pos;
+
+import io.quarkus.security.identity.SecurityIdentity;
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+
+import java.util.List;
+
+@Path("/pos")
+@RolesAllowed(CashReceiptService.CASHIER_ROLE)
+public class PosResource {
+
+    @Inject
+    CashReceiptService cashReceiptService;
+
+    @Inject
+    SecurityIdentity identity;
+
+    /**
+     * Batch of cash receipts from the POS terminals, answered with one result per receipt.
+     * Matching "Task CashPayment" tasks are completed together in one transaction, as the caller.
+     */
+    @POST
+    @Path("/receipts")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public List<ReceiptResult> receipts(List<CashReceipt> receipts) {
+        try {
+            return cashReceiptService.ingest(receipts, identity.getPrincipal().getName(), identity.getRoles());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+    }
+}
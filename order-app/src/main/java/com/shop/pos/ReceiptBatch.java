@@ -0,0 +1,55 @@
+package com.shop.pos;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Validates an ingested batch and keeps one receipt per order, in arrival order.
+ * Invalid receipts and repeats of an order already in the batch get their result here
+ * and never reach the process engine.
+ */
+final class ReceiptBatch {
+
+    private final Map<String, CashReceipt> accepted = new LinkedHashMap<>();
+    private final List<ReceiptResult> results = new ArrayList<>();
+
+    private ReceiptBatch() {}
+
+    static ReceiptBatch of(Collection<CashReceipt> receipts) {
+        ReceiptBatch batch = new ReceiptBatch();
+        for (CashReceipt receipt : receipts) {
+            if (receipt == null) {
+                continue;
+            }
+            String error = validate(receipt);
+            if (error != null) {
+                batch.results.add(new ReceiptResult(receipt, ReceiptOutcome.REJECTED, error));
+            } else if (batch.accepted.putIfAbsent(receipt.getOrderId(), receipt) != null) {
+                batch.results.add(new ReceiptResult(receipt, ReceiptOutcome.IGNORED, "duplicate receipt in batch"));
+            }
+        }
+        return batch;
+    }
+
+    static String validate(CashReceipt receipt) {
+        if (receipt.getOrderId() == null || receipt.getOrderId().isBlank()) {
+            return "orderId is required";
+        }
+        if (receipt.getAmount() == null || receipt.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
+            return "amount must be positive";
+        }
+        return null;
+    }
+
+    Collection<CashReceipt> accepted() {
+        return accepted.values();
+    }
+
+    List<ReceiptResult> results() {
+        return results;
+    }
+}
@@ -0,0 +1,12 @@
+package com.shop.pos;
+
+public enum ReceiptOutcome {
+    /** The order's cash payment task was completed */
+    COMPLETED,
+    /** No waiting cash payment task yet, the receipt is retried later */
+    QUEUED,
+    /** The order is already paid, cancelled or the receipt is a duplicate */
+    IGNORED,
+    /** The receipt is invalid or its amount does not match the menu price */
+    REJECTED
+}
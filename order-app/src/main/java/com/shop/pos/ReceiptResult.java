@@ -0,0 +1,59 @@
+package com.shop.pos;
+
+public class ReceiptResult {
+    private String receiptId;
+    private String orderId;
+    private ReceiptOutcome outcome;
+    private String message;
+
+    public ReceiptResult() {}
+
+    public ReceiptResult(CashReceipt receipt, ReceiptOutcome outcome, String message) {
+        this.receiptId = receipt.getReceiptId();
+        this.orderId = receipt.getOrderId();
+        this.outcome = outcome;
+        this.message = message;
+    }
+
+    public String getReceiptId() {
+        return receiptId;
+    }
+
+    public void setReceiptId(String receiptId) {
+        this.receiptId = receiptId;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(String orderId) {
+        this.orderId = orderId;
+    }
+
+    public ReceiptOutcome getOutcome() {
+        return outcome;
+    }
+
+    public void setOutcome(ReceiptOutcome outcome) {
+        this.outcome = outcome;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    @Override
+    public String toString() {
+        return "ReceiptResult{" +
+                "receiptId='" + receiptId + '\'' +
+                ", orderId='" + orderId + '\'' +
+                ", outcome=" + outcome +
+                ", message='" + message + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,24 @@
+package com.shop.query;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
+
+import java.util.Map;
+
+/**
+ * REST client for the data-index GraphQL endpoint
+ */
+@RegisterRestClient(configKey = "data-index")
+@Path("/graphql")
+public interface DataIndexClient {
+
+    @POST
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    JsonNode query(Map<String, Object> request);
+}
@@ -0,0 +1,82 @@
+package com.shop.query;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.kie.api.event.process.ProcessCompletedEvent;
+import org.kie.api.event.process.ProcessEvent;
+import org.kie.api.event.process.ProcessNodeLeftEvent;
+import org.kie.api.event.process.ProcessStartedEvent;
+import org.kie.api.event.process.ProcessVariableChangedEvent;
+import org.kie.kogito.internal.process.event.DefaultKogitoProcessEventListener;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Drops the cached pages of a process after the unit of work that changed one of its instances
+ * commits. The events fire inside the transaction, before the data index rows are written, so
+ * the processes are collected per transaction and only invalidated once it has committed; a
+ * rolled back unit of work leaves the cache alone.
+ */
+@ApplicationScoped
+public class InstanceCacheInvalidator extends DefaultKogitoProcessEventListener {
+
+    private static final Object CHANGED_PROCESSES = InstanceCacheInvalidator.class.getName() + ".changedProcesses";
+
+    @Inject
+    InstanceQueryCache cache;
+
+    @Inject
+    TransactionSynchronizationRegistry transactions;
+
+    @Override
+    public void afterProcessStarted(ProcessStartedEvent event) {
+        changed(event);
+    }
+
+    @Override
+    public void afterProcessCompleted(ProcessCompletedEvent event) {
+        changed(event);
+    }
+
+    @Override
+    public void afterNodeLeft(ProcessNodeLeftEvent event) {
+        changed(event);
+    }
+
+    @Override
+    public void afterVariableChanged(ProcessVariableChangedEvent event) {
+        changed(event);
+    }
+
+    private void changed(ProcessEvent event) {
+        String processId = event.getProcessInstance().getProcessId();
+        if (transactions.getTransactionStatus() != Status.STATUS_ACTIVE) {
+            cache.invalidate(processId);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Set<String> changed = (Set<String>) transactions.getResource(CHANGED_PROCESSES);
+        if (changed == null) {
+            Set<String> processIds = new HashSet<>();
+            transactions.putResource(CHANGED_PROCESSES, processIds);
+            transactions.registerInterposedSynchronization(new Synchronization() {
+                @Override
+                public void beforeCompletion() {
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == Status.STATUS_COMMITTED) {
+                        processIds.forEach(cache::invalidate);
+                    }
+                }
+            });
+            changed = processIds;
+        }
+        changed.add(processId);
+    }
+}
@@ -0,0 +1,35 @@
+package com.shop.query;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of process instances returned by the instance query API
+ */
+public class InstancePage {
+    private List<Map<String, Object>> items;
+    private String nextCursor;
+
+    public InstancePage() {}
+
+    public InstancePage(List<Map<String, Object>> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Map<String, Object>> getItems() {
+        return items;
+    }
+
+    public void setItems(List<Map<String, Object>> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
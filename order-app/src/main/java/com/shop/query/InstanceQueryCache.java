@@ -0,0 +1,79 @@
+package com.shop.query;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Short-TTL cache of instance query pages. {@link InstanceCacheInvalidator} drops the pages of a
+ * process once a transaction that changed one of its instances has committed, and with it the
+ * data index rows; pages listing every process are dropped with any of them. A page loaded while
+ * such a commit happened is not cached, it may hold the rows from before the commit.
+ */
+@ApplicationScoped
+public class InstanceQueryCache {
+
+    @ConfigProperty(name = "shop.query.cache.ttl-ms", defaultValue = "5000")
+    long ttlMs;
+
+    @ConfigProperty(name = "shop.query.cache.max-entries", defaultValue = "1024")
+    int maxEntries;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong lastInvalidation = new AtomicLong();
+    private final ConcurrentHashMap<String, Long> lastInvalidationByProcess = new ConcurrentHashMap<>();
+
+    /**
+     * @param processId process the page is filtered on, null for pages over every process
+     */
+    public InstancePage get(String processId, String key, Supplier<InstancePage> loader) {
+        long loadedAt = generation.get();
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt > now) {
+            return entry.page;
+        }
+        InstancePage page = loader.get();
+        if (invalidatedSince(processId, loadedAt)) {
+            return page;
+        }
+        if (entries.size() >= maxEntries) {
+            entries.clear();
+        }
+        entries.put(key, new Entry(processId, page, now + ttlMs));
+        return page;
+    }
+
+    /**
+     * Drop the pages that may list instances of {@code processId}
+     */
+    public void invalidate(String processId) {
+        long invalidation = generation.incrementAndGet();
+        lastInvalidationByProcess.merge(processId, invalidation, Math::max);
+        lastInvalidation.accumulateAndGet(invalidation, Math::max);
+        entries.values().removeIf(entry -> entry.processId == null || entry.processId.equals(processId));
+    }
+
+    private boolean invalidatedSince(String processId, long loadedAt) {
+        long last = processId == null
+                ? lastInvalidation.get()
+                : lastInvalidationByProcess.getOrDefault(processId, 0L);
+        return last > loadedAt;
+    }
+
+    private static final class Entry {
+        final String processId;
+        final InstancePage page;
+        final long expiresAt;
+
+        Entry(String processId, InstancePage page, long expiresAt) {
+            this.processId = processId;
+            this.page = page;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
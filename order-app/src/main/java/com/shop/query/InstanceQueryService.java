@@ -0,0 +1,140 @@
+package com.shop.query;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keyset-paginated, projected view over the data-index ProcessInstances query.
+ * Only the requested variable paths are returned and the variables column is not
+ * selected at all when none are requested.
+ */
+@ApplicationScoped
+public class InstanceQueryService {
+
+    private static final Logger LOG = Logger.getLogger(InstanceQueryService.class);
+
+    static final int MAX_LIMIT = 200;
+
+    private static final String QUERY =
+            "query Instances($where: ProcessInstanceArgument, $limit: Int) {" +
+            " ProcessInstances(where: $where, orderBy: {start: ASC}, pagination: {limit: $limit, offset: 0}) {" +
+            " id processId processName state start lastUpdate %s } }";
+
+    @Inject
+    @RestClient
+    DataIndexClient dataIndex;
+
+    @Inject
+    InstanceQueryCache cache;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    public InstancePage find(String processId, String state, String cursor, int limit, List<String> variablePaths) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_LIMIT));
+        List<String> paths = variablePaths == null ? List.of() : variablePaths;
+        String key = processId + '|' + state + '|' + cursor + '|' + pageSize + '|' + String.join(",", paths);
+        return cache.get(processId, key, () -> load(processId, state, cursor, pageSize, paths));
+    }
+
+    private InstancePage load(String processId, String state, String cursor, int limit, List<String> paths) {
+        PageCursor after = cursor == null ? null : PageCursor.decode(cursor);
+        Map<String, Object> where = buildWhere(processId, state, after);
+        Map<String, Object> variables = new LinkedHashMap<>();
+        variables.put("where", where);
+        variables.put("limit", limit);
+        Map<String, Object> request = Map.of(
+                "query", String.format(QUERY, paths.isEmpty() ? "" : "variables"),
+                "variables", variables);
+
+        JsonNode response = dataIndex.query(request);
+        if (response.hasNonNull("errors")) {
+            LOG.warnf("Data index query failed: %s", response.get("errors"));
+            throw new IllegalStateException("Data index query failed");
+        }
+        JsonNode instances = response.path("data").path("ProcessInstances");
+
+        List<Map<String, Object>> items = new ArrayList<>(instances.size());
+        for (JsonNode instance : instances) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("id", instance.path("id").asText());
+            item.put("processId", instance.path("processId").asText());
+            item.put("processName", instance.path("processName").asText());
+            item.put("state", instance.path("state").asText());
+            item.put("start", instance.path("start").asText(null));
+            item.put("lastUpdate", instance.path("lastUpdate").asText(null));
+            if (!paths.isEmpty()) {
+                item.put("variables", project(instance.path("variables"), paths));
+            }
+            items.add(item);
+        }
+        return new InstancePage(items, items.size() < limit ? null : nextCursor(after, items));
+    }
+
+    static Map<String, Object> buildWhere(String processId, String state, PageCursor cursor) {
+        List<Map<String, Object>> and = new ArrayList<>();
+        if (processId != null) {
+            and.add(Map.of("processId", Map.of("equal", processId)));
+        }
+        if (state != null) {
+            and.add(Map.of("state", Map.of("equal", state)));
+        }
+        if (cursor != null) {
+            and.add(Map.of("start", Map.of("greaterThanEqual", cursor.getLastStart())));
+            if (!cursor.getIdsAtLastStart().isEmpty()) {
+                and.add(Map.of("not", Map.of("id", Map.of("in", cursor.getIdsAtLastStart()))));
+            }
+        }
+        return and.isEmpty() ? Map.of() : Map.of("and", and);
+    }
+
+    /**
+     * @param previous cursor of the page {@code items} were loaded with, null for the first page
+     */
+    static String nextCursor(PageCursor previous, List<Map<String, Object>> items) {
+        String lastStart = (String) items.get(items.size() - 1).get("start");
+        if (lastStart == null) {
+            return null;
+        }
+        List<String> ids = new ArrayList<>();
+        if (previous != null && lastStart.equals(previous.getLastStart())) {
+            // the whole page shares the start time the previous pages ended at, keep excluding those
+            ids.addAll(previous.getIdsAtLastStart());
+        }
+        for (int i = items.size() - 1; i >= 0 && lastStart.equals(items.get(i).get("start")); i--) {
+            ids.add((String) items.get(i).get("id"));
+        }
+        return new PageCursor(lastStart, ids).encode();
+    }
+
+    private Map<String, Object> project(JsonNode variables, List<String> paths) {
+        JsonNode root = variables;
+        if (variables.isTextual()) {
+            try {
+                root = objectMapper.readTree(variables.asText());
+            } catch (Exception e) {
+                return Map.of();
+            }
+        }
+        Map<String, Object> projected = new LinkedHashMap<>();
+        for (String path : paths) {
+            JsonNode node = root;
+            for (String segment : path.split("\\.")) {
+                node = node.path(segment);
+            }
+            if (!node.isMissingNode()) {
+                projected.put(path, objectMapper.convertValue(node, Object.class));
+            }
+        }
+        return projected;
+    }
+}
@@ -0,0 +1,44 @@
+package com.shop.query;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * One audited process event of an order
+ */
+public class OrderHistoryEntry {
+    private String eventType;
+    private String eventTime;
+    private JsonNode payload;
+
+    public OrderHistoryEntry() {}
+
+    public OrderHistoryEntry(String eventType, String eventTime, JsonNode payload) {
+        this.eventType = eventType;
+        this.eventTime = eventTime;
+        this.payload = payload;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(String eventType) {
+        this.eventType = eventType;
+    }
+
+    public String getEventTime() {
+        return eventTime;
+    }
+
+    public void setEventTime(String eventTime) {
+        this.eventTime = eventTime;
+    }
+
+    public JsonNode getPayload() {
+        return payload;
+    }
+
+    public void setPayload(JsonNode payload) {
+        this.payload = payload;
+    }
+}
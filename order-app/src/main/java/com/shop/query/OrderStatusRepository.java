@@ -0,0 +1,128 @@
+package com.shop.query;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.TextNode;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.sqlclient.Pool;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.Tuple;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read-only order status and history lookups on the reactive Postgres client. Its pool is
+ * separate from the Agroal pool the process engine writes through, so dashboard traffic
+ * cannot take the connections process instances need. Prepared statements are cached per
+ * connection and concurrent lookups are pipelined over the few connections of the pool.
+ * Status comes from the data-index processes table, history from shop_audit_event.
+ */
+@ApplicationScoped
+public class OrderStatusRepository {
+
+    static final int MAX_IDS = 100;
+    static final int MAX_HISTORY = 500;
+
+    private static final String PROCESS_ID = "OrderDrink";
+
+    // data index stores ProcessInstanceState ordinals
+    private static final String[] STATES = {"PENDING", "ACTIVE", "COMPLETED", "ABORTED", "SUSPENDED", "ERROR"};
+
+    private static final String SELECT_STATUS =
+            "SELECT id, state, start_time, last_update_time, end_time," +
+            " variables #>> '{drinkOrder,orderStatus}', variables #>> '{drinkOrder,drinkType}'," +
+            " variables #>> '{drinkOrder,drinkSize}', variables #>> '{drinkOrder,paymentType}'" +
+            " FROM processes WHERE process_id = $1 AND id = ANY($2)";
+
+    private static final String SELECT_HISTORY =
+            "SELECT event_type, event_time, payload FROM shop_audit_event" +
+            " WHERE process_instance_id = $1 ORDER BY id LIMIT $2";
+
+    @Inject
+    Pool client;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    /**
+     * @return the order, or null when there is no such OrderDrink instance
+     */
+    public Uni<OrderStatusView> status(String orderId) {
+        return statuses(List.of(orderId)).map(views -> views.isEmpty() ? null : views.get(0));
+    }
+
+    /**
+     * Statuses of up to {@value #MAX_IDS} orders in one round trip, unknown ids are left out
+     */
+    public Uni<List<OrderStatusView>> statuses(List<String> orderIds) {
+        if (orderIds.size() > MAX_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_IDS + " order ids per request");
+        }
+        return client.preparedQuery(SELECT_STATUS)
+                .execute(Tuple.of(PROCESS_ID, orderIds.toArray(new String[0])))
+                .map(rows -> {
+                    List<OrderStatusView> views = new ArrayList<>(rows.size());
+                    for (Row row : rows) {
+                        views.add(toView(row));
+                    }
+                    return views;
+                });
+    }
+
+    /**
+     * Audited events of an order, oldest first
+     */
+    public Uni<List<OrderHistoryEntry>> history(String orderId, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_HISTORY));
+        return client.preparedQuery(SELECT_HISTORY)
+                .execute(Tuple.of(orderId, size))
+                .map(rows -> {
+                    List<OrderHistoryEntry> entries = new ArrayList<>(rows.size());
+                    for (Row row : rows) {
+                        entries.add(new OrderHistoryEntry(row.getString(0), text(row.getValue(1)),
+                                payload(row.getString(2))));
+                    }
+                    return entries;
+                });
+    }
+
+    private static OrderStatusView toView(Row row) {
+        OrderStatusView view = new OrderStatusView();
+        view.setOrderId(row.getString(0));
+        view.setState(stateName(row.getInteger(1)));
+        view.setStart(text(row.getValue(2)));
+        view.setLastUpdate(text(row.getValue(3)));
+        view.setEnd(text(row.getValue(4)));
+        view.setOrderStatus(row.getString(5));
+        view.setDrinkType(row.getString(6));
+        view.setDrinkSize(row.getString(7));
+        view.setPaymentType(row.getString(8));
+        return view;
+    }
+
+    static String stateName(Integer state) {
+        if (state == null) {
+            return null;
+        }
+        return state >= 0 && state < STATES.length ? STATES[state] : String.valueOf(state);
+    }
+
+    private JsonNode payload(String payload) {
+        if (payload == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readTree(payload);
+        } catch (Exception e) {
+            return TextNode.valueOf(payload);
+        }
+    }
+
+    // timestamp columns come back as LocalDateTime or OffsetDateTime depending on the column type
+    private static String text(Object value) {
+        return value == null ? null : value.toString();
+    }
+}
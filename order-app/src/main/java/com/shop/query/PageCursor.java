@@ -0,0 +1,55 @@
+package com.shop.query;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Opaque keyset cursor: the start time of the last returned instance plus the ids of
+ * every instance returned so far with that start time, on this page and on earlier pages
+ * that ended at the same start time. The next page asks for {@code start >= lastStart} and
+ * excludes those ids, so no offset scan is needed. The data index cannot order by id, so
+ * instances sharing a start time cannot be paged by a {@code (start, id)} key instead.
+ */
+public class PageCursor {
+
+    private static final String SEPARATOR = "\n";
+
+    private final String lastStart;
+    private final List<String> idsAtLastStart;
+
+    public PageCursor(String lastStart, List<String> idsAtLastStart) {
+        this.lastStart = lastStart;
+        this.idsAtLastStart = List.copyOf(idsAtLastStart);
+    }
+
+    public String getLastStart() {
+        return lastStart;
+    }
+
+    public List<String> getIdsAtLastStart() {
+        return idsAtLastStart;
+    }
+
+    public String encode() {
+        String raw = lastStart + SEPARATOR + String.join(",", idsAtLastStart);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor decode(String cursor) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        int split = raw.indexOf(SEPARATOR);
+        if (split <= 0) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        String ids = raw.substring(split + 1);
+        return new PageCursor(raw.substring(0, split),
+                ids.isEmpty() ? List.of() : Arrays.asList(ids.split(",")));
+    }
+}
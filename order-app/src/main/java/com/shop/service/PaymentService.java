@@ -2,25 +2,40 @@ package com.shop.service;
 
 import org.jboss.logging.Logger;
 
+import com.shop.catalog.CatalogService;
 import com.shop.model.CardPayment;
+import com.shop.model.DrinkOrder;
 import com.shop.model.PaymentStatus;
 
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.instrumentation.annotations.WithSpan;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.math.BigDecimal;
 
 @ApplicationScoped
 public class PaymentService {
 
     private static final Logger LOG = Logger.getLogger(PaymentService.class);
 
-    public String processCard(CardPayment cardPayment) {
+    @Inject
+    CatalogService catalogService;
+
+    @WithSpan("PaymentService.processCard")
+    public String processCard(DrinkOrder drinkOrder) {
+        CardPayment cardPayment = drinkOrder.getCardPayment();
         LOG.infof("Processing card payment for card number: %s", cardPayment.getCardNumber());
+        Span.current().setAttribute("payment.card_type", String.valueOf(cardPayment.getCardType()));
         PaymentStatus paymentStatus;
-        if (cardPayment.getAmount().compareTo(java.math.BigDecimal.ZERO) <= 0) {
-            LOG.error("Invalid payment amount");
+        String invalidAmount = validateAmount(drinkOrder, cardPayment.getAmount());
+        if (invalidAmount != null) {
+            LOG.errorf("Invalid payment amount for order %s: %s", drinkOrder.getOrderId(), invalidAmount);
+            Span.current().setAttribute("payment.status", PaymentStatus.Status.FAILED.name());
             paymentStatus = new PaymentStatus(
                     PaymentStatus.Status.FAILED,
                     generateTransactionId(),
-                    "Invalid payment amount"
+                    invalidAmount
             );
             return paymentStatus.getStatus().name();
         }
@@ -28,6 +43,7 @@ public class PaymentService {
         
         if (cardPayment.getCardNumber().startsWith("0000")) {
             LOG.error("Invalid card number");
+            Span.current().setAttribute("payment.status", PaymentStatus.Status.FAILED.name());
             paymentStatus = new PaymentStatus(
                     PaymentStatus.Status.FAILED,
                     generateTransactionId(),
@@ -37,6 +53,7 @@ public class PaymentService {
         }
 
         LOG.info("Valid payment amount");
+        Span.current().setAttribute("payment.status", PaymentStatus.Status.SUCCESS.name());
         paymentStatus = new PaymentStatus(
                 PaymentStatus.Status.SUCCESS,
                 generateTransactionId(),
@@ -45,6 +62,43 @@ public class PaymentService {
         return paymentStatus.getStatus().name();
     }
 
+    /**
+     * Give the card payment back when brew-app rejected the drink, e.g. out of stock
+     */
+    @WithSpan("PaymentService.refundCard")
+    public String refundCard(DrinkOrder drinkOrder) {
+        CardPayment cardPayment = drinkOrder.getCardPayment();
+        LOG.infof("Refunding %s to card number %s for rejected order %s", cardPayment.getAmount(),
+                cardPayment.getCardNumber(), drinkOrder.getOrderId());
+        Span.current().setAttribute("payment.status", PaymentStatus.Status.CANCELLED.name());
+        PaymentStatus paymentStatus = new PaymentStatus(
+                PaymentStatus.Status.CANCELLED,
+                generateTransactionId(),
+                "Payment refunded"
+        );
+        return paymentStatus.getStatus().name();
+    }
+
+    /**
+     * The card amount has to match the menu price of the ordered drink
+     */
+    private String validateAmount(DrinkOrder drinkOrder, BigDecimal amount) {
+        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+            return "Invalid payment amount";
+        }
+        if (drinkOrder.getDrinkType() == null || drinkOrder.getDrinkSize() == null) {
+            return "Drink type and size are required";
+        }
+        BigDecimal price = catalogService.price(drinkOrder.getDrinkType(), drinkOrder.getDrinkSize());
+        if (price == null) {
+            return "Drink is not on the menu";
+        }
+        if (amount.compareTo(price) != 0) {
+            return "Payment amount " + amount + " does not match price " + price;
+        }
+        return null;
+    }
+
     private String generateTransactionId() {
         return java.util.UUID.randomUUID().toString(); // Generate a unique UUID for the transaction
     }
@@ -0,0 +1,174 @@
+package com.shop.sla;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel (Varghese/Lauck, as used by the Linux kernel timers).
+ * Each level has 64 slots; a slot on level n covers 64^n ticks. Timers are kept in
+ * intrusive doubly linked lists so schedule and cancel are O(1); a timer is re-hashed
+ * at most once per level while it cascades down towards level 0.
+ * <p>
+ * Not thread-safe, callers synchronize on the wheel.
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+
+    private final long tickMillis;
+    private final Slot<T>[][] levels;
+    private final long maxTicks;
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(long tickMillis, int levelCount, long startMillis) {
+        if (tickMillis <= 0 || levelCount < 1 || levelCount * BITS > 60) {
+            throw new IllegalArgumentException("Invalid timing wheel shape");
+        }
+        this.tickMillis = tickMillis;
+        this.levels = new Slot[levelCount][SLOTS];
+        for (Slot<T>[] level : levels) {
+            for (int i = 0; i < SLOTS; i++) {
+                level[i] = new Slot<>();
+            }
+        }
+        this.maxTicks = (1L << (levelCount * BITS)) - 1;
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Schedule {@code payload} to expire at {@code deadlineMillis}. Deadlines in the past
+     * expire on the next {@link #advance}; deadlines beyond the wheel's range are clamped
+     * to the furthest slot and re-hashed from there.
+     */
+    public Timeout<T> schedule(long deadlineMillis, T payload) {
+        Timeout<T> timeout = new Timeout<>(deadlineMillis, payload);
+        add(timeout);
+        size++;
+        return timeout;
+    }
+
+    /**
+     * @return false if the timer already expired or was cancelled
+     */
+    public boolean cancel(Timeout<T> timeout) {
+        if (timeout.slot == null) {
+            return false;
+        }
+        timeout.slot.remove(timeout);
+        size--;
+        return true;
+    }
+
+    /**
+     * Move the wheel to {@code nowMillis}, handing every expired payload to {@code expired}.
+     */
+    public void advance(long nowMillis, Consumer<T> expired) {
+        long target = nowMillis / tickMillis;
+        while (currentTick <= target) {
+            int index = (int) (currentTick & MASK);
+            if (index == 0) {
+                for (int level = 1; level < levels.length && cascade(level) == 0; level++) {
+                    // keep cascading while the higher level also wrapped around
+                }
+            }
+            Slot<T> slot = levels[0][index];
+            Timeout<T> timeout;
+            while ((timeout = slot.head) != null) {
+                slot.remove(timeout);
+                size--;
+                expired.accept(timeout.payload);
+            }
+            currentTick++;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private int cascade(int level) {
+        int index = (int) ((currentTick >>> (level * BITS)) & MASK);
+        Slot<T> slot = levels[level][index];
+        Timeout<T> timeout;
+        while ((timeout = slot.head) != null) {
+            slot.remove(timeout);
+            add(timeout);
+        }
+        return index;
+    }
+
+    private void add(Timeout<T> timeout) {
+        long expires = Math.max(timeout.deadlineMillis / tickMillis, currentTick);
+        long delta = expires - currentTick;
+        if (delta > maxTicks) {
+            expires = currentTick + maxTicks;
+            delta = maxTicks;
+        }
+        int level = 0;
+        while (level < levels.length - 1 && delta >= 1L << ((level + 1) * BITS)) {
+            level++;
+        }
+        levels[level][(int) ((expires >>> (level * BITS)) & MASK)].append(timeout);
+    }
+
+    public static final class Timeout<T> {
+        private final long deadlineMillis;
+        private final T payload;
+        private Slot<T> slot;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+
+        Timeout(long deadlineMillis, T payload) {
+            this.deadlineMillis = deadlineMillis;
+            this.payload = payload;
+        }
+
+        public long getDeadlineMillis() {
+            return deadlineMillis;
+        }
+
+        public T getPayload() {
+            return payload;
+        }
+
+        public boolean isPending() {
+            return slot != null;
+        }
+    }
+
+    private static final class Slot<T> {
+        private Timeout<T> head;
+        private Timeout<T> tail;
+
+        void append(Timeout<T> timeout) {
+            timeout.slot = this;
+            timeout.prev = tail;
+            timeout.next = null;
+            if (tail == null) {
+                head = timeout;
+            } else {
+                tail.next = timeout;
+            }
+            tail = timeout;
+        }
+
+        void remove(Timeout<T> timeout) {
+            if (timeout.prev == null) {
+                head = timeout.next;
+            } else {
+                timeout.prev.next = timeout.next;
+            }
+            if (timeout.next == null) {
+                tail = timeout.prev;
+            } else {
+                timeout.next.prev = timeout.prev;
+            }
+            timeout.slot = null;
+            timeout.prev = null;
+            timeout.next = null;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.shop.sla;
+
+import com.shop.model.DrinkOrder;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import org.jboss.logging.Logger;
+import org.kie.kogito.Application;
+import org.kie.kogito.Model;
+import org.kie.kogito.process.Process;
+import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.impl.Sig;
+import org.kie.kogito.services.uow.UnitOfWorkExecutor;
+
+/**
+ * Acts on expired SLA timers. Escalation only raises the breach metric and a warning;
+ * cancellation raises PaymentError on the instance so it goes through the existing
+ * "Event Sub-Error" subprocess and ends as CANCELLED.
+ */
+@ApplicationScoped
+public class SlaEnforcer {
+
+    private static final Logger LOG = Logger.getLogger(SlaEnforcer.class);
+
+    static final String CANCEL_EVENT = "Error-PaymentError";
+
+    @Inject
+    @Named("OrderDrink")
+    Process<? extends Model> orderDrink;
+
+    @Inject
+    Application application;
+
+    @Inject
+    MeterRegistry registry;
+
+    public void escalate(SlaTimer timer) {
+        LOG.warnf("Order %s has been waiting at %s for %d ms", timer.getProcessInstanceId(),
+                timer.getStage().getNodeName(), System.currentTimeMillis() - timer.getTriggeredAt());
+        count(timer, "escalated");
+    }
+
+    /**
+     * @return false when the instance already moved on, e.g. the timer outlived a rolled back transaction
+     */
+    public boolean cancel(SlaTimer timer) {
+        boolean cancelled = UnitOfWorkExecutor.executeInUnitOfWork(application.unitOfWorkManager(),
+                () -> orderDrink.instances().findById(timer.getProcessInstanceId())
+                        .map(instance -> {
+                            if (instance.status() != ProcessInstance.STATE_ACTIVE) {
+                                return false;
+                            }
+                            Object order = instance.variables().toMap().get("drinkOrder");
+                            if (!(order instanceof DrinkOrder)
+                                    || ((DrinkOrder) order).getOrderStatus() != timer.getStage().getWaitingStatus()) {
+                                return false;
+                            }
+                            instance.send(Sig.of(CANCEL_EVENT, order));
+                            return true;
+                        })
+                        .orElse(false));
+        if (cancelled) {
+            LOG.warnf("Cancelled order %s after SLA breach at %s", timer.getProcessInstanceId(),
+                    timer.getStage().getNodeName());
+        }
+        count(timer, cancelled ? "cancelled" : "skipped");
+        return cancelled;
+    }
+
+    private void count(SlaTimer timer, String action) {
+        registry.counter("shop.sla.breach", "stage", timer.getStage().name(), "action", action).increment();
+    }
+}
@@ -0,0 +1,51 @@
+package com.shop.sla;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.kie.api.event.process.ProcessCompletedEvent;
+import org.kie.api.event.process.ProcessNodeLeftEvent;
+import org.kie.api.event.process.ProcessNodeTriggeredEvent;
+import org.kie.kogito.internal.process.event.DefaultKogitoProcessEventListener;
+
+/**
+ * Starts the SLA clock when an order reaches "Task CashPayment" or "Brewing"
+ * and stops it when the node is left or the instance ends.
+ */
+@ApplicationScoped
+public class SlaProcessListener extends DefaultKogitoProcessEventListener {
+
+    static final String PROCESS_ID = "OrderDrink";
+
+    @Inject
+    SlaTimerService timers;
+
+    @Override
+    public void beforeNodeTriggered(ProcessNodeTriggeredEvent event) {
+        SlaStage stage = stageOf(event.getProcessInstance().getProcessId(), event.getNodeInstance().getNodeName());
+        if (stage != null) {
+            timers.start(event.getProcessInstance().getId(), stage, System.currentTimeMillis());
+        }
+    }
+
+    @Override
+    public void afterNodeLeft(ProcessNodeLeftEvent event) {
+        SlaStage stage = stageOf(event.getProcessInstance().getProcessId(), event.getNodeInstance().getNodeName());
+        if (stage != null) {
+            timers.stop(event.getProcessInstance().getId(), stage);
+        }
+    }
+
+    @Override
+    public void afterProcessCompleted(ProcessCompletedEvent event) {
+        if (PROCESS_ID.equals(event.getProcessInstance().getProcessId())) {
+            // the event subprocess interrupts the wait states without leaving them
+            for (SlaStage stage : SlaStage.values()) {
+                timers.stop(event.getProcessInstance().getId(), stage);
+            }
+        }
+    }
+
+    private static SlaStage stageOf(String processId, String nodeName) {
+        return PROCESS_ID.equals(processId) && nodeName != null ? SlaStage.forNode(nodeName) : null;
+    }
+}
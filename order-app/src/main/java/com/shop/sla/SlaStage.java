@@ -0,0 +1,37 @@
+package com.shop.sla;
+
+import com.shop.model.DrinkOrder.OrderStatus;
+
+/**
+ * OrderDrink wait states that are guarded by an SLA timer, with the order status
+ * the instance has while it waits there.
+ */
+public enum SlaStage {
+    CASH_PAYMENT("Task CashPayment", OrderStatus.PAYMENT),
+    BREWING("Brewing", OrderStatus.INPROGRESS);
+
+    private final String nodeName;
+    private final OrderStatus waitingStatus;
+
+    SlaStage(String nodeName, OrderStatus waitingStatus) {
+        this.nodeName = nodeName;
+        this.waitingStatus = waitingStatus;
+    }
+
+    public String getNodeName() {
+        return nodeName;
+    }
+
+    public OrderStatus getWaitingStatus() {
+        return waitingStatus;
+    }
+
+    public static SlaStage forNode(String nodeName) {
+        for (SlaStage stage : values()) {
+            if (stage.nodeName.equals(nodeName)) {
+                return stage;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,81 @@
+package com.shop.sla;
+
+/**
+ * Pending SLA timer of one process instance at one stage.
+ * A timer first expires at the escalation deadline and is then re-armed for cancellation.
+ */
+public class SlaTimer {
+    private String processInstanceId;
+    private SlaStage stage;
+    private long triggeredAt;
+    private long deadline;
+    private boolean escalated;
+
+    public SlaTimer() {}
+
+    public SlaTimer(String processInstanceId, SlaStage stage, long triggeredAt, long deadline, boolean escalated) {
+        this.processInstanceId = processInstanceId;
+        this.stage = stage;
+        this.triggeredAt = triggeredAt;
+        this.deadline = deadline;
+        this.escalated = escalated;
+    }
+
+    public String key() {
+        return key(processInstanceId, stage);
+    }
+
+    public static String key(String processInstanceId, SlaStage stage) {
+        return processInstanceId + '|' + stage;
+    }
+
+    public String getProcessInstanceId() {
+        return processInstanceId;
+    }
+
+    public void setProcessInstanceId(String processInstanceId) {
+        this.processInstanceId = processInstanceId;
+    }
+
+    public SlaStage getStage() {
+        return stage;
+    }
+
+    public void setStage(SlaStage stage) {
+        this.stage = stage;
+    }
+
+    public long getTriggeredAt() {
+        return triggeredAt;
+    }
+
+    public void setTriggeredAt(long triggeredAt) {
+        this.triggeredAt = triggeredAt;
+    }
+
+    public long getDeadline() {
+        return deadline;
+    }
+
+    public void setDeadline(long deadline) {
+        this.deadline = deadline;
+    }
+
+    public boolean isEscalated() {
+        return escalated;
+    }
+
+    public void setEscalated(boolean escalated) {
+        this.escalated = escalated;
+    }
+
+    @Override
+    public String toString() {
+        return "SlaTimer{" +
+                "processInstanceId='" + processInstanceId + '\'' +
+                ", stage=" + stage +
+                ", deadline=" + deadline +
+                ", escalated=" + escalated +
+                '}';
+    }
+}
@@ -0,0 +1,56 @@
+package com.shop.sla;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import org.kie.kogito.Application;
+import org.kie.kogito.Model;
+import org.kie.kogito.internal.process.runtime.KogitoNodeInstance;
+import org.kie.kogito.process.Process;
+import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstanceReadMode;
+import org.kie.kogito.services.uow.UnitOfWorkExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Finds the OrderDrink instances that wait in an SLA stage, with the time they got there.
+ * Timers are only persisted once they fall due within the next chunk, so a replica that dies
+ * leaves the recent wait states without a timer anywhere; {@link SlaTimerService} re-arms them
+ * from this scan for every partition it takes over, including all of its own on startup.
+ */
+@ApplicationScoped
+public class SlaTimerRecovery {
+
+    @Inject
+    @Named("OrderDrink")
+    Process<? extends Model> orderDrink;
+
+    @Inject
+    Application application;
+
+    /**
+     * @return one timer per waiting stage, with only the instance, stage and trigger time set
+     */
+    public List<SlaTimer> waiting(Predicate<String> processInstanceIds) {
+        return UnitOfWorkExecutor.executeInUnitOfWork(application.unitOfWorkManager(), () -> {
+            List<SlaTimer> waiting = new ArrayList<>();
+            try (Stream<? extends ProcessInstance<? extends Model>> instances =
+                         orderDrink.instances().stream(ProcessInstanceReadMode.READ_ONLY)) {
+                instances.filter(instance -> instance.status() == ProcessInstance.STATE_ACTIVE
+                                && processInstanceIds.test(instance.id()))
+                        .forEach(instance -> {
+                            for (KogitoNodeInstance node : instance.findNodes(
+                                    node -> SlaStage.forNode(node.getNodeName()) != null)) {
+                                waiting.add(new SlaTimer(instance.id(), SlaStage.forNode(node.getNodeName()),
+                                        node.getTriggerTime().getTime(), 0, false));
+                            }
+                        });
+            }
+            return waiting;
+        });
+    }
+}
@@ -0,0 +1,336 @@
+package com.shop.sla;
+
+import com.shop.partition.PartitionLeaseService;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SLA timers for the OrderDrink wait states, kept in a hierarchical timing wheel so
+ * scheduling and cancelling stay O(1) with 100k+ pending orders. Unlike the jobs service
+ * nothing is written per timer: a periodic sync persists only the timers due within
+ * the next chunk and loads the persisted ones of the partitions this replica owns.
+ * Timers armed here for an instance in another replica's partition are handed over
+ * through the table instead of firing locally. Timers that never made it to the table
+ * before a replica died are re-armed from the waiting instances when their partition
+ * is taken over, see {@link SlaTimerRecovery}.
+ */
+@ApplicationScoped
+public class SlaTimerService {
+
+    private static final Logger LOG = Logger.getLogger(SlaTimerService.class);
+
+    private static final int WHEEL_LEVELS = 4;
+    private static final long RETRY_DELAY_MS = 5_000;
+
+    @ConfigProperty(name = "shop.sla.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "shop.sla.tick-ms", defaultValue = "100")
+    long tickMs;
+
+    @ConfigProperty(name = "shop.sla.cash-payment.escalate-after", defaultValue = "5m")
+    Duration cashPaymentEscalateAfter;
+
+    @ConfigProperty(name = "shop.sla.cash-payment.cancel-after", defaultValue = "15m")
+    Duration cashPaymentCancelAfter;
+
+    @ConfigProperty(name = "shop.sla.brewing.escalate-after", defaultValue = "10m")
+    Duration brewingEscalateAfter;
+
+    @ConfigProperty(name = "shop.sla.brewing.cancel-after", defaultValue = "30m")
+    Duration brewingCancelAfter;
+
+    @ConfigProperty(name = "shop.sla.persist.chunk", defaultValue = "10m")
+    Duration persistChunk;
+
+    @ConfigProperty(name = "shop.sla.persist.interval", defaultValue = "30s")
+    Duration persistInterval;
+
+    @Inject
+    SlaTimerStore store;
+
+    @Inject
+    SlaEnforcer enforcer;
+
+    @Inject
+    SlaTimerRecovery recovery;
+
+    @Inject
+    PartitionLeaseService partitions;
+
+    @Inject
+    MeterRegistry registry;
+
+    private HierarchicalTimingWheel<SlaTimer> wheel;
+    private final ConcurrentHashMap<String, HierarchicalTimingWheel.Timeout<SlaTimer>> pending = new ConcurrentHashMap<>();
+    // stages stopped on this replica whose timer lives on the partition owner
+    private final Set<SlaTimer> remoteStops = ConcurrentHashMap.newKeySet();
+    // only touched by the sync task
+    private final Map<String, SlaTimer> persisted = new HashMap<>();
+    private final Set<Integer> recoveredPartitions = new HashSet<>();
+    private ScheduledExecutorService scheduler;
+    private ExecutorService enforcerExecutor;
+
+    void onStart(@Observes StartupEvent event) {
+        if (!enabled) {
+            LOG.info("SLA timers disabled");
+            return;
+        }
+        wheel = new HierarchicalTimingWheel<>(tickMs, WHEEL_LEVELS, System.currentTimeMillis());
+        Gauge.builder("shop.sla.timers.pending", pending, Map::size)
+                .description("SLA timers waiting in the timing wheel")
+                .register(registry);
+
+        scheduler = Executors.newScheduledThreadPool(2, r -> {
+            Thread thread = new Thread(r, "sla-wheel");
+            thread.setDaemon(true);
+            return thread;
+        });
+        enforcerExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "sla-enforcer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::tick, tickMs, tickMs, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::sync, 0, persistInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdown();
+        enforcerExecutor.shutdown();
+        try {
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // hand every pending timer over so the remaining replicas pick them up
+        checkpoint(true);
+    }
+
+    /**
+     * Start the SLA clock of {@code stage} for a process instance, replacing any previous timer
+     */
+    public void start(String processInstanceId, SlaStage stage, long triggeredAt) {
+        if (wheel == null) {
+            return;
+        }
+        long escalateAt = triggeredAt + escalateAfter(stage).toMillis();
+        long cancelAt = triggeredAt + cancelAfter(stage).toMillis();
+        boolean escalate = escalateAfter(stage).isPositive() && escalateAt < cancelAt;
+        arm(new SlaTimer(processInstanceId, stage, triggeredAt, escalate ? escalateAt : cancelAt, !escalate));
+    }
+
+    public void stop(String processInstanceId, SlaStage stage) {
+        if (wheel == null) {
+            return;
+        }
+        HierarchicalTimingWheel.Timeout<SlaTimer> timeout = pending.remove(SlaTimer.key(processInstanceId, stage));
+        if (timeout != null) {
+            synchronized (wheel) {
+                wheel.cancel(timeout);
+            }
+        } else if (!partitions.owns(processInstanceId)) {
+            remoteStops.add(new SlaTimer(processInstanceId, stage, 0, 0, false));
+        }
+    }
+
+    private void arm(SlaTimer timer) {
+        HierarchicalTimingWheel.Timeout<SlaTimer> timeout;
+        synchronized (wheel) {
+            timeout = wheel.schedule(timer.getDeadline(), timer);
+        }
+        HierarchicalTimingWheel.Timeout<SlaTimer> previous = pending.put(timer.key(), timeout);
+        if (previous != null) {
+            synchronized (wheel) {
+                wheel.cancel(previous);
+            }
+        }
+    }
+
+    void tick() {
+        List<SlaTimer> expired = new ArrayList<>();
+        synchronized (wheel) {
+            wheel.advance(System.currentTimeMillis(), expired::add);
+        }
+        for (SlaTimer timer : expired) {
+            HierarchicalTimingWheel.Timeout<SlaTimer> current = pending.get(timer.key());
+            if (current == null || current.getPayload() != timer) {
+                continue;
+            }
+            // process instance calls go through the engine, keep them off the wheel thread
+            enforcerExecutor.execute(() -> expire(timer));
+        }
+    }
+
+    private void expire(SlaTimer timer) {
+        try {
+            if (!timer.isEscalated()) {
+                enforcer.escalate(timer);
+                long cancelAt = timer.getTriggeredAt() + cancelAfter(timer.getStage()).toMillis();
+                rearm(timer, new SlaTimer(timer.getProcessInstanceId(), timer.getStage(), timer.getTriggeredAt(),
+                        cancelAt, true));
+            } else {
+                enforcer.cancel(timer);
+                HierarchicalTimingWheel.Timeout<SlaTimer> current = pending.get(timer.key());
+                if (current != null && current.getPayload() == timer) {
+                    pending.remove(timer.key(), current);
+                }
+            }
+        } catch (Exception e) {
+            LOG.warnf("SLA action for %s failed, retrying: %s", timer, e.getMessage());
+            rearm(timer, new SlaTimer(timer.getProcessInstanceId(), timer.getStage(), timer.getTriggeredAt(),
+                    System.currentTimeMillis() + RETRY_DELAY_MS, timer.isEscalated()));
+        }
+    }
+
+    /**
+     * Replace an expired timer unless the stage was stopped or restarted meanwhile
+     */
+    private void rearm(SlaTimer expired, SlaTimer next) {
+        HierarchicalTimingWheel.Timeout<SlaTimer> current = pending.get(expired.key());
+        if (current != null && current.getPayload() == expired) {
+            arm(next);
+        }
+    }
+
+    void sync() {
+        recover();
+        long horizon = System.currentTimeMillis() + persistChunk.toMillis();
+        try {
+            int loaded = 0;
+            for (SlaTimer timer : store.loadDue(partitions.ownedPartitions(), horizon)) {
+                if (!pending.containsKey(timer.key())) {
+                    arm(timer);
+                    loaded++;
+                }
+                persisted.putIfAbsent(timer.key(), timer);
+            }
+            if (loaded > 0) {
+                LOG.infof("Loaded %d persisted SLA timers", loaded);
+            }
+        } catch (Exception e) {
+            LOG.warnf("Unable to load SLA timers: %s", e.getMessage());
+        }
+        checkpoint(false);
+    }
+
+    /**
+     * Arm a timer for every instance waiting in a stage of a newly owned partition that has
+     * neither a pending nor a persisted timer, e.g. one armed less than a sync interval before
+     * its replica crashed. Deadlines count from when the instance entered the node, so an
+     * overdue stage escalates right away.
+     */
+    void recover() {
+        int[] owned = partitions.ownedPartitions();
+        Set<Integer> ownedSet = new HashSet<>();
+        Set<Integer> taken = new HashSet<>();
+        for (int partition : owned) {
+            ownedSet.add(partition);
+            if (!recoveredPartitions.contains(partition)) {
+                taken.add(partition);
+            }
+        }
+        // a partition lost and owned again later is scanned again
+        recoveredPartitions.retainAll(ownedSet);
+        if (taken.isEmpty()) {
+            return;
+        }
+        try {
+            Set<String> stored = new HashSet<>();
+            for (SlaTimer timer : store.loadDue(taken.stream().mapToInt(Integer::intValue).toArray(), Long.MAX_VALUE)) {
+                stored.add(timer.key());
+            }
+            int rearmed = 0;
+            for (SlaTimer waiting : recovery.waiting(id -> taken.contains(partitions.partitionOf(id)))) {
+                if (!pending.containsKey(waiting.key()) && !stored.contains(waiting.key())) {
+                    start(waiting.getProcessInstanceId(), waiting.getStage(), waiting.getTriggeredAt());
+                    rearmed++;
+                }
+            }
+            recoveredPartitions.addAll(taken);
+            if (rearmed > 0) {
+                LOG.infof("Re-armed %d SLA timers that were never persisted", rearmed);
+            }
+        } catch (Exception e) {
+            LOG.warnf("Unable to recover SLA timers, will retry: %s", e.getMessage());
+        }
+    }
+
+    void checkpoint(boolean handOffAll) {
+        long horizon = System.currentTimeMillis() + persistChunk.toMillis();
+        Map<String, SlaTimer> keep = new HashMap<>();
+        List<HierarchicalTimingWheel.Timeout<SlaTimer>> handOff = new ArrayList<>();
+        List<SlaTimer> upserts = new ArrayList<>();
+        for (HierarchicalTimingWheel.Timeout<SlaTimer> timeout : pending.values()) {
+            SlaTimer timer = timeout.getPayload();
+            SlaTimer stored = persisted.get(timer.key());
+            boolean changed = stored == null || stored.getDeadline() != timer.getDeadline();
+            if (handOffAll || !partitions.owns(timer.getProcessInstanceId())) {
+                // not ours: persist whatever the deadline so the owner loads it
+                handOff.add(timeout);
+                if (changed) {
+                    upserts.add(timer);
+                }
+            } else if (timer.getDeadline() <= horizon || stored != null) {
+                keep.put(timer.key(), timer);
+                if (changed) {
+                    upserts.add(timer);
+                }
+            }
+        }
+        List<SlaTimer> deletes = new ArrayList<>(remoteStops);
+        for (SlaTimer stored : persisted.values()) {
+            if (!keep.containsKey(stored.key()) && !pending.containsKey(stored.key())) {
+                // fired, stopped or replaced since the last checkpoint
+                deletes.add(stored);
+            }
+        }
+        try {
+            store.apply(upserts, deletes);
+            remoteStops.removeAll(deletes);
+            persisted.clear();
+            persisted.putAll(keep);
+            for (HierarchicalTimingWheel.Timeout<SlaTimer> timeout : handOff) {
+                if (pending.remove(timeout.getPayload().key(), timeout)) {
+                    synchronized (wheel) {
+                        wheel.cancel(timeout);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            LOG.warnf("SLA timer checkpoint failed, will retry: %s", e.getMessage());
+        }
+    }
+
+    private Duration escalateAfter(SlaStage stage) {
+        return stage == SlaStage.BREWING ? brewingEscalateAfter : cashPaymentEscalateAfter;
+    }
+
+    private Duration cancelAfter(SlaStage stage) {
+        return stage == SlaStage.BREWING ? brewingCancelAfter : cashPaymentCancelAfter;
+    }
+}
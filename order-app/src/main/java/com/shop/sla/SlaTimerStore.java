@@ -0,0 +1,108 @@
+package com.shop.sla;
+
+import com.shop.partition.PartitionLeaseService;
+
+import io.agroal.api.AgroalDataSource;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Persists the SLA timers that fall due within the upcoming chunk so they survive a restart.
+ * Timers further out only live in the wheel until a checkpoint finds them inside the chunk;
+ * if the replica dies before that, {@link SlaTimerRecovery} finds their instances again.
+ * Rows carry the partition of their process instance so a replica only reads its own range.
+ * The shop_sla_timer table comes from the order-app kie-flyway migrations.
+ */
+@ApplicationScoped
+public class SlaTimerStore {
+
+    private static final String UPSERT =
+            "INSERT INTO shop_sla_timer (process_instance_id, stage, partition_id, triggered_at, deadline, escalated) " +
+            "VALUES (?, ?, ?, ?, ?, ?) ON CONFLICT (process_instance_id, stage) " +
+            "DO UPDATE SET triggered_at = EXCLUDED.triggered_at, deadline = EXCLUDED.deadline, escalated = EXCLUDED.escalated";
+
+    private static final String DELETE =
+            "DELETE FROM shop_sla_timer WHERE process_instance_id = ? AND stage = ?";
+
+    private static final String SELECT_DUE =
+            "SELECT process_instance_id, stage, triggered_at, deadline, escalated FROM shop_sla_timer " +
+            "WHERE partition_id = ANY(?) AND deadline <= ?";
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    @Inject
+    PartitionLeaseService partitions;
+
+    /**
+     * Timers of the given partitions that fall due before {@code horizon}
+     */
+    public List<SlaTimer> loadDue(int[] partitionIds, long horizon) throws SQLException {
+        List<SlaTimer> timers = new ArrayList<>();
+        if (partitionIds.length == 0) {
+            return timers;
+        }
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_DUE)) {
+            Integer[] ids = new Integer[partitionIds.length];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = partitionIds[i];
+            }
+            statement.setArray(1, connection.createArrayOf("integer", ids));
+            statement.setLong(2, horizon);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    timers.add(new SlaTimer(rs.getString(1), SlaStage.valueOf(rs.getString(2)),
+                            rs.getLong(3), rs.getLong(4), rs.getBoolean(5)));
+                }
+            }
+        }
+        return timers;
+    }
+
+    /**
+     * Upsert {@code upserts} and remove the {@code deletes} in one transaction
+     */
+    public void apply(Collection<SlaTimer> upserts, Collection<SlaTimer> deletes) throws SQLException {
+        if (upserts.isEmpty() && deletes.isEmpty()) {
+            return;
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (PreparedStatement upsert = connection.prepareStatement(UPSERT);
+                 PreparedStatement delete = connection.prepareStatement(DELETE)) {
+                for (SlaTimer timer : upserts) {
+                    upsert.setString(1, timer.getProcessInstanceId());
+                    upsert.setString(2, timer.getStage().name());
+                    upsert.setInt(3, partitions.partitionOf(timer.getProcessInstanceId()));
+                    upsert.setLong(4, timer.getTriggeredAt());
+                    upsert.setLong(5, timer.getDeadline());
+                    upsert.setBoolean(6, timer.isEscalated());
+                    upsert.addBatch();
+                }
+                for (SlaTimer timer : deletes) {
+                    delete.setString(1, timer.getProcessInstanceId());
+                    delete.setString(2, timer.getStage().name());
+                    delete.addBatch();
+                }
+                upsert.executeBatch();
+                delete.executeBatch();
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+}
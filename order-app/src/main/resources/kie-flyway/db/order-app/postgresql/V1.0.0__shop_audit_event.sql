@@ -0,0 +1,17 @@
+-- Audit records written by AuditBatchWriter. IF NOT EXISTS keeps the script applicable to
+-- databases where earlier builds created the table on startup.
+CREATE TABLE IF NOT EXISTS shop_audit_event (
+    id BIGSERIAL PRIMARY KEY,
+    event_id VARCHAR(64),
+    event_type VARCHAR(255) NOT NULL,
+    process_id VARCHAR(255),
+    process_instance_id VARCHAR(64),
+    event_time TIMESTAMP WITH TIME ZONE,
+    payload TEXT
+);
+
+CREATE INDEX IF NOT EXISTS idx_shop_audit_event_pi ON shop_audit_event(process_instance_id);
+
+-- a replayed spill file or retried batch inserts the same event again, keep the first copy
+DELETE FROM shop_audit_event a USING shop_audit_event b WHERE a.event_id = b.event_id AND a.id > b.id;
+CREATE UNIQUE INDEX IF NOT EXISTS uq_shop_audit_event_event_id ON shop_audit_event(event_id);
@@ -0,0 +1,12 @@
+-- SLA timers checkpointed by SlaTimerStore, one row per process instance and stage
+CREATE TABLE IF NOT EXISTS shop_sla_timer (
+    process_instance_id VARCHAR(64) NOT NULL,
+    stage VARCHAR(32) NOT NULL,
+    partition_id INT NOT NULL,
+    triggered_at BIGINT NOT NULL,
+    deadline BIGINT NOT NULL,
+    escalated BOOLEAN NOT NULL,
+    PRIMARY KEY (process_instance_id, stage)
+);
+
+CREATE INDEX IF NOT EXISTS idx_shop_sla_timer_partition ON shop_sla_timer(partition_id, deadline);
@@ -0,0 +1,12 @@
+-- Replica memberships and partition leases of PartitionLeaseCoordinator. expires_at is epoch
+-- millis of the database clock, JdbcLeaseRepository sets and compares it in SQL.
+CREATE TABLE IF NOT EXISTS shop_lease_member (
+    member_id VARCHAR(255) PRIMARY KEY,
+    expires_at BIGINT NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS shop_partition_lease (
+    partition_id INT PRIMARY KEY,
+    owner VARCHAR(255) NOT NULL,
+    expires_at BIGINT NOT NULL
+);
@@ -0,0 +1,22 @@
+-- Menu prices of CatalogStore. Every price update bumps the single version row, so replicas
+-- can tell which snapshot is newer.
+CREATE TABLE IF NOT EXISTS shop_catalog_price (
+    drink_type VARCHAR(32) NOT NULL,
+    drink_size VARCHAR(32) NOT NULL,
+    price NUMERIC(10, 2) NOT NULL,
+    PRIMARY KEY (drink_type, drink_size)
+);
+
+CREATE TABLE IF NOT EXISTS shop_catalog_version (
+    id INT PRIMARY KEY,
+    version BIGINT NOT NULL
+);
+
+INSERT INTO shop_catalog_version (id, version) VALUES (1, 1) ON CONFLICT (id) DO NOTHING;
+
+-- initial menu, prices that were already changed are kept
+INSERT INTO shop_catalog_price (drink_type, drink_size, price) VALUES
+    ('COFFEE', 'SMALL', 3.49), ('COFFEE', 'MEDIUM', 4.29), ('COFFEE', 'LARGE', 4.99),
+    ('LATTE', 'SMALL', 3.99), ('LATTE', 'MEDIUM', 4.79), ('LATTE', 'LARGE', 5.49),
+    ('CAPPUCCINO', 'SMALL', 3.99), ('CAPPUCCINO', 'MEDIUM', 4.79), ('CAPPUCCINO', 'LARGE', 5.49)
+ON CONFLICT (drink_type, drink_size) DO NOTHING;
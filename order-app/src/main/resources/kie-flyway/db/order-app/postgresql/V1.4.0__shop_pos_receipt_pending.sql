@@ -0,0 +1,18 @@
+-- POS receipts queued by PendingReceiptStore until their order reaches "Task CashPayment".
+-- IF NOT EXISTS keeps the script applicable to databases where earlier builds created the
+-- table on startup, the cashier columns are added to those.
+CREATE TABLE IF NOT EXISTS shop_pos_receipt_pending (
+    order_id VARCHAR(64) PRIMARY KEY,
+    receipt_id VARCHAR(64),
+    amount NUMERIC(10, 2) NOT NULL,
+    partition_id INT NOT NULL,
+    received_at BIGINT NOT NULL,
+    cashier VARCHAR(255),
+    cashier_roles VARCHAR(1024)
+);
+
+ALTER TABLE shop_pos_receipt_pending ADD COLUMN IF NOT EXISTS cashier VARCHAR(255);
+ALTER TABLE shop_pos_receipt_pending ADD COLUMN IF NOT EXISTS cashier_roles VARCHAR(1024);
+
+-- retry and expiry scan of the partitions a replica owns
+CREATE INDEX IF NOT EXISTS idx_shop_pos_receipt_partition ON shop_pos_receipt_pending(partition_id, received_at);
@@ -0,0 +1,59 @@
+package com.shop.audit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditRingBufferTest {
+
+    @Test
+    void rejectsWhenFull() {
+        AuditRingBuffer<Integer> ring = new AuditRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertThat(ring.offer(i)).isTrue();
+        }
+        assertThat(ring.offer(99)).isFalse();
+        assertThat(ring.size()).isEqualTo(4);
+
+        List<Integer> drained = new ArrayList<>();
+        assertThat(ring.drain(drained::add, 10)).isEqualTo(4);
+        assertThat(drained).containsExactly(0, 1, 2, 3);
+        assertThat(ring.offer(5)).isTrue();
+    }
+
+    @Test
+    void concurrentProducersLoseNothingAcceptedByTheRing() throws Exception {
+        AuditRingBuffer<Integer> ring = new AuditRingBuffer<>(1024);
+        int producers = 8;
+        int perProducer = 20_000;
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger consumed = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(producers);
+        ExecutorService pool = Executors.newFixedThreadPool(producers);
+        for (int p = 0; p < producers; p++) {
+            pool.execute(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    if (ring.offer(i)) {
+                        accepted.incrementAndGet();
+                    }
+                }
+                done.countDown();
+            });
+        }
+        while (done.getCount() > 0) {
+            ring.drain(e -> consumed.incrementAndGet(), 256);
+        }
+        ring.drain(e -> consumed.incrementAndGet(), Integer.MAX_VALUE);
+        pool.shutdown();
+        assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(consumed.get()).isEqualTo(accepted.get());
+    }
+}
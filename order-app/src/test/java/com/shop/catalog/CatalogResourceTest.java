@@ -0,0 +1,32 @@
+package com.shop.catalog;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.security.TestSecurity;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+
+@QuarkusTest
+class CatalogResourceTest {
+
+    private static final String CHEAP_LATTE = "[{\"drinkType\":\"LATTE\",\"drinkSize\":\"SMALL\",\"price\":0.01}]";
+
+    @Test
+    @TestSecurity(user = "alice", roles = "customer")
+    void customersCannotChangePrices() {
+        given().contentType(ContentType.JSON)
+                .body(CHEAP_LATTE)
+                .when().put("/catalog/prices")
+                .then().statusCode(403);
+    }
+
+    @Test
+    @TestSecurity(user = "manager1", roles = "manager")
+    void managersReachThePriceUpdate() {
+        given().contentType(ContentType.JSON)
+                .body("[]")
+                .when().put("/catalog/prices")
+                .then().statusCode(400);
+    }
+}
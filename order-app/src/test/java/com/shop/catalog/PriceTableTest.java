@@ -0,0 +1,55 @@
+package com.shop.catalog;
+
+import com.shop.model.DrinkOrder.DrinkSize;
+import com.shop.model.DrinkOrder.DrinkType;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PriceTableTest {
+
+    @Test
+    void looksUpPricesByTypeAndSize() {
+        PriceTable table = PriceTable.of(3, prices("3.49", "4.79"));
+
+        assertThat(table.getVersion()).isEqualTo(3);
+        assertThat(table.price(DrinkType.COFFEE, DrinkSize.SMALL)).isEqualByComparingTo("3.49");
+        assertThat(table.price(DrinkType.LATTE, DrinkSize.MEDIUM)).isEqualByComparingTo("4.79");
+        assertThat(table.price(DrinkType.CAPPUCCINO, DrinkSize.LARGE)).isNull();
+    }
+
+    @Test
+    void tableIsNotAffectedByLaterChangesToItsSource() {
+        Map<DrinkType, Map<DrinkSize, BigDecimal>> source = prices("3.49", "4.79");
+        PriceTable table = PriceTable.of(1, source);
+
+        source.get(DrinkType.COFFEE).put(DrinkSize.SMALL, new BigDecimal("9.99"));
+
+        assertThat(table.price(DrinkType.COFFEE, DrinkSize.SMALL)).isEqualByComparingTo("3.49");
+    }
+
+    @Test
+    void roundTripsThroughSnapshot() {
+        PriceTable table = PriceTable.of(7, prices("3.49", "4.79"));
+
+        PriceTable copy = new CatalogSnapshot(table).toTable();
+
+        assertThat(copy.getVersion()).isEqualTo(7);
+        assertThat(copy.toMap()).isEqualTo(table.toMap());
+        assertThat(PriceTable.EMPTY.toMap()).isEmpty();
+    }
+
+    private static Map<DrinkType, Map<DrinkSize, BigDecimal>> prices(String coffeeSmall, String latteMedium) {
+        Map<DrinkType, Map<DrinkSize, BigDecimal>> prices = new EnumMap<>(DrinkType.class);
+        prices.computeIfAbsent(DrinkType.COFFEE, t -> new EnumMap<>(DrinkSize.class))
+                .put(DrinkSize.SMALL, new BigDecimal(coffeeSmall));
+        prices.computeIfAbsent(DrinkType.LATTE, t -> new EnumMap<>(DrinkSize.class))
+                .put(DrinkSize.MEDIUM, new BigDecimal(latteMedium));
+        return prices;
+    }
+}
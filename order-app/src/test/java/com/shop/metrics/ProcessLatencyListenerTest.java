@@ -0,0 +1,30 @@
+package com.shop.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.kie.api.runtime.process.ProcessInstance;
+
+import com.shop.model.DrinkOrder.OrderStatus;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProcessLatencyListenerTest {
+
+    @Test
+    void nodeOutcomeFollowsTheInstanceAndTheOrder() {
+        assertThat(ProcessLatencyListener.nodeOutcome(ProcessInstance.STATE_ACTIVE, OrderStatus.PAYMENT)).isEqualTo("COMPLETED");
+        assertThat(ProcessLatencyListener.nodeOutcome(ProcessInstance.STATE_ACTIVE, null)).isEqualTo("COMPLETED");
+        assertThat(ProcessLatencyListener.nodeOutcome(ProcessInstance.STATE_ACTIVE, OrderStatus.CANCELLED)).isEqualTo("CANCELLED");
+        assertThat(ProcessLatencyListener.nodeOutcome(ProcessInstance.STATE_ABORTED, OrderStatus.INPROGRESS)).isEqualTo("ABORTED");
+    }
+
+    @Test
+    void onlyBrewedDrinksReachReady() {
+        assertThat(ProcessLatencyListener.reachedReady(ProcessInstance.STATE_ACTIVE, OrderStatus.INPROGRESS)).isTrue();
+        assertThat(ProcessLatencyListener.reachedReady(ProcessInstance.STATE_ACTIVE, OrderStatus.CANCELLED)).isFalse();
+        assertThat(ProcessLatencyListener.reachedReady(ProcessInstance.STATE_ABORTED, OrderStatus.INPROGRESS)).isFalse();
+
+        assertThat(ProcessLatencyListener.processOutcome(ProcessInstance.STATE_COMPLETED, OrderStatus.INPROGRESS)).isEqualTo("READY");
+        assertThat(ProcessLatencyListener.processOutcome(ProcessInstance.STATE_COMPLETED, OrderStatus.CANCELLED)).isEqualTo("CANCELLED");
+        assertThat(ProcessLatencyListener.processOutcome(ProcessInstance.STATE_ABORTED, OrderStatus.PAYMENT)).isEqualTo("ABORTED");
+    }
+}
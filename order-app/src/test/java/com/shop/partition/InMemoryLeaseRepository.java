@@ -0,0 +1,82 @@
+package com.shop.partition;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Lease table shared by the in-process replicas of {@link PartitionLeaseCoordinatorTest}.
+ * {@code clock} plays the database clock.
+ */
+class InMemoryLeaseRepository implements LeaseRepository {
+
+    private final LongSupplier clock;
+    private final Map<String, Long> members = new HashMap<>();
+    private final Map<Integer, Lease> leases = new HashMap<>();
+
+    InMemoryLeaseRepository(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public synchronized void heartbeat(String member, long ttlMillis) {
+        members.put(member, clock.getAsLong() + ttlMillis);
+    }
+
+    @Override
+    public synchronized void leave(String member) {
+        members.remove(member);
+    }
+
+    @Override
+    public synchronized List<String> liveMembers() {
+        long now = clock.getAsLong();
+        List<String> live = new ArrayList<>();
+        members.forEach((member, expiresAt) -> {
+            if (expiresAt >= now) {
+                live.add(member);
+            }
+        });
+        return live;
+    }
+
+    @Override
+    public synchronized List<Lease> leases() {
+        long now = clock.getAsLong();
+        List<Lease> live = new ArrayList<>();
+        for (Lease lease : leases.values()) {
+            if (lease.getExpiresAt() >= now) {
+                live.add(lease);
+            }
+        }
+        return live;
+    }
+
+    @Override
+    public synchronized boolean tryAcquire(int partition, String owner, long ttlMillis) {
+        long now = clock.getAsLong();
+        Lease current = leases.get(partition);
+        if (current == null || current.getOwner().equals(owner) || current.getExpiresAt() < now) {
+            leases.put(partition, new Lease(partition, owner, now + ttlMillis));
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public synchronized void renew(String owner, long ttlMillis) {
+        long expiresAt = clock.getAsLong() + ttlMillis;
+        leases.replaceAll((partition, lease) ->
+                lease.getOwner().equals(owner) ? new Lease(partition, owner, expiresAt) : lease);
+    }
+
+    @Override
+    public synchronized void release(int partition, String owner) {
+        Lease current = leases.get(partition);
+        if (current != null && current.getOwner().equals(owner)) {
+            leases.remove(partition);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.shop.partition;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PartitionLeaseCoordinatorTest {
+
+    private static final int PARTITIONS = 64;
+    private static final long LEASE_MS = 30_000;
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+    private final InMemoryLeaseRepository repository = new InMemoryLeaseRepository(clock::get);
+
+    @Test
+    void replicasSplitPartitionsWithoutOverlap() throws Exception {
+        List<PartitionLeaseCoordinator> replicas = replicas(3);
+
+        rounds(replicas, 3);
+
+        assertExactlyOneOwnerPerPartition(replicas);
+        for (PartitionLeaseCoordinator replica : replicas) {
+            assertThat(replica.ownedPartitions().length).isBetween(21, 22);
+        }
+    }
+
+    @Test
+    void joiningReplicaTakesItsShare() throws Exception {
+        List<PartitionLeaseCoordinator> replicas = replicas(3);
+        rounds(replicas, 3);
+
+        replicas.add(new PartitionLeaseCoordinator(repository, "replica-3", PARTITIONS, LEASE_MS, clock::get));
+        rounds(replicas, 3);
+
+        assertExactlyOneOwnerPerPartition(replicas);
+        for (PartitionLeaseCoordinator replica : replicas) {
+            assertThat(replica.ownedPartitions()).hasSize(16);
+        }
+    }
+
+    @Test
+    void partitionsOfACrashedReplicaMoveAfterLeaseExpiry() throws Exception {
+        List<PartitionLeaseCoordinator> replicas = replicas(3);
+        rounds(replicas, 3);
+
+        // replica-0 stops renewing without releasing anything
+        PartitionLeaseCoordinator crashed = replicas.remove(0);
+        rounds(replicas, 1);
+        assertThat(ownedBy(replicas)).isEqualTo(PARTITIONS - crashed.ownedPartitions().length);
+
+        clock.addAndGet(LEASE_MS + 1);
+        rounds(replicas, 3);
+
+        assertThat(crashed.ownedPartitions()).isEmpty();
+        assertExactlyOneOwnerPerPartition(replicas);
+        for (PartitionLeaseCoordinator replica : replicas) {
+            assertThat(replica.ownedPartitions()).hasSize(32);
+        }
+    }
+
+    @Test
+    void leavingReplicaHandsOverImmediately() throws Exception {
+        List<PartitionLeaseCoordinator> replicas = replicas(2);
+        rounds(replicas, 2);
+
+        replicas.remove(1).leave();
+        rounds(replicas, 1);
+
+        assertThat(replicas.get(0).ownedPartitions()).hasSize(PARTITIONS);
+    }
+
+    @Test
+    void replicaWithAClockAheadDoesNotTakeLiveLeases() throws Exception {
+        List<PartitionLeaseCoordinator> replicas = replicas(2);
+        rounds(replicas, 3);
+
+        // an hour ahead, every lease would look expired if expiry were judged by the replica's clock
+        replicas.add(new PartitionLeaseCoordinator(repository, "replica-2", PARTITIONS, LEASE_MS,
+                () -> clock.get() + 3_600_000));
+        rounds(replicas, 1);
+        int[] owners = new int[PARTITIONS];
+        for (PartitionLeaseCoordinator replica : replicas) {
+            for (int p : replica.ownedPartitions()) {
+                assertThat(++owners[p]).as("owners of partition %d", p).isEqualTo(1);
+            }
+        }
+
+        rounds(replicas, 3);
+        assertExactlyOneOwnerPerPartition(replicas);
+        for (PartitionLeaseCoordinator replica : replicas) {
+            assertThat(replica.ownedPartitions().length).isBetween(21, 22);
+        }
+    }
+
+    @Test
+    void everyKeyHasExactlyOneOwner() throws Exception {
+        List<PartitionLeaseCoordinator> replicas = replicas(5);
+        rounds(replicas, 3);
+
+        for (int i = 0; i < 10_000; i++) {
+            String key = "order-" + i;
+            assertThat(replicas.stream().filter(r -> r.owns(key)).count()).isEqualTo(1);
+        }
+    }
+
+    private List<PartitionLeaseCoordinator> replicas(int count) {
+        List<PartitionLeaseCoordinator> replicas = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            replicas.add(new PartitionLeaseCoordinator(repository, "replica-" + i, PARTITIONS, LEASE_MS, clock::get));
+        }
+        return replicas;
+    }
+
+    /**
+     * Run rebalance rounds with all replicas racing concurrently, like separate JVMs would
+     */
+    private void rounds(List<PartitionLeaseCoordinator> replicas, int rounds) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(replicas.size());
+        try {
+            for (int round = 0; round < rounds; round++) {
+                CountDownLatch done = new CountDownLatch(replicas.size());
+                for (PartitionLeaseCoordinator replica : replicas) {
+                    pool.execute(() -> {
+                        try {
+                            replica.rebalance();
+                        } finally {
+                            done.countDown();
+                        }
+                    });
+                }
+                assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+                clock.addAndGet(1_000);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void assertExactlyOneOwnerPerPartition(List<PartitionLeaseCoordinator> replicas) {
+        int[] owners = new int[PARTITIONS];
+        for (PartitionLeaseCoordinator replica : replicas) {
+            for (int p : replica.ownedPartitions()) {
+                owners[p]++;
+            }
+        }
+        for (int p = 0; p < PARTITIONS; p++) {
+            assertThat(owners[p]).as("owners of partition %d", p).isEqualTo(1);
+        }
+    }
+
+    private static int ownedBy(List<PartitionLeaseCoordinator> replicas) {
+        return replicas.stream().mapToInt(r -> r.ownedPartitions().length).sum();
+    }
+}
@@ -0,0 +1,24 @@
+package com.shop.pos;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CashReceiptServiceTest {
+
+    @Test
+    void onlyTheTaskGroupsOrActorsMayComplete() {
+        Map<String, Object> cashTask = Map.of("GroupId", "cashier");
+
+        assertThat(CashReceiptService.mayComplete(cashTask, "cashier1", Set.of("cashier"))).isTrue();
+        assertThat(CashReceiptService.mayComplete(cashTask, "alice", Set.of("customer"))).isFalse();
+        assertThat(CashReceiptService.mayComplete(Map.of("GroupId", "manager, cashier"), "cashier1", Set.of("cashier")))
+                .isTrue();
+        assertThat(CashReceiptService.mayComplete(Map.of("ActorId", "cashier2"), "cashier1", Set.of("cashier")))
+                .isFalse();
+        assertThat(CashReceiptService.mayComplete(Map.of(), "alice", Set.of())).isTrue();
+    }
+}
@@ -0,0 +1,30 @@
+package com.shop.pos;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.security.TestSecurity;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+
+@QuarkusTest
+class PosResourceTest {
+
+    @Test
+    @TestSecurity(user = "alice", roles = "customer")
+    void customersCannotSendReceipts() {
+        given().contentType(ContentType.JSON)
+                .body("[{\"receiptId\":\"r1\",\"orderId\":\"order-1\",\"amount\":3.50}]")
+                .when().post("/pos/receipts")
+                .then().statusCode(403);
+    }
+
+    @Test
+    @TestSecurity(user = "cashier1", roles = "cashier")
+    void cashiersCanSendReceipts() {
+        given().contentType(ContentType.JSON)
+                .body("[]")
+                .when().post("/pos/receipts")
+                .then().statusCode(400);
+    }
+}
@@ -0,0 +1,41 @@
+package com.shop.pos;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReceiptBatchTest {
+
+    private static final BigDecimal PRICE = new BigDecimal("3.50");
+
+    @Test
+    void keepsOneReceiptPerOrderInArrivalOrder() {
+        ReceiptBatch batch = ReceiptBatch.of(Arrays.asList(
+                new CashReceipt("r1", "order-b", PRICE),
+                new CashReceipt("r2", "order-a", PRICE),
+                new CashReceipt("r3", "order-b", PRICE)));
+
+        assertThat(batch.accepted()).extracting(CashReceipt::getReceiptId).containsExactly("r1", "r2");
+        assertThat(batch.results()).singleElement().satisfies(result -> {
+            assertThat(result.getReceiptId()).isEqualTo("r3");
+            assertThat(result.getOutcome()).isEqualTo(ReceiptOutcome.IGNORED);
+        });
+    }
+
+    @Test
+    void rejectsReceiptsWithoutOrderOrPositiveAmount() {
+        ReceiptBatch batch = ReceiptBatch.of(Arrays.asList(
+                new CashReceipt("r1", " ", PRICE),
+                new CashReceipt("r2", "order-a", BigDecimal.ZERO),
+                new CashReceipt("r3", "order-a", null),
+                null,
+                new CashReceipt("r4", "order-a", PRICE)));
+
+        assertThat(batch.accepted()).extracting(CashReceipt::getReceiptId).containsExactly("r4");
+        assertThat(batch.results()).extracting(ReceiptResult::getOutcome)
+                .containsOnly(ReceiptOutcome.REJECTED).hasSize(3);
+    }
+}
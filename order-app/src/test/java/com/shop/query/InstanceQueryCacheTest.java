@@ -0,0 +1,50 @@
+package com.shop.query;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InstanceQueryCacheTest {
+
+    private final InstanceQueryCache cache = new InstanceQueryCache();
+
+    @BeforeEach
+    void setUp() {
+        cache.ttlMs = 60_000;
+        cache.maxEntries = 16;
+    }
+
+    @Test
+    void invalidationDropsThePagesOfTheProcessAndOfAllProcesses() {
+        InstancePage orders = page();
+        InstancePage brews = page();
+        InstancePage all = page();
+        cache.get("OrderDrink", "orders", () -> orders);
+        cache.get("MakeDrink", "brews", () -> brews);
+        cache.get(null, "all", () -> all);
+
+        cache.invalidate("OrderDrink");
+
+        assertThat(cache.get("OrderDrink", "orders", InstanceQueryCacheTest::page)).isNotSameAs(orders);
+        assertThat(cache.get("MakeDrink", "brews", InstanceQueryCacheTest::page)).isSameAs(brews);
+        assertThat(cache.get(null, "all", InstanceQueryCacheTest::page)).isNotSameAs(all);
+    }
+
+    @Test
+    void pageLoadedDuringACommitIsNotCached() {
+        InstancePage stale = page();
+        cache.get("OrderDrink", "orders", () -> {
+            cache.invalidate("OrderDrink");
+            return stale;
+        });
+
+        assertThat(cache.get("OrderDrink", "orders", InstanceQueryCacheTest::page)).isNotSameAs(stale);
+    }
+
+    private static InstancePage page() {
+        return new InstancePage(List.of(), null);
+    }
+}
@@ -0,0 +1,56 @@
+package com.shop.query;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InstanceQueryServiceTest {
+
+    @Test
+    void cursorKeepsEveryIdSharingTheLastStart() {
+        List<Map<String, Object>> items = List.of(
+                Map.of("id", "a", "start", "2025-09-03T10:00:00Z"),
+                Map.of("id", "b", "start", "2025-09-03T10:00:01Z"),
+                Map.of("id", "c", "start", "2025-09-03T10:00:01Z"));
+
+        PageCursor cursor = PageCursor.decode(InstanceQueryService.nextCursor(null, items));
+
+        assertThat(cursor.getLastStart()).isEqualTo("2025-09-03T10:00:01Z");
+        assertThat(cursor.getIdsAtLastStart()).containsExactlyInAnyOrder("b", "c");
+    }
+
+    @Test
+    void cursorCarriesExcludedIdsWhilePagesShareTheStart() {
+        String start = "2025-09-03T10:00:01Z";
+        PageCursor first = PageCursor.decode(InstanceQueryService.nextCursor(null, List.of(
+                Map.of("id", "a", "start", "2025-09-03T10:00:00Z"),
+                Map.of("id", "b", "start", start))));
+
+        PageCursor second = PageCursor.decode(InstanceQueryService.nextCursor(first, List.of(
+                Map.of("id", "c", "start", start),
+                Map.of("id", "d", "start", start))));
+        PageCursor third = PageCursor.decode(InstanceQueryService.nextCursor(second, List.of(
+                Map.of("id", "e", "start", start),
+                Map.of("id", "f", "start", "2025-09-03T10:00:02Z"))));
+
+        assertThat(second.getIdsAtLastStart()).containsExactlyInAnyOrder("b", "c", "d");
+        assertThat(third.getLastStart()).isEqualTo("2025-09-03T10:00:02Z");
+        assertThat(third.getIdsAtLastStart()).containsExactly("f");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void whereClauseSeeksPastCursor() {
+        PageCursor cursor = new PageCursor("2025-09-03T10:00:01Z", List.of("b", "c"));
+
+        Map<String, Object> where = InstanceQueryService.buildWhere("OrderDrink", "ACTIVE", cursor);
+
+        List<Map<String, Object>> and = (List<Map<String, Object>>) where.get("and");
+        assertThat(and).hasSize(4);
+        assertThat(and.get(2)).isEqualTo(Map.of("start", Map.of("greaterThanEqual", "2025-09-03T10:00:01Z")));
+        assertThat(and.get(3)).isEqualTo(Map.of("not", Map.of("id", Map.of("in", List.of("b", "c")))));
+    }
+}
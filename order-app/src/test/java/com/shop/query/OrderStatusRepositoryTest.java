@@ -0,0 +1,143 @@
+package com.shop.query;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.shop.model.DrinkOrder;
+import com.shop.model.DrinkOrder.DrinkSize;
+import com.shop.model.DrinkOrder.DrinkType;
+import com.shop.model.DrinkOrder.PaymentType;
+
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.Application;
+import org.kie.kogito.Model;
+import org.kie.kogito.process.Process;
+import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.services.uow.UnitOfWorkExecutor;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the lookups against the database of the test profile, after kie-flyway created
+ * shop_audit_event and the data-index tables. Rows are set up through the JDBC pool, the
+ * reactive pool only opens read-only transactions.
+ */
+@QuarkusTest
+class OrderStatusRepositoryTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @Inject
+    OrderStatusRepository repository;
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    @Inject
+    @Named("OrderDrink")
+    Process<? extends Model> orderDrink;
+
+    @Inject
+    Application application;
+
+    private final String auditedInstance = UUID.randomUUID().toString();
+
+    @AfterEach
+    void removeAuditRows() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement delete = connection.prepareStatement(
+                     "DELETE FROM shop_audit_event WHERE process_instance_id = ?")) {
+            delete.setString(1, auditedInstance);
+            delete.executeUpdate();
+        }
+    }
+
+    @Test
+    void mapsDataIndexStateNames() {
+        assertThat(OrderStatusRepository.stateName(0)).isEqualTo("PENDING");
+        assertThat(OrderStatusRepository.stateName(1)).isEqualTo("ACTIVE");
+        assertThat(OrderStatusRepository.stateName(2)).isEqualTo("COMPLETED");
+        assertThat(OrderStatusRepository.stateName(3)).isEqualTo("ABORTED");
+        assertThat(OrderStatusRepository.stateName(5)).isEqualTo("ERROR");
+        assertThat(OrderStatusRepository.stateName(9)).isEqualTo("9");
+        assertThat(OrderStatusRepository.stateName(null)).isNull();
+    }
+
+    @Test
+    void readsStatusFromTheDataIndex() throws InterruptedException {
+        DrinkOrder order = new DrinkOrder(null, DrinkType.LATTE, DrinkSize.SMALL, null, PaymentType.CASH);
+        String id = UnitOfWorkExecutor.executeInUnitOfWork(application.unitOfWorkManager(), () -> start(orderDrink, order));
+
+        OrderStatusView view = null;
+        for (int attempt = 0; attempt < 50 && view == null; attempt++) {
+            view = repository.status(id).await().atMost(TIMEOUT);
+            if (view == null) {
+                Thread.sleep(200);
+            }
+        }
+
+        assertThat(view).isNotNull();
+        // waits for "Task CashPayment"
+        assertThat(view.getState()).isEqualTo("ACTIVE");
+        assertThat(view.getStart()).isNotNull();
+        assertThat(view.getEnd()).isNull();
+        assertThat(view.getDrinkType()).isEqualTo("LATTE");
+        assertThat(view.getDrinkSize()).isEqualTo("SMALL");
+        assertThat(view.getPaymentType()).isEqualTo("CASH");
+
+        assertThat(repository.statuses(List.of(id, UUID.randomUUID().toString())).await().atMost(TIMEOUT))
+                .extracting(OrderStatusView::getOrderId).containsExactly(id);
+        assertThat(repository.status(UUID.randomUUID().toString()).await().atMost(TIMEOUT)).isNull();
+        assertThatThrownBy(() -> repository.statuses(Collections.nCopies(OrderStatusRepository.MAX_IDS + 1, id)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void readsHistoryOldestFirst() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement insert = connection.prepareStatement(
+                     "INSERT INTO shop_audit_event (event_id, event_type, process_id, process_instance_id, event_time, payload)" +
+                     " VALUES (?, ?, 'OrderDrink', ?, now(), ?)")) {
+            for (String[] event : new String[][] {{"ProcessStartedEvent", "{\"state\":1}"}, {"ProcessCompletedEvent", "not json"}}) {
+                insert.setString(1, UUID.randomUUID().toString());
+                insert.setString(2, event[0]);
+                insert.setString(3, auditedInstance);
+                insert.setString(4, event[1]);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+
+        List<OrderHistoryEntry> history = repository.history(auditedInstance, 10).await().atMost(TIMEOUT);
+
+        assertThat(history).extracting(OrderHistoryEntry::getEventType)
+                .containsExactly("ProcessStartedEvent", "ProcessCompletedEvent");
+        assertThat(history.get(0).getEventTime()).isNotNull();
+        assertThat(history.get(0).getPayload()).isInstanceOf(ObjectNode.class);
+        assertThat(history.get(0).getPayload().get("state").asInt()).isEqualTo(1);
+        assertThat(history.get(1).getPayload()).isEqualTo(TextNode.valueOf("not json"));
+        assertThat(repository.history(auditedInstance, 1).await().atMost(TIMEOUT)).hasSize(1);
+    }
+
+    private static <T extends Model> String start(Process<T> process, DrinkOrder order) {
+        T model = process.createModel();
+        model.fromMap(Map.of("drinkOrder", order));
+        ProcessInstance<T> instance = process.createInstance(model);
+        instance.start();
+        return instance.id();
+    }
+}
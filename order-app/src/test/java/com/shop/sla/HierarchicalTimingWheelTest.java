@@ -0,0 +1,80 @@
+package com.shop.sla;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HierarchicalTimingWheelTest {
+
+    @Test
+    void expiresTimersAtTheirTickAcrossLevels() {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(10, 4, 0);
+        long[] deadlines = {5, 630, 650, 64_000, 655_360, 3_000_000};
+        for (long deadline : deadlines) {
+            wheel.schedule(deadline, deadline);
+        }
+
+        List<long[]> fired = new ArrayList<>();
+        for (long now = 0; now <= 3_000_000; now += 10) {
+            long at = now;
+            wheel.advance(now, deadline -> fired.add(new long[] {deadline, at}));
+        }
+
+        assertThat(fired).hasSize(deadlines.length);
+        for (long[] f : fired) {
+            // fires on the tick that contains the deadline, never early
+            assertThat(f[1]).isGreaterThanOrEqualTo(f[0] / 10 * 10).isLessThan(f[0] + 10);
+        }
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void cancelledTimersNeverFire() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(100, 4, 0);
+        HierarchicalTimingWheel.Timeout<String> kept = wheel.schedule(60_000, "kept");
+        HierarchicalTimingWheel.Timeout<String> cancelled = wheel.schedule(60_000, "cancelled");
+
+        assertThat(wheel.cancel(cancelled)).isTrue();
+        assertThat(wheel.cancel(cancelled)).isFalse();
+
+        List<String> fired = new ArrayList<>();
+        wheel.advance(120_000, fired::add);
+        assertThat(fired).containsExactly("kept");
+        assertThat(kept.isPending()).isFalse();
+    }
+
+    @Test
+    void pastDeadlinesFireOnNextAdvance() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(100, 4, 10_000);
+        wheel.schedule(1_000, "late");
+
+        List<String> fired = new ArrayList<>();
+        wheel.advance(10_000, fired::add);
+        assertThat(fired).containsExactly("late");
+    }
+
+    @Test
+    void handlesHundredThousandPendingTimers() {
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(100, 4, 0);
+        Random random = new Random(7);
+        List<HierarchicalTimingWheel.Timeout<Integer>> timeouts = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            timeouts.add(wheel.schedule(random.nextInt(3_600_000), i));
+        }
+        for (int i = 0; i < timeouts.size(); i += 2) {
+            wheel.cancel(timeouts.get(i));
+        }
+        assertThat(wheel.size()).isEqualTo(50_000);
+
+        int[] fired = new int[1];
+        wheel.advance(3_600_000, i -> {
+            assertThat(i % 2).isEqualTo(1);
+            fired[0]++;
+        });
+        assertThat(fired[0]).isEqualTo(50_000);
+    }
+}
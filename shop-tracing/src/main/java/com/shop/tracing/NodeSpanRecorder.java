@@ -0,0 +1,50 @@
+package com.shop.tracing;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanBuilder;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Builds one span per BPMN node or process after it has finished.
+ * A slow span whose parent trace was not sampled is started as a new root
+ * linked to the original trace, so it is still exported.
+ */
+public class NodeSpanRecorder {
+
+    static final AttributeKey<String> PROCESS_ID = AttributeKey.stringKey("bpmn.process.id");
+    static final AttributeKey<String> PROCESS_INSTANCE_ID = AttributeKey.stringKey("bpmn.process.instance.id");
+    static final AttributeKey<String> NODE_NAME = AttributeKey.stringKey("bpmn.node.name");
+
+    private final Tracer tracer;
+    private final Duration slowThreshold;
+
+    public NodeSpanRecorder(Tracer tracer, Duration slowThreshold) {
+        this.tracer = tracer;
+        this.slowThreshold = slowThreshold;
+    }
+
+    public void record(String spanName, String processId, String processInstanceId, String nodeName,
+                       Instant start, Instant end, Context parent) {
+        boolean slow = Duration.between(start, end).compareTo(slowThreshold) >= 0;
+        SpanContext parentSpan = Span.fromContext(parent).getSpanContext();
+
+        SpanBuilder builder = tracer.spanBuilder(spanName)
+                .setStartTimestamp(start)
+                .setAttribute(PROCESS_ID, processId)
+                .setAttribute(PROCESS_INSTANCE_ID, processInstanceId)
+                .setAttribute(NODE_NAME, nodeName)
+                .setAttribute(TailLatencySampler.SLOW, slow);
+        if (slow && parentSpan.isValid() && !parentSpan.isSampled()) {
+            builder.setNoParent().addLink(parentSpan);
+        } else {
+            builder.setParent(parent);
+        }
+        builder.startSpan().end(end);
+    }
+}
@@ -0,0 +1,46 @@
+package com.shop.tracing;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.data.LinkData;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.opentelemetry.sdk.trace.samplers.SamplingResult;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.List;
+
+/**
+ * Parent-based ratio sampler that always keeps spans flagged as slow.
+ * Node spans are created when the node is left, so their duration is already known
+ * at sampling time; this gives tail-latency sampling without a collector-side buffer.
+ */
+@Singleton
+public class TailLatencySampler implements Sampler {
+
+    public static final AttributeKey<Boolean> SLOW = AttributeKey.booleanKey("shop.slow");
+
+    private final Sampler delegate;
+
+    @Inject
+    public TailLatencySampler(@ConfigProperty(name = "shop.tracing.sample-ratio", defaultValue = "0.1") double ratio) {
+        this.delegate = Sampler.parentBased(Sampler.traceIdRatioBased(ratio));
+    }
+
+    @Override
+    public SamplingResult shouldSample(Context parentContext, String traceId, String name, SpanKind spanKind,
+                                       Attributes attributes, List<LinkData> parentLinks) {
+        if (Boolean.TRUE.equals(attributes.get(SLOW))) {
+            return SamplingResult.recordAndSample();
+        }
+        return delegate.shouldSample(parentContext, traceId, name, spanKind, attributes, parentLinks);
+    }
+
+    @Override
+    public String getDescription() {
+        return "TailLatencySampler{" + delegate.getDescription() + "}";
+    }
+}
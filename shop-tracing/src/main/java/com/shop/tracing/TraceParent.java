@@ -0,0 +1,57 @@
+package com.shop.tracing;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.propagation.TextMapGetter;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * W3C traceparent of a span context, kept as a process variable so that nodes completed in a
+ * later transaction, after a restart or on another replica, join the trace the instance started in.
+ */
+public final class TraceParent {
+
+    public static final String VARIABLE = "traceparent";
+
+    private static final String HEADER = "traceparent";
+
+    private static final TextMapGetter<String> GETTER = new TextMapGetter<>() {
+        @Override
+        public Iterable<String> keys(String carrier) {
+            return List.of(HEADER);
+        }
+
+        @Override
+        public String get(String carrier, String key) {
+            return HEADER.equals(key) ? carrier : null;
+        }
+    };
+
+    private TraceParent() {
+    }
+
+    /**
+     * @return the traceparent of the span in {@code context}, or null when there is none
+     */
+    public static String of(Context context) {
+        Map<String, String> headers = new HashMap<>();
+        W3CTraceContextPropagator.getInstance().inject(context, headers, Map::put);
+        return headers.get(HEADER);
+    }
+
+    /**
+     * @return a context whose remote parent span is {@code traceparent}, or {@code fallback} when
+     * there is no valid one
+     */
+    public static Context parse(String traceparent, Context fallback) {
+        if (traceparent == null || traceparent.isBlank()) {
+            return fallback;
+        }
+        Context context = W3CTraceContextPropagator.getInstance().extract(Context.root(), traceparent, GETTER);
+        return Span.fromContext(context).getSpanContext().isValid() ? context : fallback;
+    }
+}
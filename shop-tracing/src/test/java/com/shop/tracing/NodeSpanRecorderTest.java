@@ -0,0 +1,88 @@
+package com.shop.tracing;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NodeSpanRecorderTest {
+
+    private InMemorySpanExporter exporter;
+    private SdkTracerProvider tracerProvider;
+    private NodeSpanRecorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        exporter = InMemorySpanExporter.create();
+        tracerProvider = SdkTracerProvider.builder()
+                .setSampler(new TailLatencySampler(0.0))
+                .addSpanProcessor(SimpleSpanProcessor.create(exporter))
+                .build();
+        recorder = new NodeSpanRecorder(tracerProvider.get("test"), Duration.ofSeconds(2));
+    }
+
+    @AfterEach
+    void tearDown() {
+        tracerProvider.close();
+    }
+
+    @Test
+    void fastNodeInUnsampledTraceIsDropped() {
+        Instant end = Instant.now();
+        recorder.record("bpmn Service CardPayment", "OrderDrink", "pi-1", "Service CardPayment",
+                end.minusMillis(20), end, unsampledParent());
+
+        assertThat(exporter.getFinishedSpanItems()).isEmpty();
+    }
+
+    @Test
+    void slowNodeInUnsampledTraceIsExportedAndLinked() {
+        Instant end = Instant.now();
+        Context parent = unsampledParent();
+        recorder.record("bpmn Brewing", "OrderDrink", "pi-1", "Brewing",
+                end.minusSeconds(30), end, parent);
+
+        List<SpanData> spans = exporter.getFinishedSpanItems();
+        assertThat(spans).hasSize(1);
+        SpanData span = spans.get(0);
+        assertThat(span.getName()).isEqualTo("bpmn Brewing");
+        assertThat(span.getAttributes().get(TailLatencySampler.SLOW)).isTrue();
+        assertThat(span.getAttributes().get(NodeSpanRecorder.NODE_NAME)).isEqualTo("Brewing");
+        assertThat(span.getLinks()).extracting(link -> link.getSpanContext().getTraceId())
+                .containsExactly(Span.fromContext(parent).getSpanContext().getTraceId());
+        assertThat(Duration.ofNanos(span.getEndEpochNanos() - span.getStartEpochNanos())).isEqualTo(Duration.ofSeconds(30));
+    }
+
+    @Test
+    void traceParentRoundTrips() {
+        Context parent = unsampledParent();
+        String traceparent = TraceParent.of(parent);
+
+        assertThat(traceparent).isEqualTo("00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-00");
+        assertThat(Span.fromContext(TraceParent.parse(traceparent, Context.root())).getSpanContext().getSpanId())
+                .isEqualTo("b7ad6b7169203331");
+        assertThat(TraceParent.of(Context.root())).isNull();
+        assertThat(TraceParent.parse(null, parent)).isSameAs(parent);
+        assertThat(TraceParent.parse("not-a-traceparent", parent)).isSameAs(parent);
+    }
+
+    private static Context unsampledParent() {
+        SpanContext spanContext = SpanContext.create("0af7651916cd43dd8448eb211c80319c", "b7ad6b7169203331",
+                TraceFlags.getDefault(), TraceState.getDefault());
+        return Context.root().with(Span.wrap(spanContext));
+    }
+}